@@ -33,6 +33,8 @@ import static org.junit.jupiter.api.Assertions.*;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.body.AnnotationMemberDeclaration;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.expr.*;
 import com.github.javaparser.ast.stmt.BlockStmt;
@@ -73,6 +75,27 @@ class JavaParserTest {
                 memberDeclaration.getRange().get());
     }
 
+    @Test
+    void fieldsAndMethodsStartingWithTheSameTypeAreToldApartByTheirName() {
+        CompilationUnit cu = parse("class A {\n"
+                + "    Map<String, List<int[]>> a, b[] = {};\n"
+                + "    @Deprecated Map<String, List<int[]>> c()[] { return null; }\n"
+                + "    <T> T d() { return null; }\n"
+                + "    void e() {}\n"
+                + "}");
+        ClassOrInterfaceDeclaration a = cu.getClassByName("A").get();
+
+        FieldDeclaration field = a.getMember(0).asFieldDeclaration();
+        assertEquals(2, field.getVariables().size());
+        assertEquals("Map<String,List<int[]>>[]", field.getVariable(1).getType().asString());
+        MethodDeclaration method = a.getMember(1).asMethodDeclaration();
+        assertEquals("Map<String,List<int[]>>[]", method.getType().asString());
+        assertEquals(1, method.getAnnotations().size());
+        assertEquals(new Range(new Position(3, 5), new Position(3, 63)), method.getRange().get());
+        assertEquals(1, a.getMember(2).asMethodDeclaration().getTypeParameters().size());
+        assertTrue(a.getMember(3).asMethodDeclaration().getType().isVoidType());
+    }
+
     @Test
     void testSourcePositionsWithUnicodeEscapes() {
         String code = "@interface AD \\u007B String foo(); \\u007D";
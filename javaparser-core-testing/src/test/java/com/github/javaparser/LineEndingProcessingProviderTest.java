@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.github.javaparser.utils.LineSeparator;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link LineEndingProcessingProvider}.
+ */
+class LineEndingProcessingProviderTest {
+
+    @Test
+    void testDetectedLineEndings() throws IOException {
+        assertEquals(LineSeparator.NONE, detect("class A {}", 10));
+        assertEquals(LineSeparator.LF, detect("a\nb\n", 10));
+        assertEquals(LineSeparator.CR, detect("a\rb\r", 10));
+        assertEquals(LineSeparator.CRLF, detect("a\r\nb\r\n", 10));
+        assertEquals(LineSeparator.MIXED, detect("a\r\nb\n", 10));
+    }
+
+    @Test
+    void testCrLfSplitBetweenReads() throws IOException {
+        for (int size = 1; size < 8; size++) {
+            assertEquals(LineSeparator.CRLF, detect("ab\r\ncd\r\n\r\nx", size), "buffer size " + size);
+        }
+    }
+
+    @Test
+    void testReadsSourcesLargerThanTheBuffer() throws IOException {
+        String source = fields(100_000);
+        LineEndingProcessingProvider provider = new LineEndingProcessingProvider(
+                new UnicodeEscapeProcessingProvider(new StringProvider(source)));
+        assertEquals(source.length(), readAll(provider, new char[4096]));
+        assertEquals(LineSeparator.LF, provider.getDetectedLineEnding());
+    }
+
+    private static String fields(int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; sb.length() < length; i++) {
+            sb.append("    int field").append(i).append(" = ").append(i).append("; // comment\n");
+        }
+        return sb.toString();
+    }
+
+    private static long readAll(LineEndingProcessingProvider provider, char[] buffer) throws IOException {
+        long chars = 0;
+        for (int n; (n = provider.read(buffer, 0, buffer.length)) >= 0; ) {
+            chars += n;
+        }
+        return chars;
+    }
+
+    private static LineSeparator detect(String source, int bufferSize) throws IOException {
+        LineEndingProcessingProvider provider = new LineEndingProcessingProvider(new StringProvider(source));
+        char[] buffer = new char[bufferSize];
+        StringBuilder result = new StringBuilder();
+        for (int n; (n = provider.read(buffer, 0, buffer.length)) >= 0; ) {
+            result.append(buffer, 0, n);
+        }
+        assertEquals(source, result.toString());
+        return provider.getDetectedLineEnding();
+    }
+}
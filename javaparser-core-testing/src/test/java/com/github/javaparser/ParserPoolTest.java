@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser;
+
+import static com.github.javaparser.ParseStart.COMPILATION_UNIT;
+import static com.github.javaparser.Providers.provider;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.javaparser.ast.CompilationUnit;
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+class ParserPoolTest {
+
+    @Test
+    void threadGetsBackTheParserItUsedLast() {
+        ParserPool pool = new ParserPool(new ParserConfiguration(), 4);
+        JavaParser first = pool.borrow();
+        JavaParser second = pool.borrow();
+        pool.release(second);
+        pool.release(first);
+        // first was released last, but second is the one this thread used last
+        assertSame(second, pool.borrow());
+    }
+
+    @Test
+    void keepsAtMostMaxIdleParsers() {
+        ParserPool pool = new ParserPool(new ParserConfiguration(), 1);
+        JavaParser first = pool.borrow();
+        JavaParser second = pool.borrow();
+        pool.release(first);
+        pool.release(second);
+        assertSame(first, pool.borrow());
+        JavaParser third = pool.borrow();
+        assertNotSame(first, third);
+        assertNotSame(second, third);
+    }
+
+    @Test
+    void idleParsersDoNotKeepTheLastAst() {
+        ParserPool pool = new ParserPool(new ParserConfiguration().setSkipBodies(true));
+        CompilationUnit cu = pool.parse(COMPILATION_UNIT, provider("/** A */ class A { /* m */ void m() { int i; } }"))
+                .getResult()
+                .get();
+        assertFalse(cu.getAllContainedComments().isEmpty());
+
+        WeakReference<CompilationUnit> reference = new WeakReference<>(cu);
+        cu = null;
+        for (int i = 0; i < 100 && reference.get() != null; i++) {
+            System.gc();
+        }
+        assertNull(reference.get());
+    }
+
+    @Test
+    void rejectsParserOfAnotherConfiguration() {
+        ParserPool pool = new ParserPool(new ParserConfiguration());
+        assertThrows(IllegalArgumentException.class, () -> pool.release(new JavaParser()));
+    }
+
+    @Test
+    void poolSizeComesFromConfiguration() {
+        ParserConfiguration configuration = new ParserConfiguration().setParserPoolSize(3);
+        assertEquals(3, configuration.getParserPoolSize());
+        assertThrows(AssertionError.class, () -> configuration.setParserPoolSize(0));
+    }
+
+    @Test
+    void parseAllKeepsOrder() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ParserPool pool = new ParserPool(new ParserConfiguration(), 2);
+            List<Provider> providers = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                providers.add(provider("class A" + i + " { void m() { int x = " + i + "; } }"));
+            }
+            List<String> names;
+            try (Stream<ParseResult<CompilationUnit>> results = pool.parseAll(COMPILATION_UNIT, providers, executor)) {
+                names = results.map(r -> r.getResult().get().getType(0).getNameAsString()).collect(toList());
+            }
+            assertEquals(100, names.size());
+            for (int i = 0; i < 100; i++) {
+                assertEquals("A" + i, names.get(i));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void parseAllOnlyParsesAheadOfTheConsumer() {
+        AtomicInteger submitted = new AtomicInteger();
+        ParserPool pool = new ParserPool(new ParserConfiguration(), 2);
+        List<Provider> providers = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            providers.add(provider("class A {}"));
+        }
+        try (Stream<ParseResult<CompilationUnit>> results = pool.parseAll(COMPILATION_UNIT, providers, task -> {
+            submitted.incrementAndGet();
+            task.run();
+        })) {
+            Iterator<ParseResult<CompilationUnit>> iterator = results.iterator();
+            assertTrue(iterator.next().isSuccessful());
+            assertTrue(submitted.get() <= 5, "submitted " + submitted.get());
+        }
+        assertTrue(submitted.get() <= 5, "submitted " + submitted.get());
+    }
+
+    @Test
+    void parseAllReportsUnreadableFiles() {
+        Path missing = Paths.get("does", "not", "exist", "A.java");
+        List<ParseResult<CompilationUnit>> results;
+        try (Stream<ParseResult<CompilationUnit>> stream = new ParserPool(new ParserConfiguration()).parseAll(Arrays.asList(missing))) {
+            results = stream.collect(toList());
+        }
+        assertEquals(1, results.size());
+        assertFalse(results.get(0).isSuccessful());
+        assertEquals(1, results.get(0).getProblems().size());
+    }
+}
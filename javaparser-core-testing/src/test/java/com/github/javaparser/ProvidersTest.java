@@ -25,8 +25,16 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import com.github.javaparser.ast.CompilationUnit;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class ProvidersTest {
 
@@ -60,4 +68,56 @@ class ProvidersTest {
         }
         assertTrue(parse.isSuccessful());
     }
+
+    @Test
+    void testByteBufferProviderDecodesLikeReader() throws IOException {
+        String text = "class A { String s = \"\u00e4\u00df\u20ac\ud83d\ude00x\"; }\n";
+        byte[] malformed = {'a', (byte) 0xC3, 'b', (byte) 0xF0, (byte) 0x9F, 'c', (byte) 0xE2, (byte) 0x82};
+        for (Charset charset : new Charset[] {
+            StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1, StandardCharsets.US_ASCII, StandardCharsets.UTF_16
+        }) {
+            assertDecodesLikeReader(text.getBytes(charset), charset);
+        }
+        assertDecodesLikeReader(malformed, StandardCharsets.UTF_8);
+        assertDecodesLikeReader(new byte[0], StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testByteBufferProviderKeepsPosition() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap("xxclass A {}".getBytes(StandardCharsets.UTF_8));
+        buffer.position(2);
+        ParseResult<CompilationUnit> parse = new JavaParser().parse(buffer);
+        assertTrue(parse.isSuccessful());
+        assertEquals(2, buffer.position());
+        assertEquals("class A {\n}\n", parse.getResult().get().toString());
+    }
+
+    @Test
+    void testMappedProvider(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("A.java");
+        Files.write(file, "class A { char c = '\u00e4'; }".getBytes(StandardCharsets.UTF_8));
+        ParseResult<CompilationUnit> parse =
+                new JavaParser().parse(ParseStart.COMPILATION_UNIT, Providers.mappedProvider(file));
+        assertTrue(parse.isSuccessful());
+        assertEquals("'\u00e4'", parse.getResult().get().getType(0).getFields().get(0).getVariable(0)
+                .getInitializer().get().toString());
+    }
+
+    private static void assertDecodesLikeReader(byte[] bytes, Charset charset) throws IOException {
+        StringBuilder expected = new StringBuilder();
+        try (Reader reader = new InputStreamReader(new ByteArrayInputStream(bytes), charset)) {
+            for (int ch; (ch = reader.read()) >= 0; ) {
+                expected.append((char) ch);
+            }
+        }
+        for (int size = 1; size < 8; size++) {
+            Provider provider = Providers.provider(ByteBuffer.wrap(bytes), charset);
+            StringBuilder actual = new StringBuilder();
+            char[] buffer = new char[size + 1];
+            for (int n; (n = provider.read(buffer, 1, size)) >= 0; ) {
+                actual.append(buffer, 1, n);
+            }
+            assertEquals(expected.toString(), actual.toString(), charset + ", buffer size " + size);
+        }
+    }
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.InitializerDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.stmt.BlockStmt;
+import com.github.javaparser.printer.lexicalpreservation.LexicalPreservingPrinter;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class SkipBodiesTest {
+
+    private static final String CODE = "class A {\n"
+            + "    int f = new Object() { int g() { return 1; } }.hashCode();\n"
+            + "    static { System.out.println(\"}\"); }\n"
+            + "    A(int x) {\n"
+            + "        this();\n"
+            + "        // a comment with }\n"
+            + "    }\n"
+            + "    A() {}\n"
+            + "    abstract void abs();\n"
+            + "    int m(int x) {\n"
+            + "        class Local { void l() { char c = '{'; } }\n"
+            + "        /* { */ if (x > 0) { return x; }\n"
+            + "        return new int[] {1, 2}[0];\n"
+            + "    }\n"
+            + "}\n";
+
+    @Test
+    void skipsBodies() {
+        CompilationUnit cu = parse(new ParserConfiguration().setSkipBodies(true), ParseStart.COMPILATION_UNIT);
+        MethodDeclaration m = cu.getClassByName("A").get().getMethodsByName("m").get(0);
+        assertTrue(m.isBodySkipped());
+        assertTrue(m.getBody().get().isEmpty());
+        assertFalse(cu.getClassByName("A").get().getMethodsByName("abs").get(0).isBodySkipped());
+        assertTrue(SkippedBody.isSkipped(cu.findFirst(InitializerDeclaration.class).get().getBody()));
+        assertTrue(cu.findAll(ConstructorDeclaration.class).stream().allMatch(ConstructorDeclaration::isBodySkipped));
+        // g in the anonymous class, the initializer, both constructors and m
+        assertEquals(5, cu.findAll(BlockStmt.class, SkippedBody::isSkipped).size());
+
+        CompilationUnit full = parse(new ParserConfiguration(), ParseStart.COMPILATION_UNIT);
+        assertEquals(full.getClassByName("A").get().getMethodsByName("m").get(0).getBody().get().getRange(),
+                m.getBody().get().getRange());
+        assertEquals(full.getClassByName("A").get().getFieldByName("f").get().getRange(),
+                cu.getClassByName("A").get().getFieldByName("f").get().getRange());
+    }
+
+    @Test
+    void parseSkippedBodiesInPlace() {
+        CompilationUnit cu = parse(new ParserConfiguration(), ParseStart.COMPILATION_UNIT_DECLARATIONS);
+        CompilationUnit full = parse(new ParserConfiguration(), ParseStart.COMPILATION_UNIT);
+        MethodDeclaration m = cu.getClassByName("A").get().getMethodsByName("m").get(0);
+        BlockStmt body = m.getBody().get();
+
+        m.parseSkippedBody();
+        assertSame(body, m.getBody().get());
+        assertFalse(m.isBodySkipped());
+        for (CallableDeclaration<?> callable : cu.findAll(CallableDeclaration.class)) {
+            callable.parseSkippedBody();
+        }
+        cu.findAll(BlockStmt.class, SkippedBody::isSkipped).forEach(SkippedBody::parse);
+
+        assertEquals(full.toString(), cu.toString());
+        List<Node> expected = full.findAll(Node.class);
+        List<Node> actual = cu.findAll(Node.class);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getRange(), actual.get(i).getRange(), expected.get(i).toString());
+        }
+        assertEquals(body, m.getBody().get().getStatement(0).getParentNode().get());
+    }
+
+    @Test
+    void linksTheTokensOfParsedBodies() {
+        CompilationUnit cu = parse(new ParserConfiguration(), ParseStart.COMPILATION_UNIT_DECLARATIONS);
+        cu.findAll(BlockStmt.class, SkippedBody::isSkipped).forEach(SkippedBody::parse);
+
+        Set<JavaToken> tokens = Collections.newSetFromMap(new IdentityHashMap<>());
+        cu.getTokenRange().get().forEach(tokens::add);
+        assertEquals(CODE, cu.getTokenRange().get().toString());
+        for (Node node : cu.findAll(Node.class)) {
+            assertTrue(tokens.contains(node.getTokenRange().get().getBegin()), node::toString);
+            assertTrue(tokens.contains(node.getTokenRange().get().getEnd()), node::toString);
+        }
+        LexicalPreservingPrinter.setup(cu);
+        assertEquals(CODE, LexicalPreservingPrinter.print(cu));
+    }
+
+    @Test
+    void unbalancedBody() {
+        ParseResult<CompilationUnit> result = new JavaParser(new ParserConfiguration().setSkipBodies(true))
+                .parse("class A { void m() { if (true) { }");
+        assertFalse(result.isSuccessful());
+    }
+
+    private static CompilationUnit parse(ParserConfiguration configuration, ParseStart<CompilationUnit> start) {
+        ParseResult<CompilationUnit> result = new JavaParser(configuration).parse(start, Providers.provider(CODE));
+        assertTrue(result.isSuccessful(), result.getProblems().toString());
+        return result.getResult().get();
+    }
+}
@@ -21,6 +21,7 @@
 package com.github.javaparser;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
 import org.junit.jupiter.api.Test;
@@ -120,6 +121,33 @@ public class UnicodeEscapeProcessingProviderTest {
         assertEquals("12345678\\uuxx", new String(read("12345678\\uuxx")));
     }
 
+    @Test
+    void testPassThroughWithoutEscapes() throws IOException {
+        String source = "class A {\r\n  String s = \"x\";\n}\r";
+        UnicodeEscapeProcessingProvider provider = provider(source);
+        assertEquals(source, process(provider));
+        assertTrue(provider.getPositionMapping().isEmpty());
+        assertEquals(4, provider.getOutputCounter().getLine());
+    }
+
+    @Test
+    void testPositionMappingIndependentOfBufferSize() throws IOException {
+        String source = "a\\u0062\rc\\u000d\nd\\\\ue\r\n\\u0041\\uuu0042f\n\\\r\\u000a\ng";
+        UnicodeEscapeProcessingProvider reference = new UnicodeEscapeProcessingProvider(1, new StringProvider(source));
+        String expected = process(reference, 1);
+        for (int size = 2; size < source.length() + 2; size++) {
+            UnicodeEscapeProcessingProvider provider = new UnicodeEscapeProcessingProvider(size, new StringProvider(source));
+            assertEquals(expected, process(provider, size + 1));
+            for (int line = 1; line < 8; line++) {
+                for (int column = 1; column < 12; column++) {
+                    Position position = new Position(line, column);
+                    assertEquals(reference.getPositionMapping().transform(position),
+                            provider.getPositionMapping().transform(position), size + ": " + position);
+                }
+            }
+        }
+    }
+
     static String read(String source) throws IOException {
         return process(provider(source));
     }
@@ -130,8 +158,12 @@ public class UnicodeEscapeProcessingProviderTest {
     }
 
     static String process(UnicodeEscapeProcessingProvider provider) throws IOException {
+        return process(provider, 10);
+    }
+
+    static String process(UnicodeEscapeProcessingProvider provider, int bufferSize) throws IOException {
         StringBuilder result = new StringBuilder();
-        char[] buffer = new char[10];
+        char[] buffer = new char[bufferSize];
         while (true) {
             int direct = provider.read(buffer, 0, buffer.length);
             if (direct < 0) {
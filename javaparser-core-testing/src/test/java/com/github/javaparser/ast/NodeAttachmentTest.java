@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.ast;
+
+import static com.github.javaparser.StaticJavaParser.parse;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.observer.AstObserverAdapter;
+import com.github.javaparser.ast.observer.ObservableProperty;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class NodeAttachmentTest {
+
+    private static final NodeAttachment<String> NAME = new NodeAttachment<>();
+
+    private static final NodeAttachment<Changes> CHANGES = new NodeAttachment<>(changes -> changes);
+
+    private static class Changes extends AstObserverAdapter {
+
+        private final List<ObservableProperty> properties = new ArrayList<>();
+
+        @Override
+        public void propertyChange(Node observedNode, ObservableProperty property, Object oldValue, Object newValue) {
+            properties.add(property);
+        }
+    }
+
+    @Test
+    void valuesAreAttachedToTheNode() {
+        CompilationUnit cu = parse("class A {}");
+
+        assertFalse(NAME.find(cu).isPresent());
+        assertEquals("a", NAME.computeIfAbsent(cu, n -> "a"));
+        assertEquals("a", NAME.computeIfAbsent(cu, n -> "b"));
+        assertEquals("a", NAME.find(cu).get());
+        assertFalse(NAME.find(cu.getType(0)).isPresent());
+
+        assertEquals("a", NAME.remove(cu).get());
+        assertFalse(NAME.find(cu).isPresent());
+        assertFalse(NAME.remove(cu).isPresent());
+    }
+
+    @Test
+    void aCloneDoesNotGetTheValuesOfTheOriginal() {
+        CompilationUnit cu = parse("class A {}");
+        NAME.computeIfAbsent(cu, n -> "a");
+
+        CompilationUnit clone = cu.clone();
+        assertFalse(NAME.find(clone).isPresent());
+        assertEquals("b", NAME.computeIfAbsent(clone, n -> "b"));
+        assertEquals("a", NAME.find(cu).get());
+    }
+
+    @Test
+    void observersFollowTheSubtreeUntilTheValueIsRemoved() {
+        CompilationUnit cu = parse("class A {}");
+        ClassOrInterfaceDeclaration type = cu.getClassByName("A").get();
+        NAME.computeIfAbsent(cu, n -> "a");
+        Changes changes = CHANGES.computeIfAbsent(cu, n -> new Changes());
+
+        MethodDeclaration method = type.addMethod("foo");
+        method.setName("bar");
+        assertTrue(changes.properties.contains(ObservableProperty.NAME));
+
+        assertSame(changes, CHANGES.remove(cu).get());
+        changes.properties.clear();
+        method.setName("baz");
+        type.setName("B");
+        assertTrue(changes.properties.isEmpty());
+        assertEquals("a", NAME.find(cu).get());
+    }
+}
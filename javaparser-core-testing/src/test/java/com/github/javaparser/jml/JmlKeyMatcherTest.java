@@ -0,0 +1,47 @@
+package com.github.javaparser.jml;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+public class JmlKeyMatcherTest {
+    private static final List<String> MARKERS = Arrays.asList("", "+key", "-key", "+KeY", "+esc", "-esc",
+            "+key-esc", "-key+esc", "+openjml+key", "+unknown", "-unknown", "+", "-", "+key-", "abc", "abc+key");
+
+    private static final List<List<String>> KEY_SETS = Arrays.asList(
+            Collections.emptyList(),
+            Collections.singletonList("key"),
+            Arrays.asList("key", "esc"),
+            Collections.singletonList("openjml"),
+            Collections.singletonList("KeY"));
+
+    @Test
+    public void sameResultAsSanitizer() {
+        JmlKeyMatcher matcher = new JmlKeyMatcher(KEY_SETS);
+        for (String marker : MARKERS) {
+            String comment = "//" + marker + "@ requires true;";
+            JmlKeyMatcher.Markers m = matcher.classify(comment, 2, comment.indexOf('@'));
+            for (int i = 0; i < KEY_SETS.size(); i++) {
+                Set<String> keys = new TreeSet<>(KEY_SETS.get(i));
+                boolean expected = marker.isEmpty()
+                        || JmlDocSanitizer.isActiveJmlSpec(keys, JmlDocSanitizer.splitTags(marker));
+                Assertions.assertEquals(expected, matcher.isActive(m, i), marker + " with " + keys);
+            }
+        }
+    }
+
+    @Test
+    public void manyKeys() {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            keys.add("k" + i);
+        }
+        JmlKeyMatcher matcher = new JmlKeyMatcher(Arrays.asList(keys, Collections.singletonList("k99")));
+        Assertions.assertTrue(matcher.isActive("+k99", 0, 4, 0));
+        Assertions.assertTrue(matcher.isActive("+k99", 0, 4, 1));
+        Assertions.assertFalse(matcher.isActive("+k98", 0, 4, 1));
+        Assertions.assertFalse(matcher.isActive("-k70", 0, 4, 0));
+        Assertions.assertTrue(matcher.isActive("+k1", 0, 3, 0));
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.javaparser.jml;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.IntegerLiteralExpr;
+import com.github.javaparser.ast.jml.clauses.JmlContract;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JmlStructuralHashTest {
+    private static final String SOURCE = "class A {\n" +
+            "    //@ requires x > 0;\n" +
+            "    //@ ensures \\result > 0;\n" +
+            "    int foo(int x) { return x; }\n" +
+            "\n" +
+            "    /*@ requires x > 0;\n" +
+            "      @ ensures \\result > 0; */\n" +
+            "    int foo(long x) { return 1; }\n" +
+            "\n" +
+            "    //@ requires x > 1;\n" +
+            "    int foo(short x) { return 2; }\n" +
+            "}\n";
+
+    private static List<JmlContract> contracts() {
+        ParserConfiguration config = new ParserConfiguration().setProcessJml(true)
+                .setLanguageLevel(ParserConfiguration.LanguageLevel.RAW);
+        CompilationUnit cu = new JavaParser(config).parse(SOURCE).getResult().get();
+        return cu.findAll(JmlContract.class);
+    }
+
+    @Test
+    void positionIndependent() {
+        List<JmlContract> contracts = contracts();
+        assertEquals(3, contracts.size());
+        assertEquals(JmlStructuralHash.hash(contracts.get(0)), JmlStructuralHash.hash(contracts.get(1)));
+        assertTrue(JmlStructuralHash.equals(contracts.get(0), contracts.get(1)));
+        assertFalse(JmlStructuralHash.equals(contracts.get(0), contracts.get(2)));
+        assertTrue(JmlStructuralHash.isCached(contracts.get(0)));
+    }
+
+    @Test
+    void invalidatedOnChange() {
+        List<JmlContract> contracts = contracts();
+        JmlContract contract = contracts.get(0);
+        int before = JmlStructuralHash.hash(contract);
+        IntegerLiteralExpr literal = contract.findFirst(BinaryExpr.class).get().getRight().asIntegerLiteralExpr();
+        literal.setValue("1");
+        assertFalse(JmlStructuralHash.isCached(contract));
+        assertNotEquals(before, JmlStructuralHash.hash(contract));
+
+        literal.setValue("0");
+        assertEquals(before, JmlStructuralHash.hash(contract));
+        contract.getClauses().remove(1);
+        assertFalse(JmlStructuralHash.isCached(contract));
+        assertNotEquals(before, JmlStructuralHash.hash(contract));
+    }
+
+    @Test
+    void cloneDoesNotUseTheHashOfTheOriginal() {
+        List<JmlContract> contracts = contracts();
+        JmlContract contract = contracts.get(0);
+        int before = JmlStructuralHash.hash(contract);
+        JmlContract clone = contract.clone();
+        assertEquals(before, JmlStructuralHash.hash(clone));
+
+        clone.findFirst(BinaryExpr.class).get().getRight().asIntegerLiteralExpr().setValue("1");
+        assertNotEquals(before, JmlStructuralHash.hash(clone));
+        assertFalse(JmlStructuralHash.equals(contract, clone));
+        assertEquals(before, JmlStructuralHash.hash(contract));
+
+        JmlContractInterner interner = new JmlContractInterner();
+        int id = interner.intern(contract);
+        assertEquals(-1, interner.lookup(clone));
+        assertNotEquals(id, interner.intern(clone));
+    }
+
+    @Test
+    void hashesEveryKindOfNode() {
+        ParserConfiguration config = new ParserConfiguration()
+                .setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17);
+        CompilationUnit cu = new JavaParser(config).parse("package p;\n" +
+                "import static java.util.List.*;\n" +
+                "@Deprecated\n" +
+                "record R<T extends Comparable<? super T>>(T t, int... is) implements Runnable {\n" +
+                "    public void run() {\n" +
+                "        int[][] a = new int[2][];\n" +
+                "        String s = switch (is.length) { case 0 -> \"a\"; default -> { yield \"b\"; } };\n" +
+                "        Runnable r = () -> System.out.println(this.t + s);\n" +
+                "        java.util.function.Function<Object, String> f = String::valueOf;\n" +
+                "        if (t instanceof String str && !str.isEmpty()) { throw new IllegalStateException(); }\n" +
+                "        label: for (int i = 0; i < 1; i++) { continue label; }\n" +
+                "        synchronized (this) { assert a != null : \"a\"; }\n" +
+                "        char c = 'c'; long l = 1L; double d = 1.0; boolean b = true; Object o = null;\n" +
+                "    }\n" +
+                "    enum E { X { }, Y }\n" +
+                "}\n").getResult().get();
+        assertEquals(JmlStructuralHash.hash(cu), JmlStructuralHash.hash(cu.clone()));
+        assertFalse(JmlStructuralHash.isCached(cu));
+    }
+
+    @Test
+    void interning() {
+        List<JmlContract> contracts = contracts();
+        JmlContractInterner interner = new JmlContractInterner();
+        int first = interner.intern(contracts.get(0));
+        assertEquals(first, interner.intern(contracts.get(1)));
+        int other = interner.intern(contracts.get(2));
+        assertNotEquals(first, other);
+        assertEquals(2, interner.size());
+
+        contracts.get(0).findFirst(BinaryExpr.class).get().setOperator(BinaryExpr.Operator.GREATER_EQUALS);
+        assertEquals(-1, interner.lookup(contracts.get(0)));
+        assertEquals(first, interner.lookup(contracts.get(1)));
+        assertNotSame(contracts.get(0), interner.getCanonical(first));
+        assertFalse(interner.getCanonical(first).getParentNode().isPresent());
+    }
+}
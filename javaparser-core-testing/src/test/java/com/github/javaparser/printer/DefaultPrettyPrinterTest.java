@@ -27,6 +27,7 @@ import static com.github.javaparser.Providers.provider;
 import static com.github.javaparser.StaticJavaParser.*;
 import static com.github.javaparser.utils.TestUtils.assertEqualsStringIgnoringEol;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.github.javaparser.*;
@@ -35,6 +36,7 @@ import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.FieldDeclaration;
 import com.github.javaparser.ast.body.TypeDeclaration;
 import com.github.javaparser.ast.expr.VariableDeclarationExpr;
+import com.github.javaparser.ast.stmt.BlockStmt;
 import com.github.javaparser.ast.stmt.Statement;
 import com.github.javaparser.ast.type.PrimitiveType;
 import com.github.javaparser.printer.configuration.DefaultConfigurationOption;
@@ -727,4 +729,24 @@ class DefaultPrettyPrinterTest {
 
         assertEqualsStringIgnoringEol(expectedCode, actualCode);
     }
+
+    @Test
+    void reusedVisitorSeesChangesAfterReset() {
+        CompilationUnit cu = parse("class A {\n    void m() {\n        a();\n        // orphan\n    }\n}\n");
+        PrinterConfiguration configuration = new DefaultPrinterConfiguration();
+        DefaultPrettyPrinterVisitor visitor = new DefaultPrettyPrinterVisitor(configuration);
+        cu.accept(visitor, null);
+        assertTrue(visitor.toString().contains("// orphan"));
+
+        cu.findFirst(BlockStmt.class).get().addStatement(0, parseStatement("b();"));
+        visitor.reset();
+        cu.accept(visitor, null);
+        assertTrue(visitor.toString().contains("b();"));
+        assertTrue(visitor.toString().contains("// orphan"));
+
+        configuration.removeOption(new DefaultConfigurationOption(ConfigOption.PRINT_COMMENTS));
+        visitor.reset();
+        cu.accept(visitor, null);
+        assertFalse(visitor.toString().contains("// orphan"));
+    }
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2013-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+
+package com.github.javaparser.utils;
+
+import static com.github.javaparser.StaticJavaParser.parse;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.javaparser.JavaToken;
+import com.github.javaparser.Position;
+import com.github.javaparser.Range;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.stmt.BlockStmt;
+import com.github.javaparser.ast.stmt.ReturnStmt;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class PositionIndexTest {
+
+    private static final String SOURCE = "package p;\n" +
+            "\n" +
+            "/** The class. */\n" +
+            "class A {\n" +
+            "    int f = 1; // trailing\n" +
+            "\n" +
+            "    int foo(int x) {\n" +
+            "        int y = x + f;\n" +
+            "        for (int i = 0; i < y; i++) {\n" +
+            "            y += i * 2;\n" +
+            "        }\n" +
+            "        return y;\n" +
+            "    }\n" +
+            "}\n";
+
+    private static List<Node> allNodes(CompilationUnit cu) {
+        List<Node> nodes = new ArrayList<>(cu.findAll(Node.class));
+        nodes.addAll(cu.getAllContainedComments());
+        return nodes;
+    }
+
+    private static List<Position> allPositions() {
+        List<Position> positions = new ArrayList<>();
+        String[] lines = SOURCE.split("\n", -1);
+        for (int line = 0; line < lines.length; line++) {
+            for (int column = 0; column <= lines[line].length() + 1; column++) {
+                positions.add(new Position(line + 1, column + 1));
+            }
+        }
+        return positions;
+    }
+
+    @Test
+    void innermostNodeIsTheSmallestContainingNode() {
+        CompilationUnit cu = parse(SOURCE);
+        PositionIndex index = PositionIndex.of(cu);
+        for (Position position : allPositions()) {
+            Optional<Node> expected = allNodes(cu).stream()
+                    .filter(n -> n.getRange().get().contains(position))
+                    .reduce((a, b) -> b.getRange().get().strictlyContains(a.getRange().get()) ? a : b);
+            Optional<Node> actual = index.findInnermostNodeAt(position);
+            assertEquals(expected.map(n -> n.getRange().get()), actual.map(n -> n.getRange().get()), position::toString);
+            actual.ifPresent(n -> assertTrue(n.getChildNodes().stream()
+                    .noneMatch(c -> c.getRange().get().equals(n.getRange().get())), position::toString));
+        }
+    }
+
+    @Test
+    void innermostNodeOfAType() {
+        CompilationUnit cu = parse(SOURCE);
+        Position insideReturn = new Position(12, 16);
+        assertEquals("y", PositionIndex.of(cu).findInnermostNodeAt(insideReturn, NameExpr.class).get().toString());
+        assertEquals("return y;", PositionIndex.of(cu).findInnermostNodeAt(insideReturn, ReturnStmt.class).get().toString());
+        assertEquals("foo", PositionIndex.of(cu).findInnermostNodeAt(insideReturn, MethodDeclaration.class).get().getNameAsString());
+        assertFalse(PositionIndex.of(cu).findInnermostNodeAt(new Position(1, 1), MethodDeclaration.class).isPresent());
+    }
+
+    @Test
+    void overlappingNodesAreAllNodesSharingAPosition() {
+        CompilationUnit cu = parse(SOURCE);
+        PositionIndex index = PositionIndex.of(cu);
+        List<Position> positions = allPositions();
+        for (int i = 0; i < positions.size(); i += 7) {
+            Range range = new Range(positions.get(i), positions.get(Math.min(positions.size() - 1, i + 30)));
+            List<Range> expected = allNodes(cu).stream()
+                    .map(n -> n.getRange().get())
+                    .filter(r -> r.overlapsWith(range))
+                    .sorted((a, b) -> a.begin.equals(b.begin) ? b.end.compareTo(a.end) : a.begin.compareTo(b.begin))
+                    .collect(Collectors.toList());
+            List<Range> actual = index.findNodesOverlapping(range).stream()
+                    .map(n -> n.getRange().get())
+                    .collect(Collectors.toList());
+            assertEquals(expected, actual, range::toString);
+        }
+    }
+
+    @Test
+    void tokenAtPosition() {
+        CompilationUnit cu = parse(SOURCE);
+        PositionIndex index = PositionIndex.of(cu);
+        for (Position position : allPositions()) {
+            Optional<JavaToken> expected = Optional.empty();
+            for (JavaToken token : cu.getTokenRange().get()) {
+                if (token.getRange().get().contains(position)) {
+                    expected = Optional.of(token);
+                }
+            }
+            assertEquals(expected, index.findTokenAt(position), position::toString);
+        }
+        assertEquals("foo", index.findTokenAt(new Position(7, 10)).get().getText());
+        assertEquals("// trailing", index.findTokenAt(new Position(5, 20)).get().getText());
+    }
+
+    @Test
+    void followsChangesOfTheAst() {
+        CompilationUnit cu = parse(SOURCE);
+        PositionIndex index = PositionIndex.of(cu);
+        Position insideReturn = new Position(12, 16);
+        assertEquals("y", index.findInnermostNodeAt(insideReturn).get().toString());
+
+        BlockStmt body = cu.findFirst(MethodDeclaration.class).get().getBody().get();
+        ReturnStmt returnStmt = body.findFirst(ReturnStmt.class).get();
+        NameExpr replacement = new NameExpr("z");
+        replacement.setRange(returnStmt.getExpression().get().getRange().get());
+        returnStmt.setExpression(replacement);
+        assertSame(replacement, index.findInnermostNodeAt(insideReturn).get());
+
+        returnStmt.remove();
+        assertSame(body, index.findInnermostNodeAt(insideReturn).get());
+        assertSame(index, PositionIndex.of(cu));
+    }
+
+    @Test
+    void concurrentQueries() {
+        CompilationUnit cu = parse(SOURCE);
+        PositionIndex index = PositionIndex.of(cu);
+        List<Position> positions = allPositions();
+        index.findInnermostNodeAt(Position.HOME);
+        // drop the index, so the threads race to build it again
+        cu.getType(0).getMember(0).setLineComment(" changed");
+        List<Optional<Node>> actual = IntStream.range(0, positions.size()).parallel()
+                .mapToObj(i -> PositionIndex.of(cu).findInnermostNodeAt(positions.get(i)))
+                .collect(Collectors.toList());
+        List<Optional<Node>> expected = positions.stream().map(index::findInnermostNodeAt).collect(Collectors.toList());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void aCloneHasItsOwnIndex() {
+        CompilationUnit cu = parse(SOURCE);
+        PositionIndex index = PositionIndex.of(cu);
+        Position position = new Position(12, 16);
+        assertSame(cu, index.findInnermostNodeAt(position).get().findCompilationUnit().get());
+
+        CompilationUnit clone = cu.clone();
+        PositionIndex cloneIndex = PositionIndex.of(clone);
+        assertNotSame(index, cloneIndex);
+        assertSame(clone, cloneIndex.getCompilationUnit());
+        assertSame(clone, cloneIndex.findInnermostNodeAt(position).get().findCompilationUnit().get());
+        assertSame(index, PositionIndex.of(cu));
+        assertSame(cloneIndex, PositionIndex.of(clone));
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.utils;
+
+import static com.github.javaparser.ParserConfiguration.LanguageLevel.JAVA_9;
+import static com.github.javaparser.utils.CodeGenerationUtils.mavenModuleRoot;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.javaparser.ParserConfiguration;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+class ProjectRootTest {
+
+    private final Path root = mavenModuleRoot(ProjectRootTest.class)
+            .resolve("src/test/resources/com/github/javaparser/utils/projectroot/issue2615");
+
+    private final ProjectRoot projectRoot =
+            new ParserCollectionStrategy(new ParserConfiguration().setLanguageLevel(JAVA_9)).collect(root);
+
+    @Test
+    void parseStreamingVisitsAllFilesWithoutCaching() throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Path> parsed = new CopyOnWriteArrayList<>();
+            ProjectRoot.StreamingStatistics statistics =
+                    projectRoot.parseStreaming(executor, 1 << 20, (localPath, absolutePath, result) -> {
+                        assertTrue(result.isSuccessful(), result.getProblems().toString());
+                        parsed.add(absolutePath);
+                        return SourceRoot.Callback.Result.DONT_SAVE;
+                    });
+
+            assertEquals(parsed.size(), statistics.getFiles());
+            assertFalse(parsed.isEmpty());
+            assertEquals(0, statistics.getFailedFiles());
+            assertTrue(statistics.getBytes() > 0);
+            assertTrue(statistics.getPeakRetainedFiles() >= 1);
+            for (SourceRoot sourceRoot : projectRoot.getSourceRoots()) {
+                assertTrue(sourceRoot.getCache().isEmpty());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void parseStreamingKeepsToTheBudget() throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            // Every file takes the whole budget
+            ProjectRoot.StreamingStatistics statistics = projectRoot.parseStreaming(
+                    executor, 1, (localPath, absolutePath, result) -> SourceRoot.Callback.Result.DONT_SAVE);
+
+            assertTrue(statistics.getFiles() > 1);
+            assertEquals(1, statistics.getPeakRetainedFiles());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void parseStreamingRethrowsErrorsOfTheCallback() {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            AssertionError thrown = assertThrows(
+                    AssertionError.class,
+                    () -> projectRoot.parseStreaming(executor, 1, (localPath, absolutePath, result) -> {
+                        throw new AssertionError("callback");
+                    }));
+            assertEquals("callback", thrown.getMessage());
+            // the budget was given back, otherwise the second file would never be handed to the executor
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void parseStreamingStopsOnTerminate() throws IOException {
+        ProjectRoot.StreamingStatistics statistics = projectRoot.parseStreaming(
+                Runnable::run, 1 << 20, (localPath, absolutePath, result) -> SourceRoot.Callback.Result.TERMINATE);
+
+        assertEquals(1, statistics.getFiles());
+    }
+}
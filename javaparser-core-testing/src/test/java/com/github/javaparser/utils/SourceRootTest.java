@@ -35,7 +35,18 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
@@ -93,6 +104,104 @@ class SourceRootTest {
                 ((localPath, absolutePath, result) -> SourceRoot.Callback.Result.SAVE));
     }
 
+    @Test
+    void parallelResultsAreInPathOrder() throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            AtomicInteger progress = new AtomicInteger();
+            List<ParseResult<CompilationUnit>> results = sourceRoot
+                    .tryToParseParallelized("", executor, (localPath, result, done, total) -> {
+                        assertEquals(7, total);
+                        progress.incrementAndGet();
+                    })
+                    .join();
+
+            assertEquals(7, results.size());
+            assertEquals(7, progress.get());
+            List<Path> paths = results.stream()
+                    .map(r -> r.getResult().get().getStorage().get().getPath())
+                    .collect(Collectors.toList());
+            assertEquals(paths.stream().sorted().collect(Collectors.toList()), paths);
+            assertEquals(7, sourceRoot.getCache().size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void cancelledParallelParseSkipsRemainingFiles() throws IOException {
+        List<Runnable> tasks = new ArrayList<>();
+        CompletableFuture<List<ParseResult<CompilationUnit>>> future =
+                sourceRoot.tryToParseParallelized("", tasks::add);
+        assertFalse(tasks.isEmpty());
+        future.cancel(false);
+        tasks.forEach(Runnable::run);
+        assertTrue(sourceRoot.getCache().isEmpty());
+    }
+
+    @Test
+    void terminateInParallelCallbackCancels() throws IOException {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<Void> future = sourceRoot.parseParallelized(
+                "", sourceRoot.getParserConfiguration(), Runnable::run, (localPath, absolutePath, result) -> {
+                    calls.incrementAndGet();
+                    return SourceRoot.Callback.Result.TERMINATE;
+                });
+        assertTrue(future.isCancelled());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void synchronousParallelParseThrowsTheExceptionOfTheCallback() {
+        IllegalStateException thrown = assertThrows(
+                IllegalStateException.class,
+                () -> sourceRoot.parseParallelized(
+                        "", sourceRoot.getParserConfiguration(), (localPath, absolutePath, result) -> {
+                            throw new IllegalStateException("callback");
+                        }));
+        assertEquals("callback", thrown.getMessage());
+    }
+
+    @Test
+    void synchronousParallelParseWaitsForRunningCallbacksAfterTerminate() {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicBoolean returned = new AtomicBoolean();
+        AtomicInteger late = new AtomicInteger();
+        CountDownLatch secondCallStarted = new CountDownLatch(1);
+        sourceRoot.parseParallelized("", sourceRoot.getParserConfiguration(), (localPath, absolutePath, result) -> {
+            try {
+                if (calls.getAndIncrement() == 0) {
+                    // terminate while another callback is running, if there is another thread
+                    secondCallStarted.await(1, TimeUnit.SECONDS);
+                    return SourceRoot.Callback.Result.TERMINATE;
+                }
+                secondCallStarted.countDown();
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (returned.get()) {
+                late.incrementAndGet();
+            }
+            return SourceRoot.Callback.Result.DONT_SAVE;
+        });
+        returned.set(true);
+        ForkJoinPool.commonPool().awaitQuiescence(5, TimeUnit.SECONDS);
+        assertEquals(0, late.get());
+    }
+
+    @Test
+    void batchesBySizeStartWithTheBiggestFiles() {
+        List<int[]> batches = SourceRoot.batchesBySize(Arrays.asList(10L, 1_000_000L, 20L, 30L));
+        assertArrayEquals(new int[] {1}, batches.get(0));
+        List<Integer> all = new ArrayList<>();
+        for (int[] batch : batches) {
+            Arrays.stream(batch).forEach(all::add);
+        }
+        all.sort(null);
+        assertEquals(Arrays.asList(0, 1, 2, 3), all);
+    }
+
     @Test
     void fileAsRootIsNotAllowed() {
         assertThrows(IllegalArgumentException.class, () -> {
@@ -29,7 +29,10 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.junit.jupiter.api.Test;
 
 class SourceZipTest {
@@ -74,6 +77,45 @@ class SourceZipTest {
         assertTrue(units.stream().noneMatch(unit -> unit.getTypes().isEmpty()));
     }
 
+    @Test
+    void parseOnlyFilteredEntries() throws IOException {
+        SourceZip sourceZip = new SourceZip(testDir.resolve("test.zip"));
+        List<Path> parsed = new ArrayList<>();
+
+        sourceZip.parse(path -> path.startsWith(Paths.get("test_zip", "dir")), (path, result) -> parsed.add(path));
+
+        parsed.sort(null);
+        assertEquals(
+                List.of(Paths.get("test_zip", "dir", "Foo.java"), Paths.get("test_zip", "dir", "dir", "Qux.java")),
+                parsed);
+    }
+
+    @Test
+    void parseParallelized() throws IOException {
+        SourceZip sourceZip = new SourceZip(testDir.resolve("test.zip"));
+        List<Pair<Path, ParseResult<CompilationUnit>>> results = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            sourceZip.parseParallelized(
+                    path -> true, executor, (path, result) -> results.add(new Pair<>(path, result)));
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(3, results.size());
+        assertTrue(results.stream().allMatch(pr -> pr.b.isSuccessful()));
+    }
+
+    @Test
+    void parseEntriesOnDemand() throws IOException {
+        try (SourceZip.Archive archive = new SourceZip(testDir.resolve("test.zip")).open()) {
+            assertEquals(3, archive.getJavaEntries().size());
+            ParseResult<CompilationUnit> result = archive.parse(Paths.get("test_zip", "Bar.java"));
+            assertEquals("Bar", result.getResult().get().getType(0).getNameAsString());
+            assertThrows(IllegalArgumentException.class, () -> archive.parse(Paths.get("test_zip", "test.txt")));
+        }
+    }
+
     @Test
     void dirAsZipIsNotAllowed() {
         assertThrows(IOException.class, () -> new SourceZip(testDir.resolve("test")).parse());
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link Provider} decoding the bytes of a {@link ByteBuffer}, e.g. a memory-mapped file, directly into the buffer
+ * of the caller. No stream, reader or intermediate buffer is involved.
+ * <p>
+ * ISO-8859-1 input and the ASCII parts of UTF-8 and US-ASCII input are copied byte by byte, only other bytes are
+ * passed to a {@link CharsetDecoder}. Malformed input is replaced, like {@link java.io.InputStreamReader} does.
+ * <p>
+ * The position of the given buffer is not changed.
+ */
+public class ByteBufferProvider implements Provider {
+
+    private static final int EOF = -1;
+
+    private ByteBuffer _input;
+
+    private final CharsetDecoder _decoder;
+
+    /**
+     * Whether each byte is a character of its own.
+     */
+    private final boolean _latin1;
+
+    /**
+     * Whether bytes below 0x80 are characters of their own.
+     */
+    private final boolean _asciiCompatible;
+
+    /**
+     * The {@link CharBuffer} wrapping the array last passed to {@link #read(char[], int, int)}.
+     */
+    private CharBuffer _output;
+
+    /**
+     * The second half of a surrogate pair that did not fit into the caller's buffer, or {@code -1}.
+     */
+    private int _pending = EOF;
+
+    private boolean _flushed;
+
+    public ByteBufferProvider(ByteBuffer input, Charset encoding) {
+        _input = input.duplicate();
+        _latin1 = encoding.equals(StandardCharsets.ISO_8859_1);
+        _asciiCompatible = encoding.equals(StandardCharsets.UTF_8) || encoding.equals(StandardCharsets.US_ASCII);
+        _decoder = encoding.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    @Override
+    public int read(char[] buffer, final int offset, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        int pos = offset;
+        int stop = offset + len;
+        if (_pending >= 0) {
+            buffer[pos++] = (char) _pending;
+            _pending = EOF;
+        }
+        pos = copyDirect(buffer, pos, stop);
+        if (pos < stop && !_latin1) {
+            pos = decode(buffer, pos, stop);
+        }
+        if (pos == offset && !_input.hasRemaining()) {
+            return EOF;
+        }
+        return pos - offset;
+    }
+
+    /**
+     * Copies bytes that need no decoding.
+     *
+     * @return the position in the buffer after the last copied character
+     */
+    private int copyDirect(char[] buffer, int pos, int stop) {
+        int in = _input.position();
+        int end = Math.min(_input.limit(), in + stop - pos);
+        if (_latin1) {
+            while (in < end) {
+                buffer[pos++] = (char) (_input.get(in++) & 0xFF);
+            }
+        } else if (_asciiCompatible) {
+            while (in < end) {
+                byte b = _input.get(in);
+                if (b < 0) {
+                    break;
+                }
+                buffer[pos++] = (char) b;
+                in++;
+            }
+        }
+        _input.position(in);
+        return pos;
+    }
+
+    /**
+     * Decodes bytes into the buffer until the next byte could be copied directly again.
+     *
+     * @return the position in the buffer after the last decoded character
+     */
+    private int decode(char[] buffer, int pos, int stop) {
+        if (_flushed) {
+            return pos;
+        }
+        CharBuffer out = output(buffer);
+        out.limit(stop).position(pos);
+        int limit = _input.limit();
+        if (_asciiCompatible) {
+            // Decode the next non-ASCII run only, so that following ASCII bytes take the direct path.
+            int in = _input.position();
+            while (in < limit && _input.get(in) < 0) {
+                in++;
+            }
+            _input.limit(in);
+        }
+        CoderResult result = _decoder.decode(_input, out, true);
+        _input.limit(limit);
+        if (result.isUnderflow() && !_input.hasRemaining()) {
+            _decoder.flush(out);
+            _flushed = true;
+        } else if (result.isOverflow() && out.position() == pos) {
+            // No room for a surrogate pair, hand it out in two parts.
+            CharBuffer pair = CharBuffer.allocate(2);
+            _decoder.decode(_input, pair, true);
+            buffer[pos] = pair.get(0);
+            _pending = pair.get(1);
+            return pos + 1;
+        }
+        return out.position();
+    }
+
+    private CharBuffer output(char[] buffer) {
+        if (_output == null || _output.array() != buffer) {
+            _output = CharBuffer.wrap(buffer);
+        }
+        return _output;
+    }
+
+    @Override
+    public void close() {
+        _input = null;
+    }
+}
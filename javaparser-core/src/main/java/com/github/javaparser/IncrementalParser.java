@@ -0,0 +1,305 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.*;
+import com.github.javaparser.ast.comments.Comment;
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import com.github.javaparser.ast.jml.doc.JmlDocContainer;
+import com.github.javaparser.ast.stmt.BlockStmt;
+import com.github.javaparser.ast.stmt.Statement;
+import com.github.javaparser.ast.stmt.SwitchEntry;
+import com.github.javaparser.jml.IncrementalJmlProcessor;
+import com.github.javaparser.jml.JmlProcessor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import static com.github.javaparser.utils.Utils.assertNotNull;
+
+/**
+ * Updates a {@link CompilationUnit} after a change of its source text by parsing only the smallest part of the
+ * source that contains the change, instead of the whole file.
+ * <p>
+ * The part is the innermost statement of a block, block, or class member whose first and last character are not
+ * touched by the edit. Only its new text is lexed and parsed, with the {@link ParseStart} matching the kind of node,
+ * and with the processors of the configuration (comment attribution, JML processing, validation). The new node
+ * replaces the old one in the AST, which notifies the observers of the parent, and the ranges of all other nodes
+ * and tokens are shifted to match the new source. Edits inside a JML comment are handled by the
+ * {@link IncrementalJmlProcessor}.
+ * <p>
+ * A part is skipped if its comments depend on the code around it, e.g., a line comment behind it, and if the new text
+ * does not parse into the same kind of node without problems; the next enclosing part is tried then. If no part fits,
+ * the configuration does not store tokens (see {@link ParserConfiguration#setStoreTokens(boolean)}), or it changes
+ * the source before parsing (unicode escapes, skipped bodies, lexical preservation, wide tabs), the complete new
+ * source is parsed.
+ *
+ * <pre>
+ * IncrementalParser parser = new IncrementalParser(configuration);
+ * cu = parser.update(cu, TextEdit.insertion(position, "x++;"), newSource).getResult().get();
+ * </pre>
+ */
+public final class IncrementalParser {
+
+    private static final ParseStart<BlockStmt> CONSTRUCTOR_BODY = GeneratedJavaParser::ConstructorBodyParseStart;
+
+    private final ParserConfiguration configuration;
+
+    private final JavaParser parser;
+
+    private final IncrementalJmlProcessor jmlProcessor;
+
+    public IncrementalParser(ParserConfiguration configuration) {
+        this.configuration = assertNotNull(configuration);
+        this.parser = new JavaParser(configuration);
+        this.jmlProcessor = new IncrementalJmlProcessor(configuration);
+    }
+
+    public ParserConfiguration getParserConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Applies the edit to the given compilation unit, falling back to a complete parse of {@code newSource}.
+     *
+     * @param cu        a compilation unit parsed with the configuration of this parser
+     * @param edit      the change of the source text, in the coordinates of the source {@code cu} was parsed from
+     * @param newSource the complete source text after the edit
+     * @return a result carrying {@code cu} itself, if the incremental update succeeded, or a freshly parsed unit.
+     * After an incremental update, only the problems of the re-parsed part are reported.
+     */
+    public ParseResult<CompilationUnit> update(CompilationUnit cu, TextEdit edit, String newSource) {
+        Optional<List<Problem>> problems = tryUpdate(cu, edit, newSource);
+        if (problems.isPresent()) {
+            return new ParseResult<>(cu, problems.get(), null);
+        }
+        return parser.parse(newSource);
+    }
+
+    /**
+     * Applies the edit to the given compilation unit, if a part of it can be parsed again on its own.
+     *
+     * @return the problems of the re-parsed part, or empty if the edit cannot be handled incrementally.
+     * In the latter case, the compilation unit is not modified.
+     */
+    public Optional<List<Problem>> tryUpdate(CompilationUnit cu, TextEdit edit, String newSource) {
+        assertNotNull(cu);
+        assertNotNull(edit);
+        assertNotNull(newSource);
+        if (!configuration.isStoreTokens() || configuration.isPreprocessUnicodeEscapes() || configuration.isSkipBodies() || configuration.isLexicalPreservationEnabled() || configuration.getTabSize() != 1) {
+            return Optional.empty();
+        }
+        Optional<List<Problem>> jmlProblems = jmlProcessor.tryUpdate(cu, edit);
+        if (jmlProblems.isPresent()) {
+            return jmlProblems;
+        }
+        for (Node node = outsideOfJml(innermost(cu, edit)); node != null && !(node instanceof CompilationUnit); node = node.getParentNode().orElse(null)) {
+            ParseStart<? extends Node> start = startFor(node);
+            if (start == null || !encloses(node.getRange().get(), edit) || !hasOwnComments(node)) {
+                continue;
+            }
+            Node replacement = reparse(node, start, edit, newSource);
+            if (replacement != null && jmlProcessor.isReplaceable(cu, node)) {
+                replace(cu, node, replacement, edit);
+                return Optional.of(new ArrayList<>());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return the innermost node whose range contains the edit, without the edit touching its first character.
+     */
+    private static Node innermost(Node root, TextEdit edit) {
+        Node node = root;
+        boolean descended = true;
+        while (descended) {
+            descended = false;
+            for (Node child : node.getChildNodes()) {
+                Optional<Range> range = child.getRange();
+                if (range.isPresent() && encloses(range.get(), edit)) {
+                    node = child;
+                    descended = true;
+                    break;
+                }
+            }
+        }
+        return node;
+    }
+
+    /**
+     * @return the node, or the parent of its outermost ancestor created from the text of a JML comment. The nodes
+     * in between do not correspond to Java source and can only be replaced together with their JML comment.
+     */
+    private static Node outsideOfJml(Node node) {
+        Node result = node;
+        for (Node n = node; n != null; n = n.getParentNode().orElse(null)) {
+            if (n.containsData(JmlProcessor.JML_ORIGIN)) {
+                result = n.getParentNode().orElse(null);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return true if the edit lies within the range, leaving its first and last character untouched. The
+     * boundaries of the node can then not merge with the surrounding tokens.
+     */
+    private static boolean encloses(Range range, TextEdit edit) {
+        return range.begin.isBefore(edit.getBegin()) && edit.getEnd().isBeforeOrEqual(range.end);
+    }
+
+    /**
+     * @return how to parse the node on its own, or null if it can only be parsed in the context of its parent.
+     */
+    private static ParseStart<? extends Node> startFor(Node node) {
+        Node parent = node.getParentNode().orElse(null);
+        if (parent == null || node instanceof JmlDocContainer || !coversItsTokens(node)) {
+            return null;
+        }
+        if (node instanceof BlockStmt) {
+            return parent instanceof ConstructorDeclaration ? CONSTRUCTOR_BODY : ParseStart.BLOCK;
+        }
+        if (node instanceof Statement) {
+            return parent instanceof BlockStmt || parent instanceof SwitchEntry ? ParseStart.STATEMENT : null;
+        }
+        if (node instanceof BodyDeclaration && !(node instanceof EnumConstantDeclaration)) {
+            if (parent instanceof AnnotationDeclaration) {
+                return ParseStart.ANNOTATION_BODY;
+            }
+            if (parent instanceof ClassOrInterfaceDeclaration || parent instanceof EnumDeclaration || parent instanceof EnumConstantDeclaration || parent instanceof ObjectCreationExpr) {
+                return ParseStart.CLASS_BODY;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return true if the node has a range which spans exactly its tokens. The range of a node also includes the JML
+     * comments belonging to it, e.g., the contract of a method.
+     */
+    private static boolean coversItsTokens(Node node) {
+        Optional<Range> range = node.getRange();
+        Optional<TokenRange> tokens = node.getTokenRange();
+        if (!range.isPresent() || !tokens.isPresent() || !tokens.get().getBegin().hasRange() || !tokens.get().getEnd().hasRange()) {
+            return false;
+        }
+        return range.get().begin.equals(tokens.get().getBegin().getRange().get().begin) && range.get().end.equals(tokens.get().getEnd().getRange().get().end);
+    }
+
+    /**
+     * Checks that the comments of the node and its descendants can be attributed by parsing the node on its own:
+     * no comment outside of the node belongs to a node inside of it, and no line comment follows the node on its
+     * last line, as such a comment belongs to a node ending on that line.
+     */
+    private static boolean hasOwnComments(Node node) {
+        Range range = node.getRange().get();
+        for (Node descendant : node.findAll(Node.class)) {
+            if (descendant == node) {
+                continue;
+            }
+            Optional<Range> commentRange = descendant.getComment().flatMap(Node::getRange);
+            if (commentRange.isPresent() && !range.contains(commentRange.get())) {
+                return false;
+            }
+        }
+        for (JavaToken t = node.getTokenRange().get().getEnd().getNextToken().orElse(null); t != null && !t.getCategory().isEndOfLine(); t = t.getNextToken().orElse(null)) {
+            if (t.getKind() == JavaToken.Kind.SINGLE_LINE_COMMENT.getKind()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses the new text of the node.
+     *
+     * @return the new node, or null if the text does not parse into the same kind of node without problems.
+     */
+    private Node reparse(Node node, ParseStart<? extends Node> start, TextEdit edit, String newSource) {
+        Range range = node.getRange().get();
+        Position begin = edit.shift(range.begin);
+        Position end = edit.shift(range.end.right(1));
+        String text;
+        try {
+            text = newSource.substring(TextEdit.offsetOf(newSource, begin), TextEdit.offsetOf(newSource, end));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            return null;
+        }
+        ParseResult<? extends Node> result = parser.parse(start, Providers.provider(text), begin);
+        if (!result.isSuccessful()) {
+            return null;
+        }
+        Node replacement = result.getResult().get();
+        // a node which does not span the whole text, e.g., because a JML comment in front of it turned into a
+        // plain comment, might be parsed differently in its context
+        if (replacement.getClass() != node.getClass() || !replacement.getRange().equals(Optional.of(new Range(begin, end.right(-1))))) {
+            return null;
+        }
+        return replacement;
+    }
+
+    private void replace(CompilationUnit cu, Node node, Node replacement, TextEdit edit) {
+        List<Node> roots = new ArrayList<>();
+        roots.add(cu);
+        // detached JML comments are not reachable from the compilation unit
+        JmlProcessor.getJmlDocContainers(cu).ifPresent(roots::addAll);
+        edit.shiftRanges(roots);
+        Optional<TokenRange> oldTokens = node.getTokenRange();
+        Optional<TokenRange> newTokens = replacement.getTokenRange();
+        Comment comment = node.getComment().orElse(null);
+        node.replace(replacement);
+        if (comment != null) {
+            node.setComment(null);
+            replacement.setComment(comment);
+        }
+        if (replacement.containsData(Node.LINE_SEPARATOR_KEY)) {
+            replacement.removeData(Node.LINE_SEPARATOR_KEY);
+        }
+        jmlProcessor.replaced(cu, node, replacement);
+        if (oldTokens.isPresent() && newTokens.isPresent()) {
+            spliceTokens(replacement, oldTokens.get(), newTokens.get());
+        }
+    }
+
+    /**
+     * Links the tokens of the replacement into the token list of the unit, and lets the ancestors that started or
+     * ended with a replaced token start or end with the new one.
+     */
+    static void spliceTokens(Node replacement, TokenRange oldTokens, TokenRange newTokens) {
+        JavaToken oldBegin = oldTokens.getBegin();
+        JavaToken oldEnd = oldTokens.getEnd();
+        oldBegin.replaceTokens(oldEnd, newTokens.getBegin(), newTokens.getEnd());
+        for (Node ancestor = replacement.getParentNode().orElse(null); ancestor != null; ancestor = ancestor.getParentNode().orElse(null)) {
+            Optional<TokenRange> tokens = ancestor.getTokenRange();
+            if (!tokens.isPresent() || (tokens.get().getBegin() != oldBegin && tokens.get().getEnd() != oldEnd)) {
+                continue;
+            }
+            JavaToken begin = tokens.get().getBegin() == oldBegin ? newTokens.getBegin() : tokens.get().getBegin();
+            JavaToken end = tokens.get().getEnd() == oldEnd ? newTokens.getEnd() : tokens.get().getEnd();
+            // the range may differ from the tokens, e.g., a method including its JML contract
+            Optional<Range> range = ancestor.getRange();
+            ancestor.setTokenRange(new TokenRange(begin, end));
+            range.ifPresent(ancestor::setRange);
+        }
+    }
+}
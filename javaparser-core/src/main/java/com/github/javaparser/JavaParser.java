@@ -39,6 +39,7 @@ import com.github.javaparser.ast.type.ClassOrInterfaceType;
 import com.github.javaparser.ast.type.Type;
 import com.github.javaparser.ast.type.TypeParameter;
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
 import java.util.List;
@@ -85,14 +86,18 @@ public final class JavaParser {
         return this.configuration;
     }
 
-    private GeneratedJavaParser getParserForProvider(Provider provider) {
+    private GeneratedJavaParser getParserForProvider(Provider provider, Position begin) {
         if (astParser == null) {
             astParser = new GeneratedJavaParser(provider);
         } else {
             astParser.reset(provider);
         }
+        if (!begin.equals(Position.HOME)) {
+            astParser.startAt(provider, begin);
+        }
         astParser.setTabSize(configuration.getTabSize());
         astParser.setStoreTokens(configuration.isStoreTokens());
+        astParser.setSkipBodies(configuration.isSkipBodies());
         ParserConfiguration.LanguageLevel languageLevel = configuration.getLanguageLevel();
         if (languageLevel != null) {
             if (languageLevel.isYieldSupported()) {
@@ -113,15 +118,25 @@ public final class JavaParser {
      * @return the parse result, a collection of encountered problems, and some extra data.
      */
     public <N extends Node> ParseResult<N> parse(ParseStart<N> start, Provider provider) {
+        return parse(start, provider, Position.HOME);
+    }
+
+    /**
+     * Parses a part of a source file, the first character of the provider being at the given position in the file.
+     */
+    <N extends Node> ParseResult<N> parse(ParseStart<N> start, Provider provider, Position begin) {
         assertNotNull(start);
         assertNotNull(provider);
         List<Processor> processors = configuration.getProcessors().stream().map(Supplier::get).collect(toList());
         for (Processor processor : processors) {
             provider = processor.preProcess(provider);
         }
-        final GeneratedJavaParser parser = getParserForProvider(provider);
+        final GeneratedJavaParser parser = getParserForProvider(provider, begin);
         try {
             N resultNode = start.parse(parser);
+            for (SkippedBody skipped : parser.skippedBodies) {
+                skipped.setConfiguration(configuration);
+            }
             ParseResult<N> result = new ParseResult<>(resultNode, parser.problems, parser.getCommentsCollection());
             for (Processor processor : processors) {
                 processor.postProcess(result, configuration);
@@ -133,6 +148,7 @@ public final class JavaParser {
             parser.problems.add(new Problem(message, null, e));
             return new ParseResult<>(null, parser.problems, parser.getCommentsCollection());
         } finally {
+            parser.clear();
             try {
                 provider.close();
             } catch (IOException e) {
@@ -166,6 +182,32 @@ public final class JavaParser {
         return parse(in, configuration.getCharacterEncoding());
     }
 
+    /**
+     * Parses the Java code contained in the remaining bytes of a {@link ByteBuffer}, e.g. a memory-mapped file, and
+     * returns a {@link CompilationUnit} that represents it. The bytes are decoded directly into the buffer of the
+     * parser, the position of the {@link ByteBuffer} is not changed.
+     *
+     * @param buffer {@link ByteBuffer} containing Java source code
+     * @param encoding encoding of the source code
+     * @return CompilationUnit representing the Java source code
+     * @throws ParseProblemException if the source code has parser errors
+     */
+    public ParseResult<CompilationUnit> parse(final ByteBuffer buffer, Charset encoding) {
+        return parse(COMPILATION_UNIT, provider(buffer, encoding));
+    }
+
+    /**
+     * Parses the Java code contained in the remaining bytes of a {@link ByteBuffer}, e.g. a memory-mapped file, and
+     * returns a {@link CompilationUnit} that represents it.<br>
+     *
+     * @param buffer {@link ByteBuffer} containing Java source code
+     * @return CompilationUnit representing the Java source code
+     * @throws ParseProblemException if the source code has parser errors
+     */
+    public ParseResult<CompilationUnit> parse(final ByteBuffer buffer) {
+        return parse(buffer, configuration.getCharacterEncoding());
+    }
+
     /**
      * Parses the Java code contained in a {@link File} and returns a
      * {@link CompilationUnit} that represents it.
@@ -560,6 +602,8 @@ public final class JavaParser {
     private <T> ParseStart<T> enableJml(ParseStart<T> start) {
         return it -> {
             it.token_source.SwitchTo(GeneratedJavaParserConstants.JML_MULTI_CONTRACT);
+            // The bodies of model methods are JML and could not be parsed on their own later on.
+            it.setSkipBodies(false);
             return start.parse(it);
         };
     }
@@ -1365,6 +1365,26 @@ public class JavaToken {
         });
     }
 
+    /**
+     * Replaces the tokens from this token up to {@code last} (inclusive) with the tokens from {@code newFirst} up to
+     * {@code newLast} (inclusive). The tokens around the new ones are dropped from their list.
+     */
+    void replaceTokens(JavaToken last, JavaToken newFirst, JavaToken newLast) {
+        assertNotNull(last);
+        assertNotNull(newFirst);
+        assertNotNull(newLast);
+        newFirst.previousToken = previousToken;
+        if (previousToken != null) {
+            previousToken.nextToken = newFirst;
+        }
+        newLast.nextToken = last.nextToken;
+        if (last.nextToken != null) {
+            last.nextToken.previousToken = newLast;
+        }
+        previousToken = null;
+        last.nextToken = null;
+    }
+
     /**
      * @return the last token in the token list.
      */
@@ -22,48 +22,47 @@ package com.github.javaparser;
 
 import com.github.javaparser.utils.LineSeparator;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
 
 /**
- * {@link Provider} un-escaping unicode escape sequences in the input sequence.
+ * {@link Provider} counting the line separators in the input sequence, see {@link #getDetectedLineEnding()}.
+ * <p>
+ * The characters are read directly into the buffer of the caller and counted there in a single pass, so no
+ * intermediate buffer or per-character objects are needed.
  */
 public class LineEndingProcessingProvider implements Provider {
 
-    private static final int EOF = -1;
+    private static final char LF = '\n';
+
+    private static final char CR = '\r';
 
-    private static final int DEFAULT_BUFFER_SIZE = 2048;
+    private static final int EOF = -1;
 
     /**
      * The "other" provider which we are wrapping around / reading from.
      */
     private final Provider _input;
 
-    /**
-     * The buffer that we're storing data within.
-     */
-    private final char[] _data;
+    private int _crCount = 0;
 
-    /**
-     * The number of characters in {@link #_data}.
-     */
-    private int _len = 0;
+    private int _lfCount = 0;
+
+    private int _crlfCount = 0;
 
     /**
-     * The position in {@link #_data} where to read the next source character from.
+     * Whether the last character of the previous {@link #read(char[], int, int)} was a {@link #CR}, so that a
+     * {@link #CR}{@link #LF} pair split between two reads is still counted as such.
      */
-    private int _pos = 0;
-
-    private final Map<LineSeparator, Integer> eolCounts = new HashMap<>();
+    private boolean _crSeen;
 
     public LineEndingProcessingProvider(Provider input) {
-        this(DEFAULT_BUFFER_SIZE, input);
+        _input = input;
     }
 
+    /**
+     * @param bufferSize unused, the characters are read into the buffer passed to {@link #read(char[], int, int)}.
+     */
     public LineEndingProcessingProvider(int bufferSize, Provider input) {
-        _input = input;
-        _data = new char[bufferSize];
+        this(input);
     }
 
     @Override
@@ -71,77 +70,45 @@ public class LineEndingProcessingProvider implements Provider {
         _input.close();
     }
 
-    private int fillBuffer() throws IOException {
-        _pos = 0;
-        int direct = _input.read(_data, 0, _data.length);
-        if (direct != 0) {
-            _len = direct;
-        }
-        return direct;
-    }
-
     public LineSeparator getDetectedLineEnding() {
-        return LineSeparator.getLineEnding(eolCounts.getOrDefault(LineSeparator.CR, 0), eolCounts.getOrDefault(LineSeparator.LF, 0), eolCounts.getOrDefault(LineSeparator.CRLF, 0));
-    }
-
-    private boolean isBufferEmpty() {
-        return _pos >= _len;
-    }
-
-    /**
-     * Retrieves the next un-escaped character from the buffered {@link #_input}.
-     *
-     * @return The next character or {@code -1} if no more input is available.
-     */
-    private int nextBufferedChar() throws IOException {
-        while (isBufferEmpty()) {
-            int direct = fillBuffer();
-            if (direct < 0) {
-                return EOF;
-            }
-        }
-        return _data[_pos++];
+        return LineSeparator.getLineEnding(_crCount, _lfCount, _crlfCount);
     }
 
     @Override
     public int read(char[] buffer, final int offset, int len) throws IOException {
-        int pos = offset;
-        int stop = offset + len;
-        LineSeparator previousLineSeparator = null;
-        while (pos < stop) {
-            int ch = nextBufferedChar();
-            if (ch < 0) {
-                if (pos == offset) {
-                    // Nothing read yet, this is the end of the stream.
-                    return EOF;
-                }
-                break;
-            }
-            String str = String.valueOf((char) ch);
-            Optional<LineSeparator> lookup = LineSeparator.lookup(str);
-            if (lookup.isPresent()) {
-                LineSeparator lineSeparator = lookup.get();
-                // Track the number of times this character is found..
-                eolCounts.putIfAbsent(lineSeparator, 0);
-                eolCounts.put(lineSeparator, eolCounts.get(lineSeparator) + 1);
-                // Handle line separators of length two (specifically CRLF)
-                // TODO: Make this more generic than just CRLF (e.g. track the previous char rather than the previous
-                // line separator
-                if (lineSeparator == LineSeparator.LF) {
-                    if (previousLineSeparator == LineSeparator.CR) {
-                        eolCounts.putIfAbsent(LineSeparator.CRLF, 0);
-                        eolCounts.put(LineSeparator.CRLF, eolCounts.get(LineSeparator.CRLF) + 1);
+        if (len == 0) {
+            return 0;
+        }
+        int direct;
+        do {
+            direct = _input.read(buffer, offset, len);
+        } while (direct == 0);
+        if (direct < 0) {
+            return EOF;
+        }
+        int cr = 0;
+        int lf = 0;
+        int crlf = 0;
+        boolean crSeen = _crSeen;
+        for (int pos = offset, stop = offset + direct; pos < stop; pos++) {
+            char ch = buffer[pos];
+            if (ch == CR) {
+                cr++;
+                crSeen = true;
+            } else {
+                if (ch == LF) {
+                    lf++;
+                    if (crSeen) {
+                        crlf++;
                     }
                 }
-                // If "this" (current) char <strong>is</strong> a line separator, set the next loop's "previous" to this
-                previousLineSeparator = lineSeparator;
-            } else {
-                // If "this" (current) char <strong>is not</strong> a line separator, set the next loop's "previous" to
-                // null
-                previousLineSeparator = null;
+                crSeen = false;
             }
-            buffer[pos++] = (char) ch;
         }
-        return pos - offset;
+        _crSeen = crSeen;
+        _crCount += cr;
+        _lfCount += lf;
+        _crlfCount += crlf;
+        return direct;
     }
 }
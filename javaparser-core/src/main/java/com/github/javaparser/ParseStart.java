@@ -51,6 +51,15 @@ public interface ParseStart<R> {
 
     ParseStart<CompilationUnit> COMPILATION_UNIT = GeneratedJavaParser::CompilationUnit;
 
+    /**
+     * A compilation unit with method, constructor and initializer bodies skipped, independent of
+     * {@link ParserConfiguration#setSkipBodies(boolean)}.
+     */
+    ParseStart<CompilationUnit> COMPILATION_UNIT_DECLARATIONS = parser -> {
+        parser.setSkipBodies(true);
+        return parser.CompilationUnit();
+    };
+
     ParseStart<BlockStmt> BLOCK = GeneratedJavaParser::BlockParseStart;
 
     ParseStart<Statement> STATEMENT = GeneratedJavaParser::BlockStatementParseStart;
@@ -21,6 +21,7 @@
 package com.github.javaparser;
 
 import static com.github.javaparser.ParserConfiguration.LanguageLevel.POPULAR;
+import static com.github.javaparser.utils.Utils.assertPositive;
 import com.github.javaparser.UnicodeEscapeProcessingProvider.PositionMapping;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Node;
@@ -72,6 +73,22 @@ public class ParserConfiguration {
         return this.keepJmlDocs;
     }
 
+    private boolean trackJmlDocs = false;
+
+    /**
+     * When set, the {@link com.github.javaparser.jml.JmlProcessor} records the JML comments it processed on the root
+     * of the AST, as needed by {@link com.github.javaparser.jml.IncrementalJmlProcessor} and
+     * {@link IncrementalParser} to update it. Off by default, as this keeps the removed JML comments alive.
+     */
+    public ParserConfiguration setTrackJmlDocs(boolean flag) {
+        this.trackJmlDocs = flag;
+        return this;
+    }
+
+    public boolean isTrackJmlDocs() {
+        return this.trackJmlDocs;
+    }
+
     private boolean preprocessJml = false;
 
     public ParserConfiguration setProcessJml(boolean jml) {
@@ -272,6 +289,10 @@ public class ParserConfiguration {
 
     private boolean preprocessUnicodeEscapes = false;
 
+    private boolean skipBodies = false;
+
+    private int parserPoolSize = Runtime.getRuntime().availableProcessors();
+
     private SymbolResolver symbolResolver = null;
 
     private int tabSize = 1;
@@ -501,6 +522,35 @@ public class ParserConfiguration {
         return preprocessUnicodeEscapes;
     }
 
+    /**
+     * When set to true, the statements in method, constructor and initializer bodies are not parsed. The parser
+     * only matches the braces of such a body and produces an empty {@link com.github.javaparser.ast.stmt.BlockStmt},
+     * which is enough for resolving types and signatures and much faster. A skipped body can be parsed later on with
+     * {@link com.github.javaparser.ast.body.CallableDeclaration#parseSkippedBody()} or
+     * {@link SkippedBody#parse(com.github.javaparser.ast.stmt.BlockStmt)}.
+     */
+    public ParserConfiguration setSkipBodies(boolean skipBodies) {
+        this.skipBodies = skipBodies;
+        return this;
+    }
+
+    public boolean isSkipBodies() {
+        return skipBodies;
+    }
+
+    /**
+     * The number of idle parsers a {@link ParserPool} keeps for reuse, and so the number of files it parses ahead
+     * in a batch. By default the number of available processors.
+     */
+    public ParserConfiguration setParserPoolSize(int parserPoolSize) {
+        this.parserPoolSize = assertPositive(parserPoolSize);
+        return this;
+    }
+
+    public int getParserPoolSize() {
+        return parserPoolSize;
+    }
+
     public ParserConfiguration setDetectOriginalLineSeparator(boolean detectOriginalLineSeparator) {
         this.detectOriginalLineSeparator = detectOriginalLineSeparator;
         return this;
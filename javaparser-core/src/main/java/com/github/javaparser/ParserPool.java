@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import static com.github.javaparser.utils.Utils.assertNotNull;
+import static com.github.javaparser.utils.Utils.assertPositive;
+
+/**
+ * A thread-safe pool of {@link JavaParser}s sharing one {@link ParserConfiguration}.
+ * <p>
+ * A {@link JavaParser} must not be used by two threads at the same time, but reusing one is cheaper than creating
+ * a new one for every file: the generated parser, its buffers and the JIT-compiled paths stay warm. The pool hands
+ * out a parser to one thread at a time, and gives a thread the parser it used last if that one is idle. At most
+ * {@link ParserConfiguration#getParserPoolSize()} idle parsers are kept, parsers returned beyond that are dropped.
+ * <p>
+ * {@link #parseAll(Collection, Executor)} parses many files on an executor with the parsers of the pool.
+ *
+ * @see JavaParser
+ */
+public final class ParserPool {
+
+    private final ParserConfiguration configuration;
+
+    private final int maxIdle;
+
+    private final ConcurrentLinkedDeque<JavaParser> idle = new ConcurrentLinkedDeque<>();
+
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    private final ThreadLocal<WeakReference<JavaParser>> lastUsed = new ThreadLocal<>();
+
+    /**
+     * Creates a pool keeping at most {@link ParserConfiguration#getParserPoolSize()} idle parsers.
+     */
+    public ParserPool(ParserConfiguration configuration) {
+        this(configuration, configuration.getParserPoolSize());
+    }
+
+    /**
+     * Creates a pool keeping at most {@code maxIdle} idle parsers.
+     */
+    public ParserPool(ParserConfiguration configuration, int maxIdle) {
+        this.configuration = assertNotNull(configuration);
+        this.maxIdle = assertPositive(maxIdle);
+    }
+
+    /**
+     * @return The configuration of all parsers of this pool.
+     */
+    public ParserConfiguration getParserConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Takes a parser out of the pool, or creates one if none is idle. It must be given back with
+     * {@link #release(JavaParser)} and must not be used afterwards.
+     */
+    public JavaParser borrow() {
+        WeakReference<JavaParser> ref = lastUsed.get();
+        JavaParser parser = ref == null ? null : ref.get();
+        if (parser == null || !idle.remove(parser)) {
+            parser = idle.pollFirst();
+        }
+        if (parser == null) {
+            parser = new JavaParser(configuration);
+        } else {
+            idleCount.decrementAndGet();
+        }
+        if (ref == null || ref.get() != parser) {
+            lastUsed.set(new WeakReference<>(parser));
+        }
+        return parser;
+    }
+
+    /**
+     * Gives a parser taken with {@link #borrow()} back to the pool.
+     */
+    public void release(JavaParser parser) {
+        assertNotNull(parser);
+        if (parser.getParserConfiguration() != configuration) {
+            throw new IllegalArgumentException("The parser does not belong to this pool.");
+        }
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            // The most recently used parsers are handed out first
+            idle.addFirst(parser);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Runs the function with a parser of the pool.
+     */
+    public <T> T withParser(Function<JavaParser, T> function) {
+        JavaParser parser = borrow();
+        try {
+            return function.apply(parser);
+        } finally {
+            release(parser);
+        }
+    }
+
+    /**
+     * Parses source code with a parser of the pool, see {@link JavaParser#parse(ParseStart, Provider)}.
+     */
+    public <N extends Node> ParseResult<N> parse(ParseStart<N> start, Provider provider) {
+        return withParser(parser -> parser.parse(start, provider));
+    }
+
+    /**
+     * Parses a file with a parser of the pool. Unlike {@link JavaParser#parse(Path)}, a file that cannot be read
+     * is reported as a problem of the result.
+     */
+    public ParseResult<CompilationUnit> parse(Path path) {
+        return withParser(parser -> {
+            try {
+                return parser.parse(path);
+            } catch (IOException e) {
+                return failed(e);
+            }
+        });
+    }
+
+    /**
+     * Parses the files on the common {@link ForkJoinPool}, see {@link #parseAll(Collection, Executor)}.
+     */
+    public Stream<ParseResult<CompilationUnit>> parseAll(Collection<Path> paths) {
+        return parseAll(paths, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parses the files on the executor, each with a parser of this pool. The results come in the order of the paths.
+     * <p>
+     * The files are parsed lazily: only a window of twice the pool size is parsed ahead of the consumer of the
+     * stream, so the results of a large batch never pile up in memory. Closing the stream cancels the files that
+     * have not been parsed yet.
+     */
+    public Stream<ParseResult<CompilationUnit>> parseAll(Collection<Path> paths, Executor executor) {
+        return submitAll(paths, executor, this::parse);
+    }
+
+    /**
+     * Parses the sources of the providers on the executor, each with a parser of this pool, see
+     * {@link #parseAll(Collection, Executor)}.
+     */
+    public <N extends Node> Stream<ParseResult<N>> parseAll(ParseStart<N> start, Collection<? extends Provider> providers, Executor executor) {
+        assertNotNull(start);
+        return submitAll(providers, executor, provider -> parse(start, provider));
+    }
+
+    private <I, N extends Node> Stream<ParseResult<N>> submitAll(Collection<? extends I> inputs, Executor executor, Function<I, ParseResult<N>> parse) {
+        assertNotNull(inputs);
+        assertNotNull(executor);
+        BatchIterator<I, N> iterator = new BatchIterator<>(inputs.iterator(), executor, parse, 2 * maxIdle);
+        Spliterator<ParseResult<N>> spliterator = Spliterators.spliterator(iterator, inputs.size(), Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(iterator::cancel);
+    }
+
+    private static ParseResult<CompilationUnit> failed(IOException e) {
+        String message = e.getMessage() == null ? "Unknown error" : e.getMessage();
+        return new ParseResult<>(null, new ArrayList<>(Collections.singletonList(new Problem(message, null, e))), null);
+    }
+
+    /**
+     * Submits the inputs to the executor while the results are consumed, keeping at most {@code window} of them in
+     * flight.
+     */
+    private static class BatchIterator<I, N extends Node> implements Iterator<ParseResult<N>> {
+
+        private final Iterator<? extends I> inputs;
+
+        private final Executor executor;
+
+        private final Function<I, ParseResult<N>> parse;
+
+        private final int window;
+
+        private final ArrayDeque<CompletableFuture<ParseResult<N>>> pending = new ArrayDeque<>();
+
+        private boolean cancelled = false;
+
+        BatchIterator(Iterator<? extends I> inputs, Executor executor, Function<I, ParseResult<N>> parse, int window) {
+            this.inputs = inputs;
+            this.executor = executor;
+            this.parse = parse;
+            this.window = window;
+        }
+
+        private void fill() {
+            while (!cancelled && pending.size() < window && inputs.hasNext()) {
+                I input = inputs.next();
+                pending.add(CompletableFuture.supplyAsync(() -> parse.apply(input), executor));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            fill();
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public ParseResult<N> next() {
+            fill();
+            if (pending.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            ParseResult<N> result = pending.poll().join();
+            fill();
+            return result;
+        }
+
+        void cancel() {
+            for (CompletableFuture<ParseResult<N>> future : pending) {
+                future.cancel(false);
+            }
+            pending.clear();
+            cancelled = true;
+        }
+    }
+}
@@ -22,9 +22,12 @@ package com.github.javaparser;
 
 import static com.github.javaparser.utils.Utils.assertNotNull;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 /**
  * Factory for providers of source code for JavaParser. Providers that have no parameter for encoding but need it will
@@ -77,6 +80,32 @@ public final class Providers {
         return new StringProvider(assertNotNull(source));
     }
 
+    /**
+     * Provide a Provider decoding the remaining bytes of the buffer, without changing its position.
+     */
+    public static Provider provider(ByteBuffer buffer, Charset encoding) {
+        return new ByteBufferProvider(assertNotNull(buffer), assertNotNull(encoding));
+    }
+
+    public static Provider provider(ByteBuffer buffer) {
+        return provider(buffer, UTF8);
+    }
+
+    /**
+     * Provide a Provider reading the file through a read-only memory mapping. This avoids copying the file into a
+     * stream buffer, which pays off for large files and for parsing many files in a row.<br> The mapping is released
+     * by the garbage collector only, on some platforms the file cannot be deleted or overwritten until then.
+     */
+    public static Provider mappedProvider(Path path, Charset encoding) throws IOException {
+        try (FileChannel channel = FileChannel.open(assertNotNull(path), StandardOpenOption.READ)) {
+            return provider(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), encoding);
+        }
+    }
+
+    public static Provider mappedProvider(Path path) throws IOException {
+        return mappedProvider(path, UTF8);
+    }
+
     /**
      * Provide a Provider from the resource found in class loader with the provided encoding.<br> As resource is
      * accessed through a class loader, a leading "/" is not allowed in pathToResource
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser;
+
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.comments.Comment;
+import com.github.javaparser.ast.stmt.BlockStmt;
+import java.util.ArrayList;
+import java.util.Optional;
+
+/**
+ * The source of a method, constructor or initializer body that was skipped while parsing, see
+ * {@link ParserConfiguration#setSkipBodies(boolean)}. A skipped body is represented by an empty {@link BlockStmt}
+ * with the range of the original body. It remembers the source until {@link #parse(BlockStmt)} fills in the
+ * statements.
+ */
+public final class SkippedBody {
+
+    private static final DataKey<SkippedBody> SKIPPED_BODY = new DataKey<SkippedBody>() {
+    };
+
+    /**
+     * Parses a block in full, even if the configuration skips bodies.
+     */
+    private static final ParseStart<BlockStmt> FULL_BLOCK = parser -> {
+        parser.setSkipBodies(false);
+        return parser.BlockParseStart();
+    };
+
+    /**
+     * Parses a constructor body in full, which may start with an explicit constructor invocation.
+     */
+    private static final ParseStart<BlockStmt> FULL_CONSTRUCTOR_BODY = parser -> {
+        parser.setSkipBodies(false);
+        return parser.ConstructorBodyParseStart();
+    };
+
+    private final String source;
+
+    private ParserConfiguration configuration;
+
+    SkippedBody(String source) {
+        this.source = source;
+    }
+
+    void mark(BlockStmt body) {
+        body.setData(SKIPPED_BODY, this);
+    }
+
+    void setConfiguration(ParserConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * @return true if the statements of the block have been skipped while parsing.
+     */
+    public static boolean isSkipped(BlockStmt block) {
+        return block.containsData(SKIPPED_BODY);
+    }
+
+    /**
+     * @return the source of the skipped block, from the opening to the closing brace.
+     */
+    public static Optional<String> getSource(BlockStmt block) {
+        return isSkipped(block) ? Optional.of(block.getData(SKIPPED_BODY).source) : Optional.empty();
+    }
+
+    /**
+     * Parses the statements of a skipped block with the configuration of the original parse and adds them to the
+     * block. The positions of the statements are those in the original source, and their tokens replace those of
+     * the skipped block in the token list of the compilation unit. Does nothing if the block has not been skipped.
+     *
+     * @throws ParseProblemException if the block has parser errors, the block is left unchanged in that case.
+     */
+    public static void parse(BlockStmt block) {
+        if (!isSkipped(block)) {
+            return;
+        }
+        SkippedBody skipped = block.getData(SKIPPED_BODY);
+        ParserConfiguration configuration = skipped.configuration == null ? new ParserConfiguration() : skipped.configuration;
+        boolean constructor = block.getParentNode().filter(parent -> parent instanceof ConstructorDeclaration).isPresent();
+        ParseResult<BlockStmt> result = new JavaParser(configuration)
+                .parse(constructor ? FULL_CONSTRUCTOR_BODY : FULL_BLOCK, Providers.provider(skipped.source),
+                        block.getBegin().orElse(Position.HOME));
+        if (!result.isSuccessful()) {
+            throw new ParseProblemException(result.getProblems());
+        }
+        BlockStmt parsed = result.getResult().get();
+        Optional<TokenRange> oldTokens = block.getTokenRange();
+        Optional<TokenRange> newTokens = parsed.getTokenRange();
+        block.removeData(SKIPPED_BODY);
+        for (Comment comment : new ArrayList<>(block.getOrphanComments())) {
+            block.removeOrphanComment(comment);
+        }
+        block.setStatements(parsed.getStatements());
+        for (Comment comment : new ArrayList<>(parsed.getOrphanComments())) {
+            block.addOrphanComment(comment);
+        }
+        if (oldTokens.isPresent() && newTokens.isPresent()) {
+            Optional<Range> range = block.getRange();
+            block.setTokenRange(newTokens.get());
+            range.ifPresent(block::setRange);
+            IncrementalParser.spliceTokens(block, oldTokens.get(), newTokens.get());
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.comments.Comment;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Optional;
+import java.util.Set;
+import static com.github.javaparser.utils.Utils.assertNotNull;
+
+/**
+ * A change of the source text: the characters from "begin" (inclusive) up to "end" (exclusive) are replaced by the
+ * "replacement" text. An insertion has {@code begin.equals(end)}, a deletion has an empty replacement.
+ * <p>
+ * Positions are counted as the parser counts them, i.e., every character (including tabs) occupies one column.
+ * The edit is used to keep the ranges of an existing AST in sync with the source when only a part is re-parsed.
+ */
+public final class TextEdit {
+
+    private final Position begin;
+
+    private final Position end;
+
+    private final String replacement;
+
+    private final Position replacementEnd;
+
+    public TextEdit(Position begin, Position end, String replacement) {
+        assertNotNull(begin);
+        assertNotNull(end);
+        assertNotNull(replacement);
+        if (end.isBefore(begin)) {
+            throw new IllegalArgumentException("end of an edit must not be before its begin");
+        }
+        this.begin = begin;
+        this.end = end;
+        this.replacement = replacement;
+        this.replacementEnd = advance(begin, replacement);
+    }
+
+    public static TextEdit edit(Position begin, Position end, String replacement) {
+        return new TextEdit(begin, end, replacement);
+    }
+
+    public static TextEdit insertion(Position at, String text) {
+        return new TextEdit(at, at, text);
+    }
+
+    /**
+     * @return the first replaced character.
+     */
+    public Position getBegin() {
+        return begin;
+    }
+
+    /**
+     * @return the position right after the last replaced character.
+     */
+    public Position getEnd() {
+        return end;
+    }
+
+    public String getReplacement() {
+        return replacement;
+    }
+
+    /**
+     * @return the position right after the inserted text, in the coordinates of the edited source.
+     */
+    public Position getReplacementEnd() {
+        return replacementEnd;
+    }
+
+    /**
+     * @return true if the edited characters all lie within the given range.
+     */
+    public boolean isWithin(Range range) {
+        return range.begin.isBeforeOrEqual(begin) && end.isBeforeOrEqual(range.end.right(1));
+    }
+
+    /**
+     * Translates a position of the old source text into the edited source text. Positions inside the replaced text
+     * are moved to the beginning of the edit.
+     */
+    public Position shift(Position position) {
+        if (position.isBefore(begin)) {
+            return position;
+        }
+        if (position.isBefore(end)) {
+            return begin;
+        }
+        if (position.line == end.line) {
+            return new Position(replacementEnd.line, replacementEnd.column + position.column - end.column);
+        }
+        return new Position(position.line + replacementEnd.line - end.line, position.column);
+    }
+
+    /**
+     * Translates a range of the old source text into the edited source text. A range which ends directly in front of
+     * the edit is extended by the inserted text, so that typing at the end of a token grows that token.
+     */
+    public Range shift(Range range) {
+        Position newBegin = shift(range.begin);
+        Position exclusiveEnd = range.end.right(1);
+        if (exclusiveEnd.isBefore(begin)) {
+            return newBegin == range.begin ? range : new Range(newBegin, range.end);
+        }
+        Position newEnd = shift(exclusiveEnd);
+        if (newEnd.column > Position.FIRST_COLUMN) {
+            newEnd = newEnd.right(-1);
+        }
+        if (newEnd.isBefore(newBegin)) {
+            newEnd = newBegin;
+        }
+        return new Range(newBegin, newEnd);
+    }
+
+    /**
+     * Moves the ranges of all nodes, comments and tokens below the given roots, so that they match the edited source.
+     * Every node and token is shifted exactly once, even if it is reachable from several roots.
+     */
+    public void shiftRanges(Iterable<? extends Node> roots) {
+        Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Node root : roots) {
+            // tokens are only linked if they were stored while parsing, walk defensively
+            root.getTokenRange().ifPresent(tr -> {
+                for (JavaToken t = tr.getBegin(); t != null; t = t.getNextToken().orElse(null)) {
+                    shiftToken(t, seen);
+                    if (t == tr.getEnd()) {
+                        break;
+                    }
+                }
+            });
+            for (Node node : root.findAll(Node.class)) {
+                shiftNode(node, seen);
+            }
+            for (Comment comment : root.getAllContainedComments()) {
+                shiftNode(comment, seen);
+            }
+        }
+    }
+
+    public void shiftRanges(Node root) {
+        shiftRanges(Collections.singletonList(root));
+    }
+
+    private void shiftNode(Node node, Set<Object> seen) {
+        if (!seen.add(node)) {
+            return;
+        }
+        node.getTokenRange().ifPresent(tr -> {
+            shiftToken(tr.getBegin(), seen);
+            shiftToken(tr.getEnd(), seen);
+        });
+        Optional<Range> range = node.getRange();
+        if (range.isPresent()) {
+            Range shifted = shift(range.get());
+            if (!shifted.equals(range.get())) {
+                node.setRange(shifted);
+            }
+        }
+    }
+
+    private void shiftToken(JavaToken token, Set<Object> seen) {
+        if (!seen.add(token)) {
+            return;
+        }
+        token.getRange().ifPresent(r -> token.setRange(shift(r)));
+    }
+
+    /**
+     * Applies this edit to the given source text.
+     *
+     * @throws IllegalArgumentException if the edit lies outside of the text
+     */
+    public String apply(String text) {
+        int from = offsetOf(text, begin);
+        int to = offsetOf(text, end);
+        return text.substring(0, from) + replacement + text.substring(to);
+    }
+
+    /**
+     * @return the character offset of the given position in the text, using the line counting of the parser.
+     */
+    public static int offsetOf(String text, Position position) {
+        int line = Position.FIRST_LINE;
+        int offset = 0;
+        while (line < position.line) {
+            if (offset >= text.length()) {
+                throw new IllegalArgumentException("Position " + position + " is outside of the text");
+            }
+            char c = text.charAt(offset++);
+            if (c == '\n' || (c == '\r' && (offset >= text.length() || text.charAt(offset) != '\n'))) {
+                line++;
+            }
+        }
+        offset += position.column - Position.FIRST_COLUMN;
+        if (offset > text.length()) {
+            throw new IllegalArgumentException("Position " + position + " is outside of the text");
+        }
+        return offset;
+    }
+
+    /**
+     * @return the position after reading the given text starting at the given position.
+     */
+    public static Position advance(Position start, String text) {
+        int line = start.line;
+        int column = start.column;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || (c == '\r' && (i + 1 >= text.length() || text.charAt(i + 1) != '\n'))) {
+                line++;
+                column = Position.FIRST_COLUMN;
+            } else if (c != '\r') {
+                column++;
+            }
+        }
+        return new Position(line, column);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        TextEdit textEdit = (TextEdit) o;
+        return begin.equals(textEdit.begin) && end.equals(textEdit.end) && replacement.equals(textEdit.replacement);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * begin.hashCode() + end.hashCode()) + replacement.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "TextEdit{" + begin + "-" + end + " -> '" + replacement + "'}";
+    }
+}
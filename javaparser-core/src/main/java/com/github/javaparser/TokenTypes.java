@@ -106,7 +106,203 @@ public class TokenTypes {
             case SINGLE_LINE_COMMENT:
             case JAVADOC_COMMENT:
             case MULTI_LINE_COMMENT:
+            case JML_MULTI_LINE_COMMENT:
                 return JavaToken.Category.COMMENT;
+            // JML comments are proper tokens that carry the text of a JmlDoc
+            case JML_LINE_COMMENT:
+            case JML_BLOCK_COMMENT:
+                return JavaToken.Category.LITERAL;
+            // JML keywords, identifiers and operators
+            case INVARIANT:
+            case ABRUPT_BEHAVIOR:
+            case ABRUPT_BEHAVIOUR:
+            case MODEL_BEHAVIOR:
+            case MODEL_BEHAVIOUR:
+            case ACCESSIBLE:
+            case ACCESSIBLE_REDUNDANTLY:
+            case ALSO:
+            case ASSERT_REDUNDANTLY:
+            case ASSIGNABLE:
+            case ASSIGNABLE_REDUNDANTLY:
+            case ASSUME:
+            case ASSUME_REDUNDANTLY:
+            case AXIOM:
+            case BEHAVIOR:
+            case BEHAVIOUR:
+            case BIGINT:
+            case BIGINT_MATH:
+            case BREAKS:
+            case BREAKS_REDUNDANTLY:
+            case BREAK_BEHAVIOR:
+            case BREAK_BEHAVIOUR:
+            case CALLABLE:
+            case CALLABLE_REDUNDANTLY:
+            case CAPTURES:
+            case CAPTURES_REDUNDANTLY:
+            case CHOOSE:
+            case CHOOSE_IF:
+            case CODE:
+            case CODE_BIGINT_MATH:
+            case CODE_JAVA_MATH:
+            case CODE_SAFE_MATH:
+            case IMMUTABLE:
+            case CONSTRAINT:
+            case CONSTRAINT_REDUNDANTLY:
+            case CONSTRUCTOR:
+            case CONTINUES:
+            case CONTINUES_REDUNDANTLY:
+            case CONTINUE_BEHAVIOR:
+            case CONTINUE_BEHAVIOUR:
+            case DECLASSIFIES:
+            case DECREASES:
+            case DECREASES_REDUNDANTLY:
+            case DECREASING:
+            case DECREASING_REDUNDANTLY:
+            case DETERMINES:
+            case DIVERGES:
+            case DIVERGES_REDUNDANTLY:
+            case DURATION:
+            case DURATION_REDUNDANTLY:
+            case ENSURES:
+            case ENSURES_REDUNDANTLY:
+            case ENSURES_FREE:
+            case REQUIRES_FREE:
+            case ERASES:
+            case EXAMPLE:
+            case EXCEPTIONAL_BEHAVIOR:
+            case EXCEPTIONAL_BEHAVIOUR:
+            case EXCEPTIONAL_EXAMPLE:
+            case EXISTS:
+            case EXSURES:
+            case EXSURES_REDUNDANTLY:
+            case EXTRACT:
+            case FIELD:
+            case FORALLQ:
+            case LET:
+            case FORALL:
+            case FOR_EXAMPLE:
+            case PEER:
+            case REP:
+            case READ_ONLY:
+            case GHOST:
+            case BEGIN:
+            case END:
+            case HELPER:
+            case HENCE_BY:
+            case HENCE_BY_REDUNDANTLY:
+            case IMPLIES_THAT:
+            case IN:
+            case INITIALIZER:
+            case INITIALLY:
+            case INSTANCE:
+            case TWO_STATE:
+            case NO_STATE:
+            case NON_NULL_BY_DEFAULT:
+            case INVARIANT_REDUNDANTLY:
+            case IN_REDUNDANTLY:
+            case JAVA_MATH:
+            case LBLNEG:
+            case LBLPOS:
+            case LBL:
+            case LOOP_CONTRACT:
+            case LOOP_INVARIANT:
+            case LOOP_INVARIANT_FREE:
+            case LOOP_INVARIANT_REDUNDANTLY:
+            case MAINTAINING:
+            case MAINTAINING_REDUNDANTLY:
+            case MAPS:
+            case MAPS_REDUNDANTLY:
+            case MAX:
+            case MEASURED_BY:
+            case ESC_MEASURED_BY:
+            case MEASURED_BY_REDUNDANTLY:
+            case METHOD:
+            case MIN:
+            case MODEL:
+            case MODEL_PROGRAM:
+            case MODIFIABLE:
+            case MODIFIABLE_REDUNDANTLY:
+            case LOOP_MODIFIES:
+            case MODIFIES:
+            case MODIFIES_REDUNDANTLY:
+            case MONITORED:
+            case MONITORS_FOR:
+            case NEW_OBJECT:
+            case NONNULLELEMENTS:
+            case NON_NULL:
+            case NORMAL_BEHAVIOR:
+            case NORMAL_BEHAVIOUR:
+            case FEASIBLE_BEHAVIOR:
+            case FEASIBLE_BEHAVIOUR:
+            case NORMAL_EXAMPLE:
+            case NOWARN:
+            case NOWARN_OP:
+            case NULLABLE:
+            case NULLABLE_BY_DEFAULT:
+            case NUM_OF:
+            case OLD:
+            case OR:
+            case POST:
+            case POST_REDUNDANTLY:
+            case PRE_ESC:
+            case PRE:
+            case PRE_REDUNDANTLY:
+            case PRODUCT:
+            case PURE:
+            case READABLE:
+            case REFINING:
+            case REPRESENTS:
+            case REPRESENTS_REDUNDANTLY:
+            case REQUIRES_REDUNDANTLY:
+            case RESULT:
+            case RETURNS:
+            case RETURNS_REDUNDANTLY:
+            case RETURN_BEHAVIOR:
+            case RETURN_BEHAVIOUR:
+            case SAFE_MATH:
+            case SET:
+            case SIGNALS:
+            case SIGNALS_ONLY:
+            case SIGNALS_ONLY_REDUNDANTLY:
+            case SIGNALS_REDUNDANTLY:
+            case SPEC_BIGINT_MATH:
+            case SPEC_JAVA_MATH:
+            case SPEC_PACKAGE:
+            case SPEC_PRIVATE:
+            case SPEC_PROTECTED:
+            case SPEC_PUBLIC:
+            case SPEC_SAFE_MATH:
+            case STATIC_INITIALIZER:
+            case STRICTLY_PURE:
+            case SUBTYPE:
+            case SUCH_THAT:
+            case SUM:
+            case TYPE:
+            case UNINITIALIZED:
+            case UNREACHABLE:
+            case WARN:
+            case WARN_OP:
+            case WHEN_REDUNDANTLY:
+            case WORKING_SPACE_ESC:
+            case WORKING_SPACE:
+            case WORKING_SPACE_REDUNDANTLY:
+            case WRITABLE:
+                return JavaToken.Category.KEYWORD;
+            case JML_IDENTIFIER:
+            case SYNTH_IDENTIFIER:
+                return JavaToken.Category.IDENTIFIER;
+            case NESTED_CONTRACT_START:
+            case NESTED_CONTRACT_END:
+                return JavaToken.Category.SEPARATOR;
+            case ANTIVALENCE:
+            case BACKARROW:
+            case DOTDOT:
+            case EQUIVALENCE:
+            case IMPLICATION:
+            case IMPLICATION_BACKWARD:
+            case UNKNOWN_OP:
+            case UNKNOWN_OP_EQ:
+                return JavaToken.Category.OPERATOR;
             case ABSTRACT:
             case ASSERT:
             case BOOLEAN:
@@ -249,6 +445,8 @@ public class TokenTypes {
             // The following are tokens that are only used internally by the lexer
             case ENTER_JAVADOC_COMMENT:
             case ENTER_MULTILINE_COMMENT:
+            case ENTER_JML_BLOCK_COMMENT:
+            case JML_ENTER_MULTILINE_COMMENT:
             case COMMENT_CONTENT:
             case HEX_DIGITS:
             case LETTER:
@@ -94,6 +94,13 @@ public class UnicodeEscapeProcessingProvider implements Provider {
         int pos = offset;
         int stop = offset + len;
         while (pos < stop) {
+            if (canCopyThrough()) {
+                int cnt = copyThrough(buffer, pos, stop - pos);
+                if (cnt > 0) {
+                    pos += cnt;
+                    continue;
+                }
+            }
             int ch = _outputLine.process(nextOutputChar());
             if (ch < 0) {
                 if (pos == offset) {
@@ -113,6 +120,49 @@ public class UnicodeEscapeProcessingProvider implements Provider {
         _input.close();
     }
 
+    /**
+     * Whether buffered characters up to the next {@link #BACKSLASH} can be passed through unchanged. This requires
+     * that no escape sequence is in progress and that both {@link LineCounter}s agree on a pending {@link #CR}, so
+     * that the line offset between input and output positions stays the same.
+     */
+    private boolean canCopyThrough() {
+        return !_backslashSeen && !isBufferEmpty() && _inputLine._crSeen == _outputLine._crSeen;
+    }
+
+    /**
+     * Copies buffered characters up to the next {@link #BACKSLASH} in bulk. For input without escape sequences
+     * this is the only path taken. If an escape sequence earlier in the line shifted the columns, the run ends after
+     * the next line terminator, where the column offset drops back to zero and a {@link PositionMapping} entry is
+     * due.
+     *
+     * @return The number of characters copied.
+     */
+    private int copyThrough(char[] buffer, int offset, int len) {
+        int start = _pos;
+        int end = Math.min(_len, start + len);
+        boolean columnShifted = _inputLine.getColumn() != _outputLine.getColumn();
+        int stop = start;
+        while (stop < end) {
+            char ch = _data[stop];
+            if (ch == BACKSLASH) {
+                break;
+            }
+            stop++;
+            if (columnShifted && (ch == CR || ch == LF)) {
+                break;
+            }
+        }
+        int cnt = stop - start;
+        if (cnt > 0) {
+            _inputLine.process(_data, start, stop);
+            _outputLine.process(_data, start, stop);
+            _mappingBuilder.update();
+            System.arraycopy(_data, start, buffer, offset, cnt);
+            _pos = stop;
+        }
+        return cnt;
+    }
+
     /**
      * Produces the next un-escaped character to be written to the output.
      *
@@ -584,6 +634,36 @@ public class UnicodeEscapeProcessingProvider implements Provider {
             return ch;
         }
 
+        /**
+         * Analyzes the given characters for line feeds, same as calling {@link #process(int)} for each of them.
+         */
+        void process(char[] chars, int start, int end) {
+            int line = _line;
+            int column = _column;
+            boolean crSeen = _crSeen;
+            for (int n = start; n < end; n++) {
+                char ch = chars[n];
+                if (ch == CR) {
+                    line++;
+                    column = 1;
+                    crSeen = true;
+                } else if (ch == LF) {
+                    if (crSeen) {
+                        crSeen = false;
+                    } else {
+                        line++;
+                        column = 1;
+                    }
+                } else {
+                    crSeen = false;
+                    column++;
+                }
+            }
+            _line = line;
+            _column = column;
+            _crSeen = crSeen;
+        }
+
         private void incLine() {
             _line++;
             _column = 1;
@@ -0,0 +1,337 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.ast;
+
+import com.github.javaparser.ast.observer.AstObserver;
+import com.github.javaparser.ast.observer.AstObserverAdapter;
+import com.github.javaparser.ast.observer.ObservableProperty;
+import com.github.javaparser.ast.observer.PropagatingAstObserver;
+import com.github.javaparser.metamodel.PropertyMetaModel;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import static com.github.javaparser.utils.Utils.assertNotNull;
+
+/**
+ * A value attached to a {@link Node} at runtime, for values computed from the subtree of the node that have to be
+ * dropped or updated when the subtree changes, like indexes and caches.
+ * <p>
+ * Unlike the data stored with a {@link DataKey}, the values are kept aside of the node and looked up by the identity
+ * of the node: a clone gets none of the values of the original, and they do not interfere with the data set by other
+ * code. Attaching and removing values is synchronized on a lock shared by all attachments, looking a value up takes
+ * no lock. A value lives as long as its node, unless it is removed before: the node refers to its values through an
+ * observer, and the attachments refer to the node weakly.
+ * <p>
+ * An attachment created with an observer factory gets an observer for each of its values, which is notified of the
+ * changes of the subtree of the node, nodes added later included, until the value is removed. One observer is
+ * registered on the subtree for all the values of a node, and unregistered when the last value that needs it is
+ * removed. The observers must neither attach nor remove values.
+ * <pre>
+ * {@code
+ * private static final NodeAttachment<Index> INDEX = new NodeAttachment<>(Index::invalidator);
+ * }
+ * </pre>
+ *
+ * @param <T> The type of the values
+ */
+public final class NodeAttachment<T> {
+
+    private static final Object LOCK = new Object();
+
+    private static final ReferenceQueue<Node> CLEARED = new ReferenceQueue<>();
+
+    /**
+     * The values of each node with values, by node identity. Modified under the lock only.
+     */
+    private static final Map<Object, WeakReference<Attachments>> ATTACHED = new ConcurrentHashMap<>();
+
+    private final Function<? super T, ? extends AstObserver> observerFactory;
+
+    /**
+     * Creates an attachment whose values are not notified of the changes of the AST.
+     */
+    public NodeAttachment() {
+        this.observerFactory = null;
+    }
+
+    /**
+     * Creates an attachment whose values are notified of the changes of the subtree of their node.
+     *
+     * @param observerFactory creates the observer of a value, when the value is attached.
+     */
+    public NodeAttachment(Function<? super T, ? extends AstObserver> observerFactory) {
+        this.observerFactory = assertNotNull(observerFactory);
+    }
+
+    /**
+     * @return the value attached to this very node.
+     */
+    public Optional<T> find(Node node) {
+        Attachments attachments = attachments(assertNotNull(node));
+        return attachments == null ? Optional.empty() : Optional.ofNullable(attachments.get(this));
+    }
+
+    /**
+     * @return the value attached to the node, attaching the value created by the factory if there is none. The
+     * factory is called under the lock, it should only create the value.
+     */
+    public <N extends Node> T computeIfAbsent(N node, Function<? super N, ? extends T> factory) {
+        assertNotNull(factory);
+        Optional<T> found = find(node);
+        if (found.isPresent()) {
+            return found.get();
+        }
+        synchronized (LOCK) {
+            expungeCleared();
+            Attachments attachments = attachments(node);
+            if (attachments == null) {
+                attachments = new Attachments(node);
+                ATTACHED.put(new NodeReference(node), new WeakReference<>(attachments));
+            }
+            T value = attachments.get(this);
+            if (value == null) {
+                value = assertNotNull(factory.apply(node));
+                attachments.add(this, value, observerFactory == null ? null : observerFactory.apply(value));
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Removes the value attached to the node and unregisters its observer.
+     *
+     * @return the removed value.
+     */
+    public Optional<T> remove(Node node) {
+        assertNotNull(node);
+        synchronized (LOCK) {
+            Attachments attachments = attachments(node);
+            T value = attachments == null ? null : attachments.get(this);
+            if (value == null) {
+                return Optional.empty();
+            }
+            if (attachments.remove(this)) {
+                ATTACHED.remove(new Lookup(node));
+            }
+            return Optional.of(value);
+        }
+    }
+
+    private static Attachments attachments(Node node) {
+        WeakReference<Attachments> reference = ATTACHED.get(new Lookup(node));
+        return reference == null ? null : reference.get();
+    }
+
+    private static void expungeCleared() {
+        for (Reference<? extends Node> cleared = CLEARED.poll(); cleared != null; cleared = CLEARED.poll()) {
+            ATTACHED.remove(cleared);
+        }
+    }
+
+    /**
+     * A node compared by identity, as the nodes are compared by their contents, that does not keep it alive.
+     */
+    private static final class NodeReference extends WeakReference<Node> {
+
+        private final int hash;
+
+        NodeReference(Node node) {
+            super(node, CLEARED);
+            this.hash = System.identityHashCode(node);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o == this || (o instanceof Lookup && ((Lookup) o).node == get());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * The key a node is looked up with.
+     */
+    private static final class Lookup {
+
+        private final Node node;
+
+        Lookup(Node node) {
+            this.node = node;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof NodeReference && ((NodeReference) o).get() == node;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(node);
+        }
+    }
+
+    /**
+     * The values attached to one node, registered on the node to live as long as it does.
+     */
+    private static final class Attachments extends AstObserverAdapter {
+
+        private static final Entry[] NO_ENTRIES = new Entry[0];
+
+        private final Node node;
+
+        private final Forwarder forwarder = new Forwarder();
+
+        /**
+         * Replaced as a whole on every change, under the lock.
+         */
+        private volatile Entry[] entries = NO_ENTRIES;
+
+        Attachments(Node node) {
+            this.node = node;
+            node.register(this);
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> T get(NodeAttachment<T> attachment) {
+            for (Entry entry : entries) {
+                if (entry.attachment == attachment) {
+                    return (T) entry.value;
+                }
+            }
+            return null;
+        }
+
+        void add(NodeAttachment<?> attachment, Object value, AstObserver observer) {
+            boolean observed = isObserved();
+            Entry[] updated = Arrays.copyOf(entries, entries.length + 1);
+            updated[entries.length] = new Entry(attachment, value, observer);
+            entries = updated;
+            if (observer != null && !observed) {
+                node.registerForSubtree(forwarder);
+            }
+        }
+
+        /**
+         * @return whether no value is left.
+         */
+        boolean remove(NodeAttachment<?> attachment) {
+            boolean observed = isObserved();
+            entries = Arrays.stream(entries).filter(e -> e.attachment != attachment).toArray(Entry[]::new);
+            if (observed && !isObserved()) {
+                unregisterForSubtree(node, forwarder);
+            }
+            if (entries.length == 0) {
+                node.unregister(this);
+                return true;
+            }
+            return false;
+        }
+
+        private boolean isObserved() {
+            for (Entry entry : entries) {
+                if (entry.observer != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static void unregisterForSubtree(Node node, AstObserver observer) {
+            node.unregister(observer);
+            for (PropertyMetaModel property : node.getMetaModel().getAllPropertyMetaModels()) {
+                if (property.isNodeList()) {
+                    NodeList<?> nodeList = (NodeList<?>) property.getValue(node);
+                    if (nodeList != null) {
+                        nodeList.unregister(observer);
+                    }
+                }
+            }
+            node.getChildNodes().forEach(child -> unregisterForSubtree(child, observer));
+        }
+
+        /**
+         * Passes the changes of the subtree on to the observers of the values.
+         */
+        private final class Forwarder extends PropagatingAstObserver {
+
+            @Override
+            public void concretePropertyChange(
+                    Node observedNode, ObservableProperty property, Object oldValue, Object newValue) {
+                for (Entry entry : entries) {
+                    if (entry.observer != null) {
+                        entry.observer.propertyChange(observedNode, property, oldValue, newValue);
+                    }
+                }
+            }
+
+            @Override
+            public void concreteListChange(
+                    NodeList<?> observedNode, ListChangeType type, int index, Node nodeAddedOrRemoved) {
+                for (Entry entry : entries) {
+                    if (entry.observer != null) {
+                        entry.observer.listChange(observedNode, type, index, nodeAddedOrRemoved);
+                    }
+                }
+            }
+
+            @Override
+            public void concreteListReplacement(NodeList<?> observedNode, int index, Node oldValue, Node newValue) {
+                for (Entry entry : entries) {
+                    if (entry.observer != null) {
+                        entry.observer.listReplacement(observedNode, index, oldValue, newValue);
+                    }
+                }
+            }
+
+            @Override
+            public void parentChange(Node observedNode, Node previousParent, Node newParent) {
+                for (Entry entry : entries) {
+                    if (entry.observer != null) {
+                        entry.observer.parentChange(observedNode, previousParent, newParent);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final NodeAttachment<?> attachment;
+
+        private final Object value;
+
+        private final AstObserver observer;
+
+        Entry(NodeAttachment<?> attachment, Object value, AstObserver observer) {
+            this.attachment = attachment;
+            this.value = value;
+            this.observer = observer;
+        }
+    }
+}
@@ -26,6 +26,7 @@ import static java.util.stream.Collectors.toList;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
+import com.github.javaparser.SkippedBody;
 import com.github.javaparser.TokenRange;
 import com.github.javaparser.ast.*;
 import com.github.javaparser.ast.expr.AnnotationExpr;
@@ -35,6 +36,7 @@ import com.github.javaparser.ast.jml.clauses.JmlContract;
 import com.github.javaparser.ast.nodeTypes.*;
 import com.github.javaparser.ast.nodeTypes.modifiers.*;
 import com.github.javaparser.ast.observer.ObservableProperty;
+import com.github.javaparser.ast.stmt.BlockStmt;
 import com.github.javaparser.ast.type.ArrayType;
 import com.github.javaparser.ast.type.ReferenceType;
 import com.github.javaparser.ast.type.Type;
@@ -315,6 +317,35 @@ public abstract class CallableDeclaration<T extends CallableDeclaration<?>> exte
         return new Signature(getName().getIdentifier(), getParameters().stream().map(this::getTypeWithVarargsAsArray).map(this::stripGenerics).map(this::stripAnnotations).collect(toList()));
     }
 
+    /**
+     * @return true if the statements of the body were skipped while parsing, see
+     * {@link com.github.javaparser.ParserConfiguration#setSkipBodies(boolean)}.
+     */
+    public boolean isBodySkipped() {
+        return getSkippedBody().isPresent();
+    }
+
+    /**
+     * Parses the statements of the body if they were skipped while parsing. The body is filled in place, so the
+     * {@link BlockStmt} stays the same.
+     *
+     * @throws com.github.javaparser.ParseProblemException if the body has parser errors
+     */
+    @SuppressWarnings("unchecked")
+    public T parseSkippedBody() {
+        getSkippedBody().ifPresent(SkippedBody::parse);
+        return (T) this;
+    }
+
+    private Optional<BlockStmt> getSkippedBody() {
+        for (Node child : getChildNodes()) {
+            if (child instanceof BlockStmt && SkippedBody.isSkipped((BlockStmt) child)) {
+                return Optional.of((BlockStmt) child);
+            }
+        }
+        return Optional.empty();
+    }
+
     private Type stripAnnotations(Type type) {
         if (type instanceof NodeWithAnnotations) {
             ((NodeWithAnnotations) type).setAnnotations(new NodeList<>());
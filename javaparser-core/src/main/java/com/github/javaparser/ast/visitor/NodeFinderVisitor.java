@@ -100,6 +100,7 @@ import com.github.javaparser.ast.jml.expr.*;
 /*
  * A visitor who applies a function (based on a range) on each node of the AST and retains the node selected by the function.
  * An example usage might be to find the node that encompasses a range (the covering node).
+ * For repeated position queries on the same compilation unit, see com.github.javaparser.utils.PositionIndex.
  */
 public class NodeFinderVisitor extends VoidVisitorAdapter<Range> {
 
@@ -113,7 +114,7 @@ public class NodeFinderVisitor extends VoidVisitorAdapter<Range> {
 	 * A range-based function that is evaluated on each node of the AST until a node
 	 * matches the function.
 	 */
-    private static BiFunction<Node, Range, Boolean> fn;
+    private final BiFunction<Node, Range, Boolean> fn;
 
     public NodeFinderVisitor(BiFunction<Node, Range, Boolean> fn) {
         this.fn = fn;
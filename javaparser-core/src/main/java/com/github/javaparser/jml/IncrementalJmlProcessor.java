@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.jml;
+
+import com.github.javaparser.*;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.jml.doc.JmlDoc;
+import com.github.javaparser.ast.jml.doc.JmlDocContainer;
+import com.github.javaparser.ast.jml.doc.JmlDocType;
+import com.github.javaparser.ast.Modifier;
+import org.jetbrains.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import static com.github.javaparser.Problem.PROBLEM_BY_BEGIN_POSITION;
+
+/**
+ * Updates an AST processed by the {@link JmlProcessor} after a change of the source text that lies entirely inside
+ * a single JML comment. Only the affected comment is sanitized and parsed again; the nodes created from its old
+ * content are replaced by the new ones and the ranges of the following nodes are shifted.
+ * <p>
+ * If the edit touches Java code, changes the comment into something that is no longer a JML comment, or the AST was
+ * not processed by the {@link JmlProcessor} with {@link ParserConfiguration#isTrackJmlDocs()} set, the whole source
+ * is parsed again.
+ * JML comments at the type level ({@link JmlDocType}) always trigger a full re-parse, as they modify the imports.
+ *
+ * <pre>
+ * IncrementalJmlProcessor p = new IncrementalJmlProcessor(config);
+ * ParseResult&lt;CompilationUnit&gt; r = p.update(cu, TextEdit.edit(begin, end, "x &gt; 0"), newSource);
+ * </pre>
+ */
+public class IncrementalJmlProcessor {
+
+    private static final Pattern JML_LINE_COMMENT = Pattern.compile("//([+-][\\p{javaJavaIdentifierStart}][\\p{javaJavaIdentifierPart}]*)*@[^\\n\\r]*");
+
+    private static final Pattern JML_BLOCK_COMMENT = Pattern.compile("/\\*([+-][\\p{javaJavaIdentifierStart}][\\p{javaJavaIdentifierPart}]*)*@.*\\*/", Pattern.DOTALL);
+
+    private final ParserConfiguration configuration;
+
+    public IncrementalJmlProcessor(ParserConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Applies the edit to the given compilation unit, falling back to a complete parse of {@code newSource}.
+     *
+     * @param cu        a compilation unit parsed and processed with the configuration of this processor
+     * @param edit      the change of the source text, in the coordinates of the source {@code cu} was parsed from
+     * @param newSource the complete source text after the edit, only used for the fallback
+     * @return a result carrying {@code cu} itself, if the incremental update succeeded, or a freshly parsed unit
+     */
+    public ParseResult<CompilationUnit> update(CompilationUnit cu, TextEdit edit, String newSource) {
+        Optional<List<Problem>> problems = tryUpdate(cu, edit);
+        if (problems.isPresent()) {
+            return new ParseResult<>(cu, problems.get(), null);
+        }
+        return new JavaParser(configuration).parse(newSource);
+    }
+
+    /**
+     * Applies the edit to the given compilation unit, if it lies entirely inside a JML comment.
+     *
+     * @return the problems of the re-parsed JML comment, or empty if the edit cannot be handled incrementally.
+     * In the latter case, the compilation unit is not modified.
+     */
+    public Optional<List<Problem>> tryUpdate(Node root, TextEdit edit) {
+        Optional<List<Node>> tracked = JmlProcessor.getJmlDocContainers(root);
+        if (!configuration.isProcessJml() || !tracked.isPresent()) {
+            return Optional.empty();
+        }
+        List<Node> containers = tracked.get();
+        for (Node container : containers) {
+            JmlDoc doc = findEditedDoc(container, edit);
+            if (doc != null) {
+                return update(root, containers, container, doc, edit);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Checks whether a node of an AST processed by the {@link JmlProcessor} can be replaced by a freshly parsed one.
+     * This is not the case if JML comments outside of the node created nodes inside of it, e.g., a method contract,
+     * nor if the JML comments of the AST were processed without being tracked, as this cannot be told then.
+     */
+    public boolean isReplaceable(Node root, Node node) {
+        if (!configuration.isProcessJml()) {
+            return true;
+        }
+        Optional<List<Node>> tracked = JmlProcessor.getJmlDocContainers(root);
+        if (!tracked.isPresent()) {
+            return false;
+        }
+        for (Node container : tracked.get()) {
+            if (isInside(container, node) || !container.containsData(JmlProcessor.JML_GENERATED)) {
+                continue;
+            }
+            for (Node generated : container.getData(JmlProcessor.JML_GENERATED)) {
+                if (isInside(generated, node)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Updates the JML bookkeeping of the root after {@code replaced} has been replaced by {@code replacement}, which
+     * was parsed and processed on its own: the JML comments of the replacement take the place of those of the
+     * replaced node.
+     */
+    public void replaced(Node root, Node replaced, Node replacement) {
+        Optional<List<Node>> tracked = JmlProcessor.getJmlDocContainers(root);
+        if (!tracked.isPresent()) {
+            return;
+        }
+        List<Node> containers = tracked.get();
+        containers.removeIf(container -> isInside(container, replaced));
+        for (Node container : containers) {
+            if (container.containsData(JmlProcessor.JML_DOC_ANCHOR)) {
+                JmlProcessor.Anchor anchor = container.getData(JmlProcessor.JML_DOC_ANCHOR);
+                if (anchor.next() == replaced) {
+                    container.setData(JmlProcessor.JML_DOC_ANCHOR, new JmlProcessor.Anchor(anchor.parent(), anchor.list(), replacement));
+                }
+            }
+        }
+        JmlProcessor.getJmlDocContainers(replacement).ifPresent(containers::addAll);
+        replacement.removeData(JmlProcessor.JML_DOCS);
+    }
+
+    /**
+     * @return true if the node is the given ancestor or lies below it. Detached JML containers lie where they were
+     * detached from.
+     */
+    private static boolean isInside(Node node, Node ancestor) {
+        for (Node n = node; n != null; n = parentOf(n)) {
+            if (n == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Nullable
+    private static Node parentOf(Node node) {
+        Optional<Node> parent = node.getParentNode();
+        if (parent.isPresent()) {
+            return parent.get();
+        }
+        return node.containsData(JmlProcessor.JML_DOC_ANCHOR) ? node.getData(JmlProcessor.JML_DOC_ANCHOR).parent() : null;
+    }
+
+    @Nullable
+    private static JmlDoc findEditedDoc(Node container, TextEdit edit) {
+        NodeList<JmlDoc> docs = container instanceof Modifier
+                ? ((JmlDocContainer) ((Modifier) container).getKeyword()).getJmlComments()
+                : ((JmlDocContainer) container).getJmlComments();
+        for (JmlDoc doc : docs) {
+            Optional<Range> range = doc.getContent().getRange();
+            if (range.isPresent() && edit.isWithin(range.get())) {
+                return doc;
+            }
+        }
+        return null;
+    }
+
+    private Optional<List<Problem>> update(Node root, List<Node> containers, Node container, JmlDoc doc, TextEdit edit) {
+        if (container instanceof JmlDocType) {
+            return Optional.empty();
+        }
+        JavaToken token = doc.getContent();
+        Range tokenRange = token.getRange().get();
+        String newText;
+        try {
+            newText = TextEdit.edit(relative(tokenRange.begin, edit.getBegin()), relative(tokenRange.begin, edit.getEnd()), edit.getReplacement()).apply(token.getText());
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (!isJmlComment(newText)) {
+            return Optional.empty();
+        }
+        List<Node> generated = container.containsData(JmlProcessor.JML_GENERATED)
+                ? container.getData(JmlProcessor.JML_GENERATED)
+                : Collections.emptyList();
+        for (Node node : new ArrayList<>(generated)) {
+            node.remove();
+        }
+        generated.clear();
+        List<Node> roots = new ArrayList<>(containers.size() + 1);
+        roots.add(root);
+        roots.addAll(containers);
+        edit.shiftRanges(roots);
+        token.setText(newText);
+        JmlStructuralHash.invalidate(doc);
+        List<Problem> problems = JmlProcessor.reprocess(container, configuration);
+        problems.sort(PROBLEM_BY_BEGIN_POSITION);
+        return Optional.of(problems);
+    }
+
+    /**
+     * @return the position relative to the given origin, where the origin has line 1 and column 1.
+     */
+    private static Position relative(Position origin, Position position) {
+        if (position.line == origin.line) {
+            return new Position(Position.FIRST_LINE, position.column - origin.column + Position.FIRST_COLUMN);
+        }
+        return new Position(position.line - origin.line + Position.FIRST_LINE, position.column);
+    }
+
+    static boolean isJmlComment(String text) {
+        if (text.startsWith("//")) {
+            return JML_LINE_COMMENT.matcher(text).matches();
+        }
+        // the comment must not be closed before its end
+        return JML_BLOCK_COMMENT.matcher(text).matches() && text.indexOf("*/") == text.length() - 2;
+    }
+}
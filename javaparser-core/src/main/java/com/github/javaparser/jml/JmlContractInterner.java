@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.jml;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.visitor.NoCommentEqualsVisitor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps structurally equal contracts (or clauses, expressions) to a shared canonical id, e.g. to key a cache of
+ * verification results. Equality ignores positions and comments, so a specification copied to several overloads, or
+ * from an interface to its implementation, is only stored once.
+ * <p>
+ * The first node interned for a class of equal nodes is copied and kept as the canonical representative; later
+ * changes to the interned nodes do not affect the ids already handed out. Interning is thread-safe: the nodes are
+ * hashed under the lock of the interner, as hashing remembers the hash in the nodes. The nodes passed in must not
+ * be modified or hashed by others concurrently.
+ *
+ * @see JmlStructuralHash
+ */
+public class JmlContractInterner {
+
+    private final Map<Integer, List<Integer>> idsByHash = new HashMap<>();
+
+    private final List<Node> canonicals = new ArrayList<>();
+
+    /**
+     * @return the id of the canonical node equal to the given one. A new id is assigned, if there is none yet.
+     */
+    public synchronized int intern(Node node) {
+        int hash = JmlStructuralHash.hash(node);
+        List<Integer> candidates = idsByHash.computeIfAbsent(hash, h -> new ArrayList<>(1));
+        for (int id : candidates) {
+            if (NoCommentEqualsVisitor.equals(canonicals.get(id), node)) {
+                return id;
+            }
+        }
+        int id = canonicals.size();
+        canonicals.add(node.clone());
+        candidates.add(id);
+        return id;
+    }
+
+    /**
+     * @return the id of the canonical node equal to the given one, or -1 if no equal node was interned.
+     */
+    public synchronized int lookup(Node node) {
+        int hash = JmlStructuralHash.hash(node);
+        for (int id : idsByHash.getOrDefault(hash, Collections.emptyList())) {
+            if (NoCommentEqualsVisitor.equals(canonicals.get(id), node)) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return a copy of the first node interned with the given id. It must not be modified.
+     */
+    public synchronized Node getCanonical(int id) {
+        return canonicals.get(id);
+    }
+
+    /**
+     * @return the number of distinct nodes interned.
+     */
+    public synchronized int size() {
+        return canonicals.size();
+    }
+}
@@ -15,7 +15,11 @@ import java.util.regex.Pattern;
  * @author Alexander Weigl
  * @version 1 (11/23/21)
  */
-public record JmlDocSanitizer(Set<String> enabledKeys) {
+public record JmlDocSanitizer(Set<String> enabledKeys, JmlKeyMatcher matcher) {
+
+    public JmlDocSanitizer(Set<String> enabledKeys) {
+        this(enabledKeys, JmlKeyMatcher.of(enabledKeys));
+    }
 
     public String asString(NodeList<JmlDoc> jmlDocs) {
         return asString(jmlDocs, true);
@@ -100,7 +104,10 @@ public record JmlDocSanitizer(Set<String> enabledKeys) {
         char second = s.charAt(pos + 1);
         int end;
         if (second == '*') {
-            end = s.indexOf("*/", pos + 2) + 2;
+            end = s.indexOf("*/", pos + 2);
+            if (end != -1) {
+                end += 2;
+            }
         } else {
             end = s.indexOf("\n", pos + 2);
         }
@@ -146,13 +153,12 @@ public record JmlDocSanitizer(Set<String> enabledKeys) {
         //unconditional JML comment
         if (pos + 2 == posAt)
             return true;
-        String[] keys = splitTags(s.substring(pos + 2, posAt));
-        return isActiveJmlSpec(keys);
+        return matcher.isActive(s, pos + 2, posAt, 0);
     }
 
     private static final Pattern tag = Pattern.compile("(?=[+-])");
 
-    private static String[] splitTags(String substring) {
+    static String[] splitTags(String substring) {
         return tag.split(substring);
     }
 
@@ -0,0 +1,186 @@
+package com.github.javaparser.jml;
+
+import com.github.javaparser.ast.jml.doc.JmlDoc;
+import java.util.*;
+
+/**
+ * Decides whether a JML comment is active for a set of enabled keys, without creating intermediate strings.
+ * <p>
+ * All keys of the given key sets are interned once into bit positions; every key set becomes a bit mask. The markers
+ * of a comment (e.g. {@code //+KeY-ESC@}) are {@link #classify(CharSequence, int, int) classified} into masks of
+ * positive and negative keys once, and can then be checked against each key set with two bit operations.
+ * <p>
+ * The semantics are the same as {@link JmlDocSanitizer#isActiveJmlSpec(Collection, String[])}: a comment without
+ * keys is always active, a comment with positive keys needs at least one of them enabled, and a comment with an
+ * enabled negative key is never active. Markers are compared in lower case.
+ *
+ * @see com.github.javaparser.ParserConfiguration#getJmlKeys()
+ */
+public final class JmlKeyMatcher {
+
+    /**
+     * Masks are stored in a long, more keys are handled by the slow path of {@link JmlDocSanitizer}.
+     */
+    private static final int MAX_KEYS = Long.SIZE;
+
+    private static final Markers NO_MARKERS = new Markers(0, 0, false, false, null);
+
+    private static final Markers INVALID_MARKERS = new Markers(0, 0, false, true, null);
+
+    private final List<Set<String>> keySets;
+
+    private final String[] keys;
+
+    private final long[] masks;
+
+    public JmlKeyMatcher(List<? extends Collection<String>> keySets) {
+        this.keySets = new ArrayList<>(keySets.size());
+        Map<String, Integer> index = new LinkedHashMap<>();
+        masks = new long[keySets.size()];
+        for (int i = 0; i < keySets.size(); i++) {
+            this.keySets.add(new TreeSet<>(keySets.get(i)));
+            for (String key : keySets.get(i)) {
+                // markers are lower-cased before the lookup, keys with upper case letters never match
+                if (!key.equals(key.toLowerCase())) {
+                    continue;
+                }
+                int pos = index.computeIfAbsent(key, k -> index.size());
+                if (pos < MAX_KEYS) {
+                    masks[i] |= 1L << pos;
+                }
+            }
+        }
+        keys = index.keySet().toArray(new String[0]);
+    }
+
+    public static JmlKeyMatcher of(Collection<String> enabledKeys) {
+        return new JmlKeyMatcher(Collections.singletonList(enabledKeys));
+    }
+
+    public int getKeySetCount() {
+        return masks.length;
+    }
+
+    /**
+     * Classifies the markers of a JML comment, i.e. the text between the comment start and the first {@code @}.
+     */
+    public Markers classify(JmlDoc doc) {
+        String text = doc.getContent().getText();
+        int posAt = text.indexOf('@');
+        if (text.length() < 2 || posAt < 2) {
+            return INVALID_MARKERS;
+        }
+        return classify(text, 2, posAt);
+    }
+
+    /**
+     * Classifies the markers found in {@code text} between {@code from} (inclusive) and {@code to} (exclusive).
+     */
+    public Markers classify(CharSequence text, int from, int to) {
+        if (from == to) {
+            return NO_MARKERS;
+        }
+        long positive = 0;
+        long negative = 0;
+        boolean hasPositive = false;
+        int pos = from;
+        // characters before the first sign do not form a marker
+        while (pos < to && !isSign(text.charAt(pos))) {
+            pos++;
+        }
+        while (pos < to) {
+            boolean plus = text.charAt(pos) == '+';
+            int begin = ++pos;
+            while (pos < to && !isSign(text.charAt(pos))) {
+                pos++;
+            }
+            if (begin == pos) {
+                // a lonely "+" or "-" disables the comment
+                return INVALID_MARKERS;
+            }
+            hasPositive |= plus;
+            int key = indexOf(text, begin, pos);
+            if (key >= MAX_KEYS) {
+                return new Markers(0, 0, false, false, text.subSequence(from, to).toString());
+            }
+            if (key >= 0) {
+                if (plus) {
+                    positive |= 1L << key;
+                } else {
+                    negative |= 1L << key;
+                }
+            }
+        }
+        return new Markers(positive, negative, hasPositive, false, null);
+    }
+
+    /**
+     * @param keySet the index of the key set, in the order given to the constructor
+     */
+    public boolean isActive(Markers markers, int keySet) {
+        if (markers.invalid) {
+            return false;
+        }
+        if (markers.raw != null) {
+            return JmlDocSanitizer.isActiveJmlSpec(keySets.get(keySet), JmlDocSanitizer.splitTags(markers.raw));
+        }
+        long mask = masks[keySet];
+        return (!markers.hasPositive || (markers.positive & mask) != 0) && (markers.negative & mask) == 0;
+    }
+
+    public boolean isActive(CharSequence text, int from, int to, int keySet) {
+        return isActive(classify(text, from, to), keySet);
+    }
+
+    private int indexOf(CharSequence text, int begin, int end) {
+        int length = end - begin;
+        for (int k = 0; k < keys.length; k++) {
+            String key = keys[k];
+            if (key.length() == length && matchesLowerCase(key, text, begin)) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matchesLowerCase(String key, CharSequence text, int begin) {
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) != Character.toLowerCase(text.charAt(begin + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSign(char c) {
+        return c == '+' || c == '-';
+    }
+
+    /**
+     * The keys of a JML comment as bit masks over the interned keys. Keys that are not enabled in any key set are
+     * not represented, except for whether a positive key occurred at all.
+     */
+    public static final class Markers {
+
+        private final long positive;
+
+        private final long negative;
+
+        private final boolean hasPositive;
+
+        private final boolean invalid;
+
+        /**
+         * The marker text, only set if a key could not be represented in a mask.
+         */
+        private final String raw;
+
+        private Markers(long positive, long negative, boolean hasPositive, boolean invalid, String raw) {
+            this.positive = positive;
+            this.negative = negative;
+            this.hasPositive = hasPositive;
+            this.invalid = invalid;
+            this.raw = raw;
+        }
+    }
+}
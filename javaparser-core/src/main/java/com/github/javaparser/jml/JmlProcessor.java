@@ -21,6 +21,7 @@ import com.github.javaparser.ast.validator.ProblemReporter;
 import com.github.javaparser.ast.visitor.CloneVisitor;
 import com.github.javaparser.ast.visitor.ModifierVisitor;
 import com.github.javaparser.ast.visitor.Visitable;
+import com.github.javaparser.metamodel.PropertyMetaModel;
 import org.jetbrains.annotations.Nullable;
 import java.util.*;
 import java.util.stream.IntStream;
@@ -44,6 +45,70 @@ import java.util.stream.IntStream;
  */
 public class JmlProcessor extends Processor {
 
+    /**
+     * Stored on every node that was created from a JML comment, if the configuration tracks the JML comments: the
+     * {@link JmlDocContainer} it was parsed from.
+     *
+     * @see ParserConfiguration#isTrackJmlDocs()
+     */
+    public static final DataKey<Node> JML_ORIGIN = new DataKey<>() {
+    };
+
+    /**
+     * Stored on every processed {@link JmlDocContainer}, if the configuration tracks the JML comments: the nodes that
+     * were created from it and attached to the AST.
+     */
+    public static final DataKey<List<Node>> JML_GENERATED = new DataKey<>() {
+    };
+
+    /**
+     * Stored on the root of a processed parse result, if the configuration tracks the JML comments.
+     */
+    static final DataKey<JmlDocs> JML_DOCS = new DataKey<>() {
+    };
+
+    /**
+     * Stored on a {@link JmlDocContainer} that has been removed from the AST: the place where it was.
+     */
+    static final DataKey<Anchor> JML_DOC_ANCHOR = new DataKey<>() {
+    };
+
+    /**
+     * The key matcher for the last seen {@link ParserConfiguration#getJmlKeys()}, shared by all parse runs.
+     */
+    private volatile KeyMatcherCache keyMatcherCache;
+
+    private record KeyMatcherCache(List<List<String>> keys, JmlKeyMatcher matcher) {
+    }
+
+    private JmlKeyMatcher getKeyMatcher(ParserConfiguration configuration) {
+        KeyMatcherCache cache = keyMatcherCache;
+        if (cache == null || !cache.keys.equals(configuration.getJmlKeys())) {
+            List<List<String>> keys = new ArrayList<>();
+            for (List<String> keySet : configuration.getJmlKeys()) {
+                keys.add(new ArrayList<>(keySet));
+            }
+            cache = new KeyMatcherCache(keys, new JmlKeyMatcher(keys));
+            keyMatcherCache = cache;
+        }
+        return cache.matcher;
+    }
+
+    /**
+     * The parsers for the JML comments, for the last seen {@link ParserConfiguration}. They are shared by all parse
+     * runs, a parse of a JML comment that is nested in another one takes its own parser out of the pool.
+     */
+    private volatile ParserPool subParsers;
+
+    private ParserPool getSubParsers(ParserConfiguration configuration) {
+        ParserPool pool = subParsers;
+        if (pool == null || pool.getParserConfiguration() != configuration) {
+            pool = new ParserPool(configuration);
+            subParsers = pool;
+        }
+        return pool;
+    }
+
     @Override
     public void postProcess(ParseResult<? extends Node> result, ParserConfiguration configuration) {
         if (configuration.isProcessJml()) {
@@ -51,16 +116,34 @@ public class JmlProcessor extends Processor {
             final Optional<CommentsCollection> comments = result.getCommentsCollection();
             ArrayList<Node> processedJmlDoc = new ArrayList<>(4096 * 10);
             if (r.isPresent() && comments.isPresent()) {
-                for (List<String> activeKeys : configuration.getJmlKeys()) {
-                    final JmlReplaceVisitor v = new JmlReplaceVisitor(configuration, new TreeSet<>(activeKeys), result.getProblems());
-                    r.get().accept(v, null);
-                    //System.out.format("cap: %d, size: %d, add: %d", 0, processedJmlDoc.size(), v.processedJmlDoc.size());
-                    processedJmlDoc.addAll(v.processedJmlDoc);
+                JmlKeyMatcher matcher = getKeyMatcher(configuration);
+                // the markers of each comment are only classified once for all key sets
+                Map<JmlDoc, JmlKeyMatcher.Markers> markers = new IdentityHashMap<>();
+                List<List<String>> jmlKeys = configuration.getJmlKeys();
+                ParserPool pool = getSubParsers(configuration);
+                JavaParser javaParser = pool.borrow();
+                try {
+                    for (int i = 0; i < jmlKeys.size(); i++) {
+                        final JmlReplaceVisitor v = new JmlReplaceVisitor(javaParser, new TreeSet<>(jmlKeys.get(i)), result.getProblems(), matcher, i, markers, configuration.isTrackJmlDocs());
+                        r.get().accept(v, null);
+                        //System.out.format("cap: %d, size: %d, add: %d", 0, processedJmlDoc.size(), v.processedJmlDoc.size());
+                        processedJmlDoc.addAll(v.processedJmlDoc);
+                    }
+                } finally {
+                    pool.release(javaParser);
                 }
             }
+            boolean tracking = configuration.isTrackJmlDocs();
+            if (tracking) {
+                r.ifPresent(root -> root.setData(JML_DOCS, new JmlDocs(root, distinct(processedJmlDoc))));
+            }
             if (!configuration.isKeepJmlDocs()) {
                 for (Node jmlDocContainer : processedJmlDoc) {
-                    jmlDocContainer.remove();
+                    if (tracking) {
+                        detach(jmlDocContainer);
+                    } else {
+                        jmlDocContainer.remove();
+                    }
                 }
                 //JmlDocHardRemover remover = new JmlDocHardRemover();
                 //remover.postProcess(result, configuration);
@@ -70,6 +153,128 @@ public class JmlProcessor extends Processor {
         }
     }
 
+    /**
+     * All processed {@link JmlDocContainer}s of a tree, also those which were removed from the AST afterwards.
+     *
+     * @return the containers, or empty if the tree was not processed with a configuration tracking the JML comments.
+     * A clone of a processed tree has no containers of its own.
+     * @see ParserConfiguration#isTrackJmlDocs()
+     */
+    public static Optional<List<Node>> getJmlDocContainers(Node root) {
+        return root.findData(JML_DOCS).filter(docs -> docs.root() == root).map(JmlDocs::containers);
+    }
+
+    /**
+     * Translates a single {@link JmlDocContainer} of an already processed AST again, e.g., after its text has changed.
+     * The nodes previously created from the container have to be removed before. The new nodes are tracked like the
+     * old ones, regardless of the given configuration.
+     *
+     * @param container a container listed in {@link #getJmlDocContainers(Node)}
+     * @return the problems found while parsing the JML comments
+     */
+    static List<Problem> reprocess(Node container, ParserConfiguration configuration) {
+        List<Problem> problems = new ArrayList<>();
+        if (!container.getParentNode().isPresent()) {
+            Anchor anchor = container.getData(JML_DOC_ANCHOR);
+            anchor.reinsert(container);
+        }
+        JmlKeyMatcher matcher = new JmlKeyMatcher(configuration.getJmlKeys());
+        Map<JmlDoc, JmlKeyMatcher.Markers> markers = new IdentityHashMap<>();
+        List<List<String>> jmlKeys = configuration.getJmlKeys();
+        JavaParser javaParser = new JavaParser(configuration);
+        for (int i = 0; i < jmlKeys.size(); i++) {
+            JmlReplaceVisitor v = new JmlReplaceVisitor(javaParser, new TreeSet<>(jmlKeys.get(i)), problems, matcher, i, markers, true);
+            v.process(container);
+        }
+        if (!configuration.isKeepJmlDocs() || container instanceof Modifier) {
+            detach(container);
+        }
+        return problems;
+    }
+
+    private static List<Node> distinct(List<Node> nodes) {
+        Set<Node> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Node> result = new ArrayList<>(nodes.size());
+        for (Node n : nodes) {
+            if (seen.add(n)) {
+                result.add(n);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes the container from the AST, remembering its position for a later {@link #reprocess(Node, ParserConfiguration)}.
+     */
+    private static void detach(Node container) {
+        Anchor.of(container).ifPresent(a -> container.setData(JML_DOC_ANCHOR, a));
+        container.remove();
+    }
+
+    private static void track(Node container, Node child) {
+        child.setData(JML_ORIGIN, container);
+        if (!container.containsData(JML_GENERATED)) {
+            container.setData(JML_GENERATED, new ArrayList<>());
+        }
+        container.getData(JML_GENERATED).add(child);
+    }
+
+    /**
+     * The processed {@link JmlDocContainer}s of a tree. The root is kept to tell the tree apart from its clones, which
+     * get the data of the tree by reference.
+     */
+    record JmlDocs(Node root, List<Node> containers) {
+    }
+
+    /**
+     * The position of a detached {@link JmlDocContainer}: the list it was stored in and the next sibling that was
+     * not created from JML, or null if there was none.
+     */
+    record Anchor(Node parent, NodeList<Node> list, @Nullable Node next) {
+
+        @SuppressWarnings("unchecked")
+        static Optional<Anchor> of(Node container) {
+            Optional<Node> parent = container.getParentNode();
+            if (!parent.isPresent()) {
+                return Optional.ofNullable(container.containsData(JML_DOC_ANCHOR) ? container.getData(JML_DOC_ANCHOR) : null);
+            }
+            for (PropertyMetaModel property : parent.get().getMetaModel().getAllPropertyMetaModels()) {
+                if (!property.isNodeList()) {
+                    continue;
+                }
+                NodeList<Node> list = (NodeList<Node>) property.getValue(parent.get());
+                if (list == null) {
+                    continue;
+                }
+                int pos = indexOf(list, container);
+                if (pos >= 0) {
+                    Node next = null;
+                    for (int i = pos + 1; i < list.size() && next == null; i++) {
+                        if (!list.get(i).containsData(JML_ORIGIN)) {
+                            next = list.get(i);
+                        }
+                    }
+                    return Optional.of(new Anchor(parent.get(), list, next));
+                }
+            }
+            return Optional.empty();
+        }
+
+        void reinsert(Node container) {
+            int pos = next == null ? -1 : indexOf(list, next);
+            list.add(pos < 0 ? list.size() : pos, container);
+        }
+
+        private static int indexOf(NodeList<Node> list, Node node) {
+            for (int i = 0; i < list.size(); i++) {
+                if (list.get(i) == node) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
     private static class JmlReplaceVisitor extends ModifierVisitor<Void> {
 
         final ProblemReporter reporter;
@@ -84,20 +289,72 @@ public class JmlProcessor extends Processor {
 
         private final NodeList<SimpleName> enabledKeys = new NodeList<>();
 
-        private JmlReplaceVisitor(ParserConfiguration config, Set<String> activeKeys, List<Problem> problems) {
+        private final JmlKeyMatcher matcher;
+
+        private final int keySet;
+
+        private final Map<JmlDoc, JmlKeyMatcher.Markers> markers;
+
+        private final boolean tracking;
+
+        private JmlReplaceVisitor(JavaParser javaParser, Set<String> activeKeys, List<Problem> problems, JmlKeyMatcher matcher, int keySet, Map<JmlDoc, JmlKeyMatcher.Markers> markers, boolean tracking) {
             this.problems = problems;
+            this.matcher = matcher;
+            this.keySet = keySet;
+            this.markers = markers;
             this.reporter = new ProblemReporter(this.problems::add);
-            javaParser = new JavaParser(config);
+            this.javaParser = javaParser;
+            this.tracking = tracking;
             sanitizer = new JmlDocSanitizer(activeKeys);
             for (String k : activeKeys) {
                 enabledKeys.add(new SimpleName(k));
             }
         }
 
+        private void attached(Node container, Node child) {
+            if (tracking) {
+                track(container, child);
+            }
+        }
+
+        void process(Node container) {
+            if (container instanceof JmlDocDeclaration) {
+                visit((JmlDocDeclaration) container, null);
+            } else if (container instanceof JmlDocType) {
+                visit((JmlDocType) container, null);
+            } else if (container instanceof JmlDocStmt) {
+                BlockStmt block = (BlockStmt) container.getParentNode().get();
+                int pos = IntStream.range(0, block.getStatements().size()).filter(i -> block.getStatement(i) == container).findFirst().orElse(-1);
+                handleJmlStatementLevel(block, (JmlDocStmt) container, pos);
+            } else if (container instanceof Modifier) {
+                handleModifier((Modifier) container);
+            }
+        }
+
+        /**
+         * Sanitizes the active comments of the given list. Inactive comments are dropped before any string is built.
+         *
+         * @return the sanitized text, or null if no comment is active for the current key set
+         */
+        @Nullable
+        private String sanitize(NodeList<JmlDoc> jmlDocs) {
+            List<JavaToken> active = new ArrayList<>(jmlDocs.size());
+            for (JmlDoc doc : jmlDocs) {
+                JmlKeyMatcher.Markers m = markers.computeIfAbsent(doc, matcher::classify);
+                if (matcher.isActive(m, keySet)) {
+                    active.add(doc.getContent());
+                }
+            }
+            if (active.isEmpty()) {
+                return null;
+            }
+            return sanitizer.asStringJT(active, true);
+        }
+
         @Nullable
         private ArbitraryNodeContainer parseJmlMethodLevel(NodeList<JmlDoc> jmlDocs) {
-            final String content = sanitizer.asString(jmlDocs);
-            if (content.trim().isEmpty()) {
+            final String content = sanitize(jmlDocs);
+            if (content == null || content.trim().isEmpty()) {
                 return new ArbitraryNodeContainer(new NodeList<>());
             }
             ParseResult<ArbitraryNodeContainer> r = javaParser.parseJmlMethodLevel(content);
@@ -117,21 +374,33 @@ public class JmlProcessor extends Processor {
 
         @Nullable
         private ArbitraryNodeContainer parseJmlClasslevel(NodeList<JmlDoc> jmlDocs) {
-            ParseResult<ArbitraryNodeContainer> r = javaParser.parseJmlClassLevel(sanitizer.asString(jmlDocs));
+            final String content = sanitize(jmlDocs);
+            if (content == null) {
+                return new ArbitraryNodeContainer(new NodeList<>());
+            }
+            ParseResult<ArbitraryNodeContainer> r = javaParser.parseJmlClassLevel(content);
             problems.addAll(r.getProblems());
             return r.getResult().orElse(null);
         }
 
         @Nullable
         private ArbitraryNodeContainer parseJmlTypeLevel(NodeList<JmlDoc> jmlDocs) {
-            ParseResult<ArbitraryNodeContainer> r = javaParser.parseJmlTypeLevel(sanitizer.asString(jmlDocs));
+            final String content = sanitize(jmlDocs);
+            if (content == null) {
+                return new ArbitraryNodeContainer(new NodeList<>());
+            }
+            ParseResult<ArbitraryNodeContainer> r = javaParser.parseJmlTypeLevel(content);
             problems.addAll(r.getProblems());
             return r.getResult().orElse(null);
         }
 
         @Nullable
         private ArbitraryNodeContainer parseJmlModifierLevel(NodeList<JmlDoc> jmlDocs) {
-            ParseResult<ArbitraryNodeContainer> r = javaParser.parseJmlModifierLevel(sanitizer.asString(jmlDocs));
+            final String content = sanitize(jmlDocs);
+            if (content == null) {
+                return new ArbitraryNodeContainer(new NodeList<>());
+            }
+            ParseResult<ArbitraryNodeContainer> r = javaParser.parseJmlModifierLevel(content);
             problems.addAll(r.getProblems());
             return r.getResult().orElse(null);
         }
@@ -151,6 +420,7 @@ public class JmlProcessor extends Processor {
                     for (Node child : t.getChildren()) {
                         if (child instanceof BodyDeclaration<?>) {
                             members.add(pos, (BodyDeclaration<?>) child);
+                            attached(n, child);
                         } else if (child instanceof Modifier) {
                             reporter.report(child, "JML modifier does not refer to any construct.");
                         } else if (child instanceof JmlContract) {
@@ -164,10 +434,13 @@ public class JmlProcessor extends Processor {
                     for (Node child : t.getChildren()) {
                         if (child instanceof BodyDeclaration<?>) {
                             members.add(pos, (BodyDeclaration<?>) child);
+                            attached(n, child);
                         } else if (child instanceof Modifier) {
                             ((NodeWithModifiers<?>) next).getModifiers().add((Modifier) child);
+                            attached(n, child);
                         } else if (child instanceof JmlContract) {
                             ((NodeWithContracts<?>) next).addContracts((JmlContract) child);
+                            attached(n, child);
                         } else {
                             reporter.report(child, "JML construct " + child.getClass().getSimpleName() + " not supported at this position.");
                         }
@@ -192,6 +465,7 @@ public class JmlProcessor extends Processor {
                 for (Node child : t.getChildren()) {
                     if (child instanceof ImportDeclaration) {
                         parent.addImport((ImportDeclaration) child);
+                        attached(n, child);
                     } else {
                         reporter.report(child, "Not JML construct supported");
                     }
@@ -238,12 +512,14 @@ public class JmlProcessor extends Processor {
             for (Node child : t.getChildren()) {
                 if (child instanceof JmlStatement) {
                     p.getStatements().add(insertPosition++, (JmlStatement) child);
+                    attached(n, child);
                 } else if (child instanceof Modifier) {
                     if (nextStatement == null) {
                         reporter.report(child, "You passed a modifier but there is following " + "statement to carry it.");
                     } else {
                         try {
                             ((NodeWithModifiers<?>) nextStatement).getModifiers().add((Modifier) child);
+                            attached(n, child);
                         } catch (ClassCastException e) {
                             reporter.report(nextStatement, "You passed a JML modifier but the following " + "statement is not able to carry modifiers. " + nextStatement.getMetaModel().getTypeName());
                         }
@@ -254,6 +530,7 @@ public class JmlProcessor extends Processor {
                     } else {
                         try {
                             ((NodeWithContracts<?>) nextStatement).addContracts((JmlContract) child);
+                            attached(n, child);
                         } catch (ClassCastException e) {
                             reporter.report(nextStatement, "You passed a JML contract but the following " + "statement is not able to carry contract. " + nextStatement.getMetaModel().getTypeName());
                         }
@@ -279,6 +556,9 @@ public class JmlProcessor extends Processor {
             JmlDocModifier doc = (JmlDocModifier) n.getKeyword();
             if (n.getParentNode().isPresent()) {
                 processedJmlDoc.add(n);
+                if (tracking) {
+                    Anchor.of(n).ifPresent(a -> n.setData(JML_DOC_ANCHOR, a));
+                }
                 NodeWithModifiers<?> parent = (NodeWithModifiers<?>) n.getParentNode().get();
                 ArbitraryNodeContainer t = parseJmlModifierLevel(doc.getJmlComments());
                 if (t == null)
@@ -287,8 +567,10 @@ public class JmlProcessor extends Processor {
                 for (Node child : t.getChildren()) {
                     if (child instanceof Modifier) {
                         parent.getModifiers().add((Modifier) child);
+                        attached(n, child);
                     } else if (child instanceof AnnotationExpr) {
                         ((NodeWithAnnotations<?>) parent).addAnnotation((AnnotationExpr) child);
+                        attached(n, child);
                     } else {
                         reporter.report(child, "JML not supported");
                     }
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.jml;
+
+import com.github.javaparser.JavaToken;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeAttachment;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.jml.clauses.JmlClause;
+import com.github.javaparser.ast.jml.clauses.JmlContract;
+import com.github.javaparser.ast.observer.AstObserverAdapter;
+import com.github.javaparser.ast.observer.ObservableProperty;
+import com.github.javaparser.ast.visitor.NoCommentEqualsVisitor;
+import com.github.javaparser.ast.visitor.NoCommentHashCodeVisitor;
+
+/**
+ * The hash of a subtree computed by {@link NoCommentHashCodeVisitor}, which ignores positions and comments: two
+ * subtrees that are equal according to {@link NoCommentEqualsVisitor} have the same hash. The hash of a contract,
+ * clause or expression is remembered for the node it is asked for, and an observer registered on its subtree drops
+ * it as soon as the node or one of its descendants changes.
+ * <p>
+ * The hashes of the operators and other enumerations are their identity hash codes, so the hash is only meaningful
+ * within one run. Changing the text of a {@link JavaToken} is not observable, call {@link #invalidate(Node)} after
+ * doing so.
+ *
+ * @see JmlContractInterner
+ */
+public final class JmlStructuralHash {
+
+    private static final NodeAttachment<Memo> STRUCTURAL_HASH = new NodeAttachment<>(memo -> memo);
+
+    private JmlStructuralHash() {
+    }
+
+    /**
+     * @return the structural hash of the given subtree, computed at most once until the subtree changes.
+     */
+    public static int hash(Node node) {
+        if (!isMemoized(node)) {
+            return NoCommentHashCodeVisitor.hashCode(node);
+        }
+        Memo memo = STRUCTURAL_HASH.computeIfAbsent(node, n -> new Memo());
+        Integer hash = memo.hash;
+        if (hash == null) {
+            hash = NoCommentHashCodeVisitor.hashCode(node);
+            memo.hash = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * @return true if both subtrees are equal, ignoring positions and comments. Different remembered hashes rule
+     * out equality without walking the subtrees.
+     */
+    public static boolean equals(Node a, Node b) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null || hash(a) != hash(b)) {
+            return false;
+        }
+        return NoCommentEqualsVisitor.equals(a, b);
+    }
+
+    /**
+     * @return true if the hash of this node is currently remembered.
+     */
+    public static boolean isCached(Node node) {
+        return STRUCTURAL_HASH.find(node).map(memo -> memo.hash != null).orElse(false);
+    }
+
+    /**
+     * Drops the remembered hash of the given node and of all its ancestors.
+     */
+    public static void invalidate(Node node) {
+        for (Node n = node; n != null; n = n.getParentNode().orElse(null)) {
+            STRUCTURAL_HASH.find(n).ifPresent(memo -> memo.hash = null);
+        }
+    }
+
+    private static boolean isMemoized(Node node) {
+        return node instanceof JmlContract || node instanceof JmlClause || node instanceof Expression;
+    }
+
+    /**
+     * The remembered hash of a node, dropped on structural changes of its subtree. Changes of the range or the
+     * comment do not affect the hash.
+     */
+    private static final class Memo extends AstObserverAdapter {
+
+        private volatile Integer hash;
+
+        @Override
+        public void propertyChange(Node observedNode, ObservableProperty property, Object oldValue, Object newValue) {
+            if (property != ObservableProperty.RANGE && property != ObservableProperty.COMMENT) {
+                hash = null;
+            }
+        }
+
+        @Override
+        public void listChange(NodeList<?> observedNode, ListChangeType type, int index, Node nodeAddedOrRemoved) {
+            hash = null;
+        }
+
+        @Override
+        public void listReplacement(NodeList<?> observedNode, int index, Node oldNode, Node newNode) {
+            hash = null;
+        }
+    }
+}
@@ -11,7 +11,8 @@ public class StringConstructor {
 
     public StringConstructor append(String value) {
         sb.ensureCapacity(sb.length() + value.length() + 1);
-        for (char c : value.toCharArray()) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
             sb.append(c);
             if (c == '\n') {
                 curColumn = 1;
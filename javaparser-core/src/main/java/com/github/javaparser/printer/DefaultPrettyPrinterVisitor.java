@@ -58,6 +58,8 @@ import com.github.javaparser.printer.configuration.imports.DefaultImportOrdering
 
 /**
  * Outputs the AST as formatted Java source code.
+ * <p>
+ * A visitor prints a single node. To print another one with the same visitor, call {@link #reset()} in between.
  */
 public class DefaultPrettyPrinterVisitor implements VoidVisitor<Void> {
 
@@ -1010,6 +1012,8 @@ public class DefaultPrettyPrinterVisitor implements VoidVisitor<Void> {
         assert inJmlComment() && inJmlSingleComment != inJmlMultiComment;
         if (inJmlSingleComment) {
             printer.println("");
+        } else if (getOption(ConfigOption.JML_BLOCK_COMMENT_END_WITH_AT).isPresent()) {
+            printer.println("@*/");
         } else {
             printer.println("*/");
         }
@@ -2291,10 +2295,9 @@ public class DefaultPrettyPrinterVisitor implements VoidVisitor<Void> {
         if (node instanceof Comment)
             return;
         Node parent = node.getParentNode().orElse(null);
-        if (parent == null)
+        if (parent == null || !hasCommentChild(parent))
             return;
-        List<Node> everything = new ArrayList<>(parent.getChildNodes());
-        sortByBeginPosition(everything);
+        List<Node> everything = getChildrenSortedByPosition(parent);
         int positionOfTheChild = -1;
         for (int i = 0; i < everything.size(); ++i) {
             // indexOf is by equality, so this is used to index by identity
@@ -2320,13 +2323,9 @@ public class DefaultPrettyPrinterVisitor implements VoidVisitor<Void> {
     }
 
     private void printOrphanCommentsEnding(final Node node) {
-        if (!getOption(ConfigOption.PRINT_COMMENTS).isPresent())
-            return;
-        List<Node> everything = new ArrayList<>(node.getChildNodes());
-        sortByBeginPosition(everything);
-        if (everything.isEmpty()) {
+        if (!getOption(ConfigOption.PRINT_COMMENTS).isPresent() || !hasCommentChild(node))
             return;
-        }
+        List<Node> everything = getChildrenSortedByPosition(node);
         int commentsAtEnd = 0;
         boolean findingComments = true;
         while (findingComments && commentsAtEnd < everything.size()) {
@@ -2341,6 +2340,19 @@ public class DefaultPrettyPrinterVisitor implements VoidVisitor<Void> {
         }
     }
 
+    /**
+     * Orphan comments are the only comments among the child nodes. Most nodes have none, which makes copying and
+     * sorting the children for every printed node unnecessary.
+     */
+    private static boolean hasCommentChild(Node node) {
+        for (Node child : node.getChildNodes()) {
+            if (child instanceof Comment) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void indentIf(boolean expr) {
         if (expr)
             printer.indent();
@@ -2351,7 +2363,29 @@ public class DefaultPrettyPrinterVisitor implements VoidVisitor<Void> {
             printer.unindent();
     }
 
-    private Optional<ConfigurationOption> getOption(ConfigOption cOption) {
+    /**
+     * @return the option of the configuration, looked up for every visited node that depends on it.
+     */
+    protected Optional<ConfigurationOption> getOption(ConfigOption cOption) {
         return configuration.get(new DefaultConfigurationOption(cOption));
     }
+
+    /**
+     * @return a copy of the child nodes of a node with orphan comments, sorted by position. The list is not modified.
+     */
+    protected List<Node> getChildrenSortedByPosition(Node node) {
+        List<Node> children = new ArrayList<>(node.getChildNodes());
+        sortByBeginPosition(children);
+        return children;
+    }
+
+    /**
+     * Brings this visitor and its printer back into the initial state, so that it can print another node.
+     */
+    public void reset() {
+        printer.reset();
+        inJmlSingleComment = false;
+        inJmlMultiComment = false;
+        jmlOpenColumn = null;
+    }
 }
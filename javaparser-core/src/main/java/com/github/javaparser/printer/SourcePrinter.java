@@ -25,6 +25,9 @@ import com.github.javaparser.printer.configuration.*;
 import com.github.javaparser.printer.configuration.DefaultPrinterConfiguration.ConfigOption;
 import com.github.javaparser.printer.configuration.Indentation.IndentType;
 import com.github.javaparser.utils.Utils;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.Deque;
 import java.util.LinkedList;
 
@@ -33,6 +36,11 @@ import java.util.LinkedList;
  */
 public class SourcePrinter {
 
+    /**
+     * The number of buffered characters after which complete lines are passed on to the {@link #sink}.
+     */
+    private static final int FLUSH_THRESHOLD = 8192;
+
     private String endOfLineCharacter;
 
     private Indentation indentation;
@@ -50,6 +58,11 @@ public class SourcePrinter {
 
     private boolean indented = false;
 
+    /**
+     * If set, complete lines are written to this writer instead of being kept in the buffer.
+     */
+    private Writer sink;
+
     SourcePrinter() {
         this(new DefaultPrinterConfiguration());
     }
@@ -205,9 +218,48 @@ public class SourcePrinter {
         // Start before the first column
         cursor = new Position(cursor.line + 1, Position.FIRST_COLUMN - 1);
         indented = false;
+        if (sink != null && buf.length() >= FLUSH_THRESHOLD) {
+            flush();
+        }
         return this;
     }
 
+    /**
+     * Writes the printed text to the given writer as it is produced, instead of collecting it. The text that has not
+     * been written yet is available through {@link #toString()} until {@link #flush()} is called.
+     */
+    void setSink(Writer sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Writes the buffered text to the sink and empties the buffer.
+     */
+    void flush() {
+        if (sink == null) {
+            return;
+        }
+        try {
+            sink.append(buf);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buf.setLength(0);
+    }
+
+    /**
+     * Brings this printer back into its initial state, so that it can be reused for another node.
+     */
+    void reset() {
+        buf.setLength(0);
+        indents.clear();
+        indents.push("");
+        reindentedIndents.clear();
+        lastPrintedIndent = "";
+        cursor = new Position(Position.FIRST_LINE, Position.FIRST_COLUMN - 1);
+        indented = false;
+    }
+
     /**
      * Return the current cursor position (line, column) in the source printer buffer.
      * <p>
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.printer;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.printer.configuration.ConfigurationOption;
+import com.github.javaparser.printer.configuration.DefaultConfigurationOption;
+import com.github.javaparser.printer.configuration.DefaultPrinterConfiguration;
+import com.github.javaparser.printer.configuration.DefaultPrinterConfiguration.ConfigOption;
+import com.github.javaparser.printer.configuration.PrinterConfiguration;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A pretty printer for printing many nodes, e.g. when emitting instrumented sources for a whole project.
+ * <p>
+ * In contrast to {@link DefaultPrettyPrinter}, a single visitor and source printer are created and reused for every
+ * printed node, the configuration options are looked up once per printed node instead of once per visited node, and
+ * the output is written to a {@link Writer} in chunks instead of being collected in a string first.
+ * The output is the same as the one of {@link DefaultPrettyPrinter} with the same configuration.
+ * <p>
+ * Instances are not thread-safe; use one printer per thread.
+ */
+public class StreamingPrettyPrinter implements Printer {
+
+    private PrinterConfiguration configuration;
+
+    private SourcePrinter sourcePrinter;
+
+    private CachingVisitor visitor;
+
+    public StreamingPrettyPrinter() {
+        this(new DefaultPrinterConfiguration());
+    }
+
+    public StreamingPrettyPrinter(PrinterConfiguration configuration) {
+        setConfiguration(configuration);
+    }
+
+    /**
+     * @return a printer that emits JML contracts and other multi-line JML comments as {@code /*@ ... @*&#47;} blocks.
+     */
+    public static StreamingPrettyPrinter forJml() {
+        return forJml(new DefaultPrinterConfiguration());
+    }
+
+    /**
+     * @return a printer like {@link #forJml()}, with the options of the given configuration. The printer uses a copy
+     * of the configuration, so the given one and the other printers using it are not changed.
+     */
+    public static StreamingPrettyPrinter forJml(PrinterConfiguration configuration) {
+        PrinterConfiguration copy = new DefaultPrinterConfiguration();
+        for (ConfigurationOption option : new ArrayList<>(copy.get())) {
+            copy.removeOption(option);
+        }
+        for (ConfigurationOption option : configuration.get()) {
+            copy.addOption(option);
+        }
+        copy.addOption(new DefaultConfigurationOption(ConfigOption.JML_BLOCK_COMMENT_END_WITH_AT));
+        return new StreamingPrettyPrinter(copy);
+    }
+
+    /**
+     * Prints the node to the given writer. The writer is neither flushed nor closed.
+     */
+    public void print(Node node, Writer out) throws IOException {
+        visitor.reset();
+        sourcePrinter.setSink(out);
+        try {
+            node.accept(visitor, null);
+            sourcePrinter.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            sourcePrinter.setSink(null);
+            visitor.clearCaches();
+        }
+    }
+
+    @Override
+    public String print(Node node) {
+        StringWriter out = new StringWriter();
+        try {
+            print(node, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    @Override
+    public PrinterConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Sets the configuration. Options added to the configuration later take effect on the next call of a print
+     * method, except for the indentation and the end of line character, which need a new call of this method.
+     */
+    @Override
+    public Printer setConfiguration(PrinterConfiguration configuration) {
+        this.configuration = configuration;
+        this.sourcePrinter = new SourcePrinter(configuration);
+        this.visitor = new CachingVisitor(configuration, sourcePrinter);
+        return this;
+    }
+
+    /**
+     * Remembers the options and the sorted children it looked up while printing one node. The caches are cleared
+     * after each print, so they neither keep the printed nodes alive nor hide changes made between two prints.
+     */
+    private static class CachingVisitor extends DefaultPrettyPrinterVisitor {
+
+        private final Map<ConfigOption, Optional<ConfigurationOption>> options = new EnumMap<>(ConfigOption.class);
+
+        private final Map<Node, List<Node>> sortedChildren = new IdentityHashMap<>();
+
+        CachingVisitor(PrinterConfiguration configuration, SourcePrinter printer) {
+            super(configuration, printer);
+        }
+
+        @Override
+        protected Optional<ConfigurationOption> getOption(ConfigOption cOption) {
+            return options.computeIfAbsent(cOption, super::getOption);
+        }
+
+        @Override
+        protected List<Node> getChildrenSortedByPosition(Node node) {
+            return sortedChildren.computeIfAbsent(node, super::getChildrenSortedByPosition);
+        }
+
+        void clearCaches() {
+            options.clear();
+            sortedChildren.clear();
+        }
+    }
+}
@@ -63,6 +63,10 @@ public class DefaultPrinterConfiguration implements PrinterConfiguration {
          * Does not print anything of jml, neither {@link com.github.javaparser.ast.Jmlish} nodes or jml comments.
          */
         NO_JML(Boolean.class),
+        /**
+         * Close JML block comments with {@code @*&#47;} instead of {@code *&#47;}, as most JML tools emit them.
+         */
+        JML_BLOCK_COMMENT_END_WITH_AT(Boolean.class),
         SPACE_AROUND_OPERATORS(Boolean.class),
         COLUMN_ALIGN_PARAMETERS(Boolean.class),
         COLUMN_ALIGN_FIRST_METHOD_CHAIN(Boolean.class),
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2013-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.resolution;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.resolution.declarations.ResolvedMethodDeclaration;
+
+/**
+ * Notified of the steps of symbol resolution with the time they took, to find out where the time of an analysis is
+ * spent. A listener is registered for a hierarchy of type solvers with {@link ResolutionListeners}, the steps using
+ * any of these solvers are reported to it.
+ * <br>The times are in nanoseconds, and include the time of the nested steps: solving a type with a combined solver
+ * includes the time of the solvers it asks. A listener may be called from several threads at once.
+ */
+public interface ResolutionListener {
+
+    /**
+     * A type solver has been asked for a type.
+     */
+    default void typeSolved(TypeSolver typeSolver, String name, boolean solved, long nanos) {
+    }
+
+    /**
+     * The context of a node has been created.
+     */
+    default void contextCreated(Node node, long nanos) {
+    }
+
+    /**
+     * The most applicable method has been looked for among {@code candidates} methods.
+     */
+    default void methodSelected(String name, int candidates, boolean solved, long nanos) {
+    }
+
+    /**
+     * The type arguments of an invocation of a generic method have been inferred.
+     */
+    default void typeInferred(ResolvedMethodDeclaration method, boolean applicable, long nanos) {
+    }
+}
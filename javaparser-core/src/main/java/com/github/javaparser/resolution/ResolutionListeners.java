@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2013-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.resolution;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The {@link ResolutionListener}s, each registered for the root of the hierarchy of type solvers it listens to.
+ * <br>As long as no listener is registered, looking up the listener of a type solver only reads a field, so the
+ * instrumented steps cost nothing more. A solver later added to another hierarchy reports to the listener of its new
+ * root.
+ * <br>The roots are referenced weakly: the listener of a root that is no longer used is dropped at the next
+ * registration or unregistration, unless the listener itself references the root. There is one listener per root, so
+ * the listeners are bounded by the roots in use.
+ */
+public final class ResolutionListeners {
+
+    /**
+     * The listeners by root, replaced as a whole on every change. Type solvers may define equality by content, so
+     * they are compared by identity.
+     */
+    private static volatile Map<Object, ResolutionListener> listeners = Collections.emptyMap();
+
+    private ResolutionListeners() {
+    }
+
+    /**
+     * Registers the listener for the hierarchy of the type solver, replacing the one registered before.
+     */
+    public static void register(TypeSolver typeSolver, ResolutionListener listener) {
+        Objects.requireNonNull(listener);
+        TypeSolver root = typeSolver.getRoot();
+        synchronized (ResolutionListeners.class) {
+            Map<Object, ResolutionListener> copy = liveCopy();
+            copy.remove(new Lookup(root));
+            copy.put(new RootReference(root), listener);
+            listeners = copy;
+        }
+    }
+
+    public static void unregister(TypeSolver typeSolver) {
+        TypeSolver root = typeSolver.getRoot();
+        synchronized (ResolutionListeners.class) {
+            Map<Object, ResolutionListener> copy = liveCopy();
+            copy.remove(new Lookup(root));
+            listeners = copy.isEmpty() ? Collections.emptyMap() : copy;
+        }
+    }
+
+    /**
+     * @return the listener registered for the hierarchy of the type solver, or null if there is none.
+     */
+    public static ResolutionListener of(TypeSolver typeSolver) {
+        Map<Object, ResolutionListener> current = listeners;
+        if (current.isEmpty() || typeSolver == null) {
+            return null;
+        }
+        return current.get(new Lookup(typeSolver.getRoot()));
+    }
+
+    /**
+     * @return a copy of the listeners, without those of the roots which have been collected.
+     */
+    private static Map<Object, ResolutionListener> liveCopy() {
+        Map<Object, ResolutionListener> copy = new HashMap<>();
+        listeners.forEach((root, listener) -> {
+            if (((RootReference) root).get() != null) {
+                copy.put(root, listener);
+            }
+        });
+        return copy;
+    }
+
+    /**
+     * A root compared by identity, which does not keep it alive.
+     */
+    private static final class RootReference extends WeakReference<TypeSolver> {
+
+        private final int hash;
+
+        RootReference(TypeSolver root) {
+            super(root);
+            this.hash = System.identityHashCode(root);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o == this || (o instanceof Lookup && ((Lookup) o).root == get());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * The key a root is looked up with.
+     */
+    private static final class Lookup {
+
+        private final TypeSolver root;
+
+        Lookup(TypeSolver root) {
+            this.root = root;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof RootReference && ((RootReference) o).get() == root;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(root);
+        }
+    }
+}
@@ -20,8 +20,13 @@
  */
 package com.github.javaparser.resolution;
 
+import com.github.javaparser.resolution.cache.CacheStats;
 import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
 import com.github.javaparser.resolution.model.SymbolReference;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * An element able to find TypeDeclaration from their name.
@@ -90,4 +95,25 @@ public interface TypeSolver {
     default boolean hasType(String name) {
         return tryToSolveType(name).isSolved();
     }
+
+    /**
+     * The packages of the types this solver can solve, if it knows them in advance. A name is only solved by this
+     * solver if the part of the name before one of its dots is among these packages, or if they include the default
+     * package, written as the empty string. Nested types thus belong to the package of their outermost type.
+     * <br>A solver combining other solvers uses this to ask a solver only for the names in its packages.
+     *
+     * @return The known packages, or empty if this solver may solve names of any package.
+     */
+    default Optional<Set<String>> getKnownPackages() {
+        return Optional.empty();
+    }
+
+    /**
+     * The statistics of the caches of this solver, not including those of the solvers it combines.
+     *
+     * @return The statistics by name of the cache.
+     */
+    default Map<String, CacheStats> getCacheStats() {
+        return Collections.emptyMap();
+    }
 }
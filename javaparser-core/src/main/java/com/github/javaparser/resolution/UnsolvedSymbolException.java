@@ -22,11 +22,31 @@ package com.github.javaparser.resolution;
 
 /**
  * This exception is thrown when a symbol cannot be resolved.
+ * <br>
+ * Code with an incomplete class path throws many of these, and recording their stack trace takes most of the time
+ * spent on them. The stack trace is recorded by default; set the system property
+ * {@code javaparser.unsolvedSymbol.stackTraces} to {@code false}, or call {@link #setRecordingStackTraces(boolean)},
+ * to leave it out.
  *
  * @author Federico Tomassetti
  */
 public class UnsolvedSymbolException extends RuntimeException {
 
+    private static volatile boolean recordingStackTraces =
+            !"false".equalsIgnoreCase(System.getProperty("javaparser.unsolvedSymbol.stackTraces"));
+
+    /**
+     * Whether the exceptions created from now on record their stack trace, which they do by default. This applies to
+     * the whole JVM.
+     */
+    public static void setRecordingStackTraces(boolean recordingStackTraces) {
+        UnsolvedSymbolException.recordingStackTraces = recordingStackTraces;
+    }
+
+    public static boolean isRecordingStackTraces() {
+        return recordingStackTraces;
+    }
+
     /**
      * The name of the symbol that could not be resolved.
      */
@@ -57,7 +77,7 @@ public class UnsolvedSymbolException extends RuntimeException {
     }
 
     public UnsolvedSymbolException(String name, String context, Throwable cause) {
-        super("Unsolved symbol" + (context != null ? " in " + context : "") + " : " + name, cause);
+        super("Unsolved symbol" + (context != null ? " in " + context : "") + " : " + name, cause, true, recordingStackTraces);
         this.name = name;
         this.context = context;
         this.cause = cause;
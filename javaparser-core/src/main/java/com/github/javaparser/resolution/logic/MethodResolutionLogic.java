@@ -22,6 +22,8 @@ package com.github.javaparser.resolution.logic;
 
 import com.github.javaparser.resolution.MethodAmbiguityException;
 import com.github.javaparser.resolution.MethodUsage;
+import com.github.javaparser.resolution.ResolutionListener;
+import com.github.javaparser.resolution.ResolutionListeners;
 import com.github.javaparser.resolution.TypeSolver;
 import com.github.javaparser.resolution.declarations.*;
 import com.github.javaparser.resolution.model.SymbolReference;
@@ -518,6 +520,17 @@ public class MethodResolutionLogic {
      * @param methods we expect the methods to be ordered such that inherited methods are later in the list
      */
     public static SymbolReference<ResolvedMethodDeclaration> findMostApplicable(List<ResolvedMethodDeclaration> methods, String name, List<ResolvedType> argumentsTypes, TypeSolver typeSolver) {
+        ResolutionListener listener = ResolutionListeners.of(typeSolver);
+        if (listener == null) {
+            return findMostApplicableWithOrWithoutWildcardTolerance(methods, name, argumentsTypes, typeSolver);
+        }
+        long start = System.nanoTime();
+        SymbolReference<ResolvedMethodDeclaration> res = findMostApplicableWithOrWithoutWildcardTolerance(methods, name, argumentsTypes, typeSolver);
+        listener.methodSelected(name, methods.size(), res.isSolved(), System.nanoTime() - start);
+        return res;
+    }
+
+    private static SymbolReference<ResolvedMethodDeclaration> findMostApplicableWithOrWithoutWildcardTolerance(List<ResolvedMethodDeclaration> methods, String name, List<ResolvedType> argumentsTypes, TypeSolver typeSolver) {
         SymbolReference<ResolvedMethodDeclaration> res = findMostApplicable(methods, name, argumentsTypes, typeSolver, false);
         if (res.isSolved()) {
             return res;
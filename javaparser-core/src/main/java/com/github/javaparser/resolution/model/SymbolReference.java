@@ -47,8 +47,22 @@ public class SymbolReference<S extends ResolvedDeclaration> {
      *
      * @param <S> The symbol reference type.
      */
+    @SuppressWarnings("unchecked")
     public static <S extends ResolvedDeclaration> SymbolReference<S> unsolved() {
-        return new SymbolReference<>(null);
+        return (SymbolReference<S>) UNSOLVED;
+    }
+
+    /**
+     * Create a reference for an unsolved symbol, telling why it could not be solved. Unlike throwing an
+     * {@link UnsolvedSymbolException}, this is cheap enough for the symbols that are expected to be missing.
+     *
+     * @param reason Why the symbol could not be solved, usually its name and where it was looked for.
+     * @return The created unsolved symbol reference.
+     *
+     * @param <S> The symbol reference type.
+     */
+    public static <S extends ResolvedDeclaration> SymbolReference<S> unsolved(String reason) {
+        return new SymbolReference<>(null, reason);
     }
 
     /**
@@ -83,10 +97,19 @@ public class SymbolReference<S extends ResolvedDeclaration> {
         return unsolved();
     }
 
+    private static final SymbolReference<?> UNSOLVED = new SymbolReference<>(null, null);
+
     private final S correspondingDeclaration;
 
+    private final String unsolvedReason;
+
     private SymbolReference(@Nullable S correspondingDeclaration) {
+        this(correspondingDeclaration, null);
+    }
+
+    private SymbolReference(@Nullable S correspondingDeclaration, @Nullable String unsolvedReason) {
         this.correspondingDeclaration = correspondingDeclaration;
+        this.unsolvedReason = unsolvedReason;
     }
 
     /**
@@ -102,7 +125,14 @@ public class SymbolReference<S extends ResolvedDeclaration> {
      * The corresponding declaration. If not solve this throws UnsupportedOperationException.
      */
     public S getCorrespondingDeclaration() {
-        return getDeclaration().orElseThrow(() -> new UnsolvedSymbolException("Corresponding declaration not available for unsolved symbol."));
+        return getDeclaration().orElseThrow(() -> new UnsolvedSymbolException(unsolvedReason != null ? unsolvedReason : "Corresponding declaration not available for unsolved symbol."));
+    }
+
+    /**
+     * Why the symbol could not be solved, if this reference is unsolved and the reason is known.
+     */
+    public Optional<String> getUnsolvedReason() {
+        return Optional.ofNullable(unsolvedReason);
     }
 
     /**
@@ -23,9 +23,12 @@ package com.github.javaparser.utils;
 import com.github.javaparser.JavaParser;
 import com.github.javaparser.ParseProblemException;
 import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParseStart;
 import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.Providers;
 import com.github.javaparser.ast.CompilationUnit;
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.nio.file.FileSystems;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
@@ -41,10 +44,16 @@ public interface CollectionStrategy {
 
     ProjectRoot collect(Path path);
 
+    /**
+     * @return the source root of the file, found from its package declaration. Only the declarations of the file are
+     * parsed, the bodies of its methods are skipped.
+     */
     default Optional<Path> getRoot(Path file) {
         try {
             final JavaParser javaParser = new JavaParser(getParserConfiguration());
-            final ParseResult<CompilationUnit> parseResult = javaParser.parse(file);
+            final Charset encoding = getParserConfiguration().getCharacterEncoding();
+            final ParseResult<CompilationUnit> parseResult = javaParser.parse(ParseStart.COMPILATION_UNIT_DECLARATIONS, Providers.provider(file, encoding));
+            parseResult.getResult().ifPresent(cu -> cu.setStorage(file, encoding));
             if (parseResult.isSuccessful()) {
                 if (parseResult.getResult().isPresent()) {
                     final Optional<CompilationUnit.Storage> storage = parseResult.getResult().flatMap(CompilationUnit::getStorage);
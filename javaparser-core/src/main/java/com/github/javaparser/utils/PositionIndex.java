@@ -0,0 +1,300 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.utils;
+
+import com.github.javaparser.JavaToken;
+import com.github.javaparser.Position;
+import com.github.javaparser.Range;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeAttachment;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.observer.AstObserver.ListChangeType;
+import com.github.javaparser.ast.observer.AstObserverAdapter;
+import com.github.javaparser.ast.observer.ObservableProperty;
+import java.util.*;
+import static com.github.javaparser.utils.Utils.assertNotNull;
+
+/**
+ * An index over the ranges of the nodes and tokens of a compilation unit, answering position queries in logarithmic
+ * time instead of walking the AST like {@link Node#findByRange(Range)} or
+ * {@link com.github.javaparser.ast.visitor.NodeFinderVisitor}.
+ * <p>
+ * There is one index per compilation unit, see {@link #of(CompilationUnit)}. It is built on the first query, and an
+ * observer registered on the whole AST drops it whenever the AST changes, so the next query builds it again, until
+ * the index is removed with {@link #remove(CompilationUnit)}. Changes to token ranges that are not accompanied by a
+ * change of the AST are not noticed.
+ * <p>
+ * Queries may be run by many threads at the same time, as long as no thread changes the AST.
+ */
+public final class PositionIndex {
+
+    private static final NodeAttachment<PositionIndex> POSITION_INDEX =
+            new NodeAttachment<>(index -> index.new Invalidator());
+
+    private final CompilationUnit compilationUnit;
+
+    private volatile Snapshot snapshot;
+
+    private PositionIndex(CompilationUnit compilationUnit) {
+        this.compilationUnit = compilationUnit;
+    }
+
+    /**
+     * @return the index of the compilation unit, created the first time it is asked for.
+     */
+    public static PositionIndex of(CompilationUnit compilationUnit) {
+        assertNotNull(compilationUnit);
+        return POSITION_INDEX.computeIfAbsent(compilationUnit, PositionIndex::new);
+    }
+
+    /**
+     * Drops the index of the compilation unit, if it has one, and stops observing the AST for it.
+     */
+    public static void remove(CompilationUnit compilationUnit) {
+        POSITION_INDEX.remove(compilationUnit);
+    }
+
+    public CompilationUnit getCompilationUnit() {
+        return compilationUnit;
+    }
+
+    /**
+     * @return the innermost node whose range contains the position. Of nodes with the same range, the one deepest in
+     * the AST is returned. Comments are nodes too.
+     */
+    public Optional<Node> findInnermostNodeAt(Position position) {
+        assertNotNull(position);
+        Snapshot s = snapshot();
+        int found = s.lastContaining(s.countBeginningAtOrBefore(key(position)), key(position));
+        return found < 0 ? Optional.empty() : Optional.of(s.nodes[found]);
+    }
+
+    /**
+     * @return the innermost node of the given type whose range contains the position.
+     */
+    public <N extends Node> Optional<N> findInnermostNodeAt(Position position, Class<N> type) {
+        assertNotNull(type);
+        Optional<Node> node = findInnermostNodeAt(position);
+        while (node.isPresent() && !type.isInstance(node.get())) {
+            node = node.get().getParentNode();
+        }
+        return node.map(type::cast);
+    }
+
+    /**
+     * @return all nodes whose range shares at least one position with the range, ordered by their begin and, for the
+     * same begin, outer nodes first.
+     */
+    public List<Node> findNodesOverlapping(Range range) {
+        assertNotNull(range);
+        Snapshot s = snapshot();
+        List<Node> found = new ArrayList<>();
+        s.collectEndingAtOrAfter(s.countBeginningAtOrBefore(key(range.end)), key(range.begin), found);
+        return found;
+    }
+
+    /**
+     * @return the token, including whitespace and comment tokens, whose range contains the position.
+     */
+    public Optional<JavaToken> findTokenAt(Position position) {
+        assertNotNull(position);
+        Snapshot s = snapshot();
+        long key = key(position);
+        int index = upperBound(s.tokenBegins, s.tokenBegins.length, key) - 1;
+        if (index < 0 || s.tokenEnds[index] < key) {
+            return Optional.empty();
+        }
+        return Optional.of(s.tokens[index]);
+    }
+
+    private Snapshot snapshot() {
+        Snapshot s = snapshot;
+        if (s != null) {
+            return s;
+        }
+        synchronized (this) {
+            s = snapshot;
+            if (s == null) {
+                s = new Snapshot(compilationUnit);
+                snapshot = s;
+            }
+            return s;
+        }
+    }
+
+    /**
+     * Positions as longs, ordered like {@link Position#compareTo(Position)}.
+     */
+    private static long key(Position position) {
+        return ((long) position.line << 32) + position.column;
+    }
+
+    /**
+     * @return the number of leading values of the sorted array that are smaller than or equal to the key.
+     */
+    private static int upperBound(long[] sorted, int length, long key) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private class Invalidator extends AstObserverAdapter {
+
+        @Override
+        public void propertyChange(Node observedNode, ObservableProperty property, Object oldValue, Object newValue) {
+            snapshot = null;
+        }
+
+        @Override
+        public void listChange(NodeList<?> observedNode, ListChangeType type, int index, Node nodeAddedOrRemoved) {
+            snapshot = null;
+        }
+
+        @Override
+        public void listReplacement(NodeList<?> observedNode, int index, Node oldNode, Node newNode) {
+            snapshot = null;
+        }
+
+        @Override
+        public void parentChange(Node observedNode, Node previousParent, Node newParent) {
+            snapshot = null;
+        }
+    }
+
+    /**
+     * The immutable state of the index for one version of the AST.
+     * <p>
+     * The nodes are sorted by their begin and, for the same begin, by their end descending, so an enclosing node
+     * comes before the nodes it contains. Nodes with the same range keep the pre-order of the AST, outer nodes
+     * first. A segment tree over the ends finds the nodes that reach a position among a prefix of the nodes.
+     */
+    private static final class Snapshot {
+
+        private final Node[] nodes;
+
+        private final long[] begins;
+
+        private final int leaves;
+
+        private final long[] maxEnds;
+
+        private final JavaToken[] tokens;
+
+        private final long[] tokenBegins;
+
+        private final long[] tokenEnds;
+
+        Snapshot(CompilationUnit compilationUnit) {
+            List<Node> ranged = new ArrayList<>();
+            compilationUnit.walk(node -> {
+                if (node.hasRange()) {
+                    ranged.add(node);
+                }
+                node.getComment().filter(c -> c.hasRange() && c.getParentNode().isEmpty()).ifPresent(ranged::add);
+            });
+            ranged.sort(Comparator.<Node, Position>comparing(n -> n.getRange().get().begin)
+                    .thenComparing(n -> n.getRange().get().end, Comparator.reverseOrder()));
+            nodes = ranged.toArray(new Node[0]);
+            begins = new long[nodes.length];
+            int size = 1;
+            while (size < nodes.length) {
+                size <<= 1;
+            }
+            leaves = size;
+            maxEnds = new long[2 * size];
+            Arrays.fill(maxEnds, Long.MIN_VALUE);
+            for (int i = 0; i < nodes.length; i++) {
+                Range range = nodes[i].getRange().get();
+                begins[i] = key(range.begin);
+                maxEnds[size + i] = key(range.end);
+            }
+            for (int i = size - 1; i > 0; i--) {
+                maxEnds[i] = Math.max(maxEnds[2 * i], maxEnds[2 * i + 1]);
+            }
+            List<JavaToken> tokenList = new ArrayList<>();
+            compilationUnit.getTokenRange().ifPresent(tokenRange -> tokenRange.forEach(token -> {
+                if (token.hasRange()) {
+                    tokenList.add(token);
+                }
+            }));
+            tokens = tokenList.toArray(new JavaToken[0]);
+            tokenBegins = new long[tokens.length];
+            tokenEnds = new long[tokens.length];
+            for (int i = 0; i < tokens.length; i++) {
+                Range range = tokens[i].getRange().get();
+                tokenBegins[i] = key(range.begin);
+                tokenEnds[i] = key(range.end);
+            }
+        }
+
+        int countBeginningAtOrBefore(long key) {
+            return upperBound(begins, begins.length, key);
+        }
+
+        /**
+         * @return the last of the first {@code count} nodes that ends at or after the key, or -1.
+         */
+        int lastContaining(int count, long key) {
+            return lastContaining(1, 0, leaves, count, key);
+        }
+
+        private int lastContaining(int tree, int low, int high, int count, long key) {
+            if (low >= count || maxEnds[tree] < key) {
+                return -1;
+            }
+            if (high - low == 1) {
+                return low;
+            }
+            int mid = (low + high) >>> 1;
+            int found = lastContaining(2 * tree + 1, mid, high, count, key);
+            return found >= 0 ? found : lastContaining(2 * tree, low, mid, count, key);
+        }
+
+        /**
+         * Adds all of the first {@code count} nodes that end at or after the key, in order.
+         */
+        void collectEndingAtOrAfter(int count, long key, List<Node> found) {
+            collectEndingAtOrAfter(1, 0, leaves, count, key, found);
+        }
+
+        private void collectEndingAtOrAfter(int tree, int low, int high, int count, long key, List<Node> found) {
+            if (low >= count || maxEnds[tree] < key) {
+                return;
+            }
+            if (high - low == 1) {
+                found.add(nodes[low]);
+                return;
+            }
+            int mid = (low + high) >>> 1;
+            collectEndingAtOrAfter(2 * tree, low, mid, count, key, found);
+            collectEndingAtOrAfter(2 * tree + 1, mid, high, count, key, found);
+        }
+    }
+}
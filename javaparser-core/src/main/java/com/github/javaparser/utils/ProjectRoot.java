@@ -20,13 +20,23 @@
  */
 package com.github.javaparser.utils;
 
+import static com.github.javaparser.utils.Utils.assertNotNull;
+import static com.github.javaparser.utils.Utils.assertPositive;
+import com.github.javaparser.ParseResult;
 import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ParserPool;
+import com.github.javaparser.ast.CompilationUnit;
+import java.io.IOException;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * The structure of a Java project directory.
@@ -34,6 +44,8 @@ import java.util.concurrent.ConcurrentHashMap;
  * You can use it as a general container for project information.
  * <p>A project has a root directory, and it has zero or more directories that contain source code.
  * <p>To create a ProjectRoot use a CollectionStrategy, or instantiate ProjectRoot yourself.
+ * <p>The source roots keep every file they parse in their cache. To process a big project without keeping all its
+ * ASTs in memory, use {@link #parseStreaming(Executor, long, SourceRoot.Callback)}.
  */
 public class ProjectRoot {
 
@@ -68,6 +80,201 @@ public class ProjectRoot {
         return root;
     }
 
+    /**
+     * Parses all .java files of all source roots, and passes them one by one to the callback. The results are not
+     * cached: once the callback has returned, nothing refers to the AST anymore, so at any time only the files being
+     * parsed or processed are in memory.
+     * <p>
+     * The files are parsed on the executor, with parsers from a {@link ParserPool}. Before a file is handed to the
+     * executor, its size is taken from a budget of {@code maxRetainedBytes} bytes of source code, and given back when
+     * the callback returns. When the budget is used up, the calling thread waits, so the source code of the files in
+     * memory never adds up to much more than the budget. This method returns when all files have been processed, or
+     * when the callback returned {@link SourceRoot.Callback.Result#TERMINATE} or the calling thread was interrupted.
+     * <b>Note that</b> the provided {@link SourceRoot.Callback} code must be made thread-safe. An exception or error
+     * thrown while parsing or by the callback stops the processing as well, and is rethrown by this method once the
+     * files handed to the executor are done.
+     *
+     * @param maxRetainedBytes the budget of source code bytes being parsed or processed at the same time.
+     * A file bigger than the budget takes the whole budget.
+     * @return statistics about the files and the memory retained while processing them
+     */
+    public StreamingStatistics parseStreaming(Executor executor, long maxRetainedBytes, SourceRoot.Callback callback) throws IOException {
+        assertNotNull(executor);
+        assertPositive(maxRetainedBytes);
+        assertNotNull(callback);
+        final int budget = (int) Math.min(Integer.MAX_VALUE, maxRetainedBytes);
+        final Semaphore available = new Semaphore(budget);
+        final ParserPool parsers = new ParserPool(parserConfiguration);
+        final StreamingStatistics statistics = new StreamingStatistics();
+        final AtomicBoolean terminated = new AtomicBoolean();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final long start = System.nanoTime();
+        List<SourceRoot> sourceRoots = getSourceRoots();
+        sourceRoots.sort(Comparator.comparing(SourceRoot::getRoot));
+        try {
+            files: for (SourceRoot sourceRoot : sourceRoots) {
+                for (Map.Entry<Path, Long> file : sourceRoot.findJavaFiles("").entrySet()) {
+                    if (terminated.get()) {
+                        break files;
+                    }
+                    final Path absolutePath = file.getKey();
+                    final long size = file.getValue();
+                    final int permits = (int) Math.max(1, Math.min(budget, size));
+                    available.acquire(permits);
+                    try {
+                        executor.execute(() -> {
+                            try {
+                                if (!terminated.get()) {
+                                    process(sourceRoot, absolutePath, size, parsers, statistics, callback, terminated);
+                                }
+                            } catch (Throwable e) {
+                                failure.compareAndSet(null, e);
+                                terminated.set(true);
+                            } finally {
+                                available.release(permits);
+                            }
+                        });
+                    } catch (RejectedExecutionException e) {
+                        available.release(permits);
+                        throw e;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            terminated.set(true);
+        } finally {
+            // Wait for the files handed to the executor
+            available.acquireUninterruptibly(budget);
+            available.release(budget);
+        }
+        Throwable thrown = failure.get();
+        if (thrown instanceof Error) {
+            throw (Error) thrown;
+        }
+        if (thrown != null) {
+            throw (RuntimeException) thrown;
+        }
+        return statistics.finish(start);
+    }
+
+    private static void process(SourceRoot sourceRoot, Path absolutePath, long size, ParserPool parsers, StreamingStatistics statistics, SourceRoot.Callback callback, AtomicBoolean terminated) {
+        statistics.retain(size);
+        try {
+            Path localPath = sourceRoot.getRoot().relativize(absolutePath);
+            Log.trace("Parsing %s", () -> localPath);
+            ParseResult<CompilationUnit> result = parsers.parse(absolutePath);
+            statistics.parsed(result);
+            switch(callback.process(localPath, absolutePath, result)) {
+                case SAVE:
+                    result.getResult().ifPresent(cu -> cu.getStorage().get().save(sourceRoot.getPrinter()));
+                    break;
+                case DONT_SAVE:
+                    break;
+                case TERMINATE:
+                    terminated.set(true);
+                    break;
+                default:
+                    throw new AssertionError("Return an enum defined in SourceRoot.Callback.Result");
+            }
+        } finally {
+            statistics.release(size);
+        }
+    }
+
+    /**
+     * What {@link #parseStreaming(Executor, long, SourceRoot.Callback)} has done. A file is retained from the moment
+     * its parsing starts until the callback has returned.
+     */
+    public static class StreamingStatistics {
+
+        private final AtomicInteger files = new AtomicInteger();
+
+        private final AtomicInteger failedFiles = new AtomicInteger();
+
+        private final AtomicLong bytes = new AtomicLong();
+
+        private final AtomicInteger retainedFiles = new AtomicInteger();
+
+        private final AtomicInteger peakRetainedFiles = new AtomicInteger();
+
+        private final AtomicLong retainedBytes = new AtomicLong();
+
+        private final AtomicLong peakRetainedBytes = new AtomicLong();
+
+        private long nanos;
+
+        void retain(long size) {
+            peakRetainedFiles.accumulateAndGet(retainedFiles.incrementAndGet(), Math::max);
+            peakRetainedBytes.accumulateAndGet(retainedBytes.addAndGet(size), Math::max);
+        }
+
+        void parsed(ParseResult<CompilationUnit> result) {
+            files.incrementAndGet();
+            if (!result.isSuccessful()) {
+                failedFiles.incrementAndGet();
+            }
+        }
+
+        void release(long size) {
+            retainedFiles.decrementAndGet();
+            retainedBytes.addAndGet(-size);
+            bytes.addAndGet(size);
+        }
+
+        StreamingStatistics finish(long start) {
+            nanos = System.nanoTime() - start;
+            return this;
+        }
+
+        /**
+         * @return the number of files that were parsed.
+         */
+        public int getFiles() {
+            return files.get();
+        }
+
+        /**
+         * @return the number of files that were parsed with problems.
+         */
+        public int getFailedFiles() {
+            return failedFiles.get();
+        }
+
+        /**
+         * @return the size of all parsed files.
+         */
+        public long getBytes() {
+            return bytes.get();
+        }
+
+        /**
+         * @return the largest number of ASTs that were in memory at the same time.
+         */
+        public int getPeakRetainedFiles() {
+            return peakRetainedFiles.get();
+        }
+
+        /**
+         * @return the largest size of the source code of the ASTs that were in memory at the same time.
+         */
+        public long getPeakRetainedBytes() {
+            return peakRetainedBytes.get();
+        }
+
+        /**
+         * @return the time spent in {@link #parseStreaming(Executor, long, SourceRoot.Callback)}, in nanoseconds.
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d files (%d failed, %d bytes) in %d ms, at most %d files (%d bytes) retained", getFiles(), getFailedFiles(), getBytes(), getNanos() / 1000000, getPeakRetainedFiles(), getPeakRetainedBytes());
+        }
+    }
+
     @Override
     public String toString() {
         return "ProjectRoot at " + root + " with " + cache.values().toString();
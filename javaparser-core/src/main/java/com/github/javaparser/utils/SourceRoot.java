@@ -29,6 +29,7 @@ import com.github.javaparser.JavaParser;
 import com.github.javaparser.ParseProblemException;
 import com.github.javaparser.ParseResult;
 import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ParserPool;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.printer.DefaultPrettyPrinter;
 import java.io.IOException;
@@ -38,12 +39,15 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -76,16 +80,43 @@ public class SourceRoot {
         Result process(Path localPath, Path absolutePath, ParseResult<CompilationUnit> result);
     }
 
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        ProgressListener NONE = (localPath, result, done, total) -> {
+        };
+
+        /**
+         * Called from the parsing threads after each file, so it must be thread-safe.
+         *
+         * @param localPath the path to the file that was parsed, relative to the source root path.
+         * @param result the result of parsing the file.
+         * @param done the number of files parsed so far, including this one.
+         * @param total the number of files to parse.
+         */
+        void parsed(Path localPath, ParseResult<CompilationUnit> result, int done, int total);
+    }
+
     private final Path root;
 
     private final Map<Path, ParseResult<CompilationUnit>> cache = new ConcurrentHashMap<>();
 
     private ParserConfiguration parserConfiguration = new ParserConfiguration();
 
+    /**
+     * The parsers of the parallel methods, kept for the configuration they were last used with.
+     */
+    private volatile ParserPool parserPool;
+
     private Function<CompilationUnit, String> printer = new DefaultPrettyPrinter()::print;
 
     private static final Pattern JAVA_IDENTIFIER = Pattern.compile("\\p{javaJavaIdentifierStart}\\p{javaJavaIdentifierPart}*");
 
+    /**
+     * The largest number of bytes of source code that is parsed in one task by the parallel methods.
+     */
+    private static final long MAX_TASK_SIZE = 256 * 1024;
+
     /**
      * @param root the root directory of a set of source files. It corresponds to the root of the package structure of the
      * source files within, like "javaparser/javaparser-core/src/main/java"
@@ -200,9 +231,8 @@ public class SourceRoot {
 
     /**
      * Tries to parse all .java files in a package recursively using multiple threads, and returns all files ever parsed
-     * with this source root. A new thread is forked each time a new directory is visited and is responsible for parsing
-     * all .java files in that directory. <b>Note that</b> to ensure thread safety, a new parser instance is created for
-     * every file with the internal parser's (i.e. {@link #setParserConfiguration(ParserConfiguration)}) configuration.
+     * with this source root. The files are parsed on the common {@link ForkJoinPool}, see
+     * {@link #tryToParseParallelized(String, Executor, ProgressListener)}.
      * It keeps track of all parsed files so you can write them out with a single saveAll() call.
      * Note that the cache grows with every file parsed,
      * so if you don't need saveAll(), or you don't ask SourceRoot to parse files multiple times (where the cache is
@@ -213,28 +243,20 @@ public class SourceRoot {
     public List<ParseResult<CompilationUnit>> tryToParseParallelized(String startPackage) {
         assertNotNull(startPackage);
         logPackage(startPackage);
-        final Path path = packageAbsolutePath(root, startPackage);
-        ParallelParse parse = new ParallelParse(path, (file, attrs) -> {
-            if (!attrs.isDirectory() && file.toString().endsWith(".java")) {
-                Path relative = root.relativize(file.getParent());
-                try {
-                    tryToParse(relative.toString(), file.getFileName().toString(), parserConfiguration);
-                } catch (IOException e) {
-                    Log.error(e);
-                }
-            }
-            return CONTINUE;
-        });
-        ForkJoinPool pool = new ForkJoinPool();
-        pool.invoke(parse);
+        try {
+            CompletableFuture<Void> finished = new CompletableFuture<>();
+            awaitParsing(parseParallelized(findJavaFiles(startPackage), parserConfiguration, ForkJoinPool.commonPool(),
+                    ProgressListener.NONE, null, results -> results, finished), finished);
+        } catch (IOException e) {
+            Log.error(e);
+        }
         return getCache();
     }
 
     /**
      * Tries to parse all .java files under the source root recursively using multiple threads, and returns all files
-     * ever parsed with this source root. A new thread is forked each time a new directory is visited and is responsible
-     * for parsing all .java files in that directory. <b>Note that</b> to ensure thread safety, a new parser instance is
-     * created for every file with the internal (i.e. {@link #setParserConfiguration(ParserConfiguration)}) configuration. It keeps track of
+     * ever parsed with this source root. The files are parsed on the common {@link ForkJoinPool}, see
+     * {@link #tryToParseParallelized(String, Executor, ProgressListener)}. It keeps track of
      * all parsed files so you can write them out with a single saveAll() call. Note that the cache grows with every
      * file parsed, so if you don't need saveAll(), or you don't ask SourceRoot to parse files multiple times (where the
      * cache is useful) you might want to use the parse method with a callback.
@@ -243,6 +265,38 @@ public class SourceRoot {
         return tryToParseParallelized("");
     }
 
+    /**
+     * Tries to parse all .java files in a package recursively on the executor, see
+     * {@link #tryToParseParallelized(String, Executor, ProgressListener)}.
+     *
+     * @param startPackage files in this package and deeper are parsed. Pass "" to parse all files.
+     */
+    public CompletableFuture<List<ParseResult<CompilationUnit>>> tryToParseParallelized(String startPackage, Executor executor) throws IOException {
+        return tryToParseParallelized(startPackage, executor, ProgressListener.NONE);
+    }
+
+    /**
+     * Tries to parse all .java files in a package recursively on the executor, e.g. a {@link ForkJoinPool} or an
+     * executor starting a virtual thread per task. The files are listed first and handed to the executor in tasks of
+     * about the same size, largest files first, so that a big package or a big file does not keep one thread busy
+     * while the others are idle. The parsers are taken from a {@link ParserPool} with the internal
+     * (i.e. {@link #setParserConfiguration(ParserConfiguration)}) configuration.
+     * <p>
+     * The returned future completes with the results of the files of the package, in the order of their paths.
+     * Cancelling it stops parsing the files that have not been started yet. Files that are already in the cache are
+     * not parsed again. It keeps track of all parsed files so you can write them out with a single saveAll() call.
+     *
+     * @param startPackage files in this package and deeper are parsed. Pass "" to parse all files.
+     * @param progress called after each file from the parsing threads.
+     */
+    public CompletableFuture<List<ParseResult<CompilationUnit>>> tryToParseParallelized(String startPackage, Executor executor, ProgressListener progress) throws IOException {
+        assertNotNull(startPackage);
+        assertNotNull(executor);
+        assertNotNull(progress);
+        logPackage(startPackage);
+        return parseParallelized(findJavaFiles(startPackage), parserConfiguration, executor, progress, null, results -> results, new CompletableFuture<>());
+    }
+
     /**
      * Parses a .java files under the source root and returns its CompilationUnit. It keeps track of the parsed file so
      * you can write it out with the saveAll() call. Note that the cache grows with every file parsed, so if you don't
@@ -271,6 +325,10 @@ public class SourceRoot {
         Log.trace("Parsing %s", () -> localPath);
         ParseResult<CompilationUnit> result = new JavaParser(configuration).parse(COMPILATION_UNIT, provider(absolutePath, configuration.getCharacterEncoding()));
         result.getResult().ifPresent(cu -> cu.setStorage(absolutePath, configuration.getCharacterEncoding()));
+        return callback(localPath, absolutePath, result, callback);
+    }
+
+    private FileVisitResult callback(Path localPath, Path absolutePath, ParseResult<CompilationUnit> result, Callback callback) {
         switch(callback.process(localPath, absolutePath, result)) {
             case SAVE:
                 result.getResult().ifPresent(cu -> save(cu, absolutePath));
@@ -354,11 +412,10 @@ public class SourceRoot {
 
     /**
      * Tries to parse all .java files in a package recursively using multiple threads, and passes them one by one to the
-     * callback. A new thread is forked each time a new directory is visited and is responsible for parsing all .java
-     * files in that directory. <b>Note that</b> the provided {@link Callback} code must be made thread-safe. <b>Note
-     * that</b> to ensure thread safety, a new parser instance is created for every file with the provided {@link
-     * ParserConfiguration}. In comparison to the other parse methods, this is much more memory efficient, but saveAll()
-     * won't work.
+     * callback. The files are parsed on the common {@link ForkJoinPool}, see
+     * {@link #parseParallelized(String, ParserConfiguration, Executor, Callback)}. <b>Note that</b> the provided
+     * {@link Callback} code must be made thread-safe. In comparison to the other parse methods, this is much more
+     * memory efficient, but saveAll() won't work.
      *
      * @param startPackage files in this package and deeper are parsed. Pass "" to parse all files.
      */
@@ -367,30 +424,44 @@ public class SourceRoot {
         assertNotNull(configuration);
         assertNotNull(callback);
         logPackage(startPackage);
-        final Path path = packageAbsolutePath(root, startPackage);
-        if (Files.exists(path)) {
-            ParallelParse parse = new ParallelParse(path, (absolutePath, attrs) -> {
-                if (!attrs.isDirectory() && absolutePath.toString().endsWith(".java")) {
-                    try {
-                        return callback(absolutePath, configuration, callback);
-                    } catch (IOException e) {
-                        Log.error(e);
-                    }
-                }
-                return CONTINUE;
-            });
-            ForkJoinPool pool = new ForkJoinPool();
-            pool.invoke(parse);
+        try {
+            CompletableFuture<Void> finished = new CompletableFuture<>();
+            awaitParsing(parseParallelized(findJavaFiles(startPackage), configuration, ForkJoinPool.commonPool(),
+                    ProgressListener.NONE, callback, results -> null, finished), finished);
+        } catch (IOException e) {
+            Log.error(e);
         }
         return this;
     }
 
+    /**
+     * Waits like the former synchronous implementation: until every task has stopped, also after the callback asked
+     * to terminate, and with the exception thrown while parsing or by the callback.
+     */
+    private static void awaitParsing(CompletableFuture<?> future, CompletableFuture<Void> finished) {
+        finished.join();
+        try {
+            future.join();
+        } catch (CancellationException e) {
+            // The callback asked to terminate
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
     /**
      * Tries to parse all .java files in a package recursively using multiple threads, and passes them one by one to the
-     * callback. A new thread is forked each time a new directory is visited and is responsible for parsing all .java
-     * files in that directory. <b>Note that</b> the provided {@link Callback} code must be made thread-safe. <b>Note
-     * that</b> to ensure thread safety, a new parser instance is created for every file. In comparison to the other
-     * parse methods, this is much more memory efficient, but saveAll() won't work.
+     * callback. The files are parsed on the common {@link ForkJoinPool}, see
+     * {@link #parseParallelized(String, ParserConfiguration, Executor, Callback)}. <b>Note that</b> the provided
+     * {@link Callback} code must be made thread-safe. In comparison to the other parse methods, this is much more
+     * memory efficient, but saveAll() won't work.
      *
      * @param startPackage files in this package and deeper are parsed. Pass "" to parse all files.
      */
@@ -399,16 +470,193 @@ public class SourceRoot {
     }
 
     /**
-     * Tries to parse all .java files recursively using multiple threads, and passes them one by one to the callback. A
-     * new thread is forked each time a new directory is visited and is responsible for parsing all .java files in that
-     * directory. <b>Note that</b> the provided {@link Callback} code must be made thread-safe. <b>Note that</b> to
-     * ensure thread safety, a new parser instance is created for every file. In comparison to the other parse methods,
-     * this is much more memory efficient, but saveAll() won't work.
+     * Tries to parse all .java files recursively using multiple threads, and passes them one by one to the callback.
+     * The files are parsed on the common {@link ForkJoinPool}, see
+     * {@link #parseParallelized(String, ParserConfiguration, Executor, Callback)}. <b>Note that</b> the provided
+     * {@link Callback} code must be made thread-safe. In comparison to the other parse methods, this is much more
+     * memory efficient, but saveAll() won't work.
      */
     public SourceRoot parseParallelized(Callback callback) throws IOException {
         return parseParallelized("", this.parserConfiguration, callback);
     }
 
+    /**
+     * Tries to parse all .java files in a package recursively on the executor, and passes them one by one to the
+     * callback. The files are split into tasks like in {@link #tryToParseParallelized(String, Executor, ProgressListener)},
+     * and the parsers are taken from a {@link ParserPool} with the provided {@link ParserConfiguration}.
+     * <b>Note that</b> the provided {@link Callback} code must be made thread-safe. The returned future completes when
+     * all files have been passed to the callback, and is cancelled when the callback returns
+     * {@link Callback.Result#TERMINATE}. Cancelling it stops parsing the files that have not been started yet.
+     * In comparison to the other parse methods, this is much more memory efficient, but saveAll() won't work.
+     *
+     * @param startPackage files in this package and deeper are parsed. Pass "" to parse all files.
+     */
+    public CompletableFuture<Void> parseParallelized(String startPackage, ParserConfiguration configuration, Executor executor, Callback callback) throws IOException {
+        assertNotNull(startPackage);
+        assertNotNull(configuration);
+        assertNotNull(executor);
+        assertNotNull(callback);
+        logPackage(startPackage);
+        return parseParallelized(findJavaFiles(startPackage), configuration, executor, ProgressListener.NONE, callback, results -> null, new CompletableFuture<>());
+    }
+
+    /**
+     * Lists the .java files in a package recursively, with their sizes, sorted by path.
+     */
+    SortedMap<Path, Long> findJavaFiles(String startPackage) throws IOException {
+        final SortedMap<Path, Long> files = new TreeMap<>();
+        final Path path = packageAbsolutePath(root, startPackage);
+        if (Files.exists(path)) {
+            Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+
+                @Override
+                public FileVisitResult visitFile(Path absolutePath, BasicFileAttributes attrs) {
+                    if (!attrs.isDirectory() && absolutePath.toString().endsWith(".java")) {
+                        files.put(absolutePath, attrs.size());
+                    }
+                    return CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    return isSensibleDirectoryToEnter(dir) ? CONTINUE : SKIP_SUBTREE;
+                }
+            });
+        }
+        return files;
+    }
+
+    /**
+     * Parses the files on the executor. Without a callback, the results are taken from and put into the cache, and
+     * collected for the future. With a callback, each result is only passed to it and the future is cancelled when it
+     * asks to terminate. {@code finished} is completed when all tasks have stopped, which may be after the future.
+     */
+    private <T> CompletableFuture<T> parseParallelized(SortedMap<Path, Long> filesWithSize, ParserConfiguration configuration, Executor executor, ProgressListener progress, Callback callback, Function<List<ParseResult<CompilationUnit>>, T> finish, CompletableFuture<Void> finished) {
+        final List<Path> files = new ArrayList<>(filesWithSize.keySet());
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        if (files.isEmpty()) {
+            future.complete(finish.apply(new ArrayList<>()));
+            finished.complete(null);
+            return future;
+        }
+        final ParserPool parsers = parserPool(configuration);
+        final List<ParseResult<CompilationUnit>> results = Arrays.asList(newResultArray(files.size()));
+        final AtomicInteger done = new AtomicInteger();
+        final List<int[]> batches = batchesBySize(new ArrayList<>(filesWithSize.values()));
+        final AtomicInteger running = new AtomicInteger(batches.size());
+        for (int b = 0; b < batches.size(); b++) {
+            final int[] batch = batches.get(b);
+            Runnable task = () -> {
+                try {
+                    parseBatch(batch, files, parsers, future, progress, callback, results, done, finish);
+                } finally {
+                    if (running.decrementAndGet() == 0) {
+                        finished.complete(null);
+                    }
+                }
+            };
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                future.completeExceptionally(e);
+                if (running.addAndGet(b - batches.size()) == 0) {
+                    finished.complete(null);
+                }
+                break;
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Parses the files of one task, until the future is done.
+     */
+    private <T> void parseBatch(int[] batch, List<Path> files, ParserPool parsers, CompletableFuture<T> future, ProgressListener progress, Callback callback, List<ParseResult<CompilationUnit>> results, AtomicInteger done, Function<List<ParseResult<CompilationUnit>>, T> finish) {
+        for (int i : batch) {
+            if (future.isDone()) {
+                return;
+            }
+            Path absolutePath = files.get(i);
+            Path localPath = root.relativize(absolutePath);
+            try {
+                ParseResult<CompilationUnit> result = callback == null ? cache.get(localPath) : null;
+                if (result == null) {
+                    Log.trace("Parsing %s", () -> localPath);
+                    result = parsers.parse(absolutePath);
+                    if (callback == null) {
+                        cache.put(localPath, result);
+                    } else if (callback(localPath, absolutePath, result, callback) == TERMINATE) {
+                        future.cancel(false);
+                        return;
+                    }
+                }
+                if (callback == null) {
+                    results.set(i, result);
+                }
+                int n = done.incrementAndGet();
+                progress.parsed(localPath, result, n, files.size());
+                if (n == files.size()) {
+                    future.complete(finish.apply(results));
+                }
+            } catch (RuntimeException | Error e) {
+                future.completeExceptionally(e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the pool of parsers with the configuration, the one of the last call if it had the same configuration.
+     */
+    private ParserPool parserPool(ParserConfiguration configuration) {
+        ParserPool pool = parserPool;
+        if (pool == null || pool.getParserConfiguration() != configuration) {
+            pool = new ParserPool(configuration);
+            parserPool = pool;
+        }
+        return pool;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ParseResult<CompilationUnit>[] newResultArray(int size) {
+        return new ParseResult[size];
+    }
+
+    /**
+     * Groups the indices of the files into tasks of about the same number of bytes, the biggest files first. A file
+     * bigger than a task is a task on its own, small files are put together so that they are not parsed one task
+     * each. The size of a task is chosen so that every thread gets several of them.
+     */
+    static List<int[]> batchesBySize(List<Long> sizes) {
+        long total = 0;
+        for (long size : sizes) {
+            total += size;
+        }
+        long taskSize = Math.max(1, Math.min(MAX_TASK_SIZE, total / (4L * Runtime.getRuntime().availableProcessors())));
+        Integer[] bySize = new Integer[sizes.size()];
+        for (int i = 0; i < bySize.length; i++) {
+            bySize[i] = i;
+        }
+        Arrays.sort(bySize, (a, b) -> Long.compare(sizes.get(b), sizes.get(a)));
+        List<int[]> batches = new ArrayList<>();
+        int start = 0;
+        while (start < bySize.length) {
+            int end = start;
+            long batchSize = 0;
+            while (end < bySize.length && (end == start || batchSize + sizes.get(bySize[end]) <= taskSize)) {
+                batchSize += sizes.get(bySize[end]);
+                end++;
+            }
+            int[] batch = new int[end - start];
+            for (int i = start; i < end; i++) {
+                batch[i - start] = bySize[i];
+            }
+            batches.add(batch);
+            start = end;
+        }
+        return batches;
+    }
+
     /**
      * Add a newly created Java file to the cache of this source root. It will be saved when saveAll is called.
      *
@@ -557,65 +805,6 @@ public class SourceRoot {
         return printer;
     }
 
-    /**
-     * Executes a recursive file tree walk using threads. A new thread is invoked for each new directory discovered
-     * during the walk. For each file visited, the user-provided {@link VisitFileCallback} is called with the current
-     * path and file attributes. Any shared resources accessed in a {@link VisitFileCallback} should be made
-     * thread-safe.
-     */
-    private static class ParallelParse extends RecursiveAction {
-
-        private static final long serialVersionUID = 1L;
-
-        private final SourceRoot root;
-
-        private final VisitFileCallback callback;
-
-        ParallelParse(Path path, VisitFileCallback callback) {
-            this.root = new SourceRoot(path);
-            this.callback = callback;
-        }
-
-        @Override
-        protected void compute() {
-            final List<ParallelParse> walks = new ArrayList<>();
-            Path path = root.getRoot();
-            try {
-                Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
-
-                    @Override
-                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
-                        if (!root.isSensibleDirectoryToEnter(dir)) {
-                            return SKIP_SUBTREE;
-                        }
-                        if (!dir.equals(path)) {
-                            ParallelParse w = new ParallelParse(dir, callback);
-                            w.fork();
-                            walks.add(w);
-                            return SKIP_SUBTREE;
-                        }
-                        return CONTINUE;
-                    }
-
-                    @Override
-                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-                        return callback.process(file, attrs);
-                    }
-                });
-            } catch (IOException e) {
-                Log.error(e);
-            }
-            for (ParallelParse w : walks) {
-                w.join();
-            }
-        }
-
-        interface VisitFileCallback {
-
-            FileVisitResult process(Path file, BasicFileAttributes attrs);
-        }
-    }
-
     @Override
     public String toString() {
         return "SourceRoot at " + root;
@@ -26,19 +26,25 @@ import static com.github.javaparser.utils.Utils.assertNotNull;
 import com.github.javaparser.JavaParser;
 import com.github.javaparser.ParseResult;
 import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ParserPool;
 import com.github.javaparser.ast.CompilationUnit;
+import java.io.Closeable;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 /**
  * A collection of Java source files and its sub-directories located in a ZIP or JAR file on the file system.
- * Files can be parsed with a callback.
+ * Files can be parsed with a callback, all at once or only those matching a filter, in parallel, or one by one on
+ * demand with {@link #open()}.
  */
 public class SourceZip {
 
@@ -87,28 +93,155 @@ public class SourceZip {
     }
 
     /**
-     * Tries to parse all '.java' files in the ZIP located at this <i>SourceZip</i>'s path and returns the parse
-     * results in a list.
-     *
-     * @return A list of path-compilation unit pairs.
+     * Tries to parse all '.java' files in the ZIP located at this <i>SourceZip</i>'s path and passes the results to
+     * the callback.
      *
      * @throws IOException If an error occurs while trying to parse the given source.
      */
     public SourceZip parse(Callback callback) throws IOException {
+        return parse(path -> true, callback);
+    }
+
+    /**
+     * Tries to parse the '.java' files in the ZIP whose path matches the filter, and passes the results to the
+     * callback. The other entries are not read.
+     *
+     * @param filter tells which entries to parse, given their path in the ZIP, e.g. to parse only some packages.
+     * @throws IOException If an error occurs while trying to parse the given source.
+     */
+    public SourceZip parse(Predicate<Path> filter, Callback callback) throws IOException {
+        assertNotNull(filter);
+        assertNotNull(callback);
         Log.info("Parsing zip at \"%s\"", () -> zipPath);
         JavaParser javaParser = new JavaParser(parserConfiguration);
-        try (ZipFile zipFile = new ZipFile(zipPath.toFile())) {
-            for (ZipEntry entry : Collections.list(zipFile.entries())) {
-                if (!entry.isDirectory() && entry.getName().endsWith(".java")) {
-                    Log.info("Parsing zip entry \"%s\"", () -> entry.getName());
-                    final ParseResult<CompilationUnit> result = javaParser.parse(COMPILATION_UNIT, provider(zipFile.getInputStream(entry)));
-                    callback.process(Paths.get(entry.getName()), result);
+        try (Archive archive = open()) {
+            for (Path path : archive.getJavaEntries()) {
+                if (filter.test(path)) {
+                    callback.process(path, archive.parse(javaParser, path));
                 }
             }
         }
         return this;
     }
 
+    /**
+     * Tries to parse the '.java' files in the ZIP whose path matches the filter on the executor, and passes the results
+     * to the callback. The entries are read from one shared {@link ZipFile} and parsed with parsers from a
+     * {@link ParserPool}, in tasks of about the same size. <b>Note that</b> the provided {@link Callback} code must be
+     * made thread-safe. This method returns when all entries have been passed to the callback.
+     *
+     * @param filter tells which entries to parse, given their path in the ZIP, e.g. to parse only some packages.
+     * @throws IOException If an error occurs while trying to parse the given source.
+     */
+    public SourceZip parseParallelized(Predicate<Path> filter, Executor executor, Callback callback) throws IOException {
+        assertNotNull(filter);
+        assertNotNull(executor);
+        assertNotNull(callback);
+        Log.info("Parsing zip at \"%s\"", () -> zipPath);
+        try (Archive archive = open()) {
+            List<Path> paths = archive.getJavaEntries().stream().filter(filter).collect(Collectors.toList());
+            List<Long> sizes = paths.stream().map(archive::getSize).collect(Collectors.toList());
+            List<CompletableFuture<Void>> tasks = new ArrayList<>();
+            for (int[] batch : SourceRoot.batchesBySize(sizes)) {
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    for (int i : batch) {
+                        try {
+                            callback.process(paths.get(i), archive.parse(paths.get(i)));
+                        } catch (IOException e) {
+                            throw new CompletionException(e);
+                        }
+                    }
+                }, executor));
+            }
+            try {
+                CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Opens the ZIP to parse its '.java' entries one by one, when they are needed. The archive is thread-safe.
+     *
+     * @throws IOException If the ZIP cannot be opened.
+     */
+    public Archive open() throws IOException {
+        return new Archive(new ZipFile(zipPath.toFile()), new ParserPool(parserConfiguration));
+    }
+
+    /**
+     * An opened ZIP, see {@link #open()}. It must be closed after use.
+     */
+    public static class Archive implements Closeable {
+
+        private final ZipFile zipFile;
+
+        private final ParserPool parsers;
+
+        private final Map<Path, ZipEntry> javaEntries = new LinkedHashMap<>();
+
+        private Archive(ZipFile zipFile, ParserPool parsers) {
+            this.zipFile = zipFile;
+            this.parsers = parsers;
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (!entry.isDirectory() && entry.getName().endsWith(".java")) {
+                    javaEntries.put(Paths.get(entry.getName()), entry);
+                }
+            }
+        }
+
+        /**
+         * @return The paths of the '.java' entries, in the order of the ZIP.
+         */
+        public List<Path> getJavaEntries() {
+            return new ArrayList<>(javaEntries.keySet());
+        }
+
+        /**
+         * Parses one '.java' entry with a parser of the pool.
+         *
+         * @throws IOException If the entry cannot be read.
+         * @throws IllegalArgumentException If there is no such '.java' entry.
+         */
+        public ParseResult<CompilationUnit> parse(Path path) throws IOException {
+            JavaParser javaParser = parsers.borrow();
+            try {
+                return parse(javaParser, path);
+            } finally {
+                parsers.release(javaParser);
+            }
+        }
+
+        private ParseResult<CompilationUnit> parse(JavaParser javaParser, Path path) throws IOException {
+            ZipEntry entry = javaEntries.get(path);
+            if (entry == null) {
+                throw new IllegalArgumentException("No Java file " + path + " in " + zipFile.getName());
+            }
+            Log.info("Parsing zip entry \"%s\"", entry::getName);
+            return javaParser.parse(COMPILATION_UNIT, provider(zipFile.getInputStream(entry), javaParser.getParserConfiguration().getCharacterEncoding()));
+        }
+
+        private long getSize(Path path) {
+            // The size is unknown (-1) in ZIPs written as a stream
+            return Math.max(1, javaEntries.get(path).getSize());
+        }
+
+        @Override
+        public void close() throws IOException {
+            zipFile.close();
+        }
+    }
+
     /**
      * An interface to define a callback for each file that's parsed.
      */
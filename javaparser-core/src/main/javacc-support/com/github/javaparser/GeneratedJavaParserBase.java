@@ -27,6 +27,7 @@ import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.body.Parameter;
 import com.github.javaparser.ast.comments.CommentsCollection;
 import com.github.javaparser.ast.expr.*;
+import com.github.javaparser.ast.stmt.BlockStmt;
 import com.github.javaparser.ast.stmt.Statement;
 import com.github.javaparser.ast.type.ArrayType;
 import com.github.javaparser.ast.type.Type;
@@ -36,6 +37,9 @@ import com.github.javaparser.utils.Pair;
 import java.util.*;
 
 import static com.github.javaparser.GeneratedJavaParserConstants.EOF;
+import static com.github.javaparser.GeneratedJavaParserConstants.GT;
+import static com.github.javaparser.GeneratedJavaParserConstants.LBRACE;
+import static com.github.javaparser.GeneratedJavaParserConstants.RBRACE;
 import static com.github.javaparser.ast.type.ArrayType.unwrapArrayTypes;
 import static com.github.javaparser.ast.type.ArrayType.wrapInArrayTypes;
 import static com.github.javaparser.utils.Utils.assertNotNull;
@@ -63,10 +67,24 @@ abstract class GeneratedJavaParserBase {
     /* Configuration flag whether we store tokens and tokenranges */
     boolean storeTokens;
 
+    /* Configuration flag whether method, constructor and initializer bodies are skipped */
+    boolean skipBodies;
+    /* The bodies skipped while parsing */
+    List<SkippedBody> skippedBodies = new ArrayList<>();
+
     /* Resets the parser for reuse, gaining a little performance */
     void reset(Provider provider) {
         ReInit(provider);
         problems = new ArrayList<>();
+        skippedBodies = new ArrayList<>();
+        getTokenSource().reset();
+    }
+
+    /* Drops the state of the last parse: the comments point into the AST, which an idle parser must not keep */
+    void clear() {
+        ReInit(new StringProvider(""));
+        problems = new ArrayList<>();
+        skippedBodies = new ArrayList<>();
         getTokenSource().reset();
     }
 
@@ -214,6 +232,51 @@ abstract class GeneratedJavaParserBase {
         getTokenSource().setStoreTokens(storeTokens);
     }
 
+    void setSkipBodies(boolean skipBodies) {
+        this.skipBodies = skipBodies;
+    }
+
+    /* Called after the opening brace of a body, skips forward to the matching closing brace.
+        The source of the body, including whitespace and comments, is kept for parsing it later on. */
+    BlockStmt skipBody() {
+        JavaToken begin = token();
+        StringBuilder source = new StringBuilder("{");
+        Deque<Token> specialTokens = new ArrayDeque<>();
+        int depth = 1;
+        Token t;
+        do {
+            t = getNextToken();
+            for (Token special = t.specialToken; special != null; special = special.specialToken) {
+                specialTokens.push(special);
+            }
+            while (!specialTokens.isEmpty()) {
+                source.append(specialTokens.pop().image);
+            }
+            if (t.kind == LBRACE) {
+                depth++;
+            } else if (t.kind == RBRACE) {
+                depth--;
+            }
+            if (t.kind == GT) {
+                // The image of a split ">>" or ">>>" also covers the following tokens
+                source.append('>');
+            } else if (t.kind != EOF) {
+                source.append(t.image);
+            }
+        } while (depth > 0 && t.kind != EOF);
+
+        BlockStmt body = new BlockStmt(range(begin, token()), new NodeList<>());
+        if (t.kind == EOF) {
+            addProblem("Unbalanced braces in body");
+            body.setParsed(Node.Parsedness.UNPARSABLE);
+            return body;
+        }
+        SkippedBody skipped = new SkippedBody(source.toString());
+        skipped.mark(body);
+        skippedBodies.add(skipped);
+        return body;
+    }
+
     /* Called from within a catch block to skip forward to a known token,
         and report the occurred exception as a problem. */
     TokenRange recover(int recoveryTokenType, ParseException p) {
@@ -48,7 +48,7 @@ abstract class GeneratedJavaParserTokenManagerBase {
         String commentText = token.image;
         if (token.kind == JAVADOC_COMMENT) {
             return new JavadocComment(tokenRange(token), commentText.substring(3, commentText.length() - 2));
-        } else if (token.kind == MULTI_LINE_COMMENT) {
+        } else if (token.kind == MULTI_LINE_COMMENT || token.kind == JML_MULTI_LINE_COMMENT) {
             return new BlockComment(tokenRange(token), commentText.substring(2, commentText.length() - 2));
         } else if (token.kind == SINGLE_LINE_COMMENT) {
             return new LineComment(tokenRange(token), commentText.substring(2));
@@ -35,6 +35,8 @@ import com.github.javaparser.ast.stmt.ExplicitConstructorInvocationStmt;
 import com.github.javaparser.ast.type.Type;
 import com.github.javaparser.ast.type.TypeParameter;
 import com.github.javaparser.quality.NotNull;
+import com.github.javaparser.resolution.ResolutionListener;
+import com.github.javaparser.resolution.ResolutionListeners;
 import com.github.javaparser.resolution.SymbolResolver;
 import com.github.javaparser.resolution.TypeSolver;
 import com.github.javaparser.resolution.UnsolvedSymbolException;
@@ -99,6 +101,20 @@ public class JavaSymbolSolver implements SymbolResolver {
         destination.setData(Node.SYMBOL_RESOLVER_KEY, this);
     }
 
+    /**
+     * Reports the steps of the resolutions using the type solver of this SymbolResolver to the listener, or stops
+     * reporting them if the listener is null.
+     *
+     * @see com.github.javaparser.symbolsolver.resolution.ResolutionStatistics
+     */
+    public void setResolutionListener(ResolutionListener listener) {
+        if (listener == null) {
+            ResolutionListeners.unregister(typeSolver);
+        } else {
+            ResolutionListeners.register(typeSolver, listener);
+        }
+    }
+
     @Override
     public <T> T resolveDeclaration(Node node, Class<T> resultClass) {
         T ret = resolveDeclarationImpl(node, resultClass);
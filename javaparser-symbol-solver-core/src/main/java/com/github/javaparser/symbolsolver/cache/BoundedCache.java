@@ -0,0 +1,288 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.symbolsolver.cache;
+
+import com.github.javaparser.resolution.cache.Cache;
+import com.github.javaparser.resolution.cache.CacheStats;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * A thread-safe cache that keeps the entries in memory up to a maximum size or weight.
+ * <br>
+ * Unlike {@link InMemoryCache}, entries stay cached as long as they are used, whether their keys are still
+ * referenced elsewhere or not. When the cache is full, the least recently used entries are evicted.
+ * <br>
+ * The entries are spread over segments with a lock of their own, so threads using different keys rarely wait for
+ * each other. Each segment is a segmented LRU: a new entry is put on probation, and only a second access moves it
+ * to the protected part, which takes up to 80% of the segment. Entries used once, like those of a scan over many
+ * keys, are evicted before entries that are used again and again. As every segment holds its share of the maximum,
+ * an entry can be evicted while other segments still have room.
+ * <br>
+ * The {@link #stats() statistics} count hits, misses and evictions.
+ *
+ * @param <K> The type of the key.
+ * @param <V> The type of the value.
+ */
+public class BoundedCache<K, V> implements Cache<K, V> {
+
+    private static final int MAXIMUM_SEGMENTS = 16;
+
+    private static final int MINIMUM_SEGMENT_SIZE = 32;
+
+    /**
+     * Create a new instance holding up to {@code maximumSize} entries.
+     *
+     * @param maximumSize The maximum number of entries.
+     * @param <expectedK> The expected type for the key.
+     * @param <expectedV> The expected type for the value.
+     * @return A newly created instance of {@link BoundedCache}.
+     */
+    public static <expectedK, expectedV> BoundedCache<expectedK, expectedV> create(long maximumSize) {
+        return new BoundedCache<>(maximumSize, (key, value) -> 1);
+    }
+
+    /**
+     * Create a new instance holding entries up to a total weight of {@code maximumWeight}. An entry weighing more
+     * than a segment can hold is not cached at all.
+     *
+     * @param maximumWeight The maximum total weight of the entries.
+     * @param weigher       The weight of an entry, which must not change while it is cached.
+     * @param <expectedK>   The expected type for the key.
+     * @param <expectedV>   The expected type for the value.
+     * @return A newly created instance of {@link BoundedCache}.
+     */
+    public static <expectedK, expectedV> BoundedCache<expectedK, expectedV> create(
+            long maximumWeight, ToLongBiFunction<? super expectedK, ? super expectedV> weigher) {
+        return new BoundedCache<>(maximumWeight, weigher);
+    }
+
+    private final Segment<K, V>[] segments;
+
+    private final ToLongBiFunction<? super K, ? super V> weigher;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    private BoundedCache(long maximumWeight, ToLongBiFunction<? super K, ? super V> weigher) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("The maximum weight must be positive.");
+        }
+        this.weigher = Objects.requireNonNull(weigher, "The weigher can't be null.");
+        int count = 1;
+        while (count < MAXIMUM_SEGMENTS && 2L * count * MINIMUM_SEGMENT_SIZE <= maximumWeight) {
+            count *= 2;
+        }
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(maximumWeight / count + (i < maximumWeight % count ? 1 : 0));
+        }
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return segments[hash & (segments.length - 1)];
+    }
+
+    @Override
+    public void put(K key, V value) {
+        Objects.requireNonNull(key, "The key can't be null.");
+        Objects.requireNonNull(value, "The value can't be null.");
+        long weight = weigher.applyAsLong(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("The weight of an entry can't be negative.");
+        }
+        evictionCount.add(segmentFor(key).put(key, value, weight));
+    }
+
+    @Override
+    public Optional<V> get(K key) {
+        Objects.requireNonNull(key, "The key can't be null.");
+        V value = segmentFor(key).get(key);
+        if (value == null) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+        return Optional.ofNullable(value);
+    }
+
+    @Override
+    public void remove(K key) {
+        Objects.requireNonNull(key, "The key can't be null.");
+        segmentFor(key).remove(key);
+    }
+
+    @Override
+    public void removeAll() {
+        for (Segment<K, V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    @Override
+    public boolean contains(K key) {
+        Objects.requireNonNull(key, "The key can't be null.");
+        return segmentFor(key).contains(key);
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public CacheStats stats() {
+        return new DefaultCacheStats(hitCount.sum(), missCount.sum(), 0, 0, 0, evictionCount.sum());
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+
+        private final long weight;
+
+        Entry(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * A part of the cache, guarded by its own lock. Both maps are kept in access order, their eldest entry is the
+     * least recently used.
+     */
+    private static final class Segment<K, V> {
+
+        private final long maximumWeight;
+
+        private final long maximumProtectedWeight;
+
+        private final LinkedHashMap<K, Entry<V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+
+        private final LinkedHashMap<K, Entry<V>> protectedEntries = new LinkedHashMap<>(16, 0.75f, true);
+
+        private long probationWeight;
+
+        private long protectedWeight;
+
+        Segment(long maximumWeight) {
+            this.maximumWeight = maximumWeight;
+            this.maximumProtectedWeight = maximumWeight - maximumWeight / 5;
+        }
+
+        synchronized V get(K key) {
+            Entry<V> entry = protectedEntries.get(key);
+            if (entry != null) {
+                return entry.value;
+            }
+            entry = probation.remove(key);
+            if (entry == null) {
+                return null;
+            }
+            // Used a second time, promote it to the protected entries
+            probationWeight -= entry.weight;
+            protectedEntries.put(key, entry);
+            protectedWeight += entry.weight;
+            while (protectedWeight > maximumProtectedWeight && protectedEntries.size() > 1) {
+                Iterator<Map.Entry<K, Entry<V>>> eldest = protectedEntries.entrySet().iterator();
+                Map.Entry<K, Entry<V>> demoted = eldest.next();
+                eldest.remove();
+                protectedWeight -= demoted.getValue().weight;
+                probation.put(demoted.getKey(), demoted.getValue());
+                probationWeight += demoted.getValue().weight;
+            }
+            return entry.value;
+        }
+
+        /**
+         * @return the number of evicted entries.
+         */
+        synchronized int put(K key, V value, long weight) {
+            remove(key);
+            if (weight > maximumWeight) {
+                return 1;
+            }
+            probation.put(key, new Entry<>(value, weight));
+            probationWeight += weight;
+            int evicted = 0;
+            while (probationWeight + protectedWeight > maximumWeight) {
+                // The new entry gets a chance to be used again, as long as there is anything else to evict
+                LinkedHashMap<K, Entry<V>> victims = probation.size() > 1 || protectedEntries.isEmpty() ? probation : protectedEntries;
+                Iterator<Entry<V>> eldest = victims.values().iterator();
+                long victimWeight = eldest.next().weight;
+                eldest.remove();
+                if (victims == probation) {
+                    probationWeight -= victimWeight;
+                } else {
+                    protectedWeight -= victimWeight;
+                }
+                evicted++;
+            }
+            return evicted;
+        }
+
+        synchronized void remove(K key) {
+            Entry<V> entry = probation.remove(key);
+            if (entry != null) {
+                probationWeight -= entry.weight;
+            }
+            entry = protectedEntries.remove(key);
+            if (entry != null) {
+                protectedWeight -= entry.weight;
+            }
+        }
+
+        synchronized void clear() {
+            probation.clear();
+            protectedEntries.clear();
+            probationWeight = 0;
+            protectedWeight = 0;
+        }
+
+        synchronized boolean contains(K key) {
+            return probation.containsKey(key) || protectedEntries.containsKey(key);
+        }
+
+        synchronized int size() {
+            return probation.size() + protectedEntries.size();
+        }
+    }
+}
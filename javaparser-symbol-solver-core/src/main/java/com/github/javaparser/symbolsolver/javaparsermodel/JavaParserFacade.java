@@ -26,7 +26,6 @@ import static com.github.javaparser.resolution.model.SymbolReference.solved;
 import static com.github.javaparser.resolution.model.SymbolReference.unsolved;
 
 import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.DataKey;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.body.*;
@@ -40,6 +39,7 @@ import com.github.javaparser.resolution.logic.ConstructorResolutionLogic;
 import com.github.javaparser.resolution.logic.MethodResolutionLogic;
 import com.github.javaparser.resolution.model.LambdaArgumentTypePlaceholder;
 import com.github.javaparser.resolution.model.SymbolReference;
+import com.github.javaparser.resolution.model.Value;
 import com.github.javaparser.resolution.model.typesystem.ReferenceTypeImpl;
 import com.github.javaparser.resolution.types.ResolvedReferenceType;
 import com.github.javaparser.resolution.types.ResolvedType;
@@ -51,6 +51,7 @@ import com.github.javaparser.symbolsolver.resolution.SymbolSolver;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
 import com.github.javaparser.utils.Log;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -62,9 +63,6 @@ public class JavaParserFacade {
 
     // Start of static class
 
-    private static final DataKey<ResolvedType> TYPE_WITH_LAMBDAS_RESOLVED = new DataKey<ResolvedType>() {};
-    private static final DataKey<ResolvedType> TYPE_WITHOUT_LAMBDAS_RESOLVED = new DataKey<ResolvedType>() {};
-
     private static final Map<TypeSolver, JavaParserFacade> instances = new WeakHashMap<>();
 
     private static final String JAVA_LANG_STRING = String.class.getCanonicalName();
@@ -96,6 +94,8 @@ public class JavaParserFacade {
     private final TypeExtractor typeExtractor;
     private final Solver symbolSolver;
     private final SymbolResolver symbolResolver;
+    private final ResolvedTypeStore resolvedTypes;
+    private final Map<Object, ResolvedReferenceTypeDeclaration> typeDeclarationMemo = new ConcurrentHashMap<>();
 
     private FailureHandler failureHandler;
 
@@ -105,6 +105,7 @@ public class JavaParserFacade {
         this.typeExtractor = new TypeExtractor(this.typeSolver, this);
         this.failureHandler = new FailureHandler();
         this.symbolResolver = new JavaSymbolSolver(this.typeSolver);
+        this.resolvedTypes = new ResolvedTypeStore(ResolvedTypeStore.DEFAULT_MAXIMUM_SIZE);
     }
 
     public TypeSolver getTypeSolver() {
@@ -115,6 +116,24 @@ public class JavaParserFacade {
         return symbolSolver;
     }
 
+    /**
+     * @return the types computed by this facade, which can be cleared for a compilation unit to release memory.
+     */
+    public ResolvedTypeStore getResolvedTypes() {
+        return resolvedTypes;
+    }
+
+    /**
+     * The declarations created for the classes which are not parsed, by reflection or javassist, with the type solver
+     * of this facade as their solver, so that each class gets one declaration per type solver. They are dropped with
+     * the facade.
+     *
+     * @return the declarations by class.
+     */
+    public Map<Object, ResolvedReferenceTypeDeclaration> getTypeDeclarationMemo() {
+        return typeDeclarationMemo;
+    }
+
     public SymbolReference<? extends ResolvedValueDeclaration> solve(NameExpr nameExpr) {
         return symbolSolver.solveSymbol(nameExpr.getName().getId(), nameExpr);
     }
@@ -355,8 +374,15 @@ public class JavaParserFacade {
      * the type itself when used on the name of type.
      */
     public ResolvedType getType(Node node) {
+        Optional<ResolvedType> cached = resolvedTypes.find(node, true);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        if (node instanceof NameExpr) {
+            return getNameExprType((NameExpr) node);
+        }
         try {
-            return getType(node, true);
+            return computeType(node);
         } catch (UnsolvedSymbolException e) {
             if (node instanceof NameExpr) {
                 NameExpr nameExpr = (NameExpr) node;
@@ -373,6 +399,35 @@ public class JavaParserFacade {
         }
     }
 
+    /*
+     * A name which is not a value may still be a type, e.g. the scope of a static method call. Names are the most
+     * common expressions, so this is checked without going through an UnsolvedSymbolException.
+     */
+    private ResolvedType getNameExprType(NameExpr nameExpr) {
+        String name = nameExpr.getNameAsString();
+        UnsolvedSymbolException failure;
+        try {
+            Optional<Value> value = symbolSolver.solveSymbolAsValue(name, nameExpr);
+            if (value.isPresent()) {
+                ResolvedType res = value.get().getType();
+                resolvedTypes.put(nameExpr, true, res);
+                Log.trace("getType on %s  -> %s", () -> nameExpr, () -> res);
+                return res;
+            }
+            failure = null;
+        } catch (UnsolvedSymbolException e) {
+            failure = e;
+        }
+        SymbolReference<ResolvedTypeDeclaration> typeDeclaration =
+                JavaParserFactory.getContext(nameExpr, typeSolver).solveType(name);
+        if (typeDeclaration.isSolved()
+                && typeDeclaration.getCorrespondingDeclaration() instanceof ResolvedReferenceTypeDeclaration) {
+            return ReferenceTypeImpl.undeterminedParameters(
+                    (ResolvedReferenceTypeDeclaration) typeDeclaration.getCorrespondingDeclaration());
+        }
+        throw failureHandler.handle(failure != null ? failure : new UnsolvedSymbolException("Solving " + nameExpr, name));
+    }
+
     /*
      * Returns the resolved Type of the {@code Node}. If the node is a method call
      * expression and and the flag activates lambda expression resolution, the type
@@ -381,39 +436,42 @@ public class JavaParserFacade {
      */
     public ResolvedType getType(Node node, boolean solveLambdas) {
         if (solveLambdas) {
-            if (!node.containsData(TYPE_WITH_LAMBDAS_RESOLVED)) {
-
-                if (node instanceof MethodCallExpr) {
-                    MethodCallExpr methodCallExpr = (MethodCallExpr) node;
-                    for (Node arg : methodCallExpr.getArguments()) {
-                        if (!arg.containsData(TYPE_WITH_LAMBDAS_RESOLVED)) {
-                            getType(arg, true);
-                        }
-                    }
-                }
-                ResolvedType res = getTypeConcrete(node, solveLambdas);
-                node.setData(TYPE_WITH_LAMBDAS_RESOLVED, res);
-                Log.trace("getType on %s  -> %s", () -> node, () -> res);
+            Optional<ResolvedType> cached = resolvedTypes.find(node, true);
+            if (cached.isPresent()) {
+                return cached.get();
             }
-            return node.getData(TYPE_WITH_LAMBDAS_RESOLVED);
-        }
-
-        // Try to return a value from the cache of resolved types using lambda expressions
-        Optional<ResolvedType> res = node.findData(TYPE_WITH_LAMBDAS_RESOLVED);
-        if (res.isPresent()) {
-            return res.get();
+            return computeType(node);
         }
 
-        // else try to return a value from the cache of resolved types without lambda expressions
+        // Try to return a value from the cache of resolved types using lambda expressions,
+        // else from the cache of resolved types without lambda expressions
         // Or resolves the node type without resolving the lambda expressions
-        return node.findData(TYPE_WITHOUT_LAMBDAS_RESOLVED).orElseGet(() -> {
+        return resolvedTypes.findAny(node).orElseGet(() -> {
             ResolvedType resType = getTypeConcrete(node, solveLambdas);
-            node.setData(TYPE_WITHOUT_LAMBDAS_RESOLVED, resType);
-            Log.trace("getType on %s (no solveLambdas) -> %s", () -> node, () -> res);
+            resolvedTypes.put(node, false, resType);
+            Log.trace("getType on %s (no solveLambdas) -> %s", () -> node, () -> resType);
             return resType;
         });
     }
 
+    /*
+     * Computes and stores the type of a node without a stored type, solving the lambdas.
+     */
+    private ResolvedType computeType(Node node) {
+        if (node instanceof MethodCallExpr) {
+            MethodCallExpr methodCallExpr = (MethodCallExpr) node;
+            for (Node arg : methodCallExpr.getArguments()) {
+                if (!resolvedTypes.contains(arg, true)) {
+                    getType(arg, true);
+                }
+            }
+        }
+        ResolvedType res = getTypeConcrete(node, true);
+        resolvedTypes.put(node, true, res);
+        Log.trace("getType on %s  -> %s", () -> node, () -> res);
+        return res;
+    }
+
     protected MethodUsage toMethodUsage(MethodReferenceExpr methodReferenceExpr, List<ResolvedType> paramTypes) {
         Expression scope = methodReferenceExpr.getScope();
         ResolvedType typeOfScope = getType(methodReferenceExpr.getScope());
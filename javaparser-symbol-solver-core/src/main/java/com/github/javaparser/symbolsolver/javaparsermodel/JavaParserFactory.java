@@ -30,6 +30,8 @@ import com.github.javaparser.ast.expr.*;
 import com.github.javaparser.ast.stmt.*;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
 import com.github.javaparser.resolution.Context;
+import com.github.javaparser.resolution.ResolutionListener;
+import com.github.javaparser.resolution.ResolutionListeners;
 import com.github.javaparser.resolution.SymbolDeclarator;
 import com.github.javaparser.resolution.TypeSolver;
 import com.github.javaparser.symbolsolver.javaparsermodel.contexts.*;
@@ -41,6 +43,17 @@ import com.github.javaparser.symbolsolver.javaparsermodel.declarators.*;
 public class JavaParserFactory {
 
     public static Context getContext(Node node, TypeSolver typeSolver) {
+        ResolutionListener listener = ResolutionListeners.of(typeSolver);
+        if (listener == null) {
+            return createContext(node, typeSolver);
+        }
+        long start = System.nanoTime();
+        Context context = createContext(node, typeSolver);
+        listener.contextCreated(node, System.nanoTime() - start);
+        return context;
+    }
+
+    private static Context createContext(Node node, TypeSolver typeSolver) {
         if (node == null) {
             throw new NullPointerException("Node should not be null");
         }
@@ -151,12 +164,12 @@ public class JavaParserFactory {
                         break;
                     }
                 }
-                return getContext(ancestor, typeSolver);
+                return createContext(ancestor, typeSolver);
             }
             if (node.getParentNode().isPresent()
                     && node.getParentNode().get() instanceof ObjectCreationExpr
                     && node.getParentNode().get().getParentNode().isPresent()) {
-                return getContext(node.getParentNode().get().getParentNode().get(), typeSolver);
+                return createContext(node.getParentNode().get().getParentNode().get(), typeSolver);
             }
         }
         final Node parentNode = demandParentNode(node);
@@ -169,7 +182,7 @@ public class JavaParserFactory {
                 return new ClassOrInterfaceDeclarationExtendsContext(parentDeclaration, typeSolver);
             }
         }
-        return getContext(parentNode, typeSolver);
+        return createContext(parentNode, typeSolver);
     }
 
     public static SymbolDeclarator getSymbolDeclarator(Node node, TypeSolver typeSolver) {
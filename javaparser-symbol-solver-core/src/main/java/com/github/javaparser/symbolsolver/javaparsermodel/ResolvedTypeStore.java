@@ -0,0 +1,408 @@
+/*
+ * Copyright (C) 2015-2016 Federico Tomassetti
+ * Copyright (C) 2017-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver.javaparsermodel;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeAttachment;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.InitializerDeclaration;
+import com.github.javaparser.ast.observer.AstObserver;
+import com.github.javaparser.ast.observer.ObservableProperty;
+import com.github.javaparser.ast.observer.PropagatingAstObserver;
+import com.github.javaparser.ast.stmt.BlockStmt;
+import com.github.javaparser.metamodel.PropertyMetaModel;
+import com.github.javaparser.resolution.types.ResolvedType;
+import java.util.*;
+
+/**
+ * The types computed by a {@link JavaParserFacade} for the nodes of the ASTs, kept aside of the nodes.
+ * <p>
+ * The entries are looked up by node identity and hold the type computed with and without solving the lambdas. Each
+ * tree, usually a compilation unit, has its own table of entries attached to its root, so the entries are collected
+ * with the tree and the entries of different trees are guarded by different locks. At most {@code maximumSize}
+ * nodes are kept for a tree, the least recently used are evicted first. The entries of a tree can be dropped with
+ * {@link #clear(CompilationUnit)}.
+ * <p>
+ * An observer keeps the entries up to date when the AST is modified. A change inside the body of a method,
+ * constructor or initializer drops the entries of that body only: the types of the nodes outside of it depend on the
+ * declarations, not on the bodies. Any other change drops the entries of the whole tree. The nodes removed from the
+ * tree lose their entries too. The declarations of a tree are observed when its first entry is stored, a body when the
+ * first entry inside of it is stored.
+ */
+public final class ResolvedTypeStore {
+
+    static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    private final int maximumSize;
+
+    /*
+     * The tables observe their trees themselves, so that the bodies are observed only once they have entries.
+     */
+    private final NodeAttachment<Table> tableAttachment = new NodeAttachment<>();
+
+    /*
+     * The tables are only reachable from their trees: they are known here to be cleared and counted while they live.
+     * Guards the creation and the disposal of the tables, lookups of a table do not take it.
+     */
+    private final Set<Table> tables = Collections.newSetFromMap(new WeakHashMap<>());
+
+    ResolvedTypeStore(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size must be positive.");
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * @param solveLambdas whether the type is the one computed when solving the lambdas.
+     * @return the type stored for the node.
+     */
+    public Optional<ResolvedType> find(Node node, boolean solveLambdas) {
+        Table table = findTable(node.findRootNode());
+        if (table == null) {
+            return Optional.empty();
+        }
+        return table.find(node, solveLambdas);
+    }
+
+    /**
+     * @return the type stored for the node, preferably the one computed when solving the lambdas.
+     */
+    public Optional<ResolvedType> findAny(Node node) {
+        Table table = findTable(node.findRootNode());
+        if (table == null) {
+            return Optional.empty();
+        }
+        return table.findAny(node);
+    }
+
+    public boolean contains(Node node, boolean solveLambdas) {
+        return find(node, solveLambdas).isPresent();
+    }
+
+    /**
+     * Stores the type of the node, and starts observing its tree or its body if it is the first node stored for them.
+     */
+    public void put(Node node, boolean solveLambdas, ResolvedType type) {
+        Objects.requireNonNull(type);
+        Node root = node.findRootNode();
+        Table table = findTable(root);
+        if (table == null) {
+            synchronized (tables) {
+                table = tableAttachment.computeIfAbsent(root, Table::new);
+                tables.add(table);
+            }
+        }
+        table.put(node, solveLambdas, type);
+    }
+
+    /**
+     * Drops the entries of the nodes whose type may depend on the node: the body of the method, constructor or
+     * initializer containing it, or else the whole tree.
+     */
+    public void invalidate(Node node) {
+        Table table = findTable(node.findRootNode());
+        if (table != null) {
+            table.invalidate(node);
+        }
+    }
+
+    /**
+     * Drops the entries of all the nodes of the tree containing the compilation unit, and stops observing it.
+     */
+    public void clear(CompilationUnit compilationUnit) {
+        Table table = findTable(compilationUnit.findRootNode());
+        if (table != null) {
+            dispose(table);
+        }
+    }
+
+    /**
+     * Drops all the entries.
+     */
+    public void clear() {
+        for (Table table : liveTables()) {
+            dispose(table);
+        }
+    }
+
+    /**
+     * @return the number of nodes with a stored type, in the trees still reachable.
+     */
+    public int size() {
+        int size = 0;
+        for (Table table : liveTables()) {
+            size += table.size();
+        }
+        return size;
+    }
+
+    private Table findTable(Node root) {
+        return tableAttachment.find(root).orElse(null);
+    }
+
+    private List<Table> liveTables() {
+        synchronized (tables) {
+            return new ArrayList<>(tables);
+        }
+    }
+
+    private void dispose(Table table) {
+        synchronized (tables) {
+            if (findTable(table.root) == table) {
+                tableAttachment.remove(table.root);
+            }
+            tables.remove(table);
+        }
+        table.dispose();
+    }
+
+    private static Optional<Node> enclosingBody(Node node) {
+        for (Node child = node; child.getParentNode().isPresent(); child = child.getParentNode().get()) {
+            if (isBody(child)) {
+                return Optional.of(child);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /*
+     * The outermost body is the one observed: a change in it may affect the bodies of the local and anonymous classes
+     * it contains.
+     */
+    private static Optional<Node> outermostBody(Node node) {
+        Node body = null;
+        for (Node child = node; child.getParentNode().isPresent(); child = child.getParentNode().get()) {
+            if (isBody(child)) {
+                body = child;
+            }
+        }
+        return Optional.ofNullable(body);
+    }
+
+    private static boolean isBody(Node node) {
+        Node parent = node.getParentNode().orElse(null);
+        return node instanceof BlockStmt
+                && (parent instanceof CallableDeclaration || parent instanceof InitializerDeclaration);
+    }
+
+    /**
+     * The entries of the nodes of a tree, guarded by the table itself.
+     */
+    private final class Table {
+
+        private final Node root;
+
+        private final LinkedHashMap<Key, Entry> entries;
+
+        private final Invalidator invalidator = new Invalidator(this);
+
+        private boolean observed;
+
+        Table(Node root) {
+            this.root = root;
+            this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                    return size() > maximumSize;
+                }
+            };
+        }
+
+        synchronized Optional<ResolvedType> find(Node node, boolean solveLambdas) {
+            Entry entry = entries.get(new Key(node));
+            if (entry == null) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(solveLambdas ? entry.withLambdas : entry.withoutLambdas);
+        }
+
+        synchronized Optional<ResolvedType> findAny(Node node) {
+            Entry entry = entries.get(new Key(node));
+            if (entry == null) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(entry.withLambdas != null ? entry.withLambdas : entry.withoutLambdas);
+        }
+
+        synchronized void put(Node node, boolean solveLambdas, ResolvedType type) {
+            Key key = new Key(node);
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                observe(node);
+                entry = new Entry();
+                entries.put(key, entry);
+            }
+            if (solveLambdas) {
+                entry.withLambdas = type;
+            } else {
+                entry.withoutLambdas = type;
+            }
+        }
+
+        synchronized void invalidate(Node node) {
+            Optional<Node> body = enclosingBody(node);
+            if (body.isPresent()) {
+                removeSubtree(body.get());
+            } else {
+                entries.clear();
+            }
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized void dispose() {
+            entries.clear();
+            unregister(root);
+        }
+
+        private void observe(Node node) {
+            if (!observed) {
+                registerForDeclarations(root);
+                observed = true;
+            }
+            outermostBody(node).filter(body -> !body.isRegistered(invalidator))
+                    .ifPresent(body -> body.registerForSubtree(invalidator));
+        }
+
+        private void removeSubtree(Node node) {
+            if (entries.isEmpty()) {
+                return;
+            }
+            node.walk(descendant -> entries.remove(new Key(descendant)));
+        }
+
+        /*
+         * Registers for the subtree like Node.registerForSubtree, skipping the bodies.
+         */
+        private void registerForDeclarations(Node node) {
+            node.register(invalidator);
+            for (PropertyMetaModel property : node.getMetaModel().getAllPropertyMetaModels()) {
+                if (property.isNodeList()) {
+                    NodeList<?> nodeList = (NodeList<?>) property.getValue(node);
+                    if (nodeList != null) {
+                        nodeList.register(invalidator);
+                    }
+                }
+            }
+            for (Node child : node.getChildNodes()) {
+                if (!isBody(child)) {
+                    registerForDeclarations(child);
+                }
+            }
+        }
+
+        private void unregister(Node node) {
+            node.unregister(invalidator);
+            for (PropertyMetaModel property : node.getMetaModel().getAllPropertyMetaModels()) {
+                if (property.isNodeList()) {
+                    NodeList<?> nodeList = (NodeList<?>) property.getValue(node);
+                    if (nodeList != null) {
+                        nodeList.unregister(invalidator);
+                    }
+                }
+            }
+            node.getChildNodes().forEach(this::unregister);
+        }
+    }
+
+    /**
+     * A node compared by identity, as the nodes are compared by their contents.
+     */
+    private static final class Key {
+
+        private final Node node;
+
+        Key(Node node) {
+            this.node = Objects.requireNonNull(node);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).node == node;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(node);
+        }
+    }
+
+    private static final class Entry {
+
+        private ResolvedType withLambdas;
+
+        private ResolvedType withoutLambdas;
+    }
+
+    private static final class Invalidator extends PropagatingAstObserver {
+
+        private final Table table;
+
+        Invalidator(Table table) {
+            this.table = table;
+        }
+
+        @Override
+        public void concretePropertyChange(
+                Node observedNode, ObservableProperty property, Object oldValue, Object newValue) {
+            if (property != ObservableProperty.RANGE && property != ObservableProperty.COMMENT) {
+                synchronized (table) {
+                    if (oldValue instanceof Node) {
+                        table.removeSubtree((Node) oldValue);
+                    }
+                    table.invalidate(observedNode);
+                }
+            }
+        }
+
+        @Override
+        public void concreteListChange(
+                NodeList<?> observedNode, AstObserver.ListChangeType type, int index, Node nodeAddedOrRemoved) {
+            synchronized (table) {
+                if (type == AstObserver.ListChangeType.REMOVAL) {
+                    table.removeSubtree(nodeAddedOrRemoved);
+                }
+                observedNode.getParentNode().ifPresent(table::invalidate);
+            }
+        }
+
+        @Override
+        public void concreteListReplacement(NodeList<?> observedNode, int index, Node oldValue, Node newValue) {
+            synchronized (table) {
+                table.removeSubtree(oldValue);
+                observedNode.getParentNode().ifPresent(table::invalidate);
+            }
+        }
+
+        @Override
+        public void parentChange(Node observedNode, Node previousParent, Node newParent) {
+            synchronized (table) {
+                table.removeSubtree(observedNode);
+            }
+        }
+    }
+}
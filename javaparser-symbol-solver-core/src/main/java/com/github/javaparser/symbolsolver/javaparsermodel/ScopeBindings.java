@@ -0,0 +1,461 @@
+/*
+ * Copyright (C) 2015-2016 Federico Tomassetti
+ * Copyright (C) 2017-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+
+package com.github.javaparser.symbolsolver.javaparsermodel;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeAttachment;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.*;
+import com.github.javaparser.ast.expr.*;
+import com.github.javaparser.ast.jml.clauses.JmlClause;
+import com.github.javaparser.ast.jml.clauses.JmlContract;
+import com.github.javaparser.ast.jml.clauses.JmlForallClause;
+import com.github.javaparser.ast.jml.clauses.JmlOldClause;
+import com.github.javaparser.ast.jml.clauses.JmlSignalsClause;
+import com.github.javaparser.ast.jml.expr.JmlLetExpr;
+import com.github.javaparser.ast.jml.expr.JmlQuantifiedExpr;
+import com.github.javaparser.ast.observer.AstObserver.ListChangeType;
+import com.github.javaparser.ast.observer.AstObserverAdapter;
+import com.github.javaparser.ast.observer.ObservableProperty;
+import com.github.javaparser.ast.stmt.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scope tables computed in one pass over a compilation unit, so that a simple name is solved without creating and
+ * walking a {@link com.github.javaparser.resolution.Context} for every node between the name and its declaration.
+ * <p>
+ * The pass is optional: after {@link #bind(CompilationUnit)} the
+ * {@link com.github.javaparser.symbolsolver.resolution.SymbolSolver} uses the tables for the names of the compilation
+ * unit. Every node introducing local names (methods, constructors, lambdas, blocks, {@code for}, {@code try} and
+ * {@code catch} statements, and the JML contracts, quantifiers, {@code let} expressions and {@code signals} clauses)
+ * gets an immutable {@link Scope}, kept in a table of the bindings by node identity. A name is looked up by walking up these scopes, with a hash lookup in each, to the
+ * node declaring it, or to the enclosing type declaration if it is not a local name. It is then solved in the
+ * context of that node only. Methods and constructors also know their local types, so solving a type in them does
+ * not search their body.
+ * <p>
+ * Names the tables cannot decide are left to the contexts: pattern variables, whose scope depends on the control
+ * flow, names in {@code switch} entries, which may be enum constants, the names bound by JML constructs and the JML
+ * built-in names. An observer drops
+ * the tables whenever the AST changes, they are computed again on the next lookup, until the compilation unit is
+ * unbound with {@link #unbind(CompilationUnit)}. As long as no compilation unit is bound, a lookup returns at once.
+ */
+public final class ScopeBindings {
+
+    private static final NodeAttachment<ScopeBindings> SCOPE_BINDINGS =
+            new NodeAttachment<>(bindings -> bindings.new Invalidator());
+
+    /**
+     * How many compilation units have been bound and not unbound, so that nothing is looked up for the nodes of a
+     * program that does not use the tables.
+     */
+    private static final AtomicInteger BOUND_UNITS = new AtomicInteger();
+
+    private final CompilationUnit compilationUnit;
+
+    private volatile Generation generation;
+
+    private ScopeBindings(CompilationUnit compilationUnit) {
+        this.compilationUnit = compilationUnit;
+        BOUND_UNITS.incrementAndGet();
+    }
+
+    /**
+     * Computes the scope tables of the compilation unit, and keeps them up to date from now on.
+     *
+     * @return the scope tables of the compilation unit.
+     */
+    public static ScopeBindings bind(CompilationUnit compilationUnit) {
+        Objects.requireNonNull(compilationUnit);
+        ScopeBindings bindings = SCOPE_BINDINGS.computeIfAbsent(compilationUnit, ScopeBindings::new);
+        bindings.current();
+        return bindings;
+    }
+
+    /**
+     * Drops the scope tables of the compilation unit, if it has been bound, and stops observing it.
+     */
+    public static void unbind(CompilationUnit compilationUnit) {
+        if (SCOPE_BINDINGS.remove(compilationUnit).isPresent()) {
+            BOUND_UNITS.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return the scope tables of the compilation unit of the node, if it has been bound.
+     */
+    public static Optional<ScopeBindings> of(Node node) {
+        if (BOUND_UNITS.get() == 0) {
+            return Optional.empty();
+        }
+        return node.findCompilationUnit().flatMap(SCOPE_BINDINGS::find);
+    }
+
+    /**
+     * The node in whose context the value named {@code name} and used by the node can be solved directly: the node
+     * declaring it, the statement declaring it for a local variable, or the enclosing type declaration if it is not a
+     * local name. Empty if the node is not a {@link NameExpr} of a bound compilation unit, or if the tables cannot
+     * decide, in which case the contexts of the enclosing nodes have to be walked as usual.
+     *
+     * @see #isTypeScope(Node)
+     */
+    public static Optional<Node> findDeclarationScope(String name, Node node) {
+        if (!(node instanceof NameExpr) || name.startsWith("\\")) {
+            return Optional.empty();
+        }
+        return of(node).flatMap(bindings -> bindings.findValueScope(name, node));
+    }
+
+    /**
+     * @return whether a node returned by {@link #findDeclarationScope(String, Node)} is a type declaration, meaning
+     * the name is not a local one.
+     */
+    public static boolean isTypeScope(Node scopeNode) {
+        return scopeNode instanceof TypeDeclaration || scopeNode instanceof ObjectCreationExpr;
+    }
+
+    /**
+     * The local types of a method or constructor by name, the first one in the order of the AST for each name.
+     * Empty if the compilation unit of the callable has not been bound.
+     */
+    public static Optional<Map<String, TypeDeclaration<?>>> findLocalTypes(CallableDeclaration<?> callable) {
+        return of(callable).flatMap(bindings -> bindings.getScope(callable)).map(Scope::getLocalTypes);
+    }
+
+    public CompilationUnit getCompilationUnit() {
+        return compilationUnit;
+    }
+
+    /**
+     * @return the scope introduced by the node, if it introduces one.
+     */
+    public Optional<Scope> getScope(Node node) {
+        return Optional.ofNullable(current().scopes.get(node));
+    }
+
+    private Optional<Node> findValueScope(String name, Node node) {
+        Generation current = current();
+        Node child = node;
+        for (Node parent = node.getParentNode().orElse(null);
+                parent != null;
+                child = parent, parent = parent.getParentNode().orElse(null)) {
+            if (parent instanceof SwitchEntry) {
+                return Optional.empty();
+            }
+            Scope scope = current.scopes.get(parent);
+            if (scope == null) {
+                continue;
+            }
+            if (scope.isJml()) {
+                // the names bound by JML constructs are solved by the contexts
+                if (scope.values.containsKey(name)) {
+                    return Optional.empty();
+                }
+                continue;
+            }
+            boolean typeBoundary = parent instanceof TypeDeclaration
+                    || (parent instanceof ObjectCreationExpr && child instanceof BodyDeclaration);
+            if (parent instanceof ObjectCreationExpr && !typeBoundary) {
+                // the arguments of an anonymous class are outside its body
+                continue;
+            }
+            if (scope.patternNames.contains(name)) {
+                return Optional.empty();
+            }
+            if (typeBoundary) {
+                return Optional.of(parent);
+            }
+            if (parent instanceof BlockStmt) {
+                Integer index = scope.statementIndexes.get(name);
+                if (index != null) {
+                    if (index < 0) {
+                        return Optional.empty();
+                    }
+                    NodeList<Statement> statements = ((BlockStmt) parent).getStatements();
+                    if (isAtOrAfter(statements, index, child)) {
+                        return Optional.of(statements.get(index));
+                    }
+                }
+            } else if (scope.values.containsKey(name)) {
+                return Optional.of(parent);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isAtOrAfter(NodeList<Statement> statements, int index, Node statement) {
+        for (int i = index; i < statements.size(); i++) {
+            if (statements.get(i) == statement) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Generation current() {
+        Generation g = generation;
+        if (g != null) {
+            return g;
+        }
+        synchronized (this) {
+            g = generation;
+            if (g == null) {
+                g = new Generation();
+                new Binder(g).bind(compilationUnit, new HashSet<>());
+                generation = g;
+            }
+            return g;
+        }
+    }
+
+    /**
+     * The scopes computed by one pass, by node identity. Not modified once the pass is over.
+     */
+    private static final class Generation {
+
+        private final Map<Node, Scope> scopes = new IdentityHashMap<>();
+    }
+
+    /**
+     * The names introduced by one node.
+     */
+    public static final class Scope {
+
+        private final Node owner;
+
+        private final Map<String, Node> values;
+
+        private final Map<String, Integer> statementIndexes;
+
+        private final Map<String, TypeDeclaration<?>> localTypes;
+
+        private final Set<String> patternNames;
+
+        private Scope(
+                Node owner,
+                Map<String, Node> values,
+                Map<String, Integer> statementIndexes,
+                Map<String, TypeDeclaration<?>> localTypes,
+                Set<String> patternNames) {
+            this.owner = owner;
+            this.values = Collections.unmodifiableMap(values);
+            this.statementIndexes = Collections.unmodifiableMap(statementIndexes);
+            this.localTypes = Collections.unmodifiableMap(localTypes);
+            this.patternNames = Collections.unmodifiableSet(patternNames);
+        }
+
+        /**
+         * @return the node introducing the scope.
+         */
+        public Node getOwner() {
+            return owner;
+        }
+
+        /**
+         * @return the parameters and variables declared by the node, by name. For a block these are its local
+         * variables, each visible from its declaration on.
+         */
+        public Map<String, Node> getValues() {
+            return values;
+        }
+
+        /**
+         * @return the local types of a method or constructor, by name.
+         */
+        public Map<String, TypeDeclaration<?>> getLocalTypes() {
+            return localTypes;
+        }
+
+        private boolean isJml() {
+            return owner instanceof JmlContract
+                    || owner instanceof JmlQuantifiedExpr
+                    || owner instanceof JmlLetExpr
+                    || owner instanceof JmlSignalsClause;
+        }
+    }
+
+    private static final class Binder {
+
+        private final Generation generation;
+
+        /**
+         * The local types of the methods and constructors being bound, innermost first.
+         */
+        private final Deque<Map<String, TypeDeclaration<?>>> openCallables = new ArrayDeque<>();
+
+        Binder(Generation generation) {
+            this.generation = generation;
+        }
+
+        /**
+         * @param patternNames the names of the pattern variables of the type body the node is in.
+         */
+        void bind(Node node, Set<String> patternNames) {
+            Set<String> bodyPatternNames = patternNames;
+            Map<String, TypeDeclaration<?>> localTypes = null;
+            if (node instanceof TypeDeclaration) {
+                TypeDeclaration<?> type = (TypeDeclaration<?>) node;
+                for (Map<String, TypeDeclaration<?>> types : openCallables) {
+                    types.putIfAbsent(type.getNameAsString(), type);
+                }
+                bodyPatternNames = new HashSet<>();
+            } else if (node instanceof ObjectCreationExpr
+                    && ((ObjectCreationExpr) node).getAnonymousClassBody().isPresent()) {
+                bodyPatternNames = new HashSet<>();
+            } else if (node instanceof TypePatternExpr) {
+                patternNames.add(((TypePatternExpr) node).getNameAsString());
+            } else if (node instanceof CallableDeclaration) {
+                localTypes = new HashMap<>();
+                openCallables.push(localTypes);
+            }
+
+            for (Node child : node.getChildNodes()) {
+                boolean inBody = node instanceof TypeDeclaration
+                        || (node instanceof ObjectCreationExpr && child instanceof BodyDeclaration);
+                bind(child, inBody ? bodyPatternNames : patternNames);
+            }
+
+            if (localTypes != null) {
+                openCallables.pop();
+            }
+            Map<String, Node> values = new HashMap<>();
+            Map<String, Integer> statementIndexes = new HashMap<>();
+            if (node instanceof TypeDeclaration || bodyPatternNames != patternNames) {
+                attach(node, values, statementIndexes, Collections.emptyMap(), bodyPatternNames);
+            } else if (node instanceof CallableDeclaration) {
+                for (Parameter parameter : ((CallableDeclaration<?>) node).getParameters()) {
+                    values.putIfAbsent(parameter.getNameAsString(), parameter);
+                }
+                attach(node, values, statementIndexes, localTypes, patternNames);
+            } else if (node instanceof LambdaExpr) {
+                for (Parameter parameter : ((LambdaExpr) node).getParameters()) {
+                    values.putIfAbsent(parameter.getNameAsString(), parameter);
+                }
+                attach(node, values, statementIndexes, Collections.emptyMap(), patternNames);
+            } else if (node instanceof CatchClause) {
+                Parameter parameter = ((CatchClause) node).getParameter();
+                values.put(parameter.getNameAsString(), parameter);
+                attach(node, values, statementIndexes, Collections.emptyMap(), patternNames);
+            } else if (node instanceof ForStmt) {
+                addVariables(((ForStmt) node).getInitialization(), values);
+                attach(node, values, statementIndexes, Collections.emptyMap(), patternNames);
+            } else if (node instanceof ForEachStmt) {
+                addVariables(((ForEachStmt) node).getVariable(), values);
+                attach(node, values, statementIndexes, Collections.emptyMap(), patternNames);
+            } else if (node instanceof TryStmt) {
+                addVariables(((TryStmt) node).getResources(), values);
+                attach(node, values, statementIndexes, Collections.emptyMap(), patternNames);
+            } else if (node instanceof BlockStmt) {
+                NodeList<Statement> statements = ((BlockStmt) node).getStatements();
+                for (int i = 0; i < statements.size(); i++) {
+                    Statement statement = statements.get(i);
+                    if (statement instanceof ExpressionStmt
+                            && ((ExpressionStmt) statement).getExpression() instanceof VariableDeclarationExpr) {
+                        for (VariableDeclarator variable : ((VariableDeclarationExpr)
+                                        ((ExpressionStmt) statement).getExpression())
+                                .getVariables()) {
+                            String name = variable.getNameAsString();
+                            // a name declared twice is left to the contexts
+                            statementIndexes.put(name, statementIndexes.containsKey(name) ? -1 : i);
+                            values.putIfAbsent(name, variable);
+                        }
+                    }
+                }
+                attach(node, values, statementIndexes, Collections.emptyMap(), patternNames);
+            } else if (node instanceof JmlContract) {
+                for (JmlClause clause : ((JmlContract) node).getClauses()) {
+                    if (clause instanceof JmlForallClause) {
+                        for (Parameter variable : ((JmlForallClause) clause).getBoundedVariables()) {
+                            values.putIfAbsent(variable.getNameAsString(), variable);
+                        }
+                    }
+                    if (clause instanceof JmlOldClause) {
+                        addVariables(((JmlOldClause) clause).getDeclarations(), values);
+                    }
+                }
+                attach(node, values, statementIndexes, Collections.emptyMap(), patternNames);
+            } else if (node instanceof JmlQuantifiedExpr) {
+                for (Parameter variable : ((JmlQuantifiedExpr) node).getVariables()) {
+                    values.putIfAbsent(variable.getNameAsString(), variable);
+                }
+                attach(node, values, statementIndexes, Collections.emptyMap(), patternNames);
+            } else if (node instanceof JmlLetExpr) {
+                addVariables(((JmlLetExpr) node).getVariables(), values);
+                attach(node, values, statementIndexes, Collections.emptyMap(), patternNames);
+            } else if (node instanceof JmlSignalsClause) {
+                Parameter parameter = ((JmlSignalsClause) node).getParameter();
+                values.put(parameter.getNameAsString(), parameter);
+                attach(node, values, statementIndexes, Collections.emptyMap(), patternNames);
+            }
+        }
+
+        private static void addVariables(NodeList<Expression> expressions, Map<String, Node> values) {
+            for (Expression expression : expressions) {
+                if (expression instanceof VariableDeclarationExpr) {
+                    addVariables((VariableDeclarationExpr) expression, values);
+                }
+            }
+        }
+
+        private static void addVariables(VariableDeclarationExpr declaration, Map<String, Node> values) {
+            for (VariableDeclarator variable : declaration.getVariables()) {
+                values.putIfAbsent(variable.getNameAsString(), variable);
+            }
+        }
+
+        private void attach(
+                Node node,
+                Map<String, Node> values,
+                Map<String, Integer> statementIndexes,
+                Map<String, TypeDeclaration<?>> localTypes,
+                Set<String> patternNames) {
+            generation.scopes.put(node, new Scope(node, values, statementIndexes, localTypes, patternNames));
+        }
+    }
+
+    private class Invalidator extends AstObserverAdapter {
+
+        @Override
+        public void propertyChange(Node observedNode, ObservableProperty property, Object oldValue, Object newValue) {
+            if (property != ObservableProperty.RANGE && property != ObservableProperty.COMMENT) {
+                generation = null;
+            }
+        }
+
+        @Override
+        public void listChange(NodeList<?> observedNode, ListChangeType type, int index, Node nodeAddedOrRemoved) {
+            generation = null;
+        }
+
+        @Override
+        public void listReplacement(NodeList<?> observedNode, int index, Node oldNode, Node newNode) {
+            generation = null;
+        }
+
+        @Override
+        public void parentChange(Node observedNode, Node previousParent, Node newParent) {
+            generation = null;
+        }
+    }
+}
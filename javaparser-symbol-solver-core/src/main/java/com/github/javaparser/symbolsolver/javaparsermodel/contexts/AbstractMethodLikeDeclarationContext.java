@@ -22,6 +22,7 @@
 package com.github.javaparser.symbolsolver.javaparsermodel.contexts;
 
 import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.CallableDeclaration;
 import com.github.javaparser.ast.body.Parameter;
 import com.github.javaparser.ast.body.TypeDeclaration;
 import com.github.javaparser.ast.nodeTypes.NodeWithParameters;
@@ -38,8 +39,10 @@ import com.github.javaparser.resolution.types.ResolvedType;
 import com.github.javaparser.resolution.types.ResolvedTypeVariable;
 import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFacade;
 import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFactory;
+import com.github.javaparser.symbolsolver.javaparsermodel.ScopeBindings;
 import com.github.javaparser.symbolsolver.javaparsermodel.declarations.JavaParserTypeParameter;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -109,6 +112,13 @@ public abstract class AbstractMethodLikeDeclarationContext<
         }
 
         // Local types
+        if (wrappedNode instanceof CallableDeclaration) {
+            Optional<Map<String, TypeDeclaration<?>>> boundLocalTypes =
+                    ScopeBindings.findLocalTypes((CallableDeclaration<?>) wrappedNode);
+            if (boundLocalTypes.isPresent()) {
+                return solveLocalType(name, typeArguments, boundLocalTypes.get());
+            }
+        }
         List<TypeDeclaration> localTypes = wrappedNode.findAll(TypeDeclaration.class);
         for (TypeDeclaration<?> localType : localTypes) {
             if (localType.getName().getId().equals(name)) {
@@ -123,6 +133,19 @@ public abstract class AbstractMethodLikeDeclarationContext<
         return solveTypeInParentContext(name, typeArguments);
     }
 
+    private SymbolReference<ResolvedTypeDeclaration> solveLocalType(
+            String name, List<ResolvedType> typeArguments, Map<String, TypeDeclaration<?>> localTypes) {
+        TypeDeclaration<?> localType = localTypes.get(name);
+        if (localType != null) {
+            return SymbolReference.solved(JavaParserFacade.get(typeSolver).getTypeDeclaration(localType));
+        }
+        int dot = name.indexOf('.');
+        if (dot > 0 && (localType = localTypes.get(name.substring(0, dot))) != null) {
+            return JavaParserFactory.getContext(localType, typeSolver).solveType(name.substring(dot + 1));
+        }
+        return solveTypeInParentContext(name, typeArguments);
+    }
+
     @Override
     public final SymbolReference<ResolvedMethodDeclaration> solveMethod(
             String name, List<ResolvedType> argumentsTypes, boolean staticOnly) {
@@ -22,7 +22,6 @@
 package com.github.javaparser.symbolsolver.javaparsermodel.contexts;
 
 import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.ImportDeclaration;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.body.TypeDeclaration;
 import com.github.javaparser.ast.expr.Name;
@@ -39,7 +38,7 @@ import com.github.javaparser.symbolsolver.resolution.SymbolSolver;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 /**
  * @author Federico Tomassetti
@@ -86,39 +85,33 @@ public class CompilationUnitContext extends AbstractJavaParserContext<Compilatio
             itName = typeName;
         }
 
-        // Look among statically imported values
-        for (ImportDeclaration importDecl : wrappedNode.getImports()) {
-            if (importDecl.isStatic()) {
-                if (importDecl.isAsterisk()) {
-                    String qName = importDecl.getNameAsString();
-                    // Try to resolve the name in from declarations imported with asterisks only if
-                    // they have not already been analysed, otherwise this can lead to an infinite
-                    // loop via circular dependencies.
-                    if (!isAlreadyResolved(qName)) {
-                        resolvedStaticImport.get().add(qName);
-                        ResolvedTypeDeclaration importedType = typeSolver.solveType(qName);
-
-                        SymbolReference<? extends ResolvedValueDeclaration> ref =
-                                new SymbolSolver(typeSolver).solveSymbolInType(importedType, name);
-                        if (ref.isSolved()) {
-                            resolvedStaticImport.remove(); // clear the search history
-                            return ref;
-                        }
-                    }
-                } else {
-                    String whole = importDecl.getNameAsString();
-
-                    // split in field/method name and type name
-                    String memberName = getMember(whole);
-                    String typeName = getType(whole);
-
-                    if (memberName.equals(name)) {
-                        ResolvedTypeDeclaration importedType = typeSolver.solveType(typeName);
-                        return new SymbolSolver(typeSolver).solveSymbolInType(importedType, memberName);
-                    }
+        // Look among statically imported values, up to the first import of the name itself
+        ImportTable imports = importTable();
+        Optional<ImportTable.StaticImport> memberImport = imports.getStaticMemberImport(name);
+        for (ImportTable.StaticImport onDemandImport : imports.getStaticOnDemandImports()) {
+            if (memberImport.isPresent() && memberImport.get().isBefore(onDemandImport)) {
+                break;
+            }
+            String qName = onDemandImport.getTypeName();
+            // Try to resolve the name in from declarations imported with asterisks only if
+            // they have not already been analysed, otherwise this can lead to an infinite
+            // loop via circular dependencies.
+            if (!isAlreadyResolved(qName)) {
+                resolvedStaticImport.get().add(qName);
+                ResolvedTypeDeclaration importedType = imports.solveImportedType(onDemandImport);
+
+                SymbolReference<? extends ResolvedValueDeclaration> ref =
+                        new SymbolSolver(typeSolver).solveSymbolInType(importedType, name);
+                if (ref.isSolved()) {
+                    resolvedStaticImport.remove(); // clear the search history
+                    return ref;
                 }
             }
         }
+        if (memberImport.isPresent()) {
+            ResolvedTypeDeclaration importedType = imports.solveImportedType(memberImport.get());
+            return new SymbolSolver(typeSolver).solveSymbolInType(importedType, name);
+        }
 
         // Clear of the search history because we don't want this context to be reused
         // in another search.
@@ -160,28 +153,11 @@ public class CompilationUnitContext extends AbstractJavaParserContext<Compilatio
         }
 
         // Inspect imports for matches, prior to inspecting other classes within the package (per issue #1526)
-        int dotPos = name.indexOf('.');
-        String prefix = isCompositeName(name) ? name.substring(0, dotPos) : null;
+        ImportTable imports = importTable();
         // look into single type imports
-        for (ImportDeclaration importDecl : wrappedNode.getImports()) {
-            if (!importDecl.isAsterisk()) {
-                String qName = importDecl.getNameAsString();
-                boolean defaultPackage = !importDecl.getName().getQualifier().isPresent();
-                boolean found =
-                        !defaultPackage && importDecl.getName().getIdentifier().equals(name);
-                if (!found && prefix != null) {
-                    found = qName.endsWith("." + prefix);
-                    if (found) {
-                        qName = qName + name.substring(dotPos);
-                    }
-                }
-                if (found) {
-                    SymbolReference<ResolvedReferenceTypeDeclaration> ref = typeSolver.tryToSolveType(qName);
-                    if (ref != null && ref.isSolved()) {
-                        return SymbolReference.adapt(ref, ResolvedTypeDeclaration.class);
-                    }
-                }
-            }
+        SymbolReference<ResolvedTypeDeclaration> singleTypeImportRef = imports.solveSingleTypeImport(name);
+        if (singleTypeImportRef.isSolved()) {
+            return singleTypeImportRef;
         }
 
         // Look in current package
@@ -208,14 +184,9 @@ public class CompilationUnitContext extends AbstractJavaParserContext<Compilatio
         }
 
         // look into asterisk imports on demand
-        for (ImportDeclaration importDecl : wrappedNode.getImports()) {
-            if (importDecl.isAsterisk()) {
-                String qName = importDecl.getNameAsString() + "." + name;
-                SymbolReference<ResolvedReferenceTypeDeclaration> ref = typeSolver.tryToSolveType(qName);
-                if (ref != null && ref.isSolved()) {
-                    return SymbolReference.adapt(ref, ResolvedTypeDeclaration.class);
-                }
-            }
+        SymbolReference<ResolvedTypeDeclaration> onDemandImportRef = imports.solveOnDemandImport(name);
+        if (onDemandImportRef.isSolved()) {
+            return onDemandImportRef;
         }
 
         // Look in the java.lang package
@@ -310,75 +281,57 @@ public class CompilationUnitContext extends AbstractJavaParserContext<Compilatio
     @Override
     public SymbolReference<ResolvedMethodDeclaration> solveMethod(
             String name, List<ResolvedType> argumentsTypes, boolean staticOnly) {
-        for (ImportDeclaration importDecl : wrappedNode.getImports()) {
-            if (importDecl.isStatic()) {
-                if (importDecl.isAsterisk()) {
-                    String importString = importDecl.getNameAsString();
-
-                    if (this.wrappedNode.getPackageDeclaration().isPresent()
-                            && this.wrappedNode
-                                    .getPackageDeclaration()
-                                    .get()
-                                    .getName()
-                                    .getIdentifier()
-                                    .equals(packageName(importString))
-                            && this.wrappedNode.getTypes().stream()
-                                    .anyMatch(it -> it.getName().getIdentifier().equals(toSimpleName(importString)))) {
-                        // We are using a static import on a type defined in this file. It means the value was not found
-                        // at a lower level so this will fail
-                        return SymbolReference.unsolved();
-                    }
-
-                    ResolvedTypeDeclaration ref = typeSolver.solveType(importString);
-                    SymbolReference<ResolvedMethodDeclaration> method =
-                            MethodResolutionLogic.solveMethodInType(ref, name, argumentsTypes, true);
-                    if (method.isSolved()) {
-                        return method;
-                    }
-                } else {
-                    String qName = importDecl.getNameAsString();
-
-                    if (qName.equals(name) || qName.endsWith("." + name)) {
-                        String typeName = getType(qName);
-                        ResolvedTypeDeclaration ref = typeSolver.solveType(typeName);
-                        SymbolReference<ResolvedMethodDeclaration> method =
-                                MethodResolutionLogic.solveMethodInType(ref, name, argumentsTypes, true);
-                        if (method.isSolved()) {
-                            return method;
-                        }
-                        return SymbolReference.unsolved();
-                    }
-                }
+        // look into the static imports, up to the first import of the name itself
+        ImportTable imports = importTable();
+        Optional<ImportTable.StaticImport> memberImport = imports.getStaticMemberImport(name);
+        for (ImportTable.StaticImport onDemandImport : imports.getStaticOnDemandImports()) {
+            if (memberImport.isPresent() && memberImport.get().isBefore(onDemandImport)) {
+                break;
+            }
+            String importString = onDemandImport.getTypeName();
+
+            if (this.wrappedNode.getPackageDeclaration().isPresent()
+                    && this.wrappedNode
+                            .getPackageDeclaration()
+                            .get()
+                            .getName()
+                            .getIdentifier()
+                            .equals(packageName(importString))
+                    && this.wrappedNode.getTypes().stream()
+                            .anyMatch(it -> it.getName().getIdentifier().equals(toSimpleName(importString)))) {
+                // We are using a static import on a type defined in this file. It means the value was not found
+                // at a lower level so this will fail
+                return SymbolReference.unsolved();
+            }
+
+            ResolvedTypeDeclaration ref = imports.solveImportedType(onDemandImport);
+            SymbolReference<ResolvedMethodDeclaration> method =
+                    MethodResolutionLogic.solveMethodInType(ref, name, argumentsTypes, true);
+            if (method.isSolved()) {
+                return method;
             }
         }
+        if (memberImport.isPresent()) {
+            ResolvedTypeDeclaration ref = imports.solveImportedType(memberImport.get());
+            return MethodResolutionLogic.solveMethodInType(ref, name, argumentsTypes, true);
+        }
         return SymbolReference.unsolved();
     }
 
     @Override
     public List<ResolvedFieldDeclaration> fieldsExposedToChild(Node child) {
-        List<ResolvedFieldDeclaration> res = new LinkedList<>();
         // Consider the static imports for static fields
-        for (ImportDeclaration importDeclaration : wrappedNode.getImports()) {
-            if (importDeclaration.isStatic()) {
-                Name typeNameAsNode = importDeclaration.isAsterisk()
-                        ? importDeclaration.getName()
-                        : importDeclaration.getName().getQualifier().get();
-                String typeName = typeNameAsNode.asString();
-                ResolvedReferenceTypeDeclaration typeDeclaration = typeSolver.solveType(typeName);
-                res.addAll(typeDeclaration.getAllFields().stream()
-                        .filter(f -> f.isStatic())
-                        .filter(f -> importDeclaration.isAsterisk()
-                                || importDeclaration.getName().getIdentifier().equals(f.getName()))
-                        .collect(Collectors.toList()));
-            }
-        }
-        return res;
+        return new LinkedList<>(importTable().getStaticallyImportedFields());
     }
 
     ///
     /// Private methods
     ///
 
+    private ImportTable importTable() {
+        return ImportTable.of(wrappedNode, typeSolver);
+    }
+
     private String getType(String qName) {
         int index = qName.lastIndexOf('.');
         if (index == -1) {
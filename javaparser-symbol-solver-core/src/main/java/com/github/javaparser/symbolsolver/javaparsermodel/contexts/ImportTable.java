@@ -0,0 +1,326 @@
+/*
+ * Copyright (C) 2015-2016 Federico Tomassetti
+ * Copyright (C) 2017-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver.javaparsermodel.contexts;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeAttachment;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.expr.Name;
+import com.github.javaparser.ast.observer.AstObserverAdapter;
+import com.github.javaparser.ast.observer.ObservableProperty;
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.declarations.ResolvedFieldDeclaration;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.declarations.ResolvedTypeDeclaration;
+import com.github.javaparser.resolution.model.SymbolReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * The imports of a compilation unit, grouped the way {@link CompilationUnitContext} consults them: single type
+ * imports by simple name, static member imports by member name, and the on-demand imports in the order of
+ * declaration.
+ * <p>
+ * Contexts are created for every lookup, hence the tables are attached to the compilation unit, one for each of the
+ * last type solvers used with it, and built only once for a type solver. The types found through the imports are
+ * kept, so a name is looked up in the type solver only once per compilation unit. The names no import provides are
+ * looked up again every time, as the type solver may learn the type later. The tables are dropped when the imports
+ * change.
+ */
+final class ImportTable {
+
+    private static final NodeAttachment<Tracker> TRACKER = new NodeAttachment<>(tracker -> tracker);
+
+    private final TypeSolver typeSolver;
+
+    private final Map<String, List<String>> singleTypeImports = new HashMap<>();
+
+    private final List<String> onDemandImports = new ArrayList<>();
+
+    private final Map<String, StaticImport> staticMemberImports = new HashMap<>();
+
+    private final List<StaticImport> staticOnDemandImports = new ArrayList<>();
+
+    private final List<StaticImport> staticImports = new ArrayList<>();
+
+    private final Map<String, SymbolReference<ResolvedTypeDeclaration>> singleTypeImportCache =
+            new ConcurrentHashMap<>();
+
+    private final Map<String, SymbolReference<ResolvedTypeDeclaration>> onDemandImportCache =
+            new ConcurrentHashMap<>();
+
+    private final Map<String, ResolvedReferenceTypeDeclaration> importedTypes = new ConcurrentHashMap<>();
+
+    private volatile List<ResolvedFieldDeclaration> staticallyImportedFields;
+
+    private ImportTable(NodeList<ImportDeclaration> imports, TypeSolver typeSolver) {
+        this.typeSolver = typeSolver;
+        for (ImportDeclaration importDecl : imports) {
+            String qName = importDecl.getNameAsString();
+            boolean qualified = importDecl.getName().getQualifier().isPresent();
+            if (importDecl.isStatic() && (importDecl.isAsterisk() || qualified)) {
+                StaticImport staticImport = new StaticImport(staticImports.size(), importDecl);
+                staticImports.add(staticImport);
+                if (importDecl.isAsterisk()) {
+                    staticOnDemandImports.add(staticImport);
+                } else {
+                    staticMemberImports.putIfAbsent(staticImport.getMemberName(), staticImport);
+                }
+            }
+            if (importDecl.isAsterisk()) {
+                onDemandImports.add(qName);
+            } else if (qualified) {
+                singleTypeImports
+                        .computeIfAbsent(importDecl.getName().getIdentifier(), k -> new ArrayList<>(1))
+                        .add(qName);
+            }
+        }
+    }
+
+    /**
+     * @return the import table of the compilation unit for the type solver.
+     */
+    static ImportTable of(CompilationUnit compilationUnit, TypeSolver typeSolver) {
+        return TRACKER.computeIfAbsent(compilationUnit, Tracker::new).get(typeSolver);
+    }
+
+    /**
+     * Solves a type through the single type imports: a simple name is looked up among the imports of that name, and
+     * a qualified name {@code A.B} among the imports of {@code A}. The first one the type solver knows wins.
+     */
+    SymbolReference<ResolvedTypeDeclaration> solveSingleTypeImport(String name) {
+        SymbolReference<ResolvedTypeDeclaration> ref = singleTypeImportCache.get(name);
+        if (ref == null) {
+            int dotPos = name.indexOf('.');
+            List<String> candidates = singleTypeImports.get(dotPos == -1 ? name : name.substring(0, dotPos));
+            ref = solveFirst(candidates, dotPos == -1 ? "" : name.substring(dotPos));
+            if (ref.isSolved()) {
+                singleTypeImportCache.put(name, ref);
+            }
+        }
+        return ref;
+    }
+
+    /**
+     * Solves a type in the packages and types imported on demand, in the order of the imports.
+     */
+    SymbolReference<ResolvedTypeDeclaration> solveOnDemandImport(String name) {
+        SymbolReference<ResolvedTypeDeclaration> ref = onDemandImportCache.get(name);
+        if (ref == null) {
+            ref = solveFirst(onDemandImports, "." + name);
+            if (ref.isSolved()) {
+                onDemandImportCache.put(name, ref);
+            }
+        }
+        return ref;
+    }
+
+    private SymbolReference<ResolvedTypeDeclaration> solveFirst(List<String> prefixes, String suffix) {
+        if (prefixes != null) {
+            for (String prefix : prefixes) {
+                SymbolReference<ResolvedReferenceTypeDeclaration> ref = typeSolver.tryToSolveType(prefix + suffix);
+                if (ref != null && ref.isSolved()) {
+                    return SymbolReference.adapt(ref, ResolvedTypeDeclaration.class);
+                }
+            }
+        }
+        return SymbolReference.unsolved();
+    }
+
+    /**
+     * @return the first static import of the given member name.
+     */
+    Optional<StaticImport> getStaticMemberImport(String memberName) {
+        return Optional.ofNullable(staticMemberImports.get(memberName));
+    }
+
+    /**
+     * @return the static on-demand imports, in the order of the imports.
+     */
+    List<StaticImport> getStaticOnDemandImports() {
+        return Collections.unmodifiableList(staticOnDemandImports);
+    }
+
+    /**
+     * Solves the type a static import refers to, which must exist.
+     *
+     * @throws com.github.javaparser.resolution.UnsolvedSymbolException if the type solver does not know the type.
+     */
+    ResolvedReferenceTypeDeclaration solveImportedType(StaticImport staticImport) {
+        String typeName = staticImport.getTypeName();
+        ResolvedReferenceTypeDeclaration type = importedTypes.get(typeName);
+        if (type == null) {
+            type = typeSolver.solveType(typeName);
+            importedTypes.put(typeName, type);
+        }
+        return type;
+    }
+
+    /**
+     * @return the static fields imported by the static imports, in the order of the imports.
+     */
+    List<ResolvedFieldDeclaration> getStaticallyImportedFields() {
+        List<ResolvedFieldDeclaration> fields = staticallyImportedFields;
+        if (fields == null) {
+            fields = new ArrayList<>();
+            for (StaticImport staticImport : staticImports) {
+                fields.addAll(solveImportedType(staticImport).getAllFields().stream()
+                        .filter(f -> f.isStatic())
+                        .filter(f -> staticImport.isAsterisk()
+                                || staticImport.getMemberName().equals(f.getName()))
+                        .collect(Collectors.toList()));
+            }
+            fields = Collections.unmodifiableList(fields);
+            staticallyImportedFields = fields;
+        }
+        return fields;
+    }
+
+    /**
+     * A static import, either of a member of a type or of all of them.
+     */
+    static final class StaticImport {
+
+        private final int index;
+
+        private final String typeName;
+
+        private final String memberName;
+
+        private StaticImport(int index, ImportDeclaration importDecl) {
+            this.index = index;
+            if (importDecl.isAsterisk()) {
+                this.typeName = importDecl.getNameAsString();
+                this.memberName = null;
+            } else {
+                this.typeName = importDecl.getName().getQualifier().get().asString();
+                this.memberName = importDecl.getName().getIdentifier();
+            }
+        }
+
+        String getTypeName() {
+            return typeName;
+        }
+
+        String getMemberName() {
+            return memberName;
+        }
+
+        boolean isAsterisk() {
+            return memberName == null;
+        }
+
+        /**
+         * @return whether this import comes before the other one in the compilation unit.
+         */
+        boolean isBefore(StaticImport other) {
+            return index < other.index;
+        }
+    }
+
+    /**
+     * Keeps the tables of a compilation unit, and drops them when an import is added, removed or modified. It is
+     * notified of all the changes of the compilation unit and ignores those outside of the imports.
+     */
+    private static final class Tracker extends AstObserverAdapter {
+
+        private final CompilationUnit compilationUnit;
+
+        /**
+         * How many type solvers get a table, the tables of the least recently added ones are dropped first.
+         */
+        private static final int MAXIMUM_TABLES = 4;
+
+        /**
+         * The tables, the most recently added first, replaced as a whole on every change.
+         */
+        private volatile List<ImportTable> tables = Collections.emptyList();
+
+        private Tracker(CompilationUnit compilationUnit) {
+            this.compilationUnit = compilationUnit;
+        }
+
+        private ImportTable get(TypeSolver typeSolver) {
+            for (ImportTable table : tables) {
+                if (table.typeSolver == typeSolver) {
+                    return table;
+                }
+            }
+            ImportTable table = new ImportTable(compilationUnit.getImports(), typeSolver);
+            synchronized (this) {
+                List<ImportTable> updated = new ArrayList<>(MAXIMUM_TABLES);
+                updated.add(table);
+                for (ImportTable other : tables) {
+                    if (updated.size() < MAXIMUM_TABLES && other.typeSolver != typeSolver) {
+                        updated.add(other);
+                    }
+                }
+                tables = updated;
+            }
+            return table;
+        }
+
+        private void invalidate() {
+            synchronized (this) {
+                tables = Collections.emptyList();
+            }
+        }
+
+        /**
+         * @return whether the node is an import or a part of the name of an import.
+         */
+        private static boolean isInImports(Node node) {
+            Node n = node;
+            while (n instanceof Name) {
+                n = n.getParentNode().orElse(null);
+            }
+            return n instanceof ImportDeclaration;
+        }
+
+        @Override
+        public void propertyChange(Node observedNode, ObservableProperty property, Object oldValue, Object newValue) {
+            if (property == ObservableProperty.IMPORTS
+                    || (property != ObservableProperty.RANGE
+                            && property != ObservableProperty.COMMENT
+                            && isInImports(observedNode))) {
+                invalidate();
+            }
+        }
+
+        @Override
+        public void listChange(NodeList<?> observedNode, ListChangeType type, int index, Node nodeAddedOrRemoved) {
+            if (observedNode == compilationUnit.getImports()) {
+                invalidate();
+            }
+        }
+
+        @Override
+        public void listReplacement(NodeList<?> observedNode, int index, Node oldNode, Node newNode) {
+            if (observedNode == compilationUnit.getImports()) {
+                invalidate();
+            }
+        }
+    }
+}
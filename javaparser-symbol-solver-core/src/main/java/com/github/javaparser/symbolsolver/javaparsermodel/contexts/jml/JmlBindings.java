@@ -0,0 +1,60 @@
+package com.github.javaparser.symbolsolver.javaparsermodel.contexts.jml;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeAttachment;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.observer.AstObserverAdapter;
+import com.github.javaparser.ast.observer.ObservableProperty;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * The names bound by a JML construct (a contract, a quantifier, a let expression), mapped to their declaring
+ * {@link com.github.javaparser.ast.body.Parameter} or {@link com.github.javaparser.ast.body.VariableDeclarator}.
+ * <p>
+ * Contexts are created for every lookup, hence the map is attached to the binding node and built only once. It is
+ * dropped when the subtree of the binding node changes. If a name is bound twice, the first binding wins, as it did
+ * for a linear search.
+ */
+final class JmlBindings extends AstObserverAdapter {
+
+    private static final NodeAttachment<JmlBindings> BINDINGS = new NodeAttachment<>(bindings -> bindings);
+
+    private volatile Map<String, Node> names;
+
+    /**
+     * @param collector adds the bindings of the node to the given map, in the order of declaration
+     */
+    static <N extends Node> Map<String, Node> of(N binder, BiConsumer<N, Map<String, Node>> collector) {
+        JmlBindings bindings = BINDINGS.computeIfAbsent(binder, b -> new JmlBindings());
+        Map<String, Node> names = bindings.names;
+        if (names == null) {
+            names = new HashMap<>();
+            collector.accept(binder, names);
+            bindings.names = names;
+        }
+        return names;
+    }
+
+    static void bind(Map<String, Node> names, Node declaration, String name) {
+        names.putIfAbsent(name, declaration);
+    }
+
+    @Override
+    public void propertyChange(Node observedNode, ObservableProperty property, Object oldValue, Object newValue) {
+        if (property != ObservableProperty.RANGE && property != ObservableProperty.COMMENT) {
+            names = null;
+        }
+    }
+
+    @Override
+    public void listChange(NodeList<?> observedNode, ListChangeType type, int index, Node nodeAddedOrRemoved) {
+        names = null;
+    }
+
+    @Override
+    public void listReplacement(NodeList<?> observedNode, int index, Node oldNode, Node newNode) {
+        names = null;
+    }
+}
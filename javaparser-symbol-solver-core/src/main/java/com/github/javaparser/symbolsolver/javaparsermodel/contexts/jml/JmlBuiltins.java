@@ -0,0 +1,157 @@
+package com.github.javaparser.symbolsolver.javaparsermodel.contexts.jml;
+
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.resolution.declarations.ResolvedValueDeclaration;
+import com.github.javaparser.resolution.types.ResolvedPrimitiveType;
+import com.github.javaparser.resolution.types.ResolvedType;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * The built-in functions and variables of JML, e.g., {@code \old(x)} or {@code \result}.
+ * <p>
+ * The table is immutable and created once per JVM, independent of any type solver. The result types of the
+ * built-ins only depend on primitive types, their arguments, or the enclosing method, so no sources or class files
+ * need to be loaded to describe them.
+ */
+public final class JmlBuiltins {
+
+    /**
+     * How the type of a use of a built-in is determined.
+     */
+    public enum ResultType {
+
+        BOOLEAN, LONG,
+        /**
+         * the type of the first argument
+         */
+        ARGUMENT,
+        /**
+         * the return type of the method the contract belongs to
+         */
+        METHOD_RESULT
+    }
+
+    private static final int VARIADIC = -1;
+
+    private static final Map<String, Builtin> FUNCTIONS;
+
+    private static final Map<String, Builtin> VARIABLES;
+
+    static {
+        Map<String, Builtin> functions = new HashMap<>();
+        function(functions, "\\old", 1, ResultType.ARGUMENT);
+        function(functions, "\\pre", 1, ResultType.ARGUMENT);
+        function(functions, "\\fresh", VARIADIC, ResultType.BOOLEAN);
+        function(functions, "\\nonnullelements", 1, ResultType.BOOLEAN);
+        function(functions, "\\invariant_for", 1, ResultType.BOOLEAN);
+        function(functions, "\\static_invariant_for", 1, ResultType.BOOLEAN);
+        function(functions, "\\is_initialized", 1, ResultType.BOOLEAN);
+        function(functions, "\\not_modified", VARIADIC, ResultType.BOOLEAN);
+        function(functions, "\\not_assigned", VARIADIC, ResultType.BOOLEAN);
+        function(functions, "\\only_assigned", VARIADIC, ResultType.BOOLEAN);
+        function(functions, "\\only_accessed", VARIADIC, ResultType.BOOLEAN);
+        function(functions, "\\only_called", VARIADIC, ResultType.BOOLEAN);
+        function(functions, "\\only_captured", VARIADIC, ResultType.BOOLEAN);
+        function(functions, "\\duration", 1, ResultType.LONG);
+        function(functions, "\\space", 1, ResultType.LONG);
+        function(functions, "\\working_space", 1, ResultType.LONG);
+        FUNCTIONS = Collections.unmodifiableMap(functions);
+
+        Map<String, Builtin> variables = new HashMap<>();
+        variables.put("\\result", new Builtin("\\result", 0, ResultType.METHOD_RESULT));
+        VARIABLES = Collections.unmodifiableMap(variables);
+    }
+
+    private JmlBuiltins() {
+    }
+
+    private static void function(Map<String, Builtin> map, String name, int arity, ResultType resultType) {
+        map.put(name, new Builtin(name, arity, resultType));
+    }
+
+    /**
+     * @return the built-in function with the given name, e.g. {@code \old}.
+     */
+    public static Optional<Builtin> function(String name) {
+        return Optional.ofNullable(FUNCTIONS.get(name));
+    }
+
+    /**
+     * @return the built-in variable with the given name, e.g. {@code \result}.
+     */
+    public static Optional<Builtin> variable(String name) {
+        return Optional.ofNullable(VARIABLES.get(name));
+    }
+
+    public static final class Builtin {
+
+        private final String name;
+
+        private final int arity;
+
+        private final ResultType resultType;
+
+        private Builtin(String name, int arity, ResultType resultType) {
+            this.name = name;
+            this.arity = arity;
+            this.resultType = resultType;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public ResultType getResultType() {
+            return resultType;
+        }
+
+        public boolean accepts(int argumentCount) {
+            return arity == VARIADIC ? argumentCount > 0 : arity == argumentCount;
+        }
+
+        /**
+         * @param typeOf resolves the type of an argument, only called for {@link ResultType#ARGUMENT}
+         * @throws UnsupportedOperationException for {@link ResultType#METHOD_RESULT}, which depends on the context
+         */
+        public ResolvedType resolveType(List<Expression> arguments, Function<Expression, ResolvedType> typeOf) {
+            switch(resultType) {
+                case BOOLEAN:
+                    return ResolvedPrimitiveType.BOOLEAN;
+                case LONG:
+                    return ResolvedPrimitiveType.LONG;
+                case ARGUMENT:
+                    return typeOf.apply(arguments.get(0));
+                default:
+                    throw new UnsupportedOperationException(name + " depends on its context");
+            }
+        }
+
+        /**
+         * @return a declaration of this built-in variable with the given type
+         */
+        public ResolvedValueDeclaration asValue(ResolvedType type) {
+            return new ResolvedValueDeclaration() {
+
+                @Override
+                public String getName() {
+                    return name;
+                }
+
+                @Override
+                public ResolvedType getType() {
+                    return type;
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.github.javaparser.symbolsolver.javaparsermodel.contexts.jml;
 
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.body.Parameter;
 import com.github.javaparser.ast.body.VariableDeclarator;
 import com.github.javaparser.ast.jml.clauses.JmlClause;
@@ -9,9 +11,14 @@ import com.github.javaparser.ast.jml.clauses.JmlOldClause;
 import com.github.javaparser.resolution.TypeSolver;
 import com.github.javaparser.resolution.declarations.ResolvedValueDeclaration;
 import com.github.javaparser.resolution.model.SymbolReference;
+import com.github.javaparser.resolution.types.ResolvedType;
+import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFacade;
 import com.github.javaparser.symbolsolver.javaparsermodel.contexts.AbstractJavaParserContext;
 import com.github.javaparser.symbolsolver.javaparsermodel.declarations.JavaParserSymbolDeclaration;
 
+import java.util.Map;
+import java.util.Optional;
+
 /**
  * @author Alexander Weigl
  * @version 1 (02.07.22)
@@ -24,27 +31,38 @@ public class JmlContractContext extends AbstractJavaParserContext<JmlContract> {
     @Override
     public SymbolReference<? extends ResolvedValueDeclaration> solveSymbol(String name) {
         // Only old and forall clauses can introduce names in contracts!
-        for (JmlClause clause : wrappedNode.getClauses()) {
+        Node declaration = JmlBindings.of(wrappedNode, JmlContractContext::collectBindings).get(name);
+        if (declaration instanceof Parameter) {
+            return SymbolReference.solved(JavaParserSymbolDeclaration.parameter((Parameter) declaration, typeSolver));
+        }
+        if (declaration instanceof VariableDeclarator) {
+            return SymbolReference.solved(JavaParserSymbolDeclaration.localVar((VariableDeclarator) declaration, typeSolver));
+        }
+
+        Optional<JmlBuiltins.Builtin> builtin = JmlBuiltins.variable(name);
+        if (builtin.isPresent() && builtin.get().getResultType() == JmlBuiltins.ResultType.METHOD_RESULT
+                && wrappedNode.getParentNode().orElse(null) instanceof MethodDeclaration) {
+            MethodDeclaration method = (MethodDeclaration) wrappedNode.getParentNode().get();
+            ResolvedType type = JavaParserFacade.get(typeSolver).convertToUsage(method.getType());
+            return SymbolReference.solved(builtin.get().asValue(type));
+        }
+
+        // Fallback to default implementation to find non-here defined names.
+        return super.solveSymbol(name);
+    }
+
+    private static void collectBindings(JmlContract contract, Map<String, Node> names) {
+        for (JmlClause clause : contract.getClauses()) {
             if (clause instanceof JmlForallClause) {
-                JmlForallClause forall = (JmlForallClause) clause;
-                for (Parameter variable : forall.getBoundedVariables()) {
-                    if (name.equals(variable.getNameAsString())) {
-                        return SymbolReference.solved(JavaParserSymbolDeclaration.parameter(variable, typeSolver));
-                    }
+                for (Parameter variable : ((JmlForallClause) clause).getBoundedVariables()) {
+                    JmlBindings.bind(names, variable, variable.getNameAsString());
                 }
             }
             if (clause instanceof JmlOldClause) {
-                JmlOldClause old = (JmlOldClause) clause;
-                for (VariableDeclarator variable : old.getDeclarations().getVariables()) {
-                    if (name.equals(variable.getNameAsString())) {
-                        return SymbolReference.solved(JavaParserSymbolDeclaration.localVar(variable, typeSolver));
-                    }
+                for (VariableDeclarator variable : ((JmlOldClause) clause).getDeclarations().getVariables()) {
+                    JmlBindings.bind(names, variable, variable.getNameAsString());
                 }
             }
         }
-
-
-        // Fallback to default implementation to find non-here defined names.
-        return super.solveSymbol(name);
     }
 }
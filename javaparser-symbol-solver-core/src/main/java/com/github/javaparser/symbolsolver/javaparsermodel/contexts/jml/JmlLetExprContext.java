@@ -11,6 +11,7 @@ import com.github.javaparser.symbolsolver.javaparsermodel.declarations.JavaParse
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Alexander Weigl
@@ -29,11 +30,16 @@ public class JmlLetExprContext extends AbstractJavaParserContext<JmlLetExpr> {
 
     @Override
     public SymbolReference<? extends ResolvedValueDeclaration> solveSymbol(String name) {
-        for (VariableDeclarator variable : wrappedNode.getVariables().getVariables()) {
-            if (variable.getNameAsString().equals(name)) {
-                return SymbolReference.solved(JavaParserSymbolDeclaration.localVar(variable, typeSolver));
-            }
+        Node variable = JmlBindings.of(wrappedNode, JmlLetExprContext::collectBindings).get(name);
+        if (variable != null) {
+            return SymbolReference.solved(JavaParserSymbolDeclaration.localVar((VariableDeclarator) variable, typeSolver));
         }
         return super.solveSymbol(name);
     }
+
+    private static void collectBindings(JmlLetExpr let, Map<String, Node> names) {
+        for (VariableDeclarator variable : let.getVariables().getVariables()) {
+            JmlBindings.bind(names, variable, variable.getNameAsString());
+        }
+    }
 }
@@ -11,6 +11,7 @@ import com.github.javaparser.symbolsolver.javaparsermodel.declarations.JavaParse
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Alexander Weigl
@@ -30,11 +31,16 @@ public class JmlQuantifiedExprContext extends AbstractJavaParserContext<JmlQuant
 
     @Override
     public SymbolReference<? extends ResolvedValueDeclaration> solveSymbol(String name) {
-        for (Parameter variable : wrappedNode.getVariables()) {
-            if (variable.getNameAsString().equals(name)) {
-                return SymbolReference.solved(JavaParserSymbolDeclaration.parameter(variable, typeSolver));
-            }
+        Node variable = JmlBindings.of(wrappedNode, JmlQuantifiedExprContext::collectBindings).get(name);
+        if (variable != null) {
+            return SymbolReference.solved(JavaParserSymbolDeclaration.parameter((Parameter) variable, typeSolver));
         }
         return super.solveSymbol(name);
     }
+
+    private static void collectBindings(JmlQuantifiedExpr quantifier, Map<String, Node> names) {
+        for (Parameter variable : quantifier.getVariables()) {
+            JmlBindings.bind(names, variable, variable.getNameAsString());
+        }
+    }
 }
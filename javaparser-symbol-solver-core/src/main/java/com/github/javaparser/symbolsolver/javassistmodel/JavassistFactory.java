@@ -29,7 +29,9 @@ import com.github.javaparser.resolution.types.ResolvedArrayType;
 import com.github.javaparser.resolution.types.ResolvedPrimitiveType;
 import com.github.javaparser.resolution.types.ResolvedType;
 import com.github.javaparser.resolution.types.ResolvedVoidType;
+import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFacade;
 import java.lang.reflect.Modifier;
+import java.util.Map;
 import javassist.CtClass;
 import javassist.NotFoundException;
 
@@ -49,19 +51,41 @@ public class JavassistFactory {
                 }
                 return ResolvedPrimitiveType.byName(ctClazz.getName());
             }
-            if (ctClazz.isInterface()) {
-                return new ReferenceTypeImpl(new JavassistInterfaceDeclaration(ctClazz, typeSolver));
+            if (ctClazz.isAnnotation() || ctClazz.getAttribute("Record") != null) {
+                // used as types, annotations and records are seen as interfaces and classes
+                return new ReferenceTypeImpl(ctClazz.isInterface()
+                        ? new JavassistInterfaceDeclaration(ctClazz, typeSolver)
+                        : new JavassistClassDeclaration(ctClazz, typeSolver));
             }
-            if (ctClazz.isEnum()) {
-                return new ReferenceTypeImpl(new JavassistEnumDeclaration(ctClazz, typeSolver));
-            }
-            return new ReferenceTypeImpl(new JavassistClassDeclaration(ctClazz, typeSolver));
+            return new ReferenceTypeImpl(toTypeDeclaration(ctClazz, typeSolver));
         } catch (NotFoundException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * The declaration of a class, with the tables of its members. The declaration created for a class is returned
+     * again for the same root type solver, as long as its facade is kept, see
+     * {@link JavaParserFacade#getTypeDeclarationMemo()}.
+     */
     public static ResolvedReferenceTypeDeclaration toTypeDeclaration(CtClass ctClazz, TypeSolver typeSolver) {
+        if (typeSolver.getRoot() != typeSolver) {
+            return createTypeDeclaration(ctClazz, typeSolver);
+        }
+        Map<Object, ResolvedReferenceTypeDeclaration> memo =
+                JavaParserFacade.get(typeSolver).getTypeDeclarationMemo();
+        ResolvedReferenceTypeDeclaration declaration = memo.get(ctClazz);
+        if (declaration == null) {
+            declaration = createTypeDeclaration(ctClazz, typeSolver);
+            ResolvedReferenceTypeDeclaration other = memo.putIfAbsent(ctClazz, declaration);
+            if (other != null) {
+                declaration = other;
+            }
+        }
+        return declaration;
+    }
+
+    private static ResolvedReferenceTypeDeclaration createTypeDeclaration(CtClass ctClazz, TypeSolver typeSolver) {
         if (ctClazz.isAnnotation()) {
             return new JavassistAnnotationDeclaration(ctClazz, typeSolver);
         }
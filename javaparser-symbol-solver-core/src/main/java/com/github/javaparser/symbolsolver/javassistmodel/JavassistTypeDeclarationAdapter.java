@@ -43,6 +43,9 @@ import javassist.bytecode.BadBytecode;
 import javassist.bytecode.SignatureAttribute;
 
 /**
+ * The part of the declarations shared by all kinds of types read from class files. The declared methods, the type
+ * parameters and the complete list of ancestors are computed once per declaration, when first asked for.
+ *
  * @author Federico Tomassetti
  */
 public class JavassistTypeDeclarationAdapter {
@@ -65,6 +68,10 @@ public class JavassistTypeDeclarationAdapter {
     private TypeSolver typeSolver;
     private ResolvedReferenceTypeDeclaration typeDeclaration;
 
+    private volatile List<ResolvedReferenceType> ancestors;
+    private volatile Set<ResolvedMethodDeclaration> declaredMethods;
+    private volatile List<ResolvedTypeParameterDeclaration> typeParameters;
+
     public JavassistTypeDeclarationAdapter(
             CtClass ctClass, TypeSolver typeSolver, ResolvedReferenceTypeDeclaration typeDeclaration) {
         this.ctClass = ctClass;
@@ -137,6 +144,23 @@ public class JavassistTypeDeclarationAdapter {
     }
 
     public List<ResolvedReferenceType> getAncestors(boolean acceptIncompleteList) {
+        List<ResolvedReferenceType> ancestors = this.ancestors;
+        if (ancestors == null) {
+            try {
+                // only the complete list is kept, as the incomplete one can change with the type solver
+                ancestors = Collections.unmodifiableList(computeAncestors(false));
+                this.ancestors = ancestors;
+            } catch (UnsolvedSymbolException e) {
+                if (!acceptIncompleteList) {
+                    throw e;
+                }
+                return computeAncestors(true);
+            }
+        }
+        return new ArrayList<>(ancestors);
+    }
+
+    private List<ResolvedReferenceType> computeAncestors(boolean acceptIncompleteList) {
         List<ResolvedReferenceType> ancestors = new ArrayList<>();
 
         try {
@@ -151,11 +175,16 @@ public class JavassistTypeDeclarationAdapter {
     }
 
     public Set<ResolvedMethodDeclaration> getDeclaredMethods() {
-        return Arrays.stream(ctClass.getDeclaredMethods())
-                .filter(m -> ((m.getMethodInfo().getAccessFlags() & AccessFlag.BRIDGE) == 0)
-                        && ((m.getMethodInfo().getAccessFlags() & AccessFlag.SYNTHETIC) == 0))
-                .map(m -> new JavassistMethodDeclaration(m, typeSolver))
-                .collect(Collectors.toSet());
+        Set<ResolvedMethodDeclaration> methods = declaredMethods;
+        if (methods == null) {
+            methods = Collections.unmodifiableSet(Arrays.stream(ctClass.getDeclaredMethods())
+                    .filter(m -> ((m.getMethodInfo().getAccessFlags() & AccessFlag.BRIDGE) == 0)
+                            && ((m.getMethodInfo().getAccessFlags() & AccessFlag.SYNTHETIC) == 0))
+                    .map(m -> new JavassistMethodDeclaration(m, typeSolver))
+                    .collect(Collectors.toSet()));
+            declaredMethods = methods;
+        }
+        return new HashSet<>(methods);
     }
 
     public List<ResolvedConstructorDeclaration> getConstructors() {
@@ -216,16 +245,22 @@ public class JavassistTypeDeclarationAdapter {
         if (null == ctClass.getGenericSignature()) {
             return Collections.emptyList();
         }
-        try {
-            SignatureAttribute.ClassSignature classSignature =
-                    SignatureAttribute.toClassSignature(ctClass.getGenericSignature());
-            return Arrays.<SignatureAttribute.TypeParameter>stream(classSignature.getParameters())
-                    .map((tp) -> new JavassistTypeParameter(
-                            tp, JavassistFactory.toTypeDeclaration(ctClass, typeSolver), typeSolver))
-                    .collect(Collectors.toList());
-        } catch (BadBytecode badBytecode) {
-            throw new RuntimeException(badBytecode);
+        List<ResolvedTypeParameterDeclaration> params = typeParameters;
+        if (params == null) {
+            try {
+                SignatureAttribute.ClassSignature classSignature =
+                        SignatureAttribute.toClassSignature(ctClass.getGenericSignature());
+                params = Collections.unmodifiableList(
+                        Arrays.<SignatureAttribute.TypeParameter>stream(classSignature.getParameters())
+                                .map((tp) -> new JavassistTypeParameter(
+                                        tp, JavassistFactory.toTypeDeclaration(ctClass, typeSolver), typeSolver))
+                                .collect(Collectors.toList()));
+            } catch (BadBytecode badBytecode) {
+                throw new RuntimeException(badBytecode);
+            }
+            typeParameters = params;
         }
+        return new ArrayList<>(params);
     }
 
     public Optional<ResolvedReferenceTypeDeclaration> containerType() {
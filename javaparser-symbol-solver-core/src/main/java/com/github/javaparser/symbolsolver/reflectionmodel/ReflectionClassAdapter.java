@@ -30,6 +30,7 @@ import com.github.javaparser.resolution.model.typesystem.NullType;
 import com.github.javaparser.resolution.model.typesystem.ReferenceTypeImpl;
 import com.github.javaparser.resolution.types.ResolvedReferenceType;
 import com.github.javaparser.resolution.types.ResolvedType;
+import com.github.javaparser.symbolsolver.reflectionmodel.comparators.MethodComparator;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
@@ -38,6 +39,9 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 /**
+ * The part of the declarations shared by all kinds of classes. The ancestors, the declared fields and methods and
+ * the type parameters are computed once per declaration, when first asked for.
+ *
  * @author Federico Tomassetti
  */
 class ReflectionClassAdapter {
@@ -46,6 +50,12 @@ class ReflectionClassAdapter {
     private TypeSolver typeSolver;
     private ResolvedReferenceTypeDeclaration typeDeclaration;
 
+    private volatile List<ResolvedReferenceType> ancestors;
+    private volatile Map<String, ResolvedFieldDeclaration> declaredFields;
+    private volatile List<ResolvedMethodDeclaration> declaredMethods;
+    private volatile Map<String, List<ResolvedMethodDeclaration>> declaredMethodsByName;
+    private volatile List<ResolvedTypeParameterDeclaration> typeParameters;
+
     public ReflectionClassAdapter(
             Class<?> clazz, TypeSolver typeSolver, ResolvedReferenceTypeDeclaration typeDeclaration) {
         this.clazz = clazz;
@@ -65,9 +75,10 @@ class ReflectionClassAdapter {
                     .map((t) -> ReflectionFactory.typeUsageFor(t, typeSolver))
                     .collect(Collectors.toList());
             return Optional.of(new ReferenceTypeImpl(
-                    new ReflectionClassDeclaration(clazz.getSuperclass(), typeSolver), typeParameters));
+                    ReflectionFactory.typeDeclarationFor(clazz.getSuperclass(), typeSolver), typeParameters));
         }
-        return Optional.of(new ReferenceTypeImpl(new ReflectionClassDeclaration(clazz.getSuperclass(), typeSolver)));
+        return Optional.of(
+                new ReferenceTypeImpl(ReflectionFactory.typeDeclarationFor(clazz.getSuperclass(), typeSolver)));
     }
 
     public List<ResolvedReferenceType> getInterfaces() {
@@ -79,18 +90,27 @@ class ReflectionClassAdapter {
                         .map((t) -> ReflectionFactory.typeUsageFor(t, typeSolver))
                         .collect(Collectors.toList());
                 interfaces.add(new ReferenceTypeImpl(
-                        new ReflectionInterfaceDeclaration(
+                        ReflectionFactory.typeDeclarationFor(
                                 (Class<?>) ((ParameterizedType) superInterface).getRawType(), typeSolver),
                         typeParameters));
             } else {
                 interfaces.add(new ReferenceTypeImpl(
-                        new ReflectionInterfaceDeclaration((Class<?>) superInterface, typeSolver)));
+                        ReflectionFactory.typeDeclarationFor((Class<?>) superInterface, typeSolver)));
             }
         }
         return interfaces;
     }
 
     public List<ResolvedReferenceType> getAncestors() {
+        List<ResolvedReferenceType> ancestors = this.ancestors;
+        if (ancestors == null) {
+            ancestors = Collections.unmodifiableList(computeAncestors());
+            this.ancestors = ancestors;
+        }
+        return new LinkedList<>(ancestors);
+    }
+
+    private List<ResolvedReferenceType> computeAncestors() {
         List<ResolvedReferenceType> ancestors = new LinkedList<>();
         if ((typeDeclaration.isClass() || typeDeclaration.isRecord())
                 && !Object.class.getCanonicalName().equals(clazz.getCanonicalName())) {
@@ -100,7 +120,7 @@ class ReflectionClassAdapter {
             } else {
                 // Inject the implicitly added extends java.lang.Object
                 ReferenceTypeImpl object =
-                        new ReferenceTypeImpl(new ReflectionClassDeclaration(Object.class, typeSolver));
+                        new ReferenceTypeImpl(ReflectionFactory.typeDeclarationFor(Object.class, typeSolver));
                 ancestors.add(object);
             }
         }
@@ -108,11 +128,23 @@ class ReflectionClassAdapter {
         return ancestors;
     }
 
-    public ResolvedFieldDeclaration getField(String name) {
-        for (Field field : clazz.getDeclaredFields()) {
-            if (field.getName().equals(name)) {
-                return new ReflectionFieldDeclaration(field, typeSolver);
+    private Map<String, ResolvedFieldDeclaration> declaredFields() {
+        Map<String, ResolvedFieldDeclaration> fields = declaredFields;
+        if (fields == null) {
+            fields = new LinkedHashMap<>();
+            for (Field field : clazz.getDeclaredFields()) {
+                fields.putIfAbsent(field.getName(), new ReflectionFieldDeclaration(field, typeSolver));
             }
+            fields = Collections.unmodifiableMap(fields);
+            declaredFields = fields;
+        }
+        return fields;
+    }
+
+    public ResolvedFieldDeclaration getField(String name) {
+        ResolvedFieldDeclaration declaredField = declaredFields().get(name);
+        if (declaredField != null) {
+            return declaredField;
         }
         for (ResolvedReferenceType ancestor : typeDeclaration.getAllAncestors()) {
             if (ancestor.getTypeDeclaration().isPresent()) {
@@ -131,10 +163,8 @@ class ReflectionClassAdapter {
 
     public boolean hasField(String name) {
         // First consider fields declared on this class
-        for (Field field : clazz.getDeclaredFields()) {
-            if (field.getName().equals(name)) {
-                return true;
-            }
+        if (declaredFields().containsKey(name)) {
+            return true;
         }
 
         // Then consider fields inherited from ancestors
@@ -152,9 +182,7 @@ class ReflectionClassAdapter {
         ArrayList<ResolvedFieldDeclaration> fields = new ArrayList<>();
 
         // First consider fields declared on this class
-        for (Field field : clazz.getDeclaredFields()) {
-            fields.add(new ReflectionFieldDeclaration(field, typeSolver));
-        }
+        fields.addAll(declaredFields().values());
 
         // Then consider fields inherited from ancestors
         for (ResolvedReferenceType ancestor : typeDeclaration.getAllAncestors()) {
@@ -166,19 +194,50 @@ class ReflectionClassAdapter {
         return fields;
     }
 
+    private List<ResolvedMethodDeclaration> declaredMethods() {
+        List<ResolvedMethodDeclaration> methods = declaredMethods;
+        if (methods == null) {
+            methods = Collections.unmodifiableList(Arrays.stream(clazz.getDeclaredMethods())
+                    .filter(m -> !m.isSynthetic() && !m.isBridge())
+                    .sorted(new MethodComparator())
+                    .map(m -> new ReflectionMethodDeclaration(m, typeSolver))
+                    .collect(Collectors.toList()));
+            declaredMethods = methods;
+        }
+        return methods;
+    }
+
     public Set<ResolvedMethodDeclaration> getDeclaredMethods() {
-        return Arrays.stream(clazz.getDeclaredMethods())
-                .filter(m -> !m.isSynthetic() && !m.isBridge())
-                .map(m -> new ReflectionMethodDeclaration(m, typeSolver))
-                .collect(Collectors.toSet());
+        return new HashSet<>(declaredMethods());
+    }
+
+    /**
+     * @return the methods declared with the name, but not the bridge and synthetic methods, sorted with the
+     *     {@link MethodComparator}.
+     */
+    public List<ResolvedMethodDeclaration> getDeclaredMethods(String name) {
+        Map<String, List<ResolvedMethodDeclaration>> methodsByName = declaredMethodsByName;
+        if (methodsByName == null) {
+            methodsByName = new HashMap<>();
+            for (ResolvedMethodDeclaration method : declaredMethods()) {
+                methodsByName.computeIfAbsent(method.getName(), n -> new ArrayList<>()).add(method);
+            }
+            declaredMethodsByName = methodsByName;
+        }
+        return Collections.unmodifiableList(methodsByName.getOrDefault(name, Collections.emptyList()));
     }
 
     public List<ResolvedTypeParameterDeclaration> getTypeParameters() {
-        List<ResolvedTypeParameterDeclaration> params = new ArrayList<>();
-        for (TypeVariable<?> tv : this.clazz.getTypeParameters()) {
-            params.add(new ReflectionTypeParameter(tv, true, typeSolver));
+        List<ResolvedTypeParameterDeclaration> params = typeParameters;
+        if (params == null) {
+            params = new ArrayList<>();
+            for (TypeVariable<?> tv : this.clazz.getTypeParameters()) {
+                params.add(new ReflectionTypeParameter(tv, true, typeSolver));
+            }
+            params = Collections.unmodifiableList(params);
+            typeParameters = params;
         }
-        return params;
+        return new ArrayList<>(params);
     }
 
     public boolean isAssignableBy(ResolvedType type) {
@@ -29,6 +29,7 @@ import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclar
 import com.github.javaparser.resolution.declarations.ResolvedTypeParameterDeclaration;
 import com.github.javaparser.resolution.model.typesystem.ReferenceTypeImpl;
 import com.github.javaparser.resolution.types.*;
+import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFacade;
 import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
@@ -36,6 +37,7 @@ import java.lang.reflect.WildcardType;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Federico Tomassetti
@@ -44,7 +46,29 @@ public class ReflectionFactory {
 
     private static String JAVA_LANG_OBJECT = Object.class.getCanonicalName();
 
+    /**
+     * The declaration of a class, with the tables of its members. The declaration created for a class is returned
+     * again for the same root type solver, as long as its facade is kept, see
+     * {@link JavaParserFacade#getTypeDeclarationMemo()}.
+     */
     public static ResolvedReferenceTypeDeclaration typeDeclarationFor(Class<?> clazz, TypeSolver typeSolver) {
+        if (typeSolver.getRoot() != typeSolver) {
+            return createTypeDeclaration(clazz, typeSolver);
+        }
+        Map<Object, ResolvedReferenceTypeDeclaration> memo =
+                JavaParserFacade.get(typeSolver).getTypeDeclarationMemo();
+        ResolvedReferenceTypeDeclaration declaration = memo.get(clazz);
+        if (declaration == null) {
+            declaration = createTypeDeclaration(clazz, typeSolver);
+            ResolvedReferenceTypeDeclaration other = memo.putIfAbsent(clazz, declaration);
+            if (other != null) {
+                declaration = other;
+            }
+        }
+        return declaration;
+    }
+
+    private static ResolvedReferenceTypeDeclaration createTypeDeclaration(Class<?> clazz, TypeSolver typeSolver) {
         if (clazz.isArray()) {
             throw new IllegalArgumentException("No type declaration available for an Array");
         }
@@ -37,12 +37,8 @@ import com.github.javaparser.resolution.types.ResolvedType;
 import com.github.javaparser.symbolsolver.core.resolution.MethodUsageResolutionCapability;
 import com.github.javaparser.symbolsolver.javaparsermodel.contexts.ContextHelper;
 import com.github.javaparser.symbolsolver.logic.AbstractTypeDeclaration;
-import com.github.javaparser.symbolsolver.reflectionmodel.comparators.MethodComparator;
 import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.util.*;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -149,22 +145,13 @@ public class ReflectionRecordDeclaration extends AbstractTypeDeclaration
     @Deprecated
     public SymbolReference<ResolvedMethodDeclaration> solveMethod(
             String name, List<ResolvedType> argumentsTypes, boolean staticOnly) {
-        Predicate<Method> staticFilter = m -> !staticOnly || (staticOnly && Modifier.isStatic(m.getModifiers()));
-
         List<ResolvedMethodDeclaration> candidateSolvedMethods = new ArrayList<>();
 
         // First consider the directly-declared methods.
-        List<Method> methods = Arrays.stream(clazz.getDeclaredMethods())
-                .filter(m -> m.getName().equals(name))
-                .filter(staticFilter)
-                .filter(method -> !method.isBridge())
-                .filter(method -> !method.isSynthetic())
-                .sorted(new MethodComparator())
-                .collect(Collectors.toList());
-
-        // Transform into resolved method declarations
-        for (Method method : methods) {
-            ResolvedMethodDeclaration methodDeclaration = new ReflectionMethodDeclaration(method, typeSolver);
+        for (ResolvedMethodDeclaration methodDeclaration : reflectionClassAdapter.getDeclaredMethods(name)) {
+            if (staticOnly && !methodDeclaration.isStatic()) {
+                continue;
+            }
             candidateSolvedMethods.add(methodDeclaration);
 
             // no need to search for overloaded/inherited candidateSolvedMethods if the method has no parameters
@@ -220,16 +207,7 @@ public class ReflectionRecordDeclaration extends AbstractTypeDeclaration
             List<ResolvedType> typeParameterValues) {
         List<MethodUsage> methodUsages = new ArrayList<>();
 
-        List<Method> allMethods = Arrays.stream(clazz.getDeclaredMethods())
-                .filter((m) -> m.getName().equals(name))
-                .sorted(new MethodComparator())
-                .collect(Collectors.toList());
-
-        for (Method method : allMethods) {
-            if (method.isBridge() || method.isSynthetic()) {
-                continue;
-            }
-            ResolvedMethodDeclaration methodDeclaration = new ReflectionMethodDeclaration(method, typeSolver);
+        for (ResolvedMethodDeclaration methodDeclaration : reflectionClassAdapter.getDeclaredMethods(name)) {
             MethodUsage methodUsage = new MethodUsage(methodDeclaration);
             for (int i = 0; i < getTypeParameters().size() && i < typeParameterValues.size(); i++) {
                 ResolvedTypeParameterDeclaration tpToReplace =
@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2015-2016 Federico Tomassetti
+ * Copyright (C) 2017-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver.resolution;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.resolution.ResolutionListener;
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.cache.CacheStats;
+import com.github.javaparser.resolution.declarations.ResolvedMethodDeclaration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link ResolutionListener} adding up the number and the time of the steps of symbol resolution: the types asked
+ * to each type solver, the contexts created for each kind of node, the searches of the most applicable method and
+ * the type inferences. The {@link #report() report} also lists the statistics of the caches of the type solvers,
+ * which the default caches of a {@link com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver}
+ * only record if the {@code javaparser.typeSolver.cacheStats} system property is {@code true} when it is created.
+ * <br>
+ * Like the times reported to a {@link ResolutionListener}, the times are inclusive: the time of a combined solver
+ * includes the time of the solvers it asks, and the time of a context or a method selection includes the types it
+ * solves. The times of the rows therefore do not add up to the time of the analysis.
+ * <br>
+ * For example:
+ * <pre>
+ * ResolutionStatistics statistics = new ResolutionStatistics();
+ * symbolSolver.setResolutionListener(statistics);
+ * // resolve...
+ * System.out.println(statistics.report());
+ * </pre>
+ */
+public class ResolutionStatistics implements ResolutionListener {
+
+    private final AtomicInteger typeSolverCount = new AtomicInteger();
+
+    private final Map<TypeSolver, Counter> typeSolvers = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private final Map<Class<? extends Node>, Counter> contexts = new ConcurrentHashMap<>();
+
+    private final Counter methodSelections = new Counter(0);
+
+    private final LongAdder candidates = new LongAdder();
+
+    private final Counter typeInferences = new Counter(0);
+
+    @Override
+    public void typeSolved(TypeSolver typeSolver, String name, boolean solved, long nanos) {
+        typeSolvers
+                .computeIfAbsent(typeSolver, ts -> new Counter(typeSolverCount.getAndIncrement()))
+                .add(solved, nanos);
+    }
+
+    @Override
+    public void contextCreated(Node node, long nanos) {
+        contexts.computeIfAbsent(node.getClass(), c -> new Counter(0)).add(true, nanos);
+    }
+
+    @Override
+    public void methodSelected(String name, int candidates, boolean solved, long nanos) {
+        methodSelections.add(solved, nanos);
+        this.candidates.add(candidates);
+    }
+
+    @Override
+    public void typeInferred(ResolvedMethodDeclaration method, boolean applicable, long nanos) {
+        typeInferences.add(applicable, nanos);
+    }
+
+    /**
+     * Forgets everything counted so far.
+     */
+    public void reset() {
+        typeSolvers.clear();
+        contexts.clear();
+        methodSelections.reset();
+        candidates.reset();
+        typeInferences.reset();
+    }
+
+    /**
+     * @return the number of types asked to the type solver.
+     */
+    public long getTypeSolverCalls(TypeSolver typeSolver) {
+        Counter counter = typeSolvers.get(typeSolver);
+        return counter == null ? 0 : counter.calls.sum();
+    }
+
+    /**
+     * @return the number of contexts created for the nodes of the class.
+     */
+    public long getContextCreations(Class<? extends Node> nodeClass) {
+        Counter counter = contexts.get(nodeClass);
+        return counter == null ? 0 : counter.calls.sum();
+    }
+
+    public long getMethodSelections() {
+        return methodSelections.calls.sum();
+    }
+
+    public long getTypeInferences() {
+        return typeInferences.calls.sum();
+    }
+
+    /**
+     * @return a table of the counts and inclusive times, from the most to the least time spent in each section.
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        Formatter formatter = new Formatter(report, Locale.ROOT);
+        formatter.format("%-50s %10s %10s %16s%n", "", "calls", "unsolved", "inclusive (ms)");
+
+        formatter.format("tryToSolveType%n");
+        List<Map.Entry<TypeSolver, Counter>> solvers;
+        synchronized (typeSolvers) {
+            solvers = new ArrayList<>(typeSolvers.entrySet());
+        }
+        solvers.sort(Comparator.comparingInt(entry -> entry.getValue().order));
+        Map<TypeSolver, String> labels = new IdentityHashMap<>();
+        Map<String, Integer> classCount = new HashMap<>();
+        for (Map.Entry<TypeSolver, Counter> entry : solvers) {
+            String label = entry.getKey().getClass().getSimpleName();
+            int count = classCount.merge(label, 1, Integer::sum);
+            labels.put(entry.getKey(), count == 1 ? label : label + " #" + count);
+        }
+        solvers.sort(Comparator.comparingLong(entry -> -entry.getValue().nanos.sum()));
+        for (Map.Entry<TypeSolver, Counter> entry : solvers) {
+            entry.getValue().format(formatter, "  " + labels.get(entry.getKey()));
+        }
+
+        formatter.format("getContext%n");
+        List<Map.Entry<Class<? extends Node>, Counter>> nodeClasses = new ArrayList<>(contexts.entrySet());
+        nodeClasses.sort(Comparator.comparingLong(entry -> -entry.getValue().nanos.sum()));
+        for (Map.Entry<Class<? extends Node>, Counter> entry : nodeClasses) {
+            entry.getValue().format(formatter, "  " + entry.getKey().getSimpleName());
+        }
+
+        long selections = methodSelections.calls.sum();
+        methodSelections.format(
+                formatter,
+                String.format(
+                        Locale.ROOT,
+                        "findMostApplicable (%.1f candidates)",
+                        selections == 0 ? 0.0 : (double) candidates.sum() / selections));
+        typeInferences.format(formatter, "type inference");
+
+        formatter.format("%n%-50s %10s %10s %10s %10s%n", "caches", "requests", "hit rate", "loads", "evictions");
+        for (Map.Entry<TypeSolver, Counter> entry : solvers) {
+            for (Map.Entry<String, CacheStats> cache : entry.getKey().getCacheStats().entrySet()) {
+                CacheStats stats = cache.getValue();
+                formatter.format(
+                        "  %-48s %10d %9.1f%% %10d %10d%n",
+                        labels.get(entry.getKey()) + " " + cache.getKey(),
+                        stats.requestCount(),
+                        stats.hitRate() * 100,
+                        stats.loadCount(),
+                        stats.evictionCount());
+            }
+        }
+        formatter.flush();
+        return report.toString();
+    }
+
+    private static final class Counter {
+
+        private final int order;
+
+        private final LongAdder calls = new LongAdder();
+
+        private final LongAdder failures = new LongAdder();
+
+        private final LongAdder nanos = new LongAdder();
+
+        Counter(int order) {
+            this.order = order;
+        }
+
+        void add(boolean solved, long nanos) {
+            calls.increment();
+            if (!solved) {
+                failures.increment();
+            }
+            this.nanos.add(nanos);
+        }
+
+        void reset() {
+            calls.reset();
+            failures.reset();
+            nanos.reset();
+        }
+
+        void format(Formatter formatter, String label) {
+            formatter.format(
+                    "%-50s %10d %10d %16.3f%n", label, calls.sum(), failures.sum(), nanos.sum() / 1_000_000.0);
+        }
+    }
+}
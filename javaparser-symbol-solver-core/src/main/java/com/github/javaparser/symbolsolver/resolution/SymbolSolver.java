@@ -22,6 +22,7 @@
 package com.github.javaparser.symbolsolver.resolution;
 
 import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.LambdaExpr;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
 import com.github.javaparser.ast.type.Type;
 import com.github.javaparser.resolution.*;
@@ -36,6 +37,7 @@ import com.github.javaparser.resolution.types.ResolvedPrimitiveType;
 import com.github.javaparser.resolution.types.ResolvedType;
 import com.github.javaparser.symbolsolver.core.resolution.SymbolResolutionCapability;
 import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFactory;
+import com.github.javaparser.symbolsolver.javaparsermodel.ScopeBindings;
 import com.github.javaparser.symbolsolver.javaparsermodel.declarations.JavaParserClassDeclaration;
 import com.github.javaparser.symbolsolver.javaparsermodel.declarations.JavaParserInterfaceDeclaration;
 import com.github.javaparser.symbolsolver.reflectionmodel.ReflectionAnnotationDeclaration;
@@ -69,6 +71,10 @@ public class SymbolSolver implements Solver {
 
     @Override
     public SymbolReference<? extends ResolvedValueDeclaration> solveSymbol(String name, Node node) {
+        Optional<Node> declarationScope = ScopeBindings.findDeclarationScope(name, node);
+        if (declarationScope.isPresent()) {
+            return solveSymbol(name, JavaParserFactory.getContext(declarationScope.get(), typeSolver));
+        }
         return solveSymbol(name, JavaParserFactory.getContext(node, typeSolver));
     }
 
@@ -79,8 +85,16 @@ public class SymbolSolver implements Solver {
 
     @Override
     public Optional<Value> solveSymbolAsValue(String name, Node node) {
-        Context context = JavaParserFactory.getContext(node, typeSolver);
-        return solveSymbolAsValue(name, context);
+        Optional<Node> declarationScope = ScopeBindings.findDeclarationScope(name, node);
+        if (declarationScope.isPresent()) {
+            Context context = JavaParserFactory.getContext(declarationScope.get(), typeSolver);
+            if (ScopeBindings.isTypeScope(declarationScope.get()) || declarationScope.get() instanceof LambdaExpr) {
+                return solveSymbolAsValue(name, context);
+            }
+            // the contexts of statements look for values in the enclosing ones only, so the declaration is solved
+            return solveSymbol(name, context).getDeclaration().map(Value::from);
+        }
+        return solveSymbolAsValue(name, JavaParserFactory.getContext(node, typeSolver));
     }
 
     @Override
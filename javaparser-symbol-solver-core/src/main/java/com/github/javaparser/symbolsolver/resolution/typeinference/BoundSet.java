@@ -32,6 +32,7 @@ import com.github.javaparser.symbolsolver.resolution.typeinference.bounds.Captur
 import com.github.javaparser.symbolsolver.resolution.typeinference.bounds.FalseBound;
 import com.github.javaparser.symbolsolver.resolution.typeinference.bounds.SameAsBound;
 import com.github.javaparser.symbolsolver.resolution.typeinference.bounds.SubtypeOfBound;
+import com.github.javaparser.symbolsolver.resolution.typeinference.bounds.ThrowsBound;
 import com.github.javaparser.symbolsolver.resolution.typeinference.constraintformulas.TypeSameAsType;
 import com.github.javaparser.symbolsolver.resolution.typeinference.constraintformulas.TypeSubtypeOfType;
 import com.github.javaparser.utils.Pair;
@@ -40,15 +41,39 @@ import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
+ * A set of bounds, in the order they were added. Adding a bound gives a new set and leaves the bounds of this one
+ * unchanged, but a set is not immutable.
+ * <p>
+ * Bound sets grow one bound at a time during inference, so the sets derived from one another share their storage: a
+ * new bound is appended in place to the array of the set it is added to, as long as no other set has been derived
+ * from it yet, and only then are the bounds copied. Every store also knows the position of each of its bounds and,
+ * on demand, the bounds on each inference variable. A set sees the first {@code size} bounds of its store only, and
+ * records how many of them the incorporation has already examined.
+ * <p>
+ * This state is not synchronized: as inference itself, the sets derived from one another must be used by one thread.
+ * Only the {@link #empty() empty set} is shared, and nothing is ever written to its store.
+ *
  * @author Federico Tomassetti
  */
 public class BoundSet {
 
     private static String JAVA_LANG_RUNTIME_EXCEPTION = RuntimeException.class.getCanonicalName();
 
-    private static final BoundSet EMPTY = new BoundSet();
+    private static final BoundSet EMPTY = new BoundSet(new Store(0), 0, 0);
+
+    private final Store store;
+
+    private final int size;
+
+    // The number of leading bounds of which all pairs have already been examined by the incorporation, with the
+    // implied bounds included in this set. The incorporation only looks at the pairs involving the other bounds.
+    private int incorporated;
 
-    private List<Bound> bounds = new LinkedList<>();
+    private BoundSet(Store store, int size, int incorporated) {
+        this.store = store;
+        this.size = size;
+        this.incorporated = incorporated;
+    }
 
     @Override
     public boolean equals(Object o) {
@@ -57,17 +82,58 @@ public class BoundSet {
 
         BoundSet boundSet = (BoundSet) o;
 
-        return new HashSet<>(bounds).equals(new HashSet<>(boundSet.bounds));
+        if (size != boundSet.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (!boundSet.contains(get(i))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
-        return bounds.hashCode();
+        int result = 0;
+        for (int i = 0; i < size; i++) {
+            result += get(i).hashCode();
+        }
+        return result;
     }
 
     @Override
     public String toString() {
-        return "BoundSet{" + "bounds=" + bounds + '}';
+        return "BoundSet{" + "bounds=" + bounds() + '}';
+    }
+
+    private Bound get(int index) {
+        return store.elements[index];
+    }
+
+    private boolean contains(Bound bound) {
+        Integer position = store.positions.get(bound);
+        return position != null && position < size;
+    }
+
+    private List<Bound> bounds() {
+        return Collections.unmodifiableList(Arrays.asList(store.elements).subList(0, size));
+    }
+
+    /**
+     * @return the bounds of this set having the given inference variable on one side, or being a throws bound on it,
+     * in order. These are the only bounds that can be an instantiation, a proper bound or a throws bound for it.
+     */
+    private List<Bound> boundsOn(InferenceVariable inferenceVariable) {
+        List<Integer> positions = store.positionsOf(inferenceVariable);
+        List<Bound> res = new ArrayList<>(positions.size());
+        for (Integer position : positions) {
+            if (position >= size) {
+                break;
+            }
+            res.add(get(position));
+        }
+        return res;
     }
 
     /**
@@ -76,7 +142,7 @@ public class BoundSet {
      * convenience, and the two are interchangeable.
      */
     public boolean isTrue() {
-        return bounds.isEmpty();
+        return size == 0;
     }
 
     public static BoundSet empty() {
@@ -84,23 +150,26 @@ public class BoundSet {
     }
 
     public BoundSet withBound(Bound bound) {
-        if (this.bounds.contains(bound)) {
+        if (contains(bound)) {
             return this;
         }
-        BoundSet boundSet = new BoundSet();
-        boundSet.bounds.addAll(this.bounds);
-        boundSet.bounds.add(bound);
-        return boundSet;
+        Store target = store;
+        // the empty set is shared by all threads, so nothing is ever appended to its store
+        if (size == 0 || !target.append(size, bound)) {
+            target = store.copy(size);
+            target.append(size, bound);
+        }
+        return new BoundSet(target, size + 1, incorporated);
     }
 
     private Optional<Pair<SameAsBound, SameAsBound>> findPairSameAs(
             Predicate<Pair<SameAsBound, SameAsBound>> condition) {
-        for (int i = 0; i < bounds.size(); i++) {
-            Bound bi = bounds.get(i);
+        for (int i = 0; i < size; i++) {
+            Bound bi = get(i);
             if (bi instanceof SameAsBound) {
                 SameAsBound si = (SameAsBound) bi;
-                for (int j = i + 1; j < bounds.size(); j++) {
-                    Bound bj = bounds.get(j);
+                for (int j = i + 1; j < size; j++) {
+                    Bound bj = get(j);
                     if (bj instanceof SameAsBound) {
                         SameAsBound sj = (SameAsBound) bj;
                         Pair<SameAsBound, SameAsBound> pair = new Pair<SameAsBound, SameAsBound>(si, sj);
@@ -115,21 +184,24 @@ public class BoundSet {
     }
 
     public boolean isEmpty() {
-        return bounds.isEmpty();
+        return size == 0;
     }
 
     interface Processor<B1 extends Bound, B2 extends Bound, R> {
         R process(B1 a, B2 b, R initialValue);
     }
 
-    private <T> T forEachPairSameAs(Processor<SameAsBound, SameAsBound, T> processor, T initialValue) {
+    /**
+     * Processes the pairs (i, j), i &lt; j, of which the second bound comes at or after {@code from}.
+     */
+    private <T> T forEachPairSameAs(Processor<SameAsBound, SameAsBound, T> processor, T initialValue, int from) {
         T currentValue = initialValue;
-        for (int i = 0; i < bounds.size(); i++) {
-            Bound bi = bounds.get(i);
+        for (int i = 0; i < size; i++) {
+            Bound bi = get(i);
             if (bi instanceof SameAsBound) {
                 SameAsBound si = (SameAsBound) bi;
-                for (int j = i + 1; j < bounds.size(); j++) {
-                    Bound bj = bounds.get(j);
+                for (int j = Math.max(i + 1, from); j < size; j++) {
+                    Bound bj = get(j);
                     if (bj instanceof SameAsBound) {
                         SameAsBound sj = (SameAsBound) bj;
                         currentValue = processor.process(si, sj, currentValue);
@@ -140,14 +212,15 @@ public class BoundSet {
         return currentValue;
     }
 
-    private <T> T forEachPairSameAndSubtype(Processor<SameAsBound, SubtypeOfBound, T> processor, T initialValue) {
+    private <T> T forEachPairSameAndSubtype(
+            Processor<SameAsBound, SubtypeOfBound, T> processor, T initialValue, int from) {
         T currentValue = initialValue;
-        for (int i = 0; i < bounds.size(); i++) {
-            Bound bi = bounds.get(i);
+        for (int i = 0; i < size; i++) {
+            Bound bi = get(i);
             if (bi instanceof SameAsBound) {
                 SameAsBound si = (SameAsBound) bi;
-                for (int j = i + 1; j < bounds.size(); j++) {
-                    Bound bj = bounds.get(j);
+                for (int j = Math.max(i + 1, from); j < size; j++) {
+                    Bound bj = get(j);
                     if (bj instanceof SubtypeOfBound) {
                         SubtypeOfBound sj = (SubtypeOfBound) bj;
                         currentValue = processor.process(si, sj, currentValue);
@@ -158,14 +231,15 @@ public class BoundSet {
         return currentValue;
     }
 
-    private <T> T forEachPairSubtypeAndSubtype(Processor<SubtypeOfBound, SubtypeOfBound, T> processor, T initialValue) {
+    private <T> T forEachPairSubtypeAndSubtype(
+            Processor<SubtypeOfBound, SubtypeOfBound, T> processor, T initialValue, int from) {
         T currentValue = initialValue;
-        for (int i = 0; i < bounds.size(); i++) {
-            Bound bi = bounds.get(i);
+        for (int i = 0; i < size; i++) {
+            Bound bi = get(i);
             if (bi instanceof SubtypeOfBound) {
                 SubtypeOfBound si = (SubtypeOfBound) bi;
-                for (int j = i + 1; j < bounds.size(); j++) {
-                    Bound bj = bounds.get(j);
+                for (int j = Math.max(i + 1, from); j < size; j++) {
+                    Bound bj = get(j);
                     if (bj instanceof SubtypeOfBound) {
                         SubtypeOfBound sj = (SubtypeOfBound) bj;
                         currentValue = processor.process(si, sj, currentValue);
@@ -210,8 +284,8 @@ public class BoundSet {
      */
     public BoundSet incorporate(BoundSet otherBounds, TypeSolver typeSolver) {
         BoundSet newBoundSet = this;
-        for (Bound b : otherBounds.bounds) {
-            newBoundSet = newBoundSet.withBound(b);
+        for (int i = 0; i < otherBounds.size; i++) {
+            newBoundSet = newBoundSet.withBound(otherBounds.get(i));
         }
         return newBoundSet.deriveImpliedBounds(typeSolver);
     }
@@ -241,6 +315,13 @@ public class BoundSet {
         // - Given a dependency α <: β, every lower bound of α is a lower bound of β, and every upper bound of β is an
         //   upper bound of α.
 
+        // The pairs of bounds that were already there the last time are not examined again: their implied bounds have
+        // been added then.
+        int from = incorporated;
+        if (from == size) {
+            return this;
+        }
+
         ConstraintFormulaSet newConstraintsSet = ConstraintFormulaSet.empty();
 
         // SECTION Complementary Pairs of Bounds
@@ -272,7 +353,8 @@ public class BoundSet {
                     }
                     return currentConstraintSet;
                 },
-                newConstraintsSet);
+                newConstraintsSet,
+                from);
 
         // - α = S and α <: T imply ‹S <: T›
 
@@ -288,7 +370,8 @@ public class BoundSet {
                     }
                     return currentConstraintSet;
                 },
-                newConstraintsSet);
+                newConstraintsSet,
+                from);
 
         // - α = S and T <: α imply ‹T <: S›
 
@@ -304,7 +387,8 @@ public class BoundSet {
                     }
                     return currentConstraintSet;
                 },
-                newConstraintsSet);
+                newConstraintsSet,
+                from);
 
         // - S <: α and α <: T imply ‹S <: T›
 
@@ -316,7 +400,8 @@ public class BoundSet {
                     }
                     return currentConstraintSet;
                 },
-                newConstraintsSet);
+                newConstraintsSet,
+                from);
 
         // - α = U and S = T imply ‹S[α:=U] = T[α:=U]›
 
@@ -360,7 +445,8 @@ public class BoundSet {
                     }
                     return currentConstraintSet;
                 },
-                newConstraintsSet);
+                newConstraintsSet,
+                from);
 
         // - α = U and S <: T imply ‹S[α:=U] <: T[α:=U]›
 
@@ -386,7 +472,8 @@ public class BoundSet {
                     }
                     return currentConstraintSet;
                 },
-                newConstraintsSet);
+                newConstraintsSet,
+                from);
 
         // When a bound set contains a pair of bounds α <: S and α <: T, and there exists a supertype of S of the
         // form G<S1, ..., Sn> and a supertype of T of the form G<T1, ..., Tn> (for some generic class or interface, G),
@@ -426,15 +513,17 @@ public class BoundSet {
                     }
                     return currentConstraintSet;
                 },
-                newConstraintsSet);
+                newConstraintsSet,
+                from);
 
         // SECTION Bounds Involving Capture Conversion
         //
         // When a bound set contains a bound of the form G<α1, ..., αn> = capture(G<A1, ..., An>), new bounds are
         // implied and new constraint formulas may be implied, as follows.
 
-        for (Bound b :
-                this.bounds.stream().filter(b -> b instanceof CapturesBound).collect(Collectors.toList())) {
+        for (Bound b : bounds().subList(from, size).stream()
+                .filter(b -> b instanceof CapturesBound)
+                .collect(Collectors.toList())) {
             CapturesBound capturesBound = (CapturesBound) b;
 
             throw new UnsupportedOperationException();
@@ -480,18 +569,25 @@ public class BoundSet {
         }
 
         if (newConstraintsSet.isEmpty()) {
+            incorporated = size;
             return this;
         } else {
             BoundSet newBounds = newConstraintsSet.reduce(typeSolver);
-            if (newBounds.isEmpty()) {
+            BoundSet newBoundSet = this;
+            for (int i = 0; i < newBounds.size; i++) {
+                newBoundSet = newBoundSet.withBound(newBounds.get(i));
+            }
+            if (newBoundSet == this) {
+                incorporated = size;
                 return this;
             }
-            return this.incorporate(newBounds, typeSolver);
+            newBoundSet.incorporated = size;
+            return newBoundSet.deriveImpliedBounds(typeSolver);
         }
     }
 
     public boolean containsFalse() {
-        return bounds.stream().anyMatch(it -> it instanceof FalseBound);
+        return contains(FalseBound.getInstance());
     }
 
     private class VariableDependency {
@@ -518,14 +614,14 @@ public class BoundSet {
 
     private Set<InferenceVariable> allInferenceVariables() {
         Set<InferenceVariable> variables = new HashSet<>();
-        for (Bound b : bounds) {
+        for (Bound b : bounds()) {
             variables.addAll(b.usedInferenceVariables());
         }
         return variables;
     }
 
     private boolean hasInstantiationFor(InferenceVariable v) {
-        for (Bound b : bounds) {
+        for (Bound b : boundsOn(v)) {
             if (b.isAnInstantiationFor(v)) {
                 return true;
             }
@@ -534,7 +630,7 @@ public class BoundSet {
     }
 
     private Instantiation getInstantiationFor(InferenceVariable v) {
-        for (Bound b : bounds) {
+        for (Bound b : boundsOn(v)) {
             if (b.isAnInstantiationFor(v)) {
                 return b.isAnInstantiation().get();
             }
@@ -544,7 +640,7 @@ public class BoundSet {
 
     private boolean thereIsSomeJSuchThatβequalAlphaJ(Set<InferenceVariable> alphas, InferenceVariable beta) {
         for (InferenceVariable alphaJ : alphas) {
-            for (Bound b : bounds) {
+            for (Bound b : boundsOn(alphaJ)) {
                 if (b instanceof SameAsBound) {
                     SameAsBound sameAsBound = (SameAsBound) b;
                     if (sameAsBound.getS().equals(alphaJ) && sameAsBound.getT().equals(beta)) {
@@ -647,7 +743,7 @@ public class BoundSet {
         //   If α appears on the left-hand side of another bound of the form G<..., α, ...> = capture(G<...>), then β
         //   depends on the resolution of α. Otherwise, α depends on the resolution of β.
 
-        for (Bound b : bounds) {
+        for (Bound b : bounds()) {
             if (b instanceof CapturesBound) {
                 throw new UnsupportedOperationException();
             }
@@ -657,7 +753,7 @@ public class BoundSet {
         //   G<..., α, ...> = capture(G<...>) depends on the resolution of every other inference variable mentioned in
         //   this bound (on both sides of the = sign).
 
-        for (Bound b : bounds) {
+        for (Bound b : bounds()) {
             if (b instanceof CapturesBound) {
                 throw new UnsupportedOperationException();
             }
@@ -733,7 +829,7 @@ public class BoundSet {
             if (!hasSomeCaptureForAlphas) {
                 BoundSet newBounds = BoundSet.empty();
                 for (InferenceVariable alphaI : alphas) {
-                    Set<ResolvedType> properLowerBounds = bounds.stream()
+                    Set<ResolvedType> properLowerBounds = boundsOn(alphaI).stream()
                             .filter(b -> b.isProperLowerBoundFor(alphaI).isPresent())
                             .map(b -> b.isProperLowerBoundFor(alphaI).get().getProperType())
                             .collect(Collectors.toSet());
@@ -750,7 +846,7 @@ public class BoundSet {
                     // most,
                     //     Exception, Throwable, and Object, then Ti = RuntimeException.
 
-                    boolean throwsBound = bounds.stream().anyMatch(b -> b.isThrowsBoundOn(alphaI));
+                    boolean throwsBound = boundsOn(alphaI).stream().anyMatch(b -> b.isThrowsBoundOn(alphaI));
                     if (Ti == null && throwsBound && properUpperBoundsAreAtMostExceptionThrowableAndObject(alphaI)) {
                         Ti = new ReferenceTypeImpl(typeSolver.solveType(JAVA_LANG_RUNTIME_EXCEPTION));
                     }
@@ -758,7 +854,7 @@ public class BoundSet {
                     //   - Otherwise, where αi has proper upper bounds U1, ..., Uk, Ti = glb(U1, ..., Uk) (§5.1.10).
 
                     if (Ti == null) {
-                        Set<ResolvedType> properUpperBounds = bounds.stream()
+                        Set<ResolvedType> properUpperBounds = boundsOn(alphaI).stream()
                                 .filter(b -> b.isProperUpperBoundFor(alphaI).isPresent())
                                 .map(b -> b.isProperUpperBoundFor(alphaI).get().getProperType())
                                 .collect(Collectors.toSet());
@@ -872,7 +968,7 @@ public class BoundSet {
     }
 
     private boolean appearInLeftPartOfCapture(InferenceVariable inferenceVariable) {
-        for (Bound b : bounds) {
+        for (Bound b : bounds()) {
             if (b instanceof CapturesBound) {
                 CapturesBound capturesBound = (CapturesBound) b;
                 if (capturesBound.getInferenceVariables().contains(inferenceVariable)) {
@@ -884,8 +980,93 @@ public class BoundSet {
     }
 
     public List<Bound> getProperUpperBoundsFor(InferenceVariable inferenceVariable) {
-        return bounds.stream()
+        return boundsOn(inferenceVariable).stream()
                 .filter(b -> b.isProperUpperBoundFor(inferenceVariable).isPresent())
                 .collect(Collectors.toList());
     }
+
+    /**
+     * The storage shared by the bound sets derived from one another.
+     */
+    private static final class Store {
+
+        private Bound[] elements;
+
+        private int size;
+
+        private final Map<Bound, Integer> positions;
+
+        private final Map<InferenceVariable, List<Integer>> positionsByVariable = new HashMap<>();
+
+        private int indexed;
+
+        private Store(int capacity) {
+            elements = new Bound[capacity];
+            positions = new HashMap<>(capacity * 2);
+        }
+
+        /**
+         * @return a new store with the first bounds of this one.
+         */
+        private Store copy(int count) {
+            Store copy = new Store(Math.max(8, count * 2));
+            System.arraycopy(elements, 0, copy.elements, 0, count);
+            copy.size = count;
+            for (int i = 0; i < count; i++) {
+                copy.positions.put(elements[i], i);
+            }
+            return copy;
+        }
+
+        /**
+         * Appends the bound at the given position, unless some other bound is already there.
+         */
+        private boolean append(int position, Bound bound) {
+            if (size != position) {
+                return false;
+            }
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, Math.max(8, size * 2));
+            }
+            elements[size] = bound;
+            positions.put(bound, size);
+            size++;
+            return true;
+        }
+
+        private List<Integer> positionsOf(InferenceVariable inferenceVariable) {
+            for (; indexed < size; indexed++) {
+                for (InferenceVariable v : subjectsOf(elements[indexed])) {
+                    positionsByVariable
+                            .computeIfAbsent(v, k -> new ArrayList<>())
+                            .add(indexed);
+                }
+            }
+            return positionsByVariable.getOrDefault(inferenceVariable, Collections.emptyList());
+        }
+
+        private static Collection<InferenceVariable> subjectsOf(Bound bound) {
+            ResolvedType s;
+            ResolvedType t;
+            if (bound instanceof SameAsBound) {
+                s = ((SameAsBound) bound).getS();
+                t = ((SameAsBound) bound).getT();
+            } else if (bound instanceof SubtypeOfBound) {
+                s = ((SubtypeOfBound) bound).getS();
+                t = ((SubtypeOfBound) bound).getT();
+            } else if (bound instanceof ThrowsBound) {
+                return bound.usedInferenceVariables();
+            } else {
+                return Collections.emptyList();
+            }
+            Set<InferenceVariable> subjects = new LinkedHashSet<>(2);
+            if (s.isInferenceVariable()) {
+                subjects.add((InferenceVariable) s);
+            }
+            if (t.isInferenceVariable()) {
+                subjects.add((InferenceVariable) t);
+            }
+            return subjects;
+        }
+    }
 }
@@ -23,6 +23,8 @@ package com.github.javaparser.symbolsolver.resolution.typeinference;
 
 import com.github.javaparser.ast.expr.*;
 import com.github.javaparser.resolution.MethodUsage;
+import com.github.javaparser.resolution.ResolutionListener;
+import com.github.javaparser.resolution.ResolutionListeners;
 import com.github.javaparser.resolution.TypeSolver;
 import com.github.javaparser.resolution.declarations.ResolvedInterfaceDeclaration;
 import com.github.javaparser.resolution.declarations.ResolvedMethodDeclaration;
@@ -80,6 +82,18 @@ public class TypeInference {
 
     public Optional<InstantiationSet> instantiationInference(
             List<Expression> argumentExpressions, ResolvedMethodDeclaration methodDeclaration) {
+        ResolutionListener listener = ResolutionListeners.of(typeSolver);
+        if (listener == null) {
+            return instantiationInferenceImpl(argumentExpressions, methodDeclaration);
+        }
+        long start = System.nanoTime();
+        Optional<InstantiationSet> instantiation = instantiationInferenceImpl(argumentExpressions, methodDeclaration);
+        listener.typeInferred(methodDeclaration, instantiation.isPresent(), System.nanoTime() - start);
+        return instantiation;
+    }
+
+    private Optional<InstantiationSet> instantiationInferenceImpl(
+            List<Expression> argumentExpressions, ResolvedMethodDeclaration methodDeclaration) {
         //        if (methodCallExpr.getTypeArguments().isPresent()) {
         //            throw new IllegalArgumentException("Type inference unnecessary as type arguments have been
         // specified");
@@ -27,6 +27,8 @@ import com.github.javaparser.resolution.model.SymbolReference;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Set;
 import java.util.jar.JarFile;
 import java.util.zip.ZipEntry;
 
@@ -74,4 +76,9 @@ public class AarTypeSolver implements TypeSolver {
     public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
         return delegate.tryToSolveType(name);
     }
+
+    @Override
+    public Optional<Set<String>> getKnownPackages() {
+        return delegate.getKnownPackages();
+    }
 }
@@ -21,6 +21,8 @@
 
 package com.github.javaparser.symbolsolver.resolution.typesolvers;
 
+import com.github.javaparser.resolution.ResolutionListener;
+import com.github.javaparser.resolution.ResolutionListeners;
 import com.github.javaparser.resolution.TypeSolver;
 import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
 import com.github.javaparser.resolution.model.SymbolReference;
@@ -65,8 +67,29 @@ public class ClassLoaderTypeSolver implements TypeSolver {
         return true;
     }
 
+    /**
+     * Whether every class the class loader can load is also one of its resources, as it is for class loaders
+     * reading class files from the class path or the JDK image. If so, a type is looked up as a resource first, so
+     * that the names which are not types, usually the most common lookups, are rejected without a
+     * {@link ClassNotFoundException}.
+     */
+    protected boolean hasClassFilesAsResources() {
+        return false;
+    }
+
     @Override
     public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+        ResolutionListener listener = ResolutionListeners.of(this);
+        if (listener == null) {
+            return tryToSolveTypeImpl(name);
+        }
+        long start = System.nanoTime();
+        SymbolReference<ResolvedReferenceTypeDeclaration> ref = tryToSolveTypeImpl(name);
+        listener.typeSolved(this, name, ref.isSolved(), System.nanoTime() - start);
+        return ref;
+    }
+
+    private SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveTypeImpl(String name) {
         if (filterName(name)) {
             try {
                 // Some implementations could return null when the class was loaded through the bootstrap classloader
@@ -76,7 +99,14 @@ public class ClassLoaderTypeSolver implements TypeSolver {
                             "The ClassLoaderTypeSolver has been probably loaded through the bootstrap class loader. This usage is not supported by the JavaSymbolSolver");
                 }
 
-                Class<?> clazz = classLoader.loadClass(name);
+                String binaryName = name;
+                if (hasClassFilesAsResources()) {
+                    binaryName = findBinaryName(name);
+                    if (binaryName == null) {
+                        return SymbolReference.unsolved(name);
+                    }
+                }
+                Class<?> clazz = classLoader.loadClass(binaryName);
                 return SymbolReference.solved(ReflectionFactory.typeDeclarationFor(clazz, getRoot()));
             } catch (NoClassDefFoundError e) {
                 // We can safely ignore this one because it is triggered when there are package names which are almost
@@ -95,7 +125,7 @@ public class ClassLoaderTypeSolver implements TypeSolver {
                 }
                 String parentName = name.substring(0, lastDot);
                 String childName = name.substring(lastDot + 1);
-                SymbolReference<ResolvedReferenceTypeDeclaration> parent = tryToSolveType(parentName);
+                SymbolReference<ResolvedReferenceTypeDeclaration> parent = tryToSolveTypeImpl(parentName);
                 if (parent.isSolved()) {
                     Optional<ResolvedReferenceTypeDeclaration> innerClass =
                             parent.getCorrespondingDeclaration().internalTypes().stream()
@@ -109,4 +139,22 @@ public class ClassLoaderTypeSolver implements TypeSolver {
             return SymbolReference.unsolved();
         }
     }
+
+    /**
+     * The binary name of the class with the given canonical name, found by replacing the dots from the end with
+     * {@code $} until the class file exists. Null if there is no such class file.
+     */
+    private String findBinaryName(String name) {
+        StringBuilder binaryName = new StringBuilder(name);
+        for (int dot = name.length(); dot != -1; dot = name.lastIndexOf('.', dot - 1)) {
+            if (dot < name.length()) {
+                binaryName.setCharAt(dot, '$');
+            }
+            String resource = binaryName.toString().replace('.', '/') + ".class";
+            if (classLoader.getResource(resource) != null) {
+                return binaryName.toString();
+            }
+        }
+        return null;
+    }
 }
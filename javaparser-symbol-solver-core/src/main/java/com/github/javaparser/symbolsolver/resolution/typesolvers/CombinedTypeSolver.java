@@ -21,28 +21,50 @@
 
 package com.github.javaparser.symbolsolver.resolution.typesolvers;
 
+import com.github.javaparser.resolution.ResolutionListener;
+import com.github.javaparser.resolution.ResolutionListeners;
 import com.github.javaparser.resolution.TypeSolver;
 import com.github.javaparser.resolution.UnsolvedSymbolException;
 import com.github.javaparser.resolution.cache.Cache;
+import com.github.javaparser.resolution.cache.CacheStats;
 import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
 import com.github.javaparser.resolution.model.SymbolReference;
-import com.github.javaparser.symbolsolver.cache.InMemoryCache;
+import com.github.javaparser.symbolsolver.cache.BoundedCache;
 import java.util.*;
 import java.util.function.Predicate;
 
 /**
  * A container for type solvers. All solving is done by the contained type solvers.
  * This helps you when an API asks for a single type solver, but you need several.
+ * <br>
+ * The contained type solvers are asked in order until one of them solves the name. With
+ * {@link #setRoutingByPackage(boolean) routing by package}, type solvers which
+ * {@link TypeSolver#getKnownPackages() know their packages} are skipped for names outside of their packages.
  *
  * @author Federico Tomassetti
  */
 public class CombinedTypeSolver implements TypeSolver {
 
+    /**
+     * The number of types kept in the default cache.
+     */
+    public static final long DEFAULT_TYPE_CACHE_SIZE = 10_000;
+
     private final Cache<String, SymbolReference<ResolvedReferenceTypeDeclaration>> typeCache;
 
     private TypeSolver parent;
     private List<TypeSolver> elements = new ArrayList<>();
 
+    /**
+     * Whether names are only offered to the elements which may solve them.
+     */
+    private boolean routingByPackage;
+
+    /**
+     * Routes names to the elements which may solve them, built on the first lookup after an element was added.
+     */
+    private volatile PackageRouter router;
+
     /**
      * A predicate which determines what to do if an exception is raised during the parsing process.
      * If it returns {@code true} the exception will be ignored, and solving will continue using the next solver in line.
@@ -69,9 +91,13 @@ public class CombinedTypeSolver implements TypeSolver {
         this(ExceptionHandlers.IGNORE_NONE, elements);
     }
 
-    /** @see #exceptionHandler */
+    /**
+     * Create a new instance of {@link CombinedTypeSolver} caching up to {@link #DEFAULT_TYPE_CACHE_SIZE} types.
+     *
+     * @see #exceptionHandler
+     */
     public CombinedTypeSolver(Predicate<Exception> exceptionHandler, Iterable<TypeSolver> elements) {
-        this(exceptionHandler, elements, InMemoryCache.create());
+        this(exceptionHandler, elements, BoundedCache.create(DEFAULT_TYPE_CACHE_SIZE));
     }
 
     /**
@@ -79,7 +105,7 @@ public class CombinedTypeSolver implements TypeSolver {
      *
      * @param exceptionHandler  How exception should be handled.
      * @param elements          The list of elements to include by default.
-     * @param typeCache       The cache to be used to store symbols.
+     * @param typeCache       The cache to be used to store symbols, for example a {@link BoundedCache}.
      *
      * @see #exceptionHandler
      */
@@ -102,6 +128,17 @@ public class CombinedTypeSolver implements TypeSolver {
         this.exceptionHandler = exceptionHandler;
     }
 
+    /**
+     * Enables or disables routing by package, which is disabled by default. When enabled, a name is only offered to
+     * the contained type solvers which know its package, or which do not tell their packages. This saves the
+     * lookups of, e.g., JDK names in every source directory, but the packages are only collected once:
+     * {@link JavaParserTypeSolver} does not see packages created in its directory after the first lookup.
+     */
+    public void setRoutingByPackage(boolean routingByPackage) {
+        this.routingByPackage = routingByPackage;
+        router = null;
+    }
+
     @Override
     public TypeSolver getParent() {
         return parent;
@@ -130,6 +167,7 @@ public class CombinedTypeSolver implements TypeSolver {
 
         this.elements.add(typeSolver);
         typeSolver.setParent(this);
+        router = null;
 
         // Check if the cache should be reset after inserting
         if (resetCache) {
@@ -150,13 +188,34 @@ public class CombinedTypeSolver implements TypeSolver {
 
     @Override
     public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+        ResolutionListener listener = ResolutionListeners.of(this);
+        if (listener == null) {
+            return tryToSolveTypeImpl(name);
+        }
+        long start = System.nanoTime();
+        SymbolReference<ResolvedReferenceTypeDeclaration> ref = tryToSolveTypeImpl(name);
+        listener.typeSolved(this, name, ref.isSolved(), System.nanoTime() - start);
+        return ref;
+    }
+
+    private SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveTypeImpl(String name) {
         Optional<SymbolReference<ResolvedReferenceTypeDeclaration>> cachedSymbol = typeCache.get(name);
         if (cachedSymbol.isPresent()) {
             return cachedSymbol.get();
         }
 
+        List<TypeSolver> candidates = elements;
+        if (routingByPackage) {
+            PackageRouter currentRouter = router;
+            if (currentRouter == null) {
+                currentRouter = new PackageRouter(elements);
+                router = currentRouter;
+            }
+            candidates = currentRouter.candidatesFor(name);
+        }
+
         // If the symbol is not cached
-        for (TypeSolver ts : elements) {
+        for (TypeSolver ts : candidates) {
             try {
                 SymbolReference<ResolvedReferenceTypeDeclaration> res = ts.tryToSolveType(name);
                 if (res.isSolved()) {
@@ -171,11 +230,16 @@ public class CombinedTypeSolver implements TypeSolver {
         }
 
         // When unable to solve, cache the value with unsolved symbol
-        SymbolReference<ResolvedReferenceTypeDeclaration> unsolvedSymbol = SymbolReference.unsolved();
+        SymbolReference<ResolvedReferenceTypeDeclaration> unsolvedSymbol = SymbolReference.unsolved(name);
         typeCache.put(name, unsolvedSymbol);
         return unsolvedSymbol;
     }
 
+    @Override
+    public Map<String, CacheStats> getCacheStats() {
+        return Collections.singletonMap("types", typeCache.stats());
+    }
+
     @Override
     public ResolvedReferenceTypeDeclaration solveType(String name) throws UnsolvedSymbolException {
         SymbolReference<ResolvedReferenceTypeDeclaration> res = tryToSolveType(name);
@@ -185,6 +249,85 @@ public class CombinedTypeSolver implements TypeSolver {
         throw new UnsolvedSymbolException(name);
     }
 
+    /**
+     * The packages of all contained type solvers, if all of them know their packages.
+     */
+    @Override
+    public Optional<Set<String>> getKnownPackages() {
+        Set<String> packages = new HashSet<>();
+        for (TypeSolver element : elements) {
+            Optional<Set<String>> elementPackages = element.getKnownPackages();
+            if (!elementPackages.isPresent()) {
+                return Optional.empty();
+            }
+            packages.addAll(elementPackages.get());
+        }
+        return Optional.of(packages);
+    }
+
+    /**
+     * A trie of the package names known by the type solvers. The solvers of the packages along the name are asked,
+     * together with the solvers not knowing their packages, in the order in which they were added.
+     */
+    private static final class PackageRouter {
+
+        private final List<TypeSolver> solvers;
+
+        private final BitSet unrouted = new BitSet();
+
+        private final PackageNode root = new PackageNode();
+
+        PackageRouter(List<TypeSolver> solvers) {
+            this.solvers = new ArrayList<>(solvers);
+            for (int i = 0; i < this.solvers.size(); i++) {
+                Optional<Set<String>> packages = this.solvers.get(i).getKnownPackages();
+                if (!packages.isPresent()) {
+                    unrouted.set(i);
+                    continue;
+                }
+                for (String packageName : packages.get()) {
+                    PackageNode node = root;
+                    if (!packageName.isEmpty()) {
+                        for (String element : packageName.split("\\.")) {
+                            node = node.children.computeIfAbsent(element, k -> new PackageNode());
+                        }
+                    }
+                    node.solvers.set(i);
+                }
+            }
+        }
+
+        List<TypeSolver> candidatesFor(String name) {
+            if (unrouted.cardinality() == solvers.size()) {
+                return solvers;
+            }
+            BitSet candidates = (BitSet) unrouted.clone();
+            PackageNode node = root;
+            int start = 0;
+            while (node != null) {
+                candidates.or(node.solvers);
+                int dot = name.indexOf('.', start);
+                if (dot < 0) {
+                    break;
+                }
+                node = node.children.get(name.substring(start, dot));
+                start = dot + 1;
+            }
+            List<TypeSolver> result = new ArrayList<>(candidates.cardinality());
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                result.add(solvers.get(i));
+            }
+            return result;
+        }
+    }
+
+    private static final class PackageNode {
+
+        private final Map<String, PackageNode> children = new HashMap<>();
+
+        private final BitSet solvers = new BitSet();
+    }
+
     /**
      * Provides some convenience exception handler implementations
      * @see CombinedTypeSolver#setExceptionHandler(Predicate)
@@ -21,6 +21,8 @@
 
 package com.github.javaparser.symbolsolver.resolution.typesolvers;
 
+import com.github.javaparser.resolution.ResolutionListener;
+import com.github.javaparser.resolution.ResolutionListeners;
 import com.github.javaparser.resolution.TypeSolver;
 import com.github.javaparser.resolution.UnsolvedSymbolException;
 import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
@@ -233,6 +235,22 @@ public class JarTypeSolver implements TypeSolver {
         return knownClasses.keySet();
     }
 
+    /**
+     * Get the packages of the classes in the jar, see {@link #getKnownClasses()}.
+     *
+     * @return The packages of the known classes.
+     */
+    @Override
+    public Optional<Set<String>> getKnownPackages() {
+        Set<String> packages = new HashSet<>();
+        for (String qualifiedName : knownClasses.keySet()) {
+            int lastDot = qualifiedName.lastIndexOf('.');
+            // For a nested class this adds the name of its enclosing class, which does no harm
+            packages.add(lastDot < 0 ? "" : qualifiedName.substring(0, lastDot));
+        }
+        return Optional.of(packages);
+    }
+
     @Override
     public TypeSolver getParent() {
         return parent;
@@ -252,6 +270,17 @@ public class JarTypeSolver implements TypeSolver {
 
     @Override
     public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+        ResolutionListener listener = ResolutionListeners.of(this);
+        if (listener == null) {
+            return tryToSolveTypeImpl(name);
+        }
+        long start = System.nanoTime();
+        SymbolReference<ResolvedReferenceTypeDeclaration> ref = tryToSolveTypeImpl(name);
+        listener.typeSolved(this, name, ref.isSolved(), System.nanoTime() - start);
+        return ref;
+    }
+
+    private SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveTypeImpl(String name) {
 
         String storedKey = knownClasses.get(name);
         // If the name is not registered in the list we can safely say is not solvable here
@@ -29,8 +29,11 @@ import com.github.javaparser.JavaParser;
 import com.github.javaparser.ParserConfiguration;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.resolution.Navigator;
+import com.github.javaparser.resolution.ResolutionListener;
+import com.github.javaparser.resolution.ResolutionListeners;
 import com.github.javaparser.resolution.TypeSolver;
 import com.github.javaparser.resolution.cache.Cache;
+import com.github.javaparser.resolution.cache.CacheStats;
 import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
 import com.github.javaparser.resolution.model.SymbolReference;
 import com.github.javaparser.symbolsolver.cache.GuavaCache;
@@ -39,14 +42,23 @@ import com.github.javaparser.symbolsolver.utils.FileUtils;
 import com.google.common.cache.CacheBuilder;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitOption;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Defines a directory containing source code that should be used for solving symbols.
@@ -66,6 +78,16 @@ public class JavaParserTypeSolver implements TypeSolver {
     private final Cache<String, SymbolReference<ResolvedReferenceTypeDeclaration>> foundTypes;
     private static final int CACHE_SIZE_UNSET = -1;
 
+    /**
+     * The system property to set to {@code true} for the default caches to record their {@link #getCacheStats()
+     * statistics}, which costs a little on every lookup.
+     */
+    public static final String CACHE_STATS_PROPERTY = "javaparser.typeSolver.cacheStats";
+
+    private final boolean recordingCacheStats;
+
+    private volatile Optional<Set<String>> knownPackages;
+
     public JavaParserTypeSolver(File srcDir) {
         this(srcDir.toPath());
     }
@@ -92,6 +114,9 @@ public class JavaParserTypeSolver implements TypeSolver {
 
     private <TKey, TValue> Cache<TKey, TValue> BuildCache(long cacheSizeLimit) {
         CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder().softValues();
+        if (recordingCacheStats) {
+            cacheBuilder.recordStats();
+        }
         if (cacheSizeLimit != CACHE_SIZE_UNSET) {
             cacheBuilder.maximumSize(cacheSizeLimit);
         }
@@ -104,6 +129,7 @@ public class JavaParserTypeSolver implements TypeSolver {
      * @param cacheSizeLimit      is an optional size limit to the internal caches used by this solver.
      *                            Be advised that setting the size too low might lead to noticeable performance degradation.
      *                            However, using a size limit is advised when solving symbols in large code sources. In such cases, internal caches might consume large amounts of heap space.
+     * @see #CACHE_STATS_PROPERTY
      */
     public JavaParserTypeSolver(Path srcDir, ParserConfiguration parserConfiguration, long cacheSizeLimit) {
         if (!Files.exists(srcDir) || !Files.isDirectory(srcDir)) {
@@ -111,13 +137,15 @@ public class JavaParserTypeSolver implements TypeSolver {
         }
         this.srcDir = srcDir;
         javaParser = new JavaParser(parserConfiguration);
+        recordingCacheStats = Boolean.getBoolean(CACHE_STATS_PROPERTY);
         parsedFiles = BuildCache(cacheSizeLimit);
         parsedDirectories = BuildCache(cacheSizeLimit);
         foundTypes = BuildCache(cacheSizeLimit);
     }
 
     /**
-     * Create a {@link JavaParserTypeSolver} with a custom cache system.
+     * Create a {@link JavaParserTypeSolver} with a custom cache system, for example
+     * {@link com.github.javaparser.symbolsolver.cache.BoundedCache}s weighing the compilation units by their size.
      *
      * @param srcDir                 The source code directory for the type solver.
      * @param javaParser             The {@link JavaParser} to be used when parsing .java files.
@@ -147,6 +175,7 @@ public class JavaParserTypeSolver implements TypeSolver {
         this.parsedFiles = parsedFilesCache;
         this.parsedDirectories = parsedDirectoriesCache;
         this.foundTypes = foundTypesCache;
+        this.recordingCacheStats = true;
     }
 
     @Override
@@ -245,6 +274,17 @@ public class JavaParserTypeSolver implements TypeSolver {
 
     @Override
     public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+        ResolutionListener listener = ResolutionListeners.of(this);
+        if (listener == null) {
+            return tryToSolveTypeImpl(name);
+        }
+        long start = System.nanoTime();
+        SymbolReference<ResolvedReferenceTypeDeclaration> ref = tryToSolveTypeImpl(name);
+        listener.typeSolved(this, name, ref.isSolved(), System.nanoTime() - start);
+        return ref;
+    }
+
+    private SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveTypeImpl(String name) {
         Optional<SymbolReference<ResolvedReferenceTypeDeclaration>> cachedValue = foundTypes.get(name);
         if (cachedValue.isPresent()) {
             return cachedValue.get();
@@ -256,6 +296,54 @@ public class JavaParserTypeSolver implements TypeSolver {
         return result;
     }
 
+    /**
+     * The statistics of the caches given to the constructor, or of the default caches if they record them.
+     *
+     * @see #CACHE_STATS_PROPERTY
+     */
+    @Override
+    public Map<String, CacheStats> getCacheStats() {
+        if (!recordingCacheStats) {
+            return Collections.emptyMap();
+        }
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        stats.put("parsedFiles", parsedFiles.stats());
+        stats.put("parsedDirectories", parsedDirectories.stats());
+        stats.put("foundTypes", foundTypes.stats());
+        return stats;
+    }
+
+    /**
+     * The packages are the directories containing .java files, found by walking the source directory the first time
+     * they are asked for. Like the parsed files, they are not updated when the source directory changes.
+     */
+    @Override
+    public Optional<Set<String>> getKnownPackages() {
+        Optional<Set<String>> packages = knownPackages;
+        if (packages == null) {
+            packages = indexPackages();
+            knownPackages = packages;
+        }
+        return packages;
+    }
+
+    private Optional<Set<String>> indexPackages() {
+        try (Stream<Path> files = Files.walk(srcDir, FileVisitOption.FOLLOW_LINKS)) {
+            Set<String> packages = files.filter(file -> file.getFileName().toString().toLowerCase().endsWith(".java"))
+                    .filter(Files::isRegularFile)
+                    .map(file -> srcDir.relativize(file.getParent()))
+                    .map(dir -> StreamSupport.stream(dir.spliterator(), false)
+                            .map(Path::toString)
+                            .filter(element -> !element.isEmpty())
+                            .collect(Collectors.joining(".")))
+                    .collect(Collectors.toSet());
+            return Optional.of(Collections.unmodifiableSet(packages));
+        } catch (IOException | UncheckedIOException e) {
+            // Unreadable directories or cyclic links, ask this solver for every name
+            return Optional.empty();
+        }
+    }
+
     private SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveTypeUncached(String name) {
         String[] nameElements = name.split("\\.");
 
@@ -0,0 +1,250 @@
+/*
+ * Copyright (C) 2015-2016 Federico Tomassetti
+ * Copyright (C) 2017-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.symbolsolver.resolution.typesolvers;
+
+import com.github.javaparser.resolution.ResolutionListener;
+import com.github.javaparser.resolution.ResolutionListeners;
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.model.SymbolReference;
+import com.github.javaparser.symbolsolver.javassistmodel.JavassistFactory;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import javassist.ClassPath;
+import javassist.ClassPool;
+import javassist.NotFoundException;
+
+/**
+ * Will let the symbol solver look inside the run-time image of a JDK while solving types.
+ * <br>
+ * The class files are read from the {@code jrt:/} file system and wrapped in the javassist model, without loading
+ * the classes into the running JVM. By default this is the image of the running JDK, but the image of any other
+ * JDK 9 or later can be used to analyse code written against that release.
+ * <br>
+ * The packages of the image are read once, so a name is looked up directly in the modules containing its package.
+ *
+ * @see ReflectionTypeSolver
+ */
+public class JrtTypeSolver implements TypeSolver, Closeable {
+
+    private static final URI JRT_URI = URI.create("jrt:/");
+
+    private static final String CLASS_EXTENSION = ".class";
+
+    private final FileSystem fileSystem;
+
+    private final boolean ownsFileSystem;
+
+    private final ClassPool classPool = new ClassPool();
+
+    private final Map<String, ResolvedReferenceTypeDeclaration> solvedTypes = new ConcurrentHashMap<>();
+
+    private volatile Map<String, List<Path>> packageDirectories;
+
+    private TypeSolver parent;
+
+    /**
+     * Create a {@link JrtTypeSolver} for the image of the running JDK.
+     */
+    public JrtTypeSolver() {
+        this(FileSystems.getFileSystem(JRT_URI), false);
+    }
+
+    /**
+     * Create a {@link JrtTypeSolver} for the image of the JDK installed in {@code javaHome}.
+     *
+     * @param javaHome The home directory of a JDK 9 or later.
+     * @throws IOException If the image of the JDK cannot be opened.
+     */
+    public JrtTypeSolver(Path javaHome) throws IOException {
+        this(FileSystems.newFileSystem(JRT_URI, Collections.singletonMap("java.home", javaHome.toString())), true);
+    }
+
+    private JrtTypeSolver(FileSystem fileSystem, boolean ownsFileSystem) {
+        this.fileSystem = fileSystem;
+        this.ownsFileSystem = ownsFileSystem;
+        classPool.appendClassPath(new JrtClassPath());
+    }
+
+    @Override
+    public TypeSolver getParent() {
+        return parent;
+    }
+
+    @Override
+    public void setParent(TypeSolver parent) {
+        Objects.requireNonNull(parent);
+        if (this.parent != null) {
+            throw new IllegalStateException("This TypeSolver already has a parent.");
+        }
+        if (parent == this) {
+            throw new IllegalStateException("The parent of this TypeSolver cannot be itself.");
+        }
+        this.parent = parent;
+    }
+
+    /**
+     * Get the packages of the image, with the directories of the modules containing them.
+     * The {@code /packages} directory of the image links each package to its modules.
+     */
+    private Map<String, List<Path>> packageDirectories() {
+        Map<String, List<Path>> directories = packageDirectories;
+        if (directories != null) {
+            return directories;
+        }
+        directories = new HashMap<>();
+        try (DirectoryStream<Path> packages = Files.newDirectoryStream(fileSystem.getPath("/packages"))) {
+            for (Path packagePath : packages) {
+                String packageName = packagePath.getFileName().toString();
+                List<Path> moduleDirectories = new ArrayList<>(1);
+                try (Stream<Path> modules = Files.list(packagePath)) {
+                    modules.forEach(module -> moduleDirectories.add(fileSystem.getPath(
+                            "/modules", module.getFileName().toString(), packageName.replace('.', '/'))));
+                }
+                directories.put(packageName, moduleDirectories);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read the packages of the JDK image.", e);
+        }
+        packageDirectories = directories;
+        return directories;
+    }
+
+    /**
+     * Find the class file of a class.
+     *
+     * @param packageName The name of the package of the class.
+     * @param binaryName  The name of the class within the package, with a {@code $} before the names of nested classes.
+     * @return The class file if it exists.
+     */
+    private Optional<Path> findClassFile(String packageName, String binaryName) {
+        List<Path> directories = packageDirectories().get(packageName);
+        if (directories != null) {
+            for (Path directory : directories) {
+                Path classFile = directory.resolve(binaryName + CLASS_EXTENSION);
+                if (Files.exists(classFile)) {
+                    return Optional.of(classFile);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+        ResolutionListener listener = ResolutionListeners.of(this);
+        if (listener == null) {
+            return tryToSolveTypeImpl(name);
+        }
+        long start = System.nanoTime();
+        SymbolReference<ResolvedReferenceTypeDeclaration> ref = tryToSolveTypeImpl(name);
+        listener.typeSolved(this, name, ref.isSolved(), System.nanoTime() - start);
+        return ref;
+    }
+
+    private SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveTypeImpl(String name) {
+        ResolvedReferenceTypeDeclaration solved = solvedTypes.get(name);
+        if (solved != null) {
+            return SymbolReference.solved(solved);
+        }
+        // Any dot could separate the package from the class, as packages nest and classes can be nested too
+        for (int dot = name.indexOf('.'); dot >= 0; dot = name.indexOf('.', dot + 1)) {
+            String packageName = name.substring(0, dot);
+            String binaryName = name.substring(dot + 1).replace('.', '$');
+            if (findClassFile(packageName, binaryName).isPresent()) {
+                try {
+                    solved = JavassistFactory.toTypeDeclaration(classPool.get(packageName + '.' + binaryName), getRoot());
+                } catch (NotFoundException e) {
+                    throw new IllegalStateException(String.format("Unable to read the class file of %s.", name), e);
+                }
+                solvedTypes.put(name, solved);
+                return SymbolReference.solved(solved);
+            }
+        }
+        return SymbolReference.unsolved();
+    }
+
+    @Override
+    public Optional<Set<String>> getKnownPackages() {
+        return Optional.of(Collections.unmodifiableSet(packageDirectories().keySet()));
+    }
+
+    /**
+     * Close the image, if it is not the image of the running JDK.
+     */
+    @Override
+    public void close() throws IOException {
+        if (ownsFileSystem) {
+            fileSystem.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "JrtTypeSolver{" + "fileSystem=" + fileSystem + ", parent=" + parent + '}';
+    }
+
+    /**
+     * Lets javassist read the class files of the image, for the classes referenced by the classes it has read.
+     */
+    private class JrtClassPath implements ClassPath {
+
+        private Optional<Path> classFileOf(String className) {
+            int lastDot = className.lastIndexOf('.');
+            if (lastDot < 0) {
+                return Optional.empty();
+            }
+            return findClassFile(className.substring(0, lastDot), className.substring(lastDot + 1));
+        }
+
+        @Override
+        public InputStream openClassfile(String className) throws NotFoundException {
+            Optional<Path> classFile = classFileOf(className);
+            if (!classFile.isPresent()) {
+                return null;
+            }
+            try {
+                return Files.newInputStream(classFile.get());
+            } catch (IOException e) {
+                throw new NotFoundException(className, e);
+            }
+        }
+
+        @Override
+        public URL find(String className) {
+            Optional<Path> classFile = classFileOf(className);
+            try {
+                return classFile.isPresent() ? classFile.get().toUri().toURL() : null;
+            } catch (MalformedURLException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -50,6 +50,11 @@ public class ReflectionTypeSolver extends ClassLoaderTypeSolver {
         this(true);
     }
 
+    @Override
+    protected boolean hasClassFilesAsResources() {
+        return true;
+    }
+
     @Override
     protected boolean filterName(String name) {
         return !jreOnly || (name.startsWith("java.") || name.startsWith("javax."));
@@ -124,6 +124,32 @@ public class TypeSolverBuilder {
         return with(classLoaderTypeSolver);
     }
 
+    // Builders for JDK images
+
+    /**
+     * Allow the type solver to resolve types that are
+     * defined in the image of the running JDK, without loading them.
+     *
+     * @return the current builder.
+     * @see JrtTypeSolver
+     */
+    public TypeSolverBuilder withCurrentJDKImage() {
+        return with(new JrtTypeSolver());
+    }
+
+    /**
+     * Allow the type solver to resolve types that are
+     * defined in the image of another JDK, for example to analyse code written for another release.
+     *
+     * @param javaHome The home directory of a JDK 9 or later.
+     * @return the current builder.
+     * @throws IOException If an I/O exception occurs while opening the image.
+     * @see JrtTypeSolver
+     */
+    public TypeSolverBuilder withJDKImage(@NonNull Path javaHome) throws IOException {
+        return with(new JrtTypeSolver(javaHome));
+    }
+
     // Builders for JARS
 
     /**
@@ -1,9 +0,0 @@
-public class JML {
-    public T<T> \
-
-    old(T obj);
-
-    public T<T> \
-
-    fresh(T obj);
-}
\ No newline at end of file
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.javaparser.resolution.cache.CacheStats;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class BoundedCacheTest {
+
+    @Test
+    void put_ShouldStoreTheValue() {
+        BoundedCache<String, String> cache = BoundedCache.create(10);
+        assertTrue(cache.isEmpty());
+        cache.put("key", "value");
+        assertFalse(cache.isEmpty());
+        assertTrue(cache.contains("key"));
+        assertEquals(Optional.of("value"), cache.get("key"));
+        cache.put("key", "other");
+        assertEquals(1, cache.size());
+        assertEquals(Optional.of("other"), cache.get("key"));
+        cache.remove("key");
+        assertFalse(cache.get("key").isPresent());
+    }
+
+    @Test
+    void keepsEntriesWhoseKeysAreNoLongerReferenced() {
+        BoundedCache<String, String> cache = BoundedCache.create(10);
+        cache.put(new String("java.lang.Object"), "value");
+        System.gc();
+        assertEquals(Optional.of("value"), cache.get(new String("java.lang.Object")));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntries() {
+        BoundedCache<Integer, String> cache = BoundedCache.create(3);
+        cache.put(1, "1");
+        cache.put(2, "2");
+        cache.put(3, "3");
+        cache.get(1);
+        cache.put(4, "4");
+        assertEquals(3, cache.size());
+        assertTrue(cache.contains(1));
+        assertFalse(cache.contains(2));
+        assertTrue(cache.contains(3));
+        assertTrue(cache.contains(4));
+        assertEquals(1, cache.stats().evictionCount());
+    }
+
+    @Test
+    void entriesUsedAgainSurviveAScan() {
+        BoundedCache<Integer, String> cache = BoundedCache.create(10);
+        for (int i = 0; i < 5; i++) {
+            cache.put(i, "hot");
+            cache.get(i);
+        }
+        for (int i = 100; i < 200; i++) {
+            cache.put(i, "cold");
+        }
+        for (int i = 0; i < 5; i++) {
+            assertTrue(cache.contains(i), "hot entry " + i);
+        }
+        assertEquals(10, cache.size());
+    }
+
+    @Test
+    void boundsTheTotalWeight() {
+        BoundedCache<String, String> cache = BoundedCache.create(10, (key, value) -> value.length());
+        cache.put("a", "12345");
+        cache.put("b", "1234");
+        cache.put("c", "12");
+        assertFalse(cache.contains("a"));
+        assertTrue(cache.contains("b"));
+        assertTrue(cache.contains("c"));
+        cache.put("d", "12345678901");
+        assertFalse(cache.contains("d"));
+    }
+
+    @Test
+    void countsHitsMissesAndEvictions() {
+        BoundedCache<Integer, String> cache = BoundedCache.create(2);
+        cache.get(1);
+        cache.put(1, "1");
+        cache.get(1);
+        cache.get(1);
+        cache.put(2, "2");
+        cache.put(3, "3");
+        CacheStats stats = cache.stats();
+        assertEquals(2, stats.hitCount());
+        assertEquals(1, stats.missCount());
+        assertEquals(3, stats.requestCount());
+        assertEquals(1, stats.evictionCount());
+    }
+
+    @Test
+    void staysWithinItsBoundWhenUsedConcurrently() throws Exception {
+        BoundedCache<Integer, Integer> cache = BoundedCache.create(1000);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int offset = t * 10_000;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        int key = offset + i % 3000;
+                        if (!cache.get(key).isPresent()) {
+                            cache.put(key, key);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(cache.size() <= 1000, "size " + cache.size());
+        CacheStats stats = cache.stats();
+        assertEquals(40_000, stats.requestCount());
+        assertEquals(stats.missCount() - cache.size(), stats.evictionCount());
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> BoundedCache.create(0));
+        BoundedCache<String, String> cache = BoundedCache.create(1);
+        assertThrows(NullPointerException.class, () -> cache.put(null, ""));
+        assertThrows(NullPointerException.class, () -> cache.put("", null));
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver.javaparsermodel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.VariableDeclarationExpr;
+import com.github.javaparser.ast.stmt.ReturnStmt;
+import com.github.javaparser.ast.type.PrimitiveType;
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.types.ResolvedPrimitiveType;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import java.lang.ref.WeakReference;
+import org.junit.jupiter.api.Test;
+
+class ResolvedTypeStoreTest {
+
+    private static final String SOURCE = "class A {\n"
+            + "    int f;\n"
+            + "    int m() { int x = 1; return x + f; }\n"
+            + "    int n() { return f; }\n"
+            + "}\n";
+
+    private final TypeSolver typeSolver = new ReflectionTypeSolver();
+
+    private final ResolvedTypeStore store = JavaParserFacade.get(typeSolver).getResolvedTypes();
+
+    private CompilationUnit parse() {
+        ParserConfiguration configuration =
+                new ParserConfiguration().setSymbolResolver(new JavaSymbolSolver(typeSolver));
+        return new JavaParser(configuration).parse(SOURCE).getResult().get();
+    }
+
+    private static MethodDeclaration method(CompilationUnit cu, String name) {
+        return cu.getType(0).getMethodsByName(name).get(0);
+    }
+
+    private static Expression returned(MethodDeclaration method) {
+        return method.findFirst(ReturnStmt.class).get().getExpression().get();
+    }
+
+    @Test
+    void keepsTheTypesAsideOfTheNodes() {
+        CompilationUnit cu = parse();
+        Expression sum = returned(method(cu, "m"));
+        assertEquals("int", sum.calculateResolvedType().describe());
+
+        assertTrue(store.contains(sum, true));
+        assertTrue(sum.getDataKeys().isEmpty());
+        store.clear(cu);
+        assertEquals(0, store.size());
+        assertFalse(store.contains(sum, true));
+        assertEquals("int", sum.calculateResolvedType().describe());
+    }
+
+    @Test
+    void dropsTheTypesOfTheModifiedBody() {
+        CompilationUnit cu = parse();
+        Expression inM = returned(method(cu, "m"));
+        Expression inN = returned(method(cu, "n"));
+        inM.calculateResolvedType();
+        inN.calculateResolvedType();
+
+        method(cu, "m").findFirst(VariableDeclarationExpr.class).get()
+                .getVariable(0).setType(PrimitiveType.longType());
+        assertFalse(store.contains(inM, true));
+        assertTrue(store.contains(inN, true));
+        assertEquals("long", inM.calculateResolvedType().describe());
+    }
+
+    @Test
+    void dropsTheTypesOfTheTreeWhenADeclarationChanges() {
+        CompilationUnit cu = parse();
+        Expression inN = returned(method(cu, "n"));
+        assertEquals("int", inN.calculateResolvedType().describe());
+
+        cu.getType(0).getFieldByName("f").get().getVariable(0).setType(PrimitiveType.doubleType());
+        assertFalse(store.contains(inN, true));
+        assertEquals("double", inN.calculateResolvedType().describe());
+    }
+
+    @Test
+    void dropsTheTypesOfRemovedNodes() {
+        CompilationUnit cu = parse();
+        MethodDeclaration n = method(cu, "n");
+        Expression inN = returned(n);
+        inN.calculateResolvedType();
+
+        n.remove();
+        assertFalse(store.contains(inN, true));
+    }
+
+    @Test
+    void dropsTheTypesWithTheirTree() {
+        CompilationUnit cu = parse();
+        returned(method(cu, "m")).calculateResolvedType();
+        assertTrue(store.size() > 0);
+
+        WeakReference<CompilationUnit> reference = new WeakReference<>(cu);
+        cu = null;
+        for (int i = 0; i < 100 && reference.get() != null; i++) {
+            System.gc();
+        }
+        assertNull(reference.get());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void aCloneHasItsOwnTypes() {
+        CompilationUnit cu = parse();
+        Expression inN = returned(method(cu, "n"));
+        inN.calculateResolvedType();
+
+        CompilationUnit clone = cu.clone();
+        Expression cloneInN = returned(method(clone, "n"));
+        assertEquals("int", cloneInN.calculateResolvedType().describe());
+        assertTrue(store.contains(cloneInN, true));
+        clone.getType(0).getFieldByName("f").get().getVariable(0).setType(PrimitiveType.doubleType());
+        assertFalse(store.contains(cloneInN, true));
+        assertTrue(store.contains(inN, true));
+        assertEquals("double", cloneInN.calculateResolvedType().describe());
+        assertEquals("int", inN.calculateResolvedType().describe());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedTypes() {
+        ResolvedTypeStore bounded = new ResolvedTypeStore(2);
+        CompilationUnit cu = parse();
+        NameExpr[] names = cu.findAll(NameExpr.class).toArray(new NameExpr[0]);
+        bounded.put(names[0], true, ResolvedPrimitiveType.INT);
+        bounded.put(names[1], false, ResolvedPrimitiveType.LONG);
+        bounded.find(names[0], true);
+        bounded.put(names[2], true, ResolvedPrimitiveType.INT);
+
+        assertEquals(2, bounded.size());
+        assertEquals(ResolvedPrimitiveType.INT, bounded.find(names[0], true).get());
+        assertFalse(bounded.contains(names[0], false));
+        assertFalse(bounded.contains(names[1], false));
+        bounded.clear();
+        assertEquals(0, bounded.size());
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver.javaparsermodel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.stmt.BlockStmt;
+import com.github.javaparser.ast.stmt.ExpressionStmt;
+import com.github.javaparser.ast.stmt.ForStmt;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.resolution.declarations.ResolvedValueDeclaration;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ScopeBindingsTest {
+
+    private static final String SOURCE = "import java.util.*;\n"
+            + "class A {\n"
+            + "    int f;\n"
+            + "    int x;\n"
+            + "    int m(int p, List<String> list) {\n"
+            + "        int x = p + f;\n"
+            + "        for (int i = 0; i < x; i++) {\n"
+            + "            x += i;\n"
+            + "        }\n"
+            + "        for (String s : list) {\n"
+            + "            x += s.length();\n"
+            + "        }\n"
+            + "        try (Scanner sc = new Scanner(\"\")) {\n"
+            + "            x += sc.nextInt();\n"
+            + "        } catch (RuntimeException e) {\n"
+            + "            x += e.hashCode();\n"
+            + "        }\n"
+            + "        class Local { int l = f; }\n"
+            + "        Local local = new Local();\n"
+            + "        Runnable r = new Runnable() {\n"
+            + "            int x = 2;\n"
+            + "            public void run() { f = x + p; }\n"
+            + "        };\n"
+            + "        list.forEach(it -> f += it.length() + x);\n"
+            + "        Object o = list;\n"
+            + "        if (o instanceof List l && l.isEmpty()) {\n"
+            + "            x += l.size();\n"
+            + "        }\n"
+            + "        return x + local.l;\n"
+            + "    }\n"
+            + "    int n() { return x; }\n"
+            + "}\n";
+
+    private static CompilationUnit parse() {
+        ParserConfiguration configuration = new ParserConfiguration()
+                .setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17)
+                .setSymbolResolver(new JavaSymbolSolver(new ReflectionTypeSolver()));
+        ParseResult<CompilationUnit> result = new JavaParser(configuration).parse(SOURCE);
+        assertTrue(result.isSuccessful(), result.getProblems()::toString);
+        return result.getResult().get();
+    }
+
+    private static List<String> resolveAllNames(CompilationUnit cu) {
+        List<String> resolved = new ArrayList<>();
+        for (NameExpr name : cu.findAll(NameExpr.class)) {
+            String declaration;
+            try {
+                ResolvedValueDeclaration value = name.resolve();
+                declaration = value.getName() + (value.isField() ? " field" : " local") + " : "
+                        + name.calculateResolvedType().describe();
+            } catch (RuntimeException e) {
+                declaration = e.getClass().getSimpleName();
+            }
+            resolved.add(name.getBegin().get() + " " + name + " -> " + declaration);
+        }
+        return resolved;
+    }
+
+    @Test
+    void solvesNamesLikeTheContexts() {
+        List<String> expected = resolveAllNames(parse());
+        // the context of a for statement does not look at its own variables when asked for their type
+        int i = expected.indexOf("(line 8,col 18) i -> UnsolvedSymbolException");
+        expected.set(i, "(line 8,col 18) i -> i local : int");
+        CompilationUnit cu = parse();
+        ScopeBindings.bind(cu);
+        assertEquals(expected, resolveAllNames(cu));
+    }
+
+    @Test
+    void findsTheScopeDeclaringAName() {
+        CompilationUnit cu = parse();
+        ScopeBindings.bind(cu);
+        MethodDeclaration m = cu.findFirst(MethodDeclaration.class).get();
+        BlockStmt body = m.getBody().get();
+        ForStmt forStmt = body.findFirst(ForStmt.class).get();
+        NameExpr xInFor = forStmt.getBody().findFirst(NameExpr.class, n -> n.getNameAsString().equals("x")).get();
+        NameExpr iInFor = forStmt.getBody().findFirst(NameExpr.class, n -> n.getNameAsString().equals("i")).get();
+
+        assertSame(body.getStatement(0), ScopeBindings.findDeclarationScope("x", xInFor).get());
+        assertSame(forStmt, ScopeBindings.findDeclarationScope("i", iInFor).get());
+        assertSame(m.getParentNode().get(), ScopeBindings.findDeclarationScope("f", xInFor).get());
+        // pattern variables are left to the contexts
+        NameExpr l = cu.findAll(NameExpr.class, n -> n.getNameAsString().equals("l")).get(0);
+        assertFalse(ScopeBindings.findDeclarationScope("l", l).isPresent());
+        // so are unbound compilation units
+        assertFalse(ScopeBindings.findDeclarationScope("x", parse().findFirst(NameExpr.class).get())
+                .isPresent());
+    }
+
+    @Test
+    void knowsTheNamesOfEachScope() {
+        CompilationUnit cu = parse();
+        ScopeBindings bindings = ScopeBindings.bind(cu);
+        MethodDeclaration m = cu.findFirst(MethodDeclaration.class).get();
+
+        ScopeBindings.Scope method = bindings.getScope(m).get();
+        assertEquals(2, method.getValues().size());
+        assertTrue(method.getValues().containsKey("list"));
+        assertEquals("Local", method.getLocalTypes().get("Local").getNameAsString());
+        ScopeBindings.Scope body = bindings.getScope(m.getBody().get()).get();
+        assertTrue(body.getValues().keySet().containsAll(List.of("x", "local", "r", "o")));
+        assertFalse(bindings.getScope(m.getBody().get().getStatement(0)).isPresent());
+        assertThrows(UnsupportedOperationException.class, () -> body.getValues().clear());
+    }
+
+    @Test
+    void followsChangesOfTheAst() {
+        CompilationUnit cu = parse();
+        ScopeBindings bindings = ScopeBindings.bind(cu);
+        MethodDeclaration n = cu.getType(0).getMethodsByName("n").get(0);
+        NameExpr x = n.findFirst(NameExpr.class).get();
+        assertTrue(ScopeBindings.isTypeScope(ScopeBindings.findDeclarationScope("x", x).get()));
+
+        BlockStmt body = n.getBody().get();
+        body.addStatement(0, new ExpressionStmt(new com.github.javaparser.ast.expr.VariableDeclarationExpr(
+                new VariableDeclarator(new ClassOrInterfaceType(null, "String"), "x"))));
+        Node scope = ScopeBindings.findDeclarationScope("x", x).get();
+        assertSame(body.getStatement(0), scope);
+        assertTrue(bindings.getScope(body).get().getValues().containsKey("x"));
+        assertEquals("java.lang.String", x.calculateResolvedType().describe());
+    }
+
+    @Test
+    void aCloneIsBoundOnItsOwn() {
+        CompilationUnit cu = parse();
+        ScopeBindings bindings = ScopeBindings.bind(cu);
+        CompilationUnit clone = cu.clone();
+        assertFalse(ScopeBindings.of(clone).isPresent());
+
+        MethodDeclaration n = clone.getType(0).getMethodsByName("n").get(0);
+        NameExpr x = n.findFirst(NameExpr.class).get();
+        BlockStmt body = n.getBody().get();
+        body.addStatement(0, new ExpressionStmt(new com.github.javaparser.ast.expr.VariableDeclarationExpr(
+                new VariableDeclarator(new ClassOrInterfaceType(null, "String"), "x"))));
+        assertFalse(ScopeBindings.findDeclarationScope("x", x).isPresent());
+
+        assertNotSame(bindings, ScopeBindings.bind(clone));
+        assertSame(body.getStatement(0), ScopeBindings.findDeclarationScope("x", x).get());
+        NameExpr original = cu.getType(0).getMethodsByName("n").get(0).findFirst(NameExpr.class).get();
+        assertTrue(ScopeBindings.isTypeScope(ScopeBindings.findDeclarationScope("x", original).get()));
+    }
+
+    @Test
+    void anUnboundCompilationUnitIsLeftToTheContexts() {
+        CompilationUnit cu = parse();
+        ScopeBindings.bind(cu);
+        NameExpr x = cu.getType(0).getMethodsByName("n").get(0).findFirst(NameExpr.class).get();
+        assertTrue(ScopeBindings.findDeclarationScope("x", x).isPresent());
+
+        ScopeBindings.unbind(cu);
+        assertFalse(ScopeBindings.of(cu).isPresent());
+        assertFalse(ScopeBindings.findDeclarationScope("x", x).isPresent());
+        assertEquals("int", x.calculateResolvedType().describe());
+    }
+}
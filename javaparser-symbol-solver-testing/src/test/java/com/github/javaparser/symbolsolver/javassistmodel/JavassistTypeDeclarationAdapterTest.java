@@ -24,6 +24,9 @@ package com.github.javaparser.symbolsolver.javassistmodel;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import com.github.javaparser.resolution.TypeSolver;
 import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
@@ -37,6 +40,7 @@ import java.util.stream.Stream;
 import javassist.ClassPool;
 import javassist.CtClass;
 import javassist.NotFoundException;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -62,6 +66,22 @@ class JavassistTypeDeclarationAdapterTest extends AbstractResolutionTest {
                         .collect(Collectors.toList()));
     }
 
+    @Test
+    void theDeclarationsAndTheirMembersAreComputedOnce() throws NotFoundException {
+        TypeSolver typeSolver = new ReflectionTypeSolver(false);
+        CtClass clazz = new ClassPool(true).getCtClass("com.github.javaparser.ast.Node");
+
+        ResolvedReferenceTypeDeclaration declaration = JavassistFactory.toTypeDeclaration(clazz, typeSolver);
+        assertSame(declaration, JavassistFactory.toTypeDeclaration(clazz, typeSolver));
+        assertNotSame(declaration, JavassistFactory.toTypeDeclaration(clazz, new ReflectionTypeSolver(false)));
+
+        JavassistTypeDeclarationAdapter adapter = new JavassistTypeDeclarationAdapter(clazz, typeSolver, declaration);
+        adapter.getAncestors(false).clear();
+        adapter.getDeclaredMethods().clear();
+        assertEquals(6, adapter.getAncestors(false).size());
+        assertFalse(adapter.getDeclaredMethods().isEmpty());
+    }
+
     /**
      * Class which provider arguments to be tested in {@link JavassistTypeDeclarationAdapterTest#testGetAncestors}
      */
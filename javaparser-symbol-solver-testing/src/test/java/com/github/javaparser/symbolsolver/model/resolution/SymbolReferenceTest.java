@@ -108,4 +108,31 @@ class SymbolReferenceTest {
         assertFalse(symbol.isSolved());
         assertThrows(UnsolvedSymbolException.class, symbol::getCorrespondingDeclaration);
     }
+
+    @Test
+    void testUnresolvedSymbolWithReason() {
+        SymbolReference<ResolvedClassDeclaration> symbol = SymbolReference.unsolved("foo.Bar");
+
+        assertFalse(symbol.isSolved());
+        assertEquals("foo.Bar", symbol.getUnsolvedReason().get());
+        assertFalse(SymbolReference.unsolved().getUnsolvedReason().isPresent());
+        UnsolvedSymbolException e = assertThrows(UnsolvedSymbolException.class, symbol::getCorrespondingDeclaration);
+        assertEquals("foo.Bar", e.getName());
+        assertEquals("Unsolved symbol : foo.Bar", e.getMessage());
+
+        e = assertThrows(UnsolvedSymbolException.class, SymbolReference.unsolved()::getCorrespondingDeclaration);
+        assertEquals("Unsolved symbol : Corresponding declaration not available for unsolved symbol.", e.getMessage());
+    }
+
+    @Test
+    void testUnsolvedSymbolExceptionRecordsItsStackTraceByDefault() {
+        assertTrue(UnsolvedSymbolException.isRecordingStackTraces());
+        assertNotEquals(0, new UnsolvedSymbolException("foo").getStackTrace().length);
+        UnsolvedSymbolException.setRecordingStackTraces(false);
+        try {
+            assertEquals(0, new UnsolvedSymbolException("foo").getStackTrace().length);
+        } finally {
+            UnsolvedSymbolException.setRecordingStackTraces(true);
+        }
+    }
 }
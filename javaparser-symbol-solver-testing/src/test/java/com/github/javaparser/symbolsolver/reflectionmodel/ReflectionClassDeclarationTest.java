@@ -28,10 +28,13 @@ import com.github.javaparser.ast.AccessSpecifier;
 import com.github.javaparser.resolution.MethodUsage;
 import com.github.javaparser.resolution.TypeSolver;
 import com.github.javaparser.resolution.declarations.*;
+import com.github.javaparser.resolution.model.SymbolReference;
 import com.github.javaparser.resolution.model.typesystem.ReferenceTypeImpl;
+import com.github.javaparser.resolution.types.ResolvedPrimitiveType;
 import com.github.javaparser.resolution.types.ResolvedReferenceType;
 import com.github.javaparser.resolution.types.ResolvedTypeVariable;
 import com.github.javaparser.symbolsolver.AbstractSymbolResolutionTest;
+import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFacade;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
@@ -1509,6 +1512,49 @@ class ReflectionClassDeclarationTest extends AbstractSymbolResolutionTest {
         assertTrue(ancestors.isEmpty());
     }
 
+    @Test
+    void theDeclarationsAndTheirMembersAreComputedOnce() {
+        ResolvedReferenceTypeDeclaration string = ReflectionFactory.typeDeclarationFor(String.class, typeResolver);
+        assertSame(string, ReflectionFactory.typeDeclarationFor(String.class, typeResolver));
+        assertNotSame(string, ReflectionFactory.typeDeclarationFor(String.class, new ReflectionTypeSolver(false)));
+
+        string.getDeclaredMethods().clear();
+        assertFalse(string.getDeclaredMethods().isEmpty());
+        assertEquals(
+                "java.lang.String.indexOf(int)",
+                ((ReflectionClassDeclaration) string)
+                        .solveMethod("indexOf", Collections.singletonList(ResolvedPrimitiveType.INT), false)
+                        .getCorrespondingDeclaration()
+                        .getQualifiedSignature());
+        assertTrue(string.hasField("value"));
+        assertSame(string.getField("value"), string.getField("value"));
+    }
+
+    @Test
+    void theDeclarationsAreMemoizedForAnyTypeSolver() {
+        ResolvedReferenceTypeDeclaration string = ReflectionFactory.typeDeclarationFor(String.class, typeResolver);
+        assertSame(string, JavaParserFacade.get(typeResolver).getTypeDeclarationMemo().get(String.class));
+
+        TypeSolver thirdParty = new TypeSolver() {
+            @Override
+            public TypeSolver getParent() {
+                return null;
+            }
+
+            @Override
+            public void setParent(TypeSolver parent) {}
+
+            @Override
+            public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+                return typeResolver.tryToSolveType(name);
+            }
+        };
+        ResolvedReferenceTypeDeclaration thirdPartyString =
+                ReflectionFactory.typeDeclarationFor(String.class, thirdParty);
+        assertNotSame(string, thirdPartyString);
+        assertSame(thirdPartyString, ReflectionFactory.typeDeclarationFor(String.class, thirdParty));
+    }
+
     public static class ClassWithSyntheticConstructor {
 
         private ClassWithSyntheticConstructor() {}
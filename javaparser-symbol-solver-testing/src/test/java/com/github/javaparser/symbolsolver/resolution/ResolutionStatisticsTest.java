@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver.resolution;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.resolution.ResolutionListeners;
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.declarations.ResolvedMethodDeclaration;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.model.SymbolReference;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typeinference.TypeInference;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import org.junit.jupiter.api.Test;
+
+class ResolutionStatisticsTest {
+
+    private static final String SOURCE = "import java.util.*;\n"
+            + "class A {\n"
+            + "    List<String> l = new ArrayList<>();\n"
+            + "    List<List<String>> s = Collections.singletonList(l);\n"
+            + "    int m() { return Collections.max(Arrays.asList(1, 2)) + l.size(); }\n"
+            + "}\n";
+
+    private final ReflectionTypeSolver reflectionTypeSolver = new ReflectionTypeSolver();
+
+    private final CombinedTypeSolver typeSolver = new CombinedTypeSolver(reflectionTypeSolver);
+
+    private final JavaSymbolSolver symbolSolver = new JavaSymbolSolver(typeSolver);
+
+    private CompilationUnit parse() {
+        return new JavaParser(new ParserConfiguration().setSymbolResolver(symbolSolver))
+                .parse(SOURCE)
+                .getResult()
+                .get();
+    }
+
+    @Test
+    void countsTheStepsOfTheResolutions() {
+        ResolutionStatistics statistics = new ResolutionStatistics();
+        symbolSolver.setResolutionListener(statistics);
+        try {
+            CompilationUnit cu = parse();
+            MethodCallExpr singletonList = cu.findFirst(MethodCallExpr.class).get();
+            ResolvedMethodDeclaration method = singletonList.resolve();
+            cu.findAll(MethodCallExpr.class).forEach(MethodCallExpr::resolve);
+            assertTrue(new TypeInference(typeSolver).invocationApplicabilityInference(singletonList, method));
+
+            assertTrue(statistics.getTypeSolverCalls(typeSolver) > 0);
+            assertTrue(statistics.getTypeSolverCalls(reflectionTypeSolver) > 0);
+            assertTrue(statistics.getContextCreations(MethodCallExpr.class) > 0);
+            assertTrue(statistics.getMethodSelections() >= 3);
+            assertEquals(1, statistics.getTypeInferences());
+            String report = statistics.report();
+            assertTrue(report.contains("  CombinedTypeSolver "), report);
+            assertTrue(report.contains("  ReflectionTypeSolver "), report);
+            assertTrue(report.contains("  CombinedTypeSolver types "), report);
+            assertTrue(report.contains("inclusive (ms)"), report);
+
+            statistics.reset();
+            assertEquals(0, statistics.getTypeSolverCalls(typeSolver));
+            assertEquals(0, statistics.getMethodSelections());
+        } finally {
+            symbolSolver.setResolutionListener(null);
+        }
+    }
+
+    @Test
+    void countsNothingOnceUnregistered() {
+        ResolutionStatistics statistics = new ResolutionStatistics();
+        symbolSolver.setResolutionListener(statistics);
+        symbolSolver.setResolutionListener(null);
+
+        parse().findAll(MethodCallExpr.class).forEach(MethodCallExpr::resolve);
+        assertEquals(0, statistics.getTypeSolverCalls(typeSolver));
+        assertEquals(0, statistics.getMethodSelections());
+    }
+
+    @Test
+    void theListenerIsHeldByTheRootOfTheHierarchy() {
+        ResolutionStatistics statistics = new ResolutionStatistics();
+        ReflectionTypeSolver added = new ReflectionTypeSolver();
+        ResolutionStatistics formerStatistics = new ResolutionStatistics();
+        new JavaSymbolSolver(added).setResolutionListener(formerStatistics);
+        symbolSolver.setResolutionListener(statistics);
+        try {
+            assertSame(statistics, ResolutionListeners.of(typeSolver));
+            assertSame(statistics, ResolutionListeners.of(reflectionTypeSolver));
+            assertSame(formerStatistics, ResolutionListeners.of(added));
+
+            typeSolver.add(added);
+            added.tryToSolveType("java.lang.String");
+            assertEquals(1, statistics.getTypeSolverCalls(added));
+            assertEquals(0, formerStatistics.getTypeSolverCalls(added));
+        } finally {
+            symbolSolver.setResolutionListener(null);
+        }
+        assertNull(ResolutionListeners.of(typeSolver));
+        assertNull(ResolutionListeners.of(reflectionTypeSolver));
+    }
+
+    @Test
+    void typeSolversWithoutAListenerFieldCanBeRoots() {
+        TypeSolver root = new TypeSolver() {
+            private final TypeSolver delegate = new ReflectionTypeSolver();
+
+            @Override
+            public TypeSolver getParent() {
+                return null;
+            }
+
+            @Override
+            public void setParent(TypeSolver parent) {}
+
+            @Override
+            public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+                return delegate.tryToSolveType(name);
+            }
+        };
+        ResolutionStatistics statistics = new ResolutionStatistics();
+        JavaSymbolSolver solver = new JavaSymbolSolver(root);
+        solver.setResolutionListener(statistics);
+        try {
+            assertSame(statistics, ResolutionListeners.of(root));
+        } finally {
+            solver.setResolutionListener(null);
+        }
+        assertNull(ResolutionListeners.of(root));
+    }
+}
@@ -23,10 +23,15 @@ package com.github.javaparser.symbolsolver.resolution.javaparser.contexts;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.github.javaparser.ParseException;
+import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.resolution.Context;
 import com.github.javaparser.resolution.TypeSolver;
@@ -268,4 +273,96 @@ class CompilationUnitContextResolutionTest extends AbstractResolutionTest {
                         .asReferenceType()
                         .getQualifiedName());
     }
+
+    @Test
+    void solveTypeAsksTheTypeSolverOncePerImportAndName() {
+        CompilationUnit cu = StaticJavaParser.parse("import java.util.List;\nimport java.io.*;\nclass A {}");
+        TypeSolver typeSolver = spy(new ReflectionTypeSolver());
+
+        for (int i = 0; i < 3; i++) {
+            Context context = new CompilationUnitContext(cu, typeSolver);
+            assertEquals("java.util.List", context.solveType("List").getCorrespondingDeclaration().getQualifiedName());
+            assertEquals("java.io.File", context.solveType("File").getCorrespondingDeclaration().getQualifiedName());
+            assertFalse(context.solveType("Missing").isSolved());
+        }
+        verify(typeSolver, times(1)).tryToSolveType("java.util.List");
+        verify(typeSolver, times(1)).tryToSolveType("java.io.File");
+        verify(typeSolver, times(3)).tryToSolveType("java.io.Missing");
+    }
+
+    @Test
+    void solveTypeKeepsATablePerTypeSolver() {
+        CompilationUnit cu = StaticJavaParser.parse("import java.util.List;\nclass A {}");
+        TypeSolver first = spy(new ReflectionTypeSolver());
+        TypeSolver second = spy(new ReflectionTypeSolver());
+
+        for (int i = 0; i < 3; i++) {
+            for (TypeSolver typeSolver : ImmutableList.of(first, second)) {
+                assertEquals(
+                        "java.util.List",
+                        new CompilationUnitContext(cu, typeSolver)
+                                .solveType("List")
+                                .getCorrespondingDeclaration()
+                                .getQualifiedName());
+            }
+        }
+        verify(first, times(1)).tryToSolveType("java.util.List");
+        verify(second, times(1)).tryToSolveType("java.util.List");
+    }
+
+    @Test
+    void solveTypeFindsTheTypesTheTypeSolverLearnsLater() {
+        CompilationUnit cu = StaticJavaParser.parse("import foo.*;\nclass A {}");
+        CombinedTypeSolver combinedTypeSolver = new CombinedTypeSolver(new ReflectionTypeSolver());
+        Context context = new CompilationUnitContext(cu, combinedTypeSolver);
+        assertFalse(context.solveType("Bar").isSolved());
+
+        MemoryTypeSolver memoryTypeSolver = new MemoryTypeSolver();
+        ResolvedReferenceTypeDeclaration bar = mock(ResolvedReferenceTypeDeclaration.class);
+        memoryTypeSolver.addDeclaration("foo.Bar", bar);
+        combinedTypeSolver.add(memoryTypeSolver, true);
+        assertSame(bar, context.solveType("Bar").getCorrespondingDeclaration());
+    }
+
+    @Test
+    void solveTypeFollowsChangesOfTheImports() {
+        CompilationUnit cu = StaticJavaParser.parse("class A {}");
+        Context context = new CompilationUnitContext(cu, typeSolver);
+        assertFalse(context.solveType("List").isSolved());
+
+        cu.addImport("java.util.List");
+        assertEquals("java.util.List", context.solveType("List").getCorrespondingDeclaration().getQualifiedName());
+
+        cu.getImport(0).setName("java.awt.List");
+        assertEquals("java.awt.List", context.solveType("List").getCorrespondingDeclaration().getQualifiedName());
+
+        cu.getImports().clear();
+        assertFalse(context.solveType("List").isSolved());
+    }
+
+    @Test
+    void solveTypeUsesTheImportsOfAClone() {
+        CompilationUnit cu = StaticJavaParser.parse("import java.util.List;\nclass A {}");
+        assertEquals(
+                "java.util.List",
+                new CompilationUnitContext(cu, typeSolver)
+                        .solveType("List")
+                        .getCorrespondingDeclaration()
+                        .getQualifiedName());
+
+        CompilationUnit clone = cu.clone();
+        clone.getImport(0).setName("java.awt.List");
+        assertEquals(
+                "java.awt.List",
+                new CompilationUnitContext(clone, typeSolver)
+                        .solveType("List")
+                        .getCorrespondingDeclaration()
+                        .getQualifiedName());
+        assertEquals(
+                "java.util.List",
+                new CompilationUnitContext(cu, typeSolver)
+                        .solveType("List")
+                        .getCorrespondingDeclaration()
+                        .getQualifiedName());
+    }
 }
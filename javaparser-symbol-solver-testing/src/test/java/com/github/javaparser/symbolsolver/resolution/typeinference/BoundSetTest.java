@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2015-2016 Federico Tomassetti
+ * Copyright (C) 2017-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver.resolution.typeinference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.declarations.ResolvedMethodDeclaration;
+import com.github.javaparser.resolution.declarations.ResolvedTypeParameterDeclaration;
+import com.github.javaparser.resolution.model.typesystem.ReferenceTypeImpl;
+import com.github.javaparser.resolution.types.ResolvedType;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typeinference.bounds.FalseBound;
+import com.github.javaparser.symbolsolver.resolution.typeinference.bounds.SameAsBound;
+import com.github.javaparser.symbolsolver.resolution.typeinference.bounds.SubtypeOfBound;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+class BoundSetTest {
+
+    private static final String STREAMS = "import java.util.*;\n"
+            + "import java.util.function.*;\n"
+            + "import java.util.stream.*;\n"
+            + "class Streams {\n"
+            + "    List<String> words = Arrays.asList(\"a\", \"bb\", \"ccc\");\n"
+            + "    List<Integer> lengths() {\n"
+            + "        return words.stream().map(String::length).collect(Collectors.toList());\n"
+            + "    }\n"
+            + "    Map<Integer, List<String>> byLength() {\n"
+            + "        return words.stream().collect(Collectors.groupingBy(String::length));\n"
+            + "    }\n"
+            + "    Optional<String> longest() { return words.stream().max(Comparator.comparing(String::length)); }\n"
+            + "    Set<String> upper() {\n"
+            + "        return words.stream().map(w -> w.toUpperCase()).filter(w -> !w.isEmpty())\n"
+            + "                .collect(Collectors.toSet());\n"
+            + "    }\n"
+            + "    String joined() {\n"
+            + "        return Stream.of(\"x\", \"y\").map(s -> s + s).collect(Collectors.joining(\",\"));\n"
+            + "    }\n"
+            + "    List<String> copy() {\n"
+            + "        List<String> list = new ArrayList<>(Collections.singletonList(\"q\"));\n"
+            + "        Collections.addAll(list, \"r\", \"s\");\n"
+            + "        return Collections.unmodifiableList(list);\n"
+            + "    }\n"
+            + "    int sum() { return IntStream.range(0, 10).boxed().map(i -> i * 2).reduce(0, Integer::sum); }\n"
+            + "    Optional<Integer> first() { return Optional.of(\"abc\").map(String::length).filter(n -> n > 1); }\n"
+            + "    Map<String, Integer> counts() {\n"
+            + "        return words.stream().collect(Collectors.toMap(Function.identity(), String::length));\n"
+            + "    }\n"
+            + "}\n";
+
+    private final TypeSolver typeSolver = new ReflectionTypeSolver();
+
+    private final ResolvedType integerType =
+            new ReferenceTypeImpl(typeSolver.solveType(Integer.class.getCanonicalName()));
+
+    private final ResolvedType objectType =
+            new ReferenceTypeImpl(typeSolver.solveType(Object.class.getCanonicalName()));
+
+    private static List<InferenceVariable> inferenceVariables(int count) {
+        List<InferenceVariable> variables = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            variables.add(new InferenceVariable("α" + i, mock(ResolvedTypeParameterDeclaration.class)));
+        }
+        return variables;
+    }
+
+    @Test
+    void derivedSetsDoNotSeeEachOther() {
+        List<InferenceVariable> alphas = inferenceVariables(3);
+        Bound x = new SubtypeOfBound(integerType, alphas.get(0));
+        Bound y = new SubtypeOfBound(alphas.get(1), objectType);
+        Bound z = new SameAsBound(alphas.get(2), integerType);
+
+        BoundSet b1 = BoundSet.empty().withBound(x);
+        BoundSet b2 = b1.withBound(y);
+        BoundSet b3 = b1.withBound(z);
+        BoundSet b4 = b2.withBound(z);
+
+        assertEquals("BoundSet{bounds=[" + x + "]}", b1.toString());
+        assertEquals("BoundSet{bounds=[" + x + ", " + y + "]}", b2.toString());
+        assertEquals("BoundSet{bounds=[" + x + ", " + z + "]}", b3.toString());
+        assertEquals("BoundSet{bounds=[" + x + ", " + y + ", " + z + "]}", b4.toString());
+        assertTrue(BoundSet.empty().isEmpty());
+    }
+
+    @Test
+    void addingAContainedBoundGivesTheSameSet() {
+        List<InferenceVariable> alphas = inferenceVariables(2);
+        BoundSet boundSet = BoundSet.empty()
+                .withBound(new SubtypeOfBound(integerType, alphas.get(0)))
+                .withBound(new SubtypeOfBound(alphas.get(1), objectType));
+        assertSame(boundSet, boundSet.withBound(new SubtypeOfBound(integerType, alphas.get(0))));
+    }
+
+    @Test
+    void equalityDoesNotDependOnTheOrder() {
+        List<InferenceVariable> alphas = inferenceVariables(2);
+        Bound x = new SubtypeOfBound(integerType, alphas.get(0));
+        Bound y = new SubtypeOfBound(alphas.get(1), objectType);
+
+        BoundSet xy = BoundSet.empty().withBound(x).withBound(y);
+        BoundSet yx = BoundSet.empty().withBound(y).withBound(x);
+        assertEquals(xy, yx);
+        assertEquals(xy.hashCode(), yx.hashCode());
+        assertNotEquals(xy, BoundSet.empty().withBound(x));
+        assertFalse(xy.containsFalse());
+        assertTrue(xy.withBound(FalseBound.getInstance()).containsFalse());
+    }
+
+    @Test
+    void resolutionUsesTheBoundsOfEachVariable() {
+        List<InferenceVariable> alphas = inferenceVariables(3);
+        BoundSet boundSet = BoundSet.empty();
+        for (InferenceVariable alpha : alphas) {
+            boundSet = boundSet.withBound(new SubtypeOfBound(alpha, objectType));
+        }
+        boundSet = boundSet.withBound(new SubtypeOfBound(integerType, alphas.get(0)));
+
+        assertEquals(1, boundSet.getProperUpperBoundsFor(alphas.get(1)).size());
+        InstantiationSet instantiations = boundSet.performResolution(alphas, typeSolver).get();
+        assertTrue(instantiations.toString().contains("α0"), instantiations.toString());
+    }
+
+    @Test
+    void incorporationOfAGrowingSet() {
+        List<InferenceVariable> alphas = inferenceVariables(30);
+        BoundSet boundSet = incorporateOneByOne(alphas);
+        assertFalse(boundSet.containsFalse());
+        BoundSet allBounds = BoundSet.empty();
+        for (InferenceVariable alpha : alphas) {
+            allBounds = allBounds.withBound(new SubtypeOfBound(integerType, alpha));
+        }
+        // already there, and already incorporated
+        assertSame(boundSet, boundSet.incorporate(allBounds, typeSolver));
+    }
+
+    @Test
+    void invocationApplicabilityInferenceOnStreams() {
+        Map<MethodCallExpr, ResolvedMethodDeclaration> genericCalls = genericCallsOf(STREAMS);
+        List<String> outcomes = inferAll(genericCalls);
+        assertTrue(outcomes.stream().anyMatch(outcome -> outcome.endsWith(": true")), outcomes::toString);
+        // the sets shared between inferences do not leak into the next ones
+        assertEquals(outcomes, inferAll(genericCalls));
+    }
+
+    /**
+     * Grows a bound set one bound at a time, incorporating each, the way inference does.
+     */
+    private BoundSet incorporateOneByOne(List<InferenceVariable> alphas) {
+        BoundSet boundSet = BoundSet.empty();
+        for (int i = 0; i < alphas.size(); i++) {
+            InferenceVariable alpha = alphas.get(i);
+            BoundSet newBounds = BoundSet.empty()
+                    .withBound(new SubtypeOfBound(integerType, alpha))
+                    .withBound(new SameAsBound(alpha, alphas.get((i + 1) % alphas.size())));
+            boundSet = boundSet.incorporate(newBounds, typeSolver);
+        }
+        return boundSet;
+    }
+
+    private Map<MethodCallExpr, ResolvedMethodDeclaration> genericCallsOf(String code) {
+        ParserConfiguration configuration =
+                new ParserConfiguration().setSymbolResolver(new JavaSymbolSolver(typeSolver));
+        CompilationUnit cu = new JavaParser(configuration).parse(code).getResult().get();
+        Map<MethodCallExpr, ResolvedMethodDeclaration> genericCalls = new LinkedHashMap<>();
+        for (MethodCallExpr call : cu.findAll(MethodCallExpr.class)) {
+            ResolvedMethodDeclaration method = call.resolve();
+            if (!method.getTypeParameters().isEmpty()) {
+                genericCalls.put(call, method);
+            }
+        }
+        return genericCalls;
+    }
+
+    private List<String> inferAll(Map<MethodCallExpr, ResolvedMethodDeclaration> genericCalls) {
+        List<String> outcomes = new ArrayList<>();
+        for (Map.Entry<MethodCallExpr, ResolvedMethodDeclaration> call : genericCalls.entrySet()) {
+            String outcome;
+            try {
+                outcome = String.valueOf(new TypeInference(typeSolver)
+                        .invocationApplicabilityInference(call.getKey(), call.getValue()));
+            } catch (UnsupportedOperationException e) {
+                // not every part of the inference is implemented
+                outcome = "unsupported";
+            }
+            outcomes.add(call.getKey() + ": " + outcome);
+        }
+        return outcomes;
+    }
+}
@@ -31,12 +31,19 @@ import com.github.javaparser.resolution.model.SymbolReference;
 import com.github.javaparser.symbolsolver.cache.InMemoryCache;
 import com.github.javaparser.symbolsolver.reflectionmodel.ReflectionClassDeclaration;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver.ExceptionHandlers;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Predicate;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Mockito;
@@ -174,4 +181,77 @@ class CombinedTypeSolverTest extends AbstractTypeSolverTest<CombinedTypeSolver>
         verify(cache).removeAll();
         verifyNoMoreInteractions(cache);
     }
+
+    @Test
+    void solversKnowingTheirPackagesAreOnlyAskedForNamesInThem() {
+        TypeSolver utilSolver = mock(TypeSolver.class);
+        when(utilSolver.getKnownPackages()).thenReturn(Optional.of(Collections.singleton("java.util")));
+        when(utilSolver.tryToSolveType(any())).thenReturn(SymbolReference.unsolved());
+        TypeSolver defaultPackageSolver = mock(TypeSolver.class);
+        when(defaultPackageSolver.getKnownPackages()).thenReturn(Optional.of(Collections.singleton("")));
+        when(defaultPackageSolver.tryToSolveType(any())).thenReturn(SymbolReference.unsolved());
+        TypeSolver unknownPackagesSolver = mock(TypeSolver.class);
+        when(unknownPackagesSolver.tryToSolveType(any())).thenReturn(SymbolReference.unsolved());
+        CombinedTypeSolver combinedSolver =
+                new CombinedTypeSolver(utilSolver, defaultPackageSolver, unknownPackagesSolver);
+        combinedSolver.setRoutingByPackage(true);
+
+        combinedSolver.tryToSolveType("java.lang.String");
+        combinedSolver.tryToSolveType("java.util.Map.Entry");
+        combinedSolver.tryToSolveType("java.utilities.Foo");
+
+        verify(utilSolver, never()).tryToSolveType("java.lang.String");
+        verify(utilSolver).tryToSolveType("java.util.Map.Entry");
+        verify(utilSolver, never()).tryToSolveType("java.utilities.Foo");
+        verify(defaultPackageSolver, times(3)).tryToSolveType(any());
+        verify(unknownPackagesSolver, times(3)).tryToSolveType(any());
+    }
+
+    @Test
+    void solversAreAskedInOrderAfterRouting() {
+        TypeSolver first = mock(TypeSolver.class);
+        when(first.getKnownPackages()).thenReturn(Optional.of(Collections.singleton("a")));
+        when(first.tryToSolveType(any())).thenReturn(SymbolReference.unsolved());
+        TypeSolver reflection = new ReflectionTypeSolver();
+        CombinedTypeSolver combinedSolver = new CombinedTypeSolver(first, reflection);
+        combinedSolver.setRoutingByPackage(true);
+        assertTrue(combinedSolver.tryToSolveType("java.lang.String").isSolved());
+        verify(first, never()).tryToSolveType(any());
+        assertFalse(combinedSolver.getKnownPackages().isPresent());
+
+        TypeSolver second = mock(TypeSolver.class);
+        when(second.getKnownPackages()).thenReturn(Optional.of(Collections.singleton("a.b")));
+        when(second.tryToSolveType("a.b.C")).thenReturn(SymbolReference.solved(mock(ResolvedReferenceTypeDeclaration.class)));
+        CombinedTypeSolver routedOnly = new CombinedTypeSolver(first);
+        routedOnly.setRoutingByPackage(true);
+        routedOnly.add(second);
+        assertTrue(routedOnly.tryToSolveType("a.b.C").isSolved());
+        verify(first).tryToSolveType("a.b.C");
+        assertEquals(Optional.of(new HashSet<>(Arrays.asList("a", "a.b"))), routedOnly.getKnownPackages());
+    }
+
+    @Test
+    void withoutRoutingAllSolversAreAsked() {
+        TypeSolver utilSolver = mock(TypeSolver.class);
+        when(utilSolver.getKnownPackages()).thenReturn(Optional.of(Collections.singleton("java.util")));
+        when(utilSolver.tryToSolveType(any())).thenReturn(SymbolReference.unsolved());
+        CombinedTypeSolver combinedSolver = new CombinedTypeSolver(utilSolver);
+
+        combinedSolver.tryToSolveType("java.lang.String");
+
+        verify(utilSolver).tryToSolveType("java.lang.String");
+        verify(utilSolver, never()).getKnownPackages();
+    }
+
+    @Test
+    void solvesTypesInPackagesCreatedAfterTheFirstLookup(@TempDir Path srcDir) throws IOException {
+        Files.createDirectories(srcDir.resolve("a"));
+        Files.write(srcDir.resolve("a/A.java"), "package a; public class A {}".getBytes(StandardCharsets.UTF_8));
+        CombinedTypeSolver combinedSolver = new CombinedTypeSolver(new JavaParserTypeSolver(srcDir));
+        assertTrue(combinedSolver.tryToSolveType("a.A").isSolved());
+
+        Files.createDirectories(srcDir.resolve("b"));
+        Files.write(srcDir.resolve("b/B.java"), "package b; public class B {}".getBytes(StandardCharsets.UTF_8));
+        assertTrue(combinedSolver.tryToSolveType("b.B").isSolved());
+    }
 }
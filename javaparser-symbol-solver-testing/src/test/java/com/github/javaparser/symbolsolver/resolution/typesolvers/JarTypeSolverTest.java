@@ -32,6 +32,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Supplier;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -177,4 +178,14 @@ class JarTypeSolverTest extends AbstractTypeSolverTest<JarTypeSolver> {
         assertTrue(jarTypeSolver2.tryToSolveType(typeB).isSolved());
         assertFalse(jarTypeSolver2.tryToSolveType(typeA).isSolved());
     }
+
+    @Test
+    void knownPackagesAreThePackagesOfTheKnownClasses() throws IOException {
+        JarTypeSolver jarTypeSolver1 = new JarTypeSolver(adaptPath("src/test/resources/jar1.jar"));
+        assertEquals(Optional.of(Sets.newHashSet("foo.bar")), jarTypeSolver1.getKnownPackages());
+
+        JarTypeSolver jarTypeSolver = JAR_TYPE_PROVIDER.get();
+        assertTrue(jarTypeSolver.getKnownPackages().get().contains("com.github.javaparser"));
+        assertFalse(jarTypeSolver.getKnownPackages().get().contains("java.lang"));
+    }
 }
@@ -31,7 +31,11 @@ import com.github.javaparser.symbolsolver.utils.LeanParserConfiguration;
 import com.github.javaparser.utils.CodeGenerationUtils;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 import org.junit.jupiter.api.Disabled;
@@ -79,6 +83,35 @@ class JavaParserTypeSolverTest extends AbstractTypeSolverTest<JavaParserTypeSolv
         typeSolver.tryToSolveType("folder.Test");
     }
 
+    @Test
+    void knownPackagesAreTheFoldersWithSourceFiles(@TempDir Path tempDir) throws IOException {
+        Files.createDirectories(tempDir.resolve("a/b/c"));
+        Files.createDirectories(tempDir.resolve("d"));
+        Files.write(tempDir.resolve("a/b/B.java"), "package a.b; class B {}".getBytes());
+        Files.write(tempDir.resolve("d/notes.txt"), "no sources".getBytes());
+        Files.write(tempDir.resolve("Root.java"), "class Root {}".getBytes());
+
+        JavaParserTypeSolver typeSolver = new JavaParserTypeSolver(tempDir);
+        assertEquals(Optional.of(new HashSet<>(Arrays.asList("", "a.b"))), typeSolver.getKnownPackages());
+    }
+
+    @Test
+    void recordsTheCacheStatisticsOnlyWhenAsked(@TempDir Path tempDir) throws IOException {
+        Files.write(tempDir.resolve("A.java"), "class A {}".getBytes());
+        assertTrue(new JavaParserTypeSolver(tempDir).getCacheStats().isEmpty());
+
+        System.setProperty(JavaParserTypeSolver.CACHE_STATS_PROPERTY, "true");
+        JavaParserTypeSolver typeSolver;
+        try {
+            typeSolver = new JavaParserTypeSolver(tempDir);
+        } finally {
+            System.clearProperty(JavaParserTypeSolver.CACHE_STATS_PROPERTY);
+        }
+        typeSolver.tryToSolveType("A");
+        typeSolver.tryToSolveType("A");
+        assertEquals(1, typeSolver.getCacheStats().get("foundTypes").hitCount());
+    }
+
     @Test
     public void givenJavaParserTypeSolver_tryToSolveClass_expectSuccess() {
         Path src = adaptPath("src/test/test_sourcecode/javaparser_new_src/javaparser-core");
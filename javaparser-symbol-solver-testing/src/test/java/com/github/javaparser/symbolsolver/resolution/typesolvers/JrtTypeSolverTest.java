@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2015-2016 Federico Tomassetti
+ * Copyright (C) 2017-2024 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver.resolution.typesolvers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.model.SymbolReference;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.javassistmodel.JavassistClassDeclaration;
+import java.io.IOException;
+import java.nio.file.Paths;
+import org.junit.jupiter.api.Test;
+
+class JrtTypeSolverTest extends AbstractTypeSolverTest<JrtTypeSolver> {
+
+    public JrtTypeSolverTest() {
+        super(JrtTypeSolver::new);
+    }
+
+    @Test
+    void solvesClassesOfTheImageWithoutLoadingThem() {
+        JrtTypeSolver typeSolver = new JrtTypeSolver();
+        SymbolReference<ResolvedReferenceTypeDeclaration> string = typeSolver.tryToSolveType("java.lang.String");
+        assertTrue(string.isSolved());
+        assertTrue(string.getCorrespondingDeclaration() instanceof JavassistClassDeclaration);
+        assertEquals("java.lang.String", string.getCorrespondingDeclaration().getQualifiedName());
+        assertSame(string.getCorrespondingDeclaration(), typeSolver.solveType("java.lang.String"));
+    }
+
+    @Test
+    void solvesNestedClassesAndNestedPackages() {
+        JrtTypeSolver typeSolver = new JrtTypeSolver();
+        assertEquals("java.util.Map.Entry", typeSolver.solveType("java.util.Map.Entry").getQualifiedName());
+        assertEquals("java.util.concurrent.Future", typeSolver.solveType("java.util.concurrent.Future").getQualifiedName());
+        assertFalse(typeSolver.hasType("java.util.Foo"));
+        assertFalse(typeSolver.hasType("java.util.Map.Foo"));
+        assertFalse(typeSolver.hasType("com.example.Foo"));
+        assertFalse(typeSolver.hasType("Foo"));
+    }
+
+    @Test
+    void knowsThePackagesOfTheImage() {
+        JrtTypeSolver typeSolver = new JrtTypeSolver();
+        assertTrue(typeSolver.getKnownPackages().get().contains("java.lang"));
+        assertTrue(typeSolver.getKnownPackages().get().contains("java.sql"));
+        assertFalse(typeSolver.getKnownPackages().get().contains("com.example"));
+    }
+
+    @Test
+    void readsTheImageOfAGivenJdk() throws IOException {
+        try (JrtTypeSolver typeSolver = new JrtTypeSolver(Paths.get(System.getProperty("java.home")))) {
+            assertTrue(typeSolver.hasType("java.lang.Object"));
+        }
+    }
+
+    @Test
+    void resolvesCallsOnJdkTypes() {
+        CombinedTypeSolver typeSolver = new CombinedTypeSolver(new JrtTypeSolver());
+        JavaParser parser = new JavaParser(new ParserConfiguration().setSymbolResolver(new JavaSymbolSolver(typeSolver)));
+        CompilationUnit cu = parser.parse("import java.util.*; class A { void m(List<String> l) { l.add(\"a\"); l.iterator().next().length(); } }")
+                .getResult().get();
+        assertEquals("java.util.List.add(E)", cu.findFirst(MethodCallExpr.class, m -> m.getNameAsString().equals("add")).get().resolve().getQualifiedSignature());
+        assertEquals("java.lang.String.length()", cu.findFirst(MethodCallExpr.class, m -> m.getNameAsString().equals("length")).get().resolve().getQualifiedSignature());
+    }
+}
@@ -54,6 +54,17 @@ class ReflectionTypeSolverTest extends ClassLoaderTypeSolverTest<ReflectionTypeS
         assertEquals(false, ts.hasType("foo.zum.unexisting"));
     }
 
+    @Test
+    void testHasNestedType() {
+        ReflectionTypeSolver ts = new ReflectionTypeSolver();
+        assertEquals(true, ts.hasType(java.util.Map.Entry.class.getCanonicalName()));
+        assertEquals(true, ts.hasType(java.lang.Character.UnicodeScript.class.getCanonicalName()));
+        assertEquals(false, ts.hasType("java.util.Map.Unexisting"));
+        assertEquals(
+                "java.util.Map.Entry",
+                ts.solveType("java.util.Map.Entry").getQualifiedName());
+    }
+
     @Test()
     void testInvalidArgumentNumber() throws IOException {
         Path file = adaptPath("src/test/resources/issue2366/Test.java");
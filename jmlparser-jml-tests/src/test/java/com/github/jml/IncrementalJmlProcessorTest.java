@@ -0,0 +1,165 @@
+package com.github.jml;
+
+import com.github.javaparser.*;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.stmt.ReturnStmt;
+import com.github.javaparser.jml.IncrementalJmlProcessor;
+import com.github.javaparser.jml.JmlProcessor;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalJmlProcessorTest {
+    private static final String SOURCE = "class A {\n" +
+            "    //@ requires x > 0;\n" +
+            "    //@ ensures \\result > 0;\n" +
+            "    int foo(int x) {\n" +
+            "        //@ assert x > 1;\n" +
+            "        int y = x;\n" +
+            "        return y;\n" +
+            "    }\n" +
+            "\n" +
+            "    /*@ pure */ int bar(Object o) { return 0; }\n" +
+            "}\n";
+
+    private static ParserConfiguration config(boolean keepJmlDocs) {
+        return new ParserConfiguration().setProcessJml(true).setKeepJmlDocs(keepJmlDocs).setTrackJmlDocs(true)
+                .setLanguageLevel(ParserConfiguration.LanguageLevel.RAW);
+    }
+
+    private static CompilationUnit parse(ParserConfiguration config, String source) {
+        ParseResult<CompilationUnit> r = new JavaParser(config).parse(source);
+        assertTrue(r.isSuccessful(), r.getProblems().toString());
+        return r.getResult().get();
+    }
+
+    private static void assertSameAsFullParse(ParserConfiguration config, CompilationUnit cu, String newSource) {
+        CompilationUnit expected = parse(config, newSource);
+        assertEquals(expected.toString(), cu.toString());
+        List<Node> expectedNodes = expected.findAll(Node.class);
+        List<Node> actualNodes = cu.findAll(Node.class);
+        assertEquals(expectedNodes.size(), actualNodes.size());
+        for (int i = 0; i < expectedNodes.size(); i++) {
+            Node node = expectedNodes.get(i);
+            assertEquals(node.getRange(), actualNodes.get(i).getRange(), () -> "range of " + node);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void editInsideMethodContract(boolean keepJmlDocs) {
+        ParserConfiguration config = config(keepJmlDocs);
+        CompilationUnit cu = parse(config, SOURCE);
+        TextEdit edit = TextEdit.edit(new Position(2, 18), new Position(2, 23), "x >= 0 && x < 10");
+        String newSource = edit.apply(SOURCE);
+
+        Optional<List<Problem>> problems = new IncrementalJmlProcessor(config).tryUpdate(cu, edit);
+        assertTrue(problems.isPresent());
+        assertTrue(problems.get().isEmpty());
+        assertTrue(cu.toString().contains("x >= 0 && x < 10"));
+        assertSameAsFullParse(config, cu, newSource);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void editInsideStatementComment(boolean keepJmlDocs) {
+        ParserConfiguration config = config(keepJmlDocs);
+        CompilationUnit cu = parse(config, SOURCE);
+        TextEdit edit = TextEdit.edit(new Position(5, 24), new Position(5, 25), "100 && x < 200");
+        String newSource = edit.apply(SOURCE);
+
+        Optional<List<Problem>> problems = new IncrementalJmlProcessor(config).tryUpdate(cu, edit);
+        assertTrue(problems.isPresent());
+        assertSameAsFullParse(config, cu, newSource);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void multiLineEditShiftsFollowingNodes(boolean keepJmlDocs) {
+        ParserConfiguration config = config(keepJmlDocs);
+        CompilationUnit cu = parse(config, SOURCE);
+        TextEdit edit = TextEdit.edit(new Position(10, 9), new Position(10, 13), "pure\n      @ helper\n   ");
+        String newSource = edit.apply(SOURCE);
+
+        assertTrue(new IncrementalJmlProcessor(config).tryUpdate(cu, edit).isPresent());
+        ReturnStmt ret = cu.findAll(ReturnStmt.class).get(1);
+        assertEquals(new Position(12, 28), ret.getBegin().get());
+        assertSameAsFullParse(config, cu, newSource);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void editInsideModifierComment(boolean keepJmlDocs) {
+        ParserConfiguration config = config(keepJmlDocs);
+        CompilationUnit cu = parse(config, SOURCE);
+        TextEdit edit = TextEdit.edit(new Position(10, 9), new Position(10, 13), "helper");
+        String newSource = edit.apply(SOURCE);
+
+        assertTrue(new IncrementalJmlProcessor(config).tryUpdate(cu, edit).isPresent());
+        assertSameAsFullParse(config, cu, newSource);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void editCrossingJavaCodeFallsBack(boolean keepJmlDocs) {
+        ParserConfiguration config = config(keepJmlDocs);
+        CompilationUnit cu = parse(config, SOURCE);
+        String before = cu.toString();
+        TextEdit edit = TextEdit.edit(new Position(3, 20), new Position(4, 9), "");
+        String newSource = edit.apply(SOURCE);
+
+        IncrementalJmlProcessor processor = new IncrementalJmlProcessor(config);
+        assertFalse(processor.tryUpdate(cu, edit).isPresent());
+        assertEquals(before, cu.toString());
+
+        ParseResult<CompilationUnit> r = processor.update(cu, edit, newSource);
+        assertNotSame(cu, r.getResult().get());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void editDestroyingTheJmlCommentFallsBack(boolean keepJmlDocs) {
+        ParserConfiguration config = config(keepJmlDocs);
+        CompilationUnit cu = parse(config, SOURCE);
+        String before = cu.toString();
+        TextEdit edit = TextEdit.edit(new Position(2, 7), new Position(2, 8), "");
+
+        assertFalse(new IncrementalJmlProcessor(config).tryUpdate(cu, edit).isPresent());
+        assertFalse(cu.findFirst(MethodDeclaration.class).get().getContracts().isEmpty());
+        assertEquals(before, cu.toString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void untrackedJmlCommentsFallBack(boolean keepJmlDocs) {
+        ParserConfiguration config = config(keepJmlDocs).setTrackJmlDocs(false);
+        CompilationUnit cu = parse(config, SOURCE);
+        TextEdit edit = TextEdit.edit(new Position(2, 18), new Position(2, 23), "x >= 0 && x < 10");
+
+        assertFalse(JmlProcessor.getJmlDocContainers(cu).isPresent());
+        assertFalse(cu.findFirst(Node.class, n -> n.containsData(JmlProcessor.JML_ORIGIN)).isPresent());
+        assertFalse(new IncrementalJmlProcessor(config).tryUpdate(cu, edit).isPresent());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void editOfACloneLeavesTheOriginalUntouched(boolean keepJmlDocs) {
+        ParserConfiguration config = config(keepJmlDocs);
+        CompilationUnit cu = parse(config, SOURCE);
+        List<Node> containers = JmlProcessor.getJmlDocContainers(cu).get();
+        int size = containers.size();
+        CompilationUnit clone = cu.clone();
+        TextEdit edit = TextEdit.edit(new Position(2, 18), new Position(2, 23), "x >= 0 && x < 10");
+
+        assertFalse(JmlProcessor.getJmlDocContainers(clone).isPresent());
+        assertFalse(new IncrementalJmlProcessor(config).tryUpdate(clone, edit).isPresent());
+        assertSame(containers, JmlProcessor.getJmlDocContainers(cu).get());
+        assertEquals(size, containers.size());
+    }
+}
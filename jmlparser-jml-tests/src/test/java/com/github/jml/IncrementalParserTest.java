@@ -0,0 +1,227 @@
+package com.github.jml;
+
+import com.github.javaparser.*;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.observer.AstObserverAdapter;
+import com.github.javaparser.ast.stmt.Statement;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalParserTest {
+    private static final String SOURCE = "package p;\n" +
+            "\n" +
+            "import java.util.List;\n" +
+            "\n" +
+            "/** The class. */\n" +
+            "class A {\n" +
+            "    int f = 1; // trailing\n" +
+            "\n" +
+            "    //@ requires x > 0;\n" +
+            "    //@ ensures \\result > 0;\n" +
+            "    int foo(int x) {\n" +
+            "        //@ assert x > 1;\n" +
+            "        int y = x;\n" +
+            "        // about the loop\n" +
+            "        for (int i = 0; i < y; i++) {\n" +
+            "            y += i * 2;\n" +
+            "        }\n" +
+            "        return y;\n" +
+            "    }\n" +
+            "\n" +
+            "    A(int a) {\n" +
+            "        this();\n" +
+            "        f = a; /* after */\n" +
+            "    }\n" +
+            "\n" +
+            "    A() {\n" +
+            "    }\n" +
+            "\n" +
+            "    /*@ pure */ int bar(Object o) {\n" +
+            "        switch (o.hashCode()) {\n" +
+            "            case 1:\n" +
+            "                return 2;\n" +
+            "            default:\n" +
+            "                Runnable r = () -> { System.out.println(o); };\n" +
+            "                r.run();\n" +
+            "        }\n" +
+            "        return new Object() {\n" +
+            "            int g() { return f + 1; }\n" +
+            "        }.g();\n" +
+            "    }\n" +
+            "\n" +
+            "    enum E {\n" +
+            "        X, Y;\n" +
+            "        void h() { int z = 0; }\n" +
+            "    }\n" +
+            "}\n";
+
+    private static final String[] SNIPPETS = {"", " ", "\n", "x", "1", ";", "a();", "int q = 2;", "{", "}", "(", ")",
+            "/* c */", "// c\n", "\"s\"", "if (x > 0) ", "return;", " + 1", ",", "y++;", "//@ assert y > 0;\n", "{ y--; }"};
+
+    private static ParserConfiguration config(boolean processJml, boolean keepJmlDocs) {
+        return new ParserConfiguration().setProcessJml(processJml).setKeepJmlDocs(keepJmlDocs).setTrackJmlDocs(true)
+                .setLanguageLevel(ParserConfiguration.LanguageLevel.RAW);
+    }
+
+    private static CompilationUnit parse(ParserConfiguration config, String source) {
+        ParseResult<CompilationUnit> r = new JavaParser(config).parse(source);
+        assertTrue(r.isSuccessful(), r.getProblems().toString());
+        return r.getResult().get();
+    }
+
+    /**
+     * Everything that has to agree with a full parse: the printed code, the ranges of all nodes and comments, and
+     * the text and range of all tokens.
+     */
+    private static String describe(CompilationUnit cu) {
+        StringBuilder sb = new StringBuilder(cu.toString());
+        // the order of the child nodes is the order in which they were set, so it depends on how the AST was built
+        cu.findAll(Node.class).stream()
+                .map(node -> node.getRange() + " " + node.getClass().getSimpleName() + '\n')
+                .sorted()
+                .forEach(sb::append);
+        cu.getAllContainedComments().stream()
+                .map(comment -> comment.getRange() + " on " + comment.getCommentedNode().map(n -> n.getClass().getSimpleName()) + '\n')
+                .sorted()
+                .forEach(sb::append);
+        cu.getTokenRange().ifPresent(tokens -> {
+            for (JavaToken token : tokens) {
+                sb.append(token.getText()).append(' ').append(token.getRange()).append('\n');
+            }
+        });
+        return sb.toString();
+    }
+
+    private static void assertSameDescription(CompilationUnit expected, CompilationUnit actual, Supplier<String> context) {
+        String[] expectedLines = describe(expected).split("\n", -1);
+        String[] actualLines = describe(actual).split("\n", -1);
+        for (int i = 0; i < Math.min(expectedLines.length, actualLines.length); i++) {
+            if (!expectedLines[i].equals(actualLines[i])) {
+                fail(context.get() + "\nline " + i + ": expected <" + expectedLines[i] + "> but was <" + actualLines[i] + ">");
+            }
+        }
+        assertEquals(expectedLines.length, actualLines.length, context);
+    }
+
+    private static Position positionOf(String text, int offset) {
+        return TextEdit.advance(new Position(Position.FIRST_LINE, Position.FIRST_COLUMN), text.substring(0, offset));
+    }
+
+    @Test
+    void reparsesOnlyTheEditedStatement() {
+        ParserConfiguration config = config(true, false);
+        CompilationUnit cu = parse(config, SOURCE);
+        MethodDeclaration foo = cu.findFirst(MethodDeclaration.class).get();
+        Statement second = foo.getBody().get().getStatement(1);
+        List<Node> replaced = new ArrayList<>();
+        cu.registerForSubtree(new AstObserverAdapter() {
+            @Override
+            public void listReplacement(NodeList<?> observedNode, int index, Node oldNode, Node newNode) {
+                replaced.add(oldNode);
+            }
+        });
+        int offset = SOURCE.indexOf("i * 2") + 4;
+        TextEdit edit = TextEdit.edit(positionOf(SOURCE, offset), positionOf(SOURCE, offset + 1), "(y - 3)");
+        String newSource = edit.apply(SOURCE);
+
+        ParseResult<CompilationUnit> result = new IncrementalParser(config).update(cu, edit, newSource);
+        assertSame(cu, result.getResult().get());
+        assertSame(foo, cu.findFirst(MethodDeclaration.class).get());
+        assertSame(second, foo.getBody().get().getStatement(1));
+        assertEquals(1, replaced.size());
+        assertEquals("y += i * 2;", replaced.get(0).toString());
+        assertSameDescription(parse(config, newSource), cu, () -> newSource);
+    }
+
+    @Test
+    void reparsesTheBlockIfAStatementIsSplit() {
+        ParserConfiguration config = config(true, false);
+        CompilationUnit cu = parse(config, SOURCE);
+        int offset = SOURCE.indexOf("return y;") + "return".length();
+        TextEdit edit = TextEdit.insertion(positionOf(SOURCE, offset), "; y++; return");
+        String newSource = edit.apply(SOURCE);
+
+        ParseResult<CompilationUnit> result = new IncrementalParser(config).update(cu, edit, newSource);
+        assertSame(cu, result.getResult().get());
+        assertSameDescription(parse(config, newSource), cu, () -> newSource);
+    }
+
+    @Test
+    void parsesEverythingForEditsOfTheTypeHeader() {
+        ParserConfiguration config = config(true, false);
+        CompilationUnit cu = parse(config, SOURCE);
+        int offset = SOURCE.indexOf("class A") + "class A".length();
+        TextEdit edit = TextEdit.insertion(positionOf(SOURCE, offset), "B");
+        String newSource = edit.apply(SOURCE);
+
+        ParseResult<CompilationUnit> result = new IncrementalParser(config).update(cu, edit, newSource);
+        assertNotSame(cu, result.getResult().get());
+        assertEquals("AB", result.getResult().get().getType(0).getNameAsString());
+    }
+
+    @Test
+    void keepsTheContractOfAReparsedMethod() {
+        ParserConfiguration config = config(true, false);
+        CompilationUnit cu = parse(config, SOURCE);
+        int offset = SOURCE.indexOf("int foo(int x)") + "int foo(int".length();
+        TextEdit edit = TextEdit.insertion(positionOf(SOURCE, offset), "eger");
+        String newSource = edit.apply(SOURCE);
+
+        ParseResult<CompilationUnit> result = new IncrementalParser(config).update(cu, edit, newSource);
+        assertTrue(result.isSuccessful(), result.getProblems().toString());
+        assertSameDescription(parse(config, newSource), result.getResult().get(), () -> newSource);
+    }
+
+    /**
+     * Applies random edits one after the other to the same compilation unit, and compares it with a full parse of
+     * the edited source after every edit.
+     */
+    @ParameterizedTest
+    @CsvSource({"1, false, false", "2, true, false", "3, true, true"})
+    void sameAsFullParse(long seed, boolean processJml, boolean keepJmlDocs) {
+        ParserConfiguration config = config(processJml, keepJmlDocs);
+        IncrementalParser incrementalParser = new IncrementalParser(config);
+        Random random = new Random(seed);
+        String source = SOURCE;
+        CompilationUnit cu = parse(config, source);
+        int incremental = 0;
+        int edits = 0;
+        for (int i = 0; i < 400; i++) {
+            int from = random.nextInt(source.length() + 1);
+            int to = Math.min(source.length(), from + (random.nextInt(3) == 0 ? random.nextInt(4) : 0));
+            TextEdit edit = TextEdit.edit(positionOf(source, from), positionOf(source, to), SNIPPETS[random.nextInt(SNIPPETS.length)]);
+            String newSource = edit.apply(source);
+            ParseResult<CompilationUnit> full = new JavaParser(config).parse(newSource);
+            ParseResult<CompilationUnit> result = incrementalParser.update(cu, edit, newSource);
+            if (!full.isSuccessful()) {
+                assertFalse(result.isSuccessful(), () -> edit + " on\n" + newSource);
+                if (result.getResult().orElse(null) == cu) {
+                    // updated in place with problems, go on from the last valid source
+                    cu = parse(config, source);
+                }
+                continue;
+            }
+            assertTrue(result.isSuccessful(), () -> edit + ": " + result.getProblems());
+            assertSameDescription(full.getResult().get(), result.getResult().get(), () -> edit + " on\n" + newSource);
+            if (result.getResult().get() == cu) {
+                incremental++;
+            }
+            edits++;
+            cu = result.getResult().get();
+            source = newSource;
+        }
+        assertTrue(edits > 50, "only " + edits + " valid edits");
+        assertTrue(incremental > edits / 3, "only " + incremental + " of " + edits + " edits were incremental");
+    }
+}
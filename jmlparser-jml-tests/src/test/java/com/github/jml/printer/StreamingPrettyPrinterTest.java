@@ -0,0 +1,97 @@
+package com.github.jml.printer;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.printer.StreamingPrettyPrinter;
+import com.github.javaparser.printer.configuration.ConfigurationOption;
+import com.github.javaparser.printer.configuration.DefaultConfigurationOption;
+import com.github.javaparser.printer.configuration.DefaultPrinterConfiguration;
+import com.github.javaparser.printer.configuration.DefaultPrinterConfiguration.ConfigOption;
+import com.github.javaparser.printer.configuration.Indentation;
+import com.github.javaparser.printer.configuration.Indentation.IndentType;
+import com.github.javaparser.printer.configuration.PrinterConfiguration;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the {@link StreamingPrettyPrinter} with {@link CompilationUnit#toString()} on the full examples.
+ */
+class StreamingPrettyPrinterTest {
+    private static final File dir = new File("src/test/resources/fullexamples").getAbsoluteFile();
+
+    @Test
+    void jmlContractsAsAtBlocks() {
+        ParserConfiguration config = new ParserConfiguration().setProcessJml(true)
+                .setLanguageLevel(ParserConfiguration.LanguageLevel.RAW);
+        CompilationUnit cu = new JavaParser(config).parse("class A {\n" +
+                "    /*@ requires x > 0;\n" +
+                "      @ ensures \\result > 0; */\n" +
+                "    int foo(int x) { return x; }\n" +
+                "}\n").getResult().get();
+        String printed = StreamingPrettyPrinter.forJml().print(cu);
+        assertTrue(printed.contains("/*@"), printed);
+        assertTrue(printed.contains("@*/"), printed);
+        assertFalse(cu.toString().contains("@*/"));
+    }
+
+    @Test
+    void forJmlDoesNotChangeTheGivenConfiguration() {
+        Indentation tabs = new Indentation(IndentType.TABS, 1);
+        PrinterConfiguration configuration = new DefaultPrinterConfiguration()
+                .addOption(new DefaultConfigurationOption(ConfigOption.INDENTATION, tabs));
+        StreamingPrettyPrinter printer = StreamingPrettyPrinter.forJml(configuration);
+
+        ConfigurationOption jmlBlocks = new DefaultConfigurationOption(ConfigOption.JML_BLOCK_COMMENT_END_WITH_AT);
+        assertFalse(configuration.isActivated(jmlBlocks));
+        assertTrue(printer.getConfiguration().isActivated(jmlBlocks));
+        assertEquals(configuration.get(new DefaultConfigurationOption(ConfigOption.INDENTATION)),
+                printer.getConfiguration().get(new DefaultConfigurationOption(ConfigOption.INDENTATION)));
+    }
+
+    @Test
+    void sameOutputAsToString() throws IOException {
+        JavaParser parser = jmlParser();
+        StreamingPrettyPrinter printer = new StreamingPrettyPrinter();
+        for (Path file : fullExamples()) {
+            ParseResult<CompilationUnit> result = parser.parse(Files.readString(file));
+            if (!result.isSuccessful()) {
+                continue;
+            }
+            CompilationUnit cu = result.getResult().get();
+            StringWriter out = new StringWriter();
+            printer.print(cu, out);
+            assertEquals(normalize(cu.toString()), normalize(out.toString()), file.toString());
+        }
+    }
+
+    private static JavaParser jmlParser() {
+        ParserConfiguration config = new ParserConfiguration();
+        config.setKeepJmlDocs(false);
+        config.setProcessJml(true);
+        return new JavaParser(config);
+    }
+
+    private static List<Path> fullExamples() throws IOException {
+        Assumptions.assumeTrue(dir.exists());
+        try (Stream<Path> s = Files.walk(dir.toPath())) {
+            return s.filter(it -> it.toString().endsWith(".java")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static String normalize(String s) {
+        return s.replace("\r\n", "\n");
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.jml.resolution;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.jml.clauses.JmlContract;
+import com.github.javaparser.ast.jml.expr.JmlQuantifiedExpr;
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.declarations.ResolvedValueDeclaration;
+import com.github.javaparser.resolution.model.SymbolReference;
+import com.github.javaparser.resolution.types.ResolvedPrimitiveType;
+import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFacade;
+import com.github.javaparser.symbolsolver.javaparsermodel.contexts.jml.JmlBuiltins;
+import com.github.javaparser.symbolsolver.javaparsermodel.contexts.jml.JmlContractContext;
+import com.github.javaparser.symbolsolver.javaparsermodel.contexts.jml.JmlQuantifiedExprContext;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JmlBuiltinsResolutionTest {
+    private static final String SOURCE = "class A {\n" +
+            "    int f;\n" +
+            "    /*@ requires (\\forall int i; 0 <= i; i < f);\n" +
+            "      @ ensures \\result == \\old(f) && \\fresh(this);\n" +
+            "      @*/\n" +
+            "    long foo(int x) { return x; }\n" +
+            "}\n";
+
+    private final TypeSolver typeSolver = new ReflectionTypeSolver();
+
+    private CompilationUnit parse() {
+        ParseResult<CompilationUnit> result = new JavaParser(new ParserConfiguration().setProcessJml(true)).parse(SOURCE);
+        assertTrue(result.isSuccessful(), result.getProblems().toString());
+        return result.getResult().get();
+    }
+
+    private static Node declarationOf(SymbolReference<? extends ResolvedValueDeclaration> reference) {
+        assertTrue(reference.isSolved());
+        return reference.getCorrespondingDeclaration().toAst().get();
+    }
+
+    private ResolvedPrimitiveType typeOfCall(CompilationUnit cu, String name) {
+        MethodCallExpr call = cu.findFirst(MethodCallExpr.class, m -> m.getNameAsString().equals(name)).get();
+        JmlBuiltins.Builtin builtin = JmlBuiltins.function(name).get();
+        assertTrue(builtin.accepts(call.getArguments().size()));
+        return builtin.resolveType(call.getArguments(), arg -> JavaParserFacade.get(typeSolver).getType(arg))
+                .asPrimitive();
+    }
+
+    @Test
+    void builtins() {
+        CompilationUnit cu = parse();
+        JmlContract contract = cu.findFirst(JmlContract.class).get();
+        SymbolReference<? extends ResolvedValueDeclaration> result = new JmlContractContext(contract, typeSolver).solveSymbol("\\result");
+        assertTrue(result.isSolved());
+        assertEquals(ResolvedPrimitiveType.LONG, result.getCorrespondingDeclaration().getType());
+        assertEquals(ResolvedPrimitiveType.INT, typeOfCall(cu, "\\old"));
+        assertEquals(ResolvedPrimitiveType.BOOLEAN, typeOfCall(cu, "\\fresh"));
+    }
+
+    @Test
+    void quantifierBindingsFollowChanges() {
+        CompilationUnit cu = parse();
+        JmlQuantifiedExpr quantifier = cu.findFirst(JmlQuantifiedExpr.class).get();
+        JmlQuantifiedExprContext context = new JmlQuantifiedExprContext(quantifier, typeSolver);
+        Parameter variable = quantifier.getVariables().get(0);
+        assertSame(variable, declarationOf(context.solveSymbol("i")));
+
+        variable.setName("j");
+        assertFalse(context.solveSymbol("i").isSolved());
+        variable.setName("i");
+        assertSame(variable, declarationOf(context.solveSymbol("i")));
+    }
+
+    @Test
+    void cloneDoesNotUseTheBindingsOfTheOriginal() {
+        CompilationUnit cu = parse();
+        JmlQuantifiedExpr quantifier = cu.findFirst(JmlQuantifiedExpr.class).get();
+        assertSame(quantifier.getVariables().get(0),
+                declarationOf(new JmlQuantifiedExprContext(quantifier, typeSolver).solveSymbol("i")));
+
+        CompilationUnit clone = cu.clone();
+        JmlQuantifiedExpr clonedQuantifier = clone.findFirst(JmlQuantifiedExpr.class).get();
+        JmlQuantifiedExprContext context = new JmlQuantifiedExprContext(clonedQuantifier, typeSolver);
+        Parameter variable = clonedQuantifier.getVariables().get(0);
+        assertSame(variable, declarationOf(context.solveSymbol("i")));
+
+        variable.setName("j");
+        assertFalse(context.solveSymbol("i").isSolved());
+    }
+}